@@ -16,16 +16,17 @@
 package software.amazon.awssdk.auth.signer.internal;
 
 import static software.amazon.awssdk.utils.DateUtils.numberOfDaysSinceEpoch;
-import static software.amazon.awssdk.utils.StringUtils.lowerCase;
 
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.security.InvalidKeyException;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
@@ -39,6 +40,7 @@ import software.amazon.awssdk.core.signer.Presigner;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.utils.BinaryUtils;
 import software.amazon.awssdk.utils.Logger;
+import software.amazon.awssdk.utils.StringUtils;
 import software.amazon.awssdk.utils.http.SdkHttpUtils;
 
 /**
@@ -56,6 +58,7 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
     private static final int SIGNER_CACHE_MAX_SIZE = 300;
     private static final FifoCache<SignerKey> SIGNER_CACHE =
         new FifoCache<>(SIGNER_CACHE_MAX_SIZE);
+    private static final char LINE_SEPARATOR = '\n';
     private static final List<String> LIST_OF_HEADERS_TO_IGNORE_IN_LOWER_CASE =
         Arrays.asList("connection", "x-amzn-trace-id", "user-agent", "expect");
 
@@ -77,16 +80,19 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
                       .filter(h -> h.equals("required"))
                       .ifPresent(h -> mutableRequest.putHeader(SignerConstant.X_AMZ_CONTENT_SHA256, contentSha256));
 
-        String canonicalRequest = createCanonicalRequest(mutableRequest, contentSha256, signingParams.doubleUrlEncode());
+        Map<String, List<String>> headers = mutableRequest.headers();
+        CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+        String signedHeaders = sortSignedHeaders(buffer, headers);
 
-        String stringToSign = createStringToSign(canonicalRequest, requestParams);
+        byte[] canonicalRequestHash = hashCanonicalRequest(buffer, mutableRequest, headers, signedHeaders, contentSha256,
+                                                           signingParams.doubleUrlEncode());
 
         byte[] signingKey = deriveSigningKey(sanitizedCredentials, requestParams);
 
-        byte[] signature = computeSignature(stringToSign, signingKey);
+        byte[] signature = computeSignature(buffer, canonicalRequestHash, requestParams, signingKey);
 
         mutableRequest.putHeader(SignerConstant.AUTHORIZATION,
-                                 buildAuthorizationHeader(signature, sanitizedCredentials, requestParams, mutableRequest));
+                                 buildAuthorizationHeader(signature, sanitizedCredentials, requestParams, signedHeaders));
 
         processRequestPayload(mutableRequest, signature, signingKey, requestParams, signingParams);
 
@@ -118,13 +124,16 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
 
         String contentSha256 = calculateContentHashPresign(mutableRequest, signingParams);
 
-        String canonicalRequest = createCanonicalRequest(mutableRequest, contentSha256, signingParams.doubleUrlEncode());
+        Map<String, List<String>> headers = mutableRequest.headers();
+        CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+        String signedHeaders = sortSignedHeaders(buffer, headers);
 
-        String stringToSign = createStringToSign(canonicalRequest, requestParams);
+        byte[] canonicalRequestHash = hashCanonicalRequest(buffer, mutableRequest, headers, signedHeaders, contentSha256,
+                                                           signingParams.doubleUrlEncode());
 
         byte[] signingKey = deriveSigningKey(sanitizedCredentials, requestParams);
 
-        byte[] signature = computeSignature(stringToSign, signingKey);
+        byte[] signature = computeSignature(buffer, canonicalRequestHash, requestParams, signingKey);
 
         mutableRequest.putRawQueryParameter(SignerConstant.X_AMZ_SIGNATURE, BinaryUtils.toHex(signature));
 
@@ -165,8 +174,8 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
      */
     protected byte[] deriveSigningKey(AwsCredentials credentials, Aws4SignerRequestParams signerRequestParams) {
 
-        String cacheKey = computeSigningCacheKeyName(credentials, signerRequestParams);
         long daysSinceEpochSigningDate = numberOfDaysSinceEpoch(signerRequestParams.getSigningDateTimeMilli());
+        String cacheKey = computeSigningCacheKeyName(credentials, signerRequestParams, daysSinceEpochSigningDate);
 
         SignerKey signerKey = SIGNER_CACHE.get(cacheKey);
 
@@ -189,26 +198,32 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
      * http://docs.aws
      * .amazon.com/general/latest/gr/sigv4-create-canonical-request.html to
      * generate the canonical request.
+     *
+     * <p>The canonical request is written straight into the given buffer, which must already hold the sorted names of the
+     * headers to sign, and only its hash is returned.</p>
      */
-    private String createCanonicalRequest(SdkHttpFullRequest.Builder request,
-                                          String contentSha256,
-                                          boolean doubleUrlEncode) {
-
-        String canonicalRequest = request.method().toString() +
-                                  SignerConstant.LINE_SEPARATOR +
-                                  // This would optionally double url-encode the resource path
-                                  getCanonicalizedResourcePath(request.encodedPath(), doubleUrlEncode) +
-                                  SignerConstant.LINE_SEPARATOR +
-                                  getCanonicalizedQueryString(request.rawQueryParameters()) +
-                                  SignerConstant.LINE_SEPARATOR +
-                                  getCanonicalizedHeaderString(request.headers()) +
-                                  SignerConstant.LINE_SEPARATOR +
-                                  getSignedHeadersString(request.headers()) +
-                                  SignerConstant.LINE_SEPARATOR +
-                                  contentSha256;
-
-        LOG.trace(() -> "AWS4 Canonical Request: " + canonicalRequest);
-        return canonicalRequest;
+    private byte[] hashCanonicalRequest(CanonicalRequestBuffer buffer,
+                                        SdkHttpFullRequest.Builder request,
+                                        Map<String, List<String>> headers,
+                                        String signedHeaders,
+                                        String contentSha256,
+                                        boolean doubleUrlEncode) {
+        buffer.reset();
+        buffer.append(request.method().toString()).append(LINE_SEPARATOR);
+        // This would optionally double url-encode the resource path
+        appendCanonicalizedResourcePath(buffer, request.encodedPath(), doubleUrlEncode);
+        buffer.append(LINE_SEPARATOR);
+        appendCanonicalizedQueryString(buffer, request.rawQueryParameters());
+        buffer.append(LINE_SEPARATOR);
+        appendCanonicalizedHeaderString(buffer, headers);
+        buffer.append(LINE_SEPARATOR)
+              .append(signedHeaders)
+              .append(LINE_SEPARATOR)
+              .append(contentSha256);
+        buffer.clearHeaderNames();
+
+        LOG.trace(() -> "AWS4 Canonical Request: " + buffer);
+        return hash(buffer);
     }
 
     /**
@@ -216,19 +231,19 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
      * http://docs.aws
      * .amazon.com/general/latest/gr/sigv4-create-string-to-sign.html.
      */
-    private String createStringToSign(String canonicalRequest,
-                                      Aws4SignerRequestParams requestParams) {
-
-        String stringToSign = requestParams.getSigningAlgorithm() +
-                                    SignerConstant.LINE_SEPARATOR +
-                                    requestParams.getFormattedSigningDateTime() +
-                                    SignerConstant.LINE_SEPARATOR +
-                                    requestParams.getScope() +
-                                    SignerConstant.LINE_SEPARATOR +
-                                    BinaryUtils.toHex(hash(canonicalRequest));
-
-        LOG.debug(() -> "AWS4 String to sign: " + stringToSign);
-        return stringToSign;
+    private void writeStringToSign(CanonicalRequestBuffer buffer,
+                                   byte[] canonicalRequestHash,
+                                   Aws4SignerRequestParams requestParams) {
+        buffer.reset();
+        buffer.append(requestParams.getSigningAlgorithm())
+              .append(LINE_SEPARATOR)
+              .append(requestParams.getFormattedSigningDateTime())
+              .append(LINE_SEPARATOR)
+              .append(requestParams.getScope())
+              .append(LINE_SEPARATOR)
+              .appendHex(canonicalRequestHash);
+
+        LOG.debug(() -> "AWS4 String to sign: " + buffer);
     }
 
 
@@ -236,9 +251,24 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
      * Computes the name to be used to reference the signing key in the cache.
      */
     private String computeSigningCacheKeyName(AwsCredentials credentials,
-                                              Aws4SignerRequestParams signerRequestParams) {
+                                              Aws4SignerRequestParams signerRequestParams,
+                                              long daysSinceEpochSigningDate) {
         return credentials.secretAccessKey() + "-" + signerRequestParams.getRegionName() + "-" +
-               signerRequestParams.getServiceSigningName();
+               signerRequestParams.getServiceSigningName() + "-" + daysSinceEpochSigningDate;
+    }
+
+    /**
+     * Returns the number of signing key lookups, across all signers, that were served from the signing key cache.
+     */
+    public static long signingKeyCacheHitCount() {
+        return SIGNER_CACHE.hitCount();
+    }
+
+    /**
+     * Returns the number of signing key lookups, across all signers, that had to derive a new signing key.
+     */
+    public static long signingKeyCacheMissCount() {
+        return SIGNER_CACHE.missCount();
     }
 
     /**
@@ -247,9 +277,22 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
      * http://docs.aws.amazon
      * .com/general/latest/gr/sigv4-calculate-signature.html
      */
-    private byte[] computeSignature(String stringToSign, byte[] signingKey) {
-        return sign(stringToSign.getBytes(Charset.forName("UTF-8")), signingKey,
-                    SigningAlgorithm.HmacSHA256);
+    private byte[] computeSignature(CanonicalRequestBuffer buffer,
+                                    byte[] canonicalRequestHash,
+                                    Aws4SignerRequestParams requestParams,
+                                    byte[] signingKey) {
+        writeStringToSign(buffer, canonicalRequestHash, requestParams);
+        try {
+            Mac mac = SigningAlgorithm.HmacSHA256.getMac();
+            mac.init(new SecretKeySpec(signingKey, SigningAlgorithm.HmacSHA256.toString()));
+            buffer.updateMac(mac);
+            return mac.doFinal();
+        } catch (InvalidKeyException e) {
+            throw SdkClientException.builder()
+                                    .message("Unable to calculate a request signature: " + e.getMessage())
+                                    .cause(e)
+                                    .build();
+        }
     }
 
     /**
@@ -258,12 +301,11 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
     private String buildAuthorizationHeader(byte[] signature,
                                             AwsCredentials credentials,
                                             Aws4SignerRequestParams signerParams,
-                                            SdkHttpFullRequest.Builder mutableRequest) {
+                                            String signedHeaders) {
 
         String signingCredentials = credentials.accessKeyId() + "/" + signerParams.getScope();
         String credential = "Credential=" + signingCredentials;
-        String signerHeaders = "SignedHeaders=" +
-                               getSignedHeadersString(mutableRequest.headers());
+        String signerHeaders = "SignedHeaders=" + signedHeaders;
         String signatureHeader = "Signature=" + BinaryUtils.toHex(signature);
 
         return SignerConstant.AWS4_SIGNING_ALGORITHM + " " + credential + ", " + signerHeaders + ", " + signatureHeader;
@@ -283,98 +325,77 @@ public abstract class AbstractAws4Signer<T extends Aws4SignerParams, U extends A
         mutableRequest.putRawQueryParameter(SignerConstant.X_AMZ_ALGORITHM, SignerConstant.AWS4_SIGNING_ALGORITHM);
         mutableRequest.putRawQueryParameter(SignerConstant.X_AMZ_DATE, timeStamp);
         mutableRequest.putRawQueryParameter(SignerConstant.X_AMZ_SIGNED_HEADER,
-                                            getSignedHeadersString(mutableRequest.headers()));
+                                            sortSignedHeaders(CanonicalRequestBuffer.forCurrentThread(),
+                                                              mutableRequest.headers()));
         mutableRequest.putRawQueryParameter(SignerConstant.X_AMZ_EXPIRES,
                                             Long.toString(expirationInSeconds));
         mutableRequest.putRawQueryParameter(SignerConstant.X_AMZ_CREDENTIAL, signingCredentials);
     }
 
 
-    private String getCanonicalizedHeaderString(Map<String, List<String>> headers) {
-        List<String> sortedHeaders = new ArrayList<>(headers.keySet());
-        sortedHeaders.sort(String.CASE_INSENSITIVE_ORDER);
+    private void appendCanonicalizedResourcePath(CanonicalRequestBuffer buffer, String resourcePath, boolean urlEncode) {
+        if (StringUtils.isEmpty(resourcePath)) {
+            buffer.append('/');
+            return;
+        }
+        if (resourcePath.charAt(0) != '/') {
+            buffer.append('/');
+        }
+        if (urlEncode) {
+            buffer.appendUriEncoded(resourcePath, true);
+        } else {
+            buffer.append(resourcePath);
+        }
+    }
 
-        StringBuilder buffer = new StringBuilder();
-        for (String header : sortedHeaders) {
-            if (shouldExcludeHeaderFromSigning(header)) {
-                continue;
-            }
-            String key = lowerCase(header);
+    private void appendCanonicalizedQueryString(CanonicalRequestBuffer buffer, Map<String, List<String>> parameters) {
+        if (!parameters.isEmpty()) {
+            buffer.append(getCanonicalizedQueryString(parameters));
+        }
+    }
 
+    private void appendCanonicalizedHeaderString(CanonicalRequestBuffer buffer, Map<String, List<String>> headers) {
+        for (int i = 0; i < buffer.headerNameCount(); i++) {
+            String header = buffer.headerName(i);
             for (String headerValue : headers.get(header)) {
-                appendCompactedString(buffer, key);
-                buffer.append(":");
+                buffer.appendCompacted(header, true).append(':');
                 if (headerValue != null) {
-                    appendCompactedString(buffer, headerValue);
+                    buffer.appendCompacted(headerValue, false);
                 }
-                buffer.append("\n");
+                buffer.append(LINE_SEPARATOR);
             }
         }
-
-        return buffer.toString();
     }
 
     /**
-     * This method appends a string to a string builder and collapses contiguous
-     * white space is a single space.
-     *
-     * This is equivalent to:
-     *      destination.append(source.replaceAll("\\s+", " "))
-     * but does not create a Pattern object that needs to compile the match
-     * string; it also prevents us from having to make a Matcher object as well.
-     *
+     * Collects the names of the headers to sign into the buffer, sorted case insensitively, and returns them as the
+     * semicolon separated signed headers string.
      */
-    private void appendCompactedString(final StringBuilder destination, final String source) {
-        boolean previousIsWhiteSpace = false;
-        int length = source.length();
-
-        for (int i = 0; i < length; i++) {
-            char ch = source.charAt(i);
-            if (isWhiteSpace(ch)) {
-                if (previousIsWhiteSpace) {
-                    continue;
-                }
-                destination.append(' ');
-                previousIsWhiteSpace = true;
-            } else {
-                destination.append(ch);
-                previousIsWhiteSpace = false;
+    private String sortSignedHeaders(CanonicalRequestBuffer buffer, Map<String, List<String>> headers) {
+        for (String header : headers.keySet()) {
+            if (!shouldExcludeHeaderFromSigning(header)) {
+                buffer.addHeaderName(header);
             }
         }
-    }
+        buffer.sortHeaderNames();
 
-    /**
-     * Tests a char to see if is it whitespace.
-     * This method considers the same characters to be white
-     * space as the Pattern class does when matching \s
-     *
-     * @param ch the character to be tested
-     * @return true if the character is white  space, false otherwise.
-     */
-    private boolean isWhiteSpace(final char ch) {
-        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000b' || ch == '\r' || ch == '\f';
-    }
-
-    private String getSignedHeadersString(Map<String, List<String>> headers) {
-        List<String> sortedHeaders = new ArrayList<>(headers.keySet());
-        sortedHeaders.sort(String.CASE_INSENSITIVE_ORDER);
-
-        StringBuilder buffer = new StringBuilder();
-        for (String header : sortedHeaders) {
-            if (shouldExcludeHeaderFromSigning(header)) {
-                continue;
+        buffer.reset();
+        for (int i = 0; i < buffer.headerNameCount(); i++) {
+            if (i > 0) {
+                buffer.append(';');
             }
-            if (buffer.length() > 0) {
-                buffer.append(";");
-            }
-            buffer.append(lowerCase(header));
+            buffer.appendLowerCase(buffer.headerName(i));
         }
-
         return buffer.toString();
     }
 
-    private boolean shouldExcludeHeaderFromSigning(String header) {
-        return LIST_OF_HEADERS_TO_IGNORE_IN_LOWER_CASE.contains(lowerCase(header));
+    private static boolean shouldExcludeHeaderFromSigning(String header) {
+        for (String headerToIgnore : LIST_OF_HEADERS_TO_IGNORE_IN_LOWER_CASE) {
+            if (headerToIgnore.equalsIgnoreCase(header)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void addHostHeader(SdkHttpFullRequest.Builder mutableRequest) {
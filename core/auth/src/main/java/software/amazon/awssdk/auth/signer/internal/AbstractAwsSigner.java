@@ -164,6 +164,26 @@ public abstract class AbstractAwsSigner implements Signer {
         return AbstractAwsSigner.doHash(text);
     }
 
+    /**
+     * Hashes the bytes written to the given buffer using the SHA-256 algorithm.
+     *
+     * @param buffer The buffer holding the data to hash.
+     * @return The hashed bytes from the specified buffer.
+     * @throws SdkClientException If the hash cannot be computed.
+     */
+    static byte[] hash(CanonicalRequestBuffer buffer) throws SdkClientException {
+        try {
+            MessageDigest md = getMessageDigestInstance();
+            buffer.updateDigest(md);
+            return md.digest();
+        } catch (Exception e) {
+            throw SdkClientException.builder()
+                                    .message("Unable to compute hash while signing request: " + e.getMessage())
+                                    .cause(e)
+                                    .build();
+        }
+    }
+
     byte[] hash(InputStream input) throws SdkClientException {
         try {
             MessageDigest md = getMessageDigestInstance();
@@ -259,19 +279,6 @@ public abstract class AbstractAwsSigner implements Signer {
         }
     }
 
-    String getCanonicalizedResourcePath(String resourcePath, boolean urlEncode) {
-        if (StringUtils.isEmpty(resourcePath)) {
-            return "/";
-        } else {
-            String value = urlEncode ? SdkHttpUtils.urlEncodeIgnoreSlashes(resourcePath) : resourcePath;
-            if (value.startsWith("/")) {
-                return value;
-            } else {
-                return "/".concat(value);
-            }
-        }
-    }
-
     protected String getCanonicalizedEndpoint(SdkHttpFullRequest request) {
         String endpointForStringToSign = StringUtils.lowerCase(request.host());
 
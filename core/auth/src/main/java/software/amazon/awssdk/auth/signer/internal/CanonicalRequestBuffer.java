@@ -0,0 +1,340 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.auth.signer.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import javax.crypto.Mac;
+import software.amazon.awssdk.annotations.NotThreadSafe;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.utils.StringUtils;
+
+/**
+ * A reusable, per-thread byte buffer the SigV4 signer writes the canonical request and string to sign into, so they can be
+ * fed directly into the {@link MessageDigest} and {@link Mac} without building intermediate strings.
+ *
+ * <p>Characters are written as UTF-8, exactly as {@link String#getBytes(java.nio.charset.Charset)} would encode them. The
+ * buffer also holds a scratch array of header names so the signed headers can be sorted without copying the header
+ * map.</p>
+ */
+@NotThreadSafe
+@SdkInternalApi
+final class CanonicalRequestBuffer {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Buffers that grew beyond this size (e.g. for a request with huge headers) are released on reset, so a thread does not
+     * hold on to them forever.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final int INITIAL_HEADER_NAMES = 16;
+
+    private static final byte[] HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private static final byte[] UPPER_HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+
+    private static final ThreadLocal<CanonicalRequestBuffer> BUFFER = ThreadLocal.withInitial(CanonicalRequestBuffer::new);
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    private String[] headerNames = new String[INITIAL_HEADER_NAMES];
+    private int headerNameCount;
+
+    /**
+     * Returns the calling thread's buffer, emptied and ready to be written to.
+     */
+    static CanonicalRequestBuffer forCurrentThread() {
+        CanonicalRequestBuffer buffer = BUFFER.get();
+        buffer.reset();
+        buffer.clearHeaderNames();
+        return buffer;
+    }
+
+    /**
+     * Discards the bytes written so far. The sorted header names are kept.
+     */
+    void reset() {
+        if (bytes.length > MAX_RETAINED_CAPACITY) {
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+        length = 0;
+    }
+
+    /**
+     * Releases the references to the header names, so the thread local does not keep them reachable.
+     */
+    void clearHeaderNames() {
+        Arrays.fill(headerNames, 0, headerNameCount, null);
+        headerNameCount = 0;
+    }
+
+    void addHeaderName(String headerName) {
+        if (headerNameCount == headerNames.length) {
+            headerNames = Arrays.copyOf(headerNames, headerNames.length * 2);
+        }
+        headerNames[headerNameCount++] = headerName;
+    }
+
+    /**
+     * Sorts the header names added so far, ignoring case.
+     */
+    void sortHeaderNames() {
+        Arrays.sort(headerNames, 0, headerNameCount, String.CASE_INSENSITIVE_ORDER);
+    }
+
+    int headerNameCount() {
+        return headerNameCount;
+    }
+
+    String headerName(int index) {
+        return headerNames[index];
+    }
+
+    int length() {
+        return length;
+    }
+
+    CanonicalRequestBuffer append(char ch) {
+        if (ch < 0x80) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) ch;
+        } else {
+            appendUtf8(ch);
+        }
+        return this;
+    }
+
+    CanonicalRequestBuffer append(String source) {
+        int sourceLength = source.length();
+        ensureCapacity(sourceLength);
+        for (int i = 0; i < sourceLength; i++) {
+            char ch = source.charAt(i);
+            if (ch < 0x80) {
+                bytes[length++] = (byte) ch;
+            } else {
+                i = appendNonAscii(source, i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends the given string lower cased using the English locale, without creating a lower case copy for ASCII input.
+     */
+    CanonicalRequestBuffer appendLowerCase(String source) {
+        if (!isAscii(source)) {
+            return append(StringUtils.lowerCase(source));
+        }
+
+        int sourceLength = source.length();
+        ensureCapacity(sourceLength);
+        for (int i = 0; i < sourceLength; i++) {
+            char ch = source.charAt(i);
+            bytes[length++] = (byte) (ch >= 'A' && ch <= 'Z' ? ch + ('a' - 'A') : ch);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the given string with every run of contiguous white space collapsed into a single space, optionally lower
+     * casing it (using the English locale) first.
+     *
+     * <p>This is equivalent to {@code append(source.replaceAll("\\s+", " "))}, without compiling a pattern or creating any
+     * intermediate strings for ASCII input.</p>
+     */
+    CanonicalRequestBuffer appendCompacted(String source, boolean lowerCase) {
+        if (lowerCase && !isAscii(source)) {
+            // Unicode lower casing may change the length of the string, so leave it to the JDK.
+            return appendCompacted(StringUtils.lowerCase(source), false);
+        }
+
+        int sourceLength = source.length();
+        ensureCapacity(sourceLength);
+        boolean previousIsWhiteSpace = false;
+        for (int i = 0; i < sourceLength; i++) {
+            char ch = source.charAt(i);
+            if (isWhiteSpace(ch)) {
+                if (!previousIsWhiteSpace) {
+                    bytes[length++] = ' ';
+                    previousIsWhiteSpace = true;
+                }
+                continue;
+            }
+            previousIsWhiteSpace = false;
+            if (ch < 0x80) {
+                bytes[length++] = (byte) (lowerCase && ch >= 'A' && ch <= 'Z' ? ch + ('a' - 'A') : ch);
+            } else {
+                i = appendNonAscii(source, i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends the given string URI encoded according to RFC 3986, the same way
+     * {@link software.amazon.awssdk.utils.http.SdkHttpUtils#urlEncode(String)} would encode it.
+     *
+     * @param ignoreSlashes Whether "/" characters should be left as they are.
+     */
+    CanonicalRequestBuffer appendUriEncoded(String source, boolean ignoreSlashes) {
+        int start = length;
+        append(source);
+        int end = length;
+
+        int encodedLength = 0;
+        for (int i = start; i < end; i++) {
+            encodedLength += isUnreserved(bytes[i], ignoreSlashes) ? 1 : 3;
+        }
+        if (encodedLength == end - start) {
+            return this;
+        }
+
+        // Percent encode in place, back to front, so the unencoded bytes are never overwritten before they are read.
+        ensureCapacity(encodedLength - (end - start));
+        int target = start + encodedLength;
+        for (int i = end - 1; i >= start; i--) {
+            byte b = bytes[i];
+            if (isUnreserved(b, ignoreSlashes)) {
+                bytes[--target] = b;
+            } else {
+                bytes[--target] = UPPER_HEX[b & 0x0F];
+                bytes[--target] = UPPER_HEX[(b >> 4) & 0x0F];
+                bytes[--target] = '%';
+            }
+        }
+        length = start + encodedLength;
+        return this;
+    }
+
+    /**
+     * Appends the lower case hex encoding of the given bytes.
+     */
+    CanonicalRequestBuffer appendHex(byte[] data) {
+        ensureCapacity(data.length * 2);
+        for (byte b : data) {
+            bytes[length++] = HEX[(b >> 4) & 0x0F];
+            bytes[length++] = HEX[b & 0x0F];
+        }
+        return this;
+    }
+
+    /**
+     * Feeds the bytes written so far into the given digest.
+     */
+    void updateDigest(MessageDigest digest) {
+        digest.update(bytes, 0, length);
+    }
+
+    /**
+     * Feeds the bytes written so far into the given MAC.
+     */
+    void updateMac(Mac mac) {
+        mac.update(bytes, 0, length);
+    }
+
+    /**
+     * Decodes the bytes written so far back into a string. Only intended for logging.
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends the non-ASCII character at the given index, consuming its low surrogate too if it starts a surrogate pair.
+     * Afterwards there is room for the rest of the source to be written as single bytes.
+     *
+     * @return The index of the last character consumed.
+     */
+    private int appendNonAscii(String source, int index) {
+        char ch = source.charAt(index);
+        int consumed = index;
+        if (Character.isHighSurrogate(ch) && index + 1 < source.length() && Character.isLowSurrogate(source.charAt(index + 1))) {
+            appendCodePoint(Character.toCodePoint(ch, source.charAt(index + 1)));
+            consumed++;
+        } else {
+            appendUtf8(ch);
+        }
+        ensureCapacity(source.length() - consumed);
+        return consumed;
+    }
+
+    private void appendUtf8(char ch) {
+        if (Character.isSurrogate(ch)) {
+            // Unpaired surrogates are replaced, matching String#getBytes.
+            ensureCapacity(1);
+            bytes[length++] = '?';
+        } else {
+            appendCodePoint(ch);
+        }
+    }
+
+    private void appendCodePoint(int codePoint) {
+        ensureCapacity(4);
+        if (codePoint < 0x80) {
+            bytes[length++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            bytes[length++] = (byte) (0xC0 | (codePoint >> 6));
+            bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            bytes[length++] = (byte) (0xE0 | (codePoint >> 12));
+            bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = length + additional;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+
+    private static boolean isAscii(String source) {
+        for (int i = 0; i < source.length(); i++) {
+            if (source.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests a char to see if is it whitespace.
+     * This method considers the same characters to be white
+     * space as the Pattern class does when matching \s
+     */
+    private static boolean isWhiteSpace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000b' || ch == '\r' || ch == '\f';
+    }
+
+    private static boolean isUnreserved(byte b, boolean ignoreSlashes) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+               || b == '-' || b == '_' || b == '.' || b == '~' || (ignoreSlashes && b == '/');
+    }
+}
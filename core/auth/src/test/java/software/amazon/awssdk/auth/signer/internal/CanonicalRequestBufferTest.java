@@ -0,0 +1,135 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.auth.signer.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import software.amazon.awssdk.utils.BinaryUtils;
+import software.amazon.awssdk.utils.StringUtils;
+import software.amazon.awssdk.utils.http.SdkHttpUtils;
+
+public class CanonicalRequestBufferTest {
+
+    private static final List<String> SAMPLES = Arrays.asList(
+        "",
+        "plain-ascii_value.123~",
+        "  leading and   trailing \t\r\n whitespace  ",
+        "MiXeD CaSe Header-Name",
+        "café über 中文",
+        "emoji 😀 pair",
+        "unpaired \ud83d high and \ude00 low surrogates",
+        "/path/with spaces/and*stars+plus%percent~tilde",
+        "İstanbul K");
+
+    @Test
+    public void append_MatchesStringGetBytes() throws Exception {
+        for (String sample : SAMPLES) {
+            CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+            buffer.append(sample);
+            assertSameBytes(buffer, sample);
+        }
+    }
+
+    @Test
+    public void appendCompacted_MatchesReplaceAll() throws Exception {
+        for (String sample : SAMPLES) {
+            CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+            buffer.appendCompacted(sample, false);
+            assertSameBytes(buffer, sample.replaceAll("\\s+", " "));
+
+            buffer.reset();
+            buffer.appendCompacted(sample, true);
+            assertSameBytes(buffer, StringUtils.lowerCase(sample).replaceAll("\\s+", " "));
+        }
+    }
+
+    @Test
+    public void appendLowerCase_MatchesStringUtils() throws Exception {
+        for (String sample : SAMPLES) {
+            CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+            buffer.appendLowerCase(sample);
+            assertSameBytes(buffer, StringUtils.lowerCase(sample));
+        }
+    }
+
+    @Test
+    public void appendUriEncoded_MatchesSdkHttpUtils() throws Exception {
+        for (String sample : SAMPLES) {
+            CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+            buffer.append("prefix:").appendUriEncoded(sample, true);
+            assertSameBytes(buffer, "prefix:" + SdkHttpUtils.urlEncodeIgnoreSlashes(sample));
+
+            buffer.reset();
+            buffer.appendUriEncoded(sample, false);
+            assertSameBytes(buffer, SdkHttpUtils.urlEncode(sample));
+        }
+    }
+
+    @Test
+    public void appendHex_MatchesBinaryUtils() throws Exception {
+        byte[] data = new byte[256];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+        buffer.appendHex(data);
+        assertSameBytes(buffer, BinaryUtils.toHex(data));
+    }
+
+    @Test
+    public void buffer_GrowsForLargeInput() throws Exception {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            large.append(i % 7 == 0 ? "é" : "a");
+        }
+        CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+        buffer.append(large.toString()).appendUriEncoded(large.toString(), false);
+        assertSameBytes(buffer, large + SdkHttpUtils.urlEncode(large.toString()));
+
+        assertThat(CanonicalRequestBuffer.forCurrentThread().length()).isZero();
+    }
+
+    @Test
+    public void headerNames_SortedIgnoringCaseAndClearedOnReuse() {
+        CanonicalRequestBuffer buffer = CanonicalRequestBuffer.forCurrentThread();
+        for (int i = 20; i > 0; i--) {
+            buffer.addHeaderName((i % 2 == 0 ? "X-Header-" : "x-header-") + (char) ('a' + i));
+        }
+        buffer.sortHeaderNames();
+
+        assertThat(buffer.headerNameCount()).isEqualTo(20);
+        for (int i = 1; i < buffer.headerNameCount(); i++) {
+            assertThat(buffer.headerName(i - 1).compareToIgnoreCase(buffer.headerName(i))).isNegative();
+        }
+
+        assertThat(CanonicalRequestBuffer.forCurrentThread().headerNameCount()).isZero();
+    }
+
+    private static void assertSameBytes(CanonicalRequestBuffer buffer, String expected) throws Exception {
+        MessageDigest actualDigest = MessageDigest.getInstance("SHA-256");
+        buffer.updateDigest(actualDigest);
+        byte[] expectedBytes = expected.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(buffer.length()).isEqualTo(expectedBytes.length);
+        assertThat(actualDigest.digest()).isEqualTo(MessageDigest.getInstance("SHA-256").digest(expectedBytes));
+    }
+}
@@ -19,6 +19,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 public class FifoCacheTest {
@@ -73,4 +80,49 @@ public class FifoCacheTest {
         assertEquals("v3", cache.get("k3"));
         assertNull(cache.get("k2"));
     }
+
+    @Test
+    public void testHitAndMissCounts() {
+        FifoCache<String> cache = new FifoCache<String>(2);
+        assertNull(cache.get("k1"));
+        cache.add("k1", "v1");
+        assertEquals("v1", cache.get("k1"));
+        assertEquals("v1", cache.get("k1"));
+        assertNull(cache.get("k2"));
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void testConcurrentAddsStayBounded() throws Exception {
+        int threads = 8;
+        int keysPerThread = 1000;
+        FifoCache<String> cache = new FifoCache<String>(10);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String prefix = "t" + t + "-";
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < keysPerThread; i++) {
+                        cache.add(prefix + i, "v");
+                        cache.get(prefix + i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= cache.getMaxSize());
+        assertEquals(threads * keysPerThread, cache.hitCount() + cache.missCount());
+    }
 }
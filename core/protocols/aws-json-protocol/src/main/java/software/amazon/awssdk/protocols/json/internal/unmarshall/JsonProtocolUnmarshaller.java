@@ -17,7 +17,9 @@ package software.amazon.awssdk.protocols.json.internal.unmarshall;
 
 import static software.amazon.awssdk.protocols.core.StringToValueConverter.TO_SDK_BYTES;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
@@ -56,10 +58,17 @@ public final class JsonProtocolUnmarshaller {
 
     private final JsonDomParser parser;
 
+    private final StreamingJsonProtocolUnmarshaller streamingUnmarshaller;
+
     private JsonProtocolUnmarshaller(Builder builder) {
         this.parser = builder.parser;
         this.instantStringToValue = StringToInstant.create(new HashMap<>(builder.defaultTimestampFormats));
         this.registry = createUnmarshallerRegistry(instantStringToValue);
+        this.streamingUnmarshaller = builder.streamingJsonFactory == null
+                                     ? null
+                                     : new StreamingJsonProtocolUnmarshaller(builder.streamingJsonFactory,
+                                                                             registry,
+                                                                             instantStringToValue);
     }
 
     private static JsonUnmarshallerRegistry createUnmarshallerRegistry(
@@ -164,7 +173,11 @@ public final class JsonProtocolUnmarshaller {
     public <TypeT extends SdkPojo> TypeT unmarshall(SdkPojo sdkPojo,
                             SdkHttpFullResponse response) throws IOException {
         if (hasPayloadMembers(sdkPojo) && !hasExplicitBlobPayloadMember(sdkPojo)) {
-            SdkJsonNode jsonNode = parser.parse(ReleasableInputStream.wrap(response.content().orElse(null)).disableClose());
+            InputStream content = ReleasableInputStream.wrap(response.content().orElse(null)).disableClose();
+            if (streamingUnmarshaller != null) {
+                return streamingUnmarshaller.unmarshall(sdkPojo, content, createContext(response));
+            }
+            SdkJsonNode jsonNode = parser.parse(content);
             return unmarshall(sdkPojo, response, jsonNode);
         } else {
             return unmarshall(sdkPojo, response, null);
@@ -190,11 +203,14 @@ public final class JsonProtocolUnmarshaller {
     public <TypeT extends SdkPojo> TypeT unmarshall(SdkPojo sdkPojo,
                             SdkHttpFullResponse response,
                             SdkJsonNode jsonContent) {
-        JsonUnmarshallerContext context = JsonUnmarshallerContext.builder()
-                                                                 .unmarshallerRegistry(registry)
-                                                                 .response(response)
-                                                                 .build();
-        return unmarshallStructured(sdkPojo, jsonContent, context);
+        return unmarshallStructured(sdkPojo, jsonContent, createContext(response));
+    }
+
+    private JsonUnmarshallerContext createContext(SdkHttpFullResponse response) {
+        return JsonUnmarshallerContext.builder()
+                                      .unmarshallerRegistry(registry)
+                                      .response(response)
+                                      .build();
     }
 
     @SuppressWarnings("unchecked")
@@ -233,6 +249,7 @@ public final class JsonProtocolUnmarshaller {
     public static final class Builder {
 
         private JsonDomParser parser;
+        private JsonFactory streamingJsonFactory;
         private Map<MarshallLocation, TimestampFormatTrait.Format> defaultTimestampFormats;
 
         private Builder() {
@@ -247,6 +264,19 @@ public final class JsonProtocolUnmarshaller {
             return this;
         }
 
+        /**
+         * Enables the streaming unmarshalling path. When set, successful responses are unmarshalled by pulling tokens
+         * directly from a parser created by this factory instead of first building a {@link SdkJsonNode} tree with the
+         * {@link #parser(JsonDomParser)}. Error responses always use the DOM parser.
+         *
+         * @param streamingJsonFactory Factory to create token parsers from, or null to disable streaming unmarshalling.
+         * @return This builder for method chaining.
+         */
+        public Builder streamingJsonFactory(JsonFactory streamingJsonFactory) {
+            this.streamingJsonFactory = streamingJsonFactory;
+            return this;
+        }
+
         /**
          * @param formats The default timestamp formats for each location in the HTTP response.
          * @return This builder for method chaining.
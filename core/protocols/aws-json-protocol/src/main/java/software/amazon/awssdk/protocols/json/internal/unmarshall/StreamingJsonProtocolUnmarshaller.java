@@ -0,0 +1,290 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.protocols.json.internal.unmarshall;
+
+import static software.amazon.awssdk.protocols.core.StringToValueConverter.TO_SDK_BYTES;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.protocol.MarshallLocation;
+import software.amazon.awssdk.core.protocol.MarshallingType;
+import software.amazon.awssdk.core.traits.ListTrait;
+import software.amazon.awssdk.core.traits.MapTrait;
+import software.amazon.awssdk.core.traits.PayloadTrait;
+import software.amazon.awssdk.protocols.core.StringToValueConverter;
+import software.amazon.awssdk.utils.builder.Buildable;
+
+/**
+ * Unmarshaller that binds a JSON document directly into the {@link SdkPojo} builders by pulling tokens from a
+ * {@link JsonParser}, rather than first materializing the document into a tree of
+ * {@link software.amazon.awssdk.protocols.json.internal.dom.SdkJsonNode}s like {@link JsonProtocolUnmarshaller} does.
+ *
+ * <p>Conversion of scalar values follows the same rules as the DOM based unmarshaller so that both paths produce equivalent
+ * results. Members that are not bound to the payload (headers, status code) are still delegated to the
+ * {@link JsonUnmarshallerRegistry} since they never need the document.</p>
+ *
+ * <p>This class is thread-safe and it is recommended to reuse a single instance for best performance.</p>
+ */
+@SdkInternalApi
+@ThreadSafe
+final class StreamingJsonProtocolUnmarshaller {
+
+    private final JsonFactory jsonFactory;
+
+    private final JsonUnmarshallerRegistry registry;
+
+    private final Map<MarshallingType<?>, StringToValueConverter.StringToValue<?>> scalarConverters;
+
+    /**
+     * Field name lookup tables, keyed by the class of the builder being unmarshalled into. The set of shapes a client
+     * can return is fixed so this is naturally bounded.
+     */
+    private final Map<Class<?>, FieldTable> fieldTables = new ConcurrentHashMap<>();
+
+    StreamingJsonProtocolUnmarshaller(JsonFactory jsonFactory,
+                                      JsonUnmarshallerRegistry registry,
+                                      StringToValueConverter.StringToValue<Instant> instantStringToValue) {
+        this.jsonFactory = jsonFactory;
+        this.registry = registry;
+        this.scalarConverters = createScalarConverters(instantStringToValue);
+    }
+
+    private static Map<MarshallingType<?>, StringToValueConverter.StringToValue<?>> createScalarConverters(
+        StringToValueConverter.StringToValue<Instant> instantStringToValue) {
+
+        Map<MarshallingType<?>, StringToValueConverter.StringToValue<?>> converters = new IdentityHashMap<>();
+        converters.put(MarshallingType.STRING, StringToValueConverter.TO_STRING);
+        converters.put(MarshallingType.INTEGER, StringToValueConverter.TO_INTEGER);
+        converters.put(MarshallingType.LONG, StringToValueConverter.TO_LONG);
+        converters.put(MarshallingType.FLOAT, StringToValueConverter.TO_FLOAT);
+        converters.put(MarshallingType.DOUBLE, StringToValueConverter.TO_DOUBLE);
+        converters.put(MarshallingType.BIG_DECIMAL, StringToValueConverter.TO_BIG_DECIMAL);
+        converters.put(MarshallingType.BOOLEAN, StringToValueConverter.TO_BOOLEAN);
+        converters.put(MarshallingType.INSTANT, instantStringToValue);
+        return Collections.unmodifiableMap(converters);
+    }
+
+    /**
+     * Unmarshalls the given JSON content into the provided builder.
+     *
+     * @param sdkPojo Builder of the response POJO.
+     * @param content JSON document to unmarshall. Will not be closed.
+     * @param context Context containing the HTTP response.
+     * @return Built POJO.
+     */
+    <TypeT extends SdkPojo> TypeT unmarshall(SdkPojo sdkPojo,
+                                             InputStream content,
+                                             JsonUnmarshallerContext context) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(content)
+                                            .configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false)) {
+            return unmarshallStructured(sdkPojo, parser, parser.nextToken(), context);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TypeT extends SdkPojo> TypeT unmarshallStructured(SdkPojo sdkPojo,
+                                                               JsonParser parser,
+                                                               JsonToken token,
+                                                               JsonUnmarshallerContext context) throws IOException {
+        FieldTable fieldTable = fieldTables.computeIfAbsent(sdkPojo.getClass(), c -> new FieldTable(sdkPojo.sdkFields()));
+
+        for (SdkField<?> field : fieldTable.nonPayloadFields) {
+            JsonUnmarshaller<Object> unmarshaller = registry.getUnmarshaller(field.location(), field.marshallingType());
+            field.set(sdkPojo, unmarshaller.unmarshall(context, null, (SdkField<Object>) field));
+        }
+
+        if (fieldTable.explicitPayloadField != null) {
+            // The whole document is bound to a single member
+            fieldTable.explicitPayloadField.set(sdkPojo, readValue(parser, token, fieldTable.explicitPayloadField, context));
+        } else if (token == JsonToken.START_OBJECT) {
+            JsonToken currentToken = parser.nextToken();
+            while (currentToken == JsonToken.FIELD_NAME) {
+                SdkField<?> field = fieldTable.payloadFields.get(parser.getText());
+                JsonToken valueToken = parser.nextToken();
+                if (field == null) {
+                    parser.skipChildren();
+                } else {
+                    field.set(sdkPojo, readValue(parser, valueToken, field, context));
+                }
+                currentToken = parser.nextToken();
+            }
+        } else if (token != null) {
+            parser.skipChildren();
+        }
+        return (TypeT) ((Buildable) sdkPojo).build();
+    }
+
+    private Object readValue(JsonParser parser,
+                             JsonToken token,
+                             SdkField<?> field,
+                             JsonUnmarshallerContext context) throws IOException {
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        MarshallingType<?> marshallingType = field.marshallingType();
+        if (marshallingType == MarshallingType.SDK_POJO) {
+            return unmarshallStructured(field.constructor().get(), parser, token, context);
+        } else if (marshallingType == MarshallingType.LIST) {
+            return readList(parser, token, field, context);
+        } else if (marshallingType == MarshallingType.MAP) {
+            return readMap(parser, token, field, context);
+        } else if (marshallingType == MarshallingType.SDK_BYTES) {
+            return readSdkBytes(parser, token, field);
+        }
+        return readScalar(parser, token, field);
+    }
+
+    private List<?> readList(JsonParser parser,
+                             JsonToken token,
+                             SdkField<?> field,
+                             JsonUnmarshallerContext context) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        SdkField<?> memberInfo = field.getTrait(ListTrait.class).memberFieldInfo();
+        List<Object> list = new ArrayList<>();
+        JsonToken currentToken = parser.nextToken();
+        while (currentToken != JsonToken.END_ARRAY) {
+            list.add(readValue(parser, currentToken, memberInfo, context));
+            currentToken = parser.nextToken();
+        }
+        return list;
+    }
+
+    private Map<String, ?> readMap(JsonParser parser,
+                                   JsonToken token,
+                                   SdkField<?> field,
+                                   JsonUnmarshallerContext context) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        SdkField<?> valueInfo = field.getTrait(MapTrait.class).valueFieldInfo();
+        Map<String, Object> map = new HashMap<>();
+        JsonToken currentToken = parser.nextToken();
+        while (currentToken == JsonToken.FIELD_NAME) {
+            String key = parser.getText();
+            map.put(key, readValue(parser, parser.nextToken(), valueInfo, context));
+            currentToken = parser.nextToken();
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SdkBytes readSdkBytes(JsonParser parser, JsonToken token, SdkField<?> field) throws IOException {
+        // Binary protocols like CBOR may already have the raw bytes extracted.
+        if (token == JsonToken.VALUE_EMBEDDED_OBJECT) {
+            Object embeddedObject = parser.getEmbeddedObject();
+            if (embeddedObject != null) {
+                return SdkBytes.fromByteArray((byte[]) embeddedObject);
+            }
+        }
+        return TO_SDK_BYTES.convert(scalarText(parser, token), (SdkField<SdkBytes>) field);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readScalar(JsonParser parser, JsonToken token, SdkField<?> field) throws IOException {
+        MarshallingType<?> marshallingType = field.marshallingType();
+
+        // Fast paths that avoid the number -> String -> number round trip. Each is only taken when the token's native
+        // representation converts losslessly, anything else goes through the same string conversion as the DOM path.
+        if (marshallingType == MarshallingType.STRING && token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        } else if (marshallingType == MarshallingType.BOOLEAN && token.isBoolean()) {
+            return token == JsonToken.VALUE_TRUE;
+        } else if (marshallingType == MarshallingType.INTEGER && token == JsonToken.VALUE_NUMBER_INT &&
+                   parser.getNumberType() == JsonParser.NumberType.INT) {
+            return parser.getIntValue();
+        } else if (marshallingType == MarshallingType.LONG && token == JsonToken.VALUE_NUMBER_INT &&
+                   isIntOrLong(parser.getNumberType())) {
+            return parser.getLongValue();
+        } else if (marshallingType == MarshallingType.DOUBLE && token == JsonToken.VALUE_NUMBER_FLOAT &&
+                   parser.getNumberType() == JsonParser.NumberType.DOUBLE) {
+            return parser.getDoubleValue();
+        }
+
+        StringToValueConverter.StringToValue<Object> converter =
+            (StringToValueConverter.StringToValue<Object>) scalarConverters.get(marshallingType);
+        if (converter == null) {
+            throw SdkClientException.create("No unmarshaller registered for type " + marshallingType);
+        }
+        return converter.convert(scalarText(parser, token), (SdkField<Object>) field);
+    }
+
+    private static boolean isIntOrLong(JsonParser.NumberType numberType) {
+        return numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG;
+    }
+
+    /**
+     * Mirrors the textual representation the DOM parser would have produced for the current token.
+     */
+    private static String scalarText(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_FALSE:
+                return "false";
+            case VALUE_TRUE:
+                return "true";
+            case VALUE_NUMBER_FLOAT:
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue().toString();
+            default:
+                parser.skipChildren();
+                return null;
+        }
+    }
+
+    /**
+     * Pre-computed view of the {@link SdkField}s of a shape, indexed by JSON field name.
+     */
+    private static final class FieldTable {
+
+        private final Map<String, SdkField<?>> payloadFields = new HashMap<>();
+        private final List<SdkField<?>> nonPayloadFields = new ArrayList<>();
+        private SdkField<?> explicitPayloadField;
+
+        private FieldTable(List<SdkField<?>> sdkFields) {
+            for (SdkField<?> field : sdkFields) {
+                if (field.containsTrait(PayloadTrait.class)) {
+                    explicitPayloadField = field;
+                } else if (field.location() == MarshallLocation.PAYLOAD) {
+                    payloadFields.put(field.locationName(), field);
+                } else {
+                    nonPayloadFields.add(field);
+                }
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import software.amazon.awssdk.annotations.SdkProtectedApi;
 import software.amazon.awssdk.awscore.AwsResponse;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
 import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
 import software.amazon.awssdk.core.client.config.SdkClientOption;
 import software.amazon.awssdk.core.http.HttpResponseHandler;
@@ -88,10 +89,16 @@ public class AwsQueryProtocolFactory {
     public final <T extends AwsResponse> HttpResponseHandler<T> createResponseHandler(Supplier<SdkPojo> pojoSupplier) {
         return new AwsQueryResponseHandler<>(QueryProtocolUnmarshaller.builder()
                                                                       .hasResultWrapper(!isEc2())
+                                                                      .streaming(isStreamingUnmarshallingEnabled())
                                                                       .build(),
             r -> pojoSupplier.get());
     }
 
+    private boolean isStreamingUnmarshallingEnabled() {
+        return clientConfiguration != null &&
+               Boolean.TRUE.equals(clientConfiguration.option(SdkAdvancedClientOption.ENABLE_STREAMING_UNMARSHALLING));
+    }
+
     /**
      * @return A {@link HttpResponseHandler} that will unmarshall the service exceptional response into
      * a modeled exception or the service base exception.
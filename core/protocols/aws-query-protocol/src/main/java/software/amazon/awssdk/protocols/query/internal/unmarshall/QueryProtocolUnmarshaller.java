@@ -18,16 +18,22 @@ package software.amazon.awssdk.protocols.query.internal.unmarshall;
 import static software.amazon.awssdk.awscore.util.AwsHeader.AWS_REQUEST_ID;
 import static software.amazon.awssdk.protocols.query.internal.marshall.SimpleTypeQueryMarshaller.defaultTimestampFormats;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.SdkField;
 import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.protocol.MarshallingType;
 import software.amazon.awssdk.http.SdkHttpFullResponse;
 import software.amazon.awssdk.protocols.core.StringToInstant;
 import software.amazon.awssdk.protocols.core.StringToValueConverter;
+import software.amazon.awssdk.protocols.query.unmarshall.StreamingXmlUnmarshaller;
 import software.amazon.awssdk.protocols.query.unmarshall.XmlDomParser;
 import software.amazon.awssdk.protocols.query.unmarshall.XmlElement;
 import software.amazon.awssdk.protocols.query.unmarshall.XmlErrorUnmarshaller;
@@ -60,14 +66,34 @@ public final class QueryProtocolUnmarshaller implements XmlErrorUnmarshaller {
             context.protocolUnmarshaller().unmarshall(context, field.constructor().get(), content.get(0)))
         .build();
 
+    private static final StreamingXmlUnmarshaller STREAMING_UNMARSHALLER = StreamingXmlUnmarshaller
+        .builder()
+        .scalarConverter(MarshallingType.STRING, StringToValueConverter.TO_STRING)
+        .scalarConverter(MarshallingType.INTEGER, StringToValueConverter.TO_INTEGER)
+        .scalarConverter(MarshallingType.LONG, StringToValueConverter.TO_LONG)
+        .scalarConverter(MarshallingType.FLOAT, StringToValueConverter.TO_FLOAT)
+        .scalarConverter(MarshallingType.DOUBLE, StringToValueConverter.TO_DOUBLE)
+        .scalarConverter(MarshallingType.BOOLEAN, StringToValueConverter.TO_BOOLEAN)
+        .scalarConverter(MarshallingType.INSTANT, StringToInstant.create(defaultTimestampFormats()))
+        .scalarConverter(MarshallingType.SDK_BYTES, StringToValueConverter.TO_SDK_BYTES)
+        // There have been cases in EC2 where the member name is not modeled correctly so we just grab all
+        // direct children instead and don't care about member name. See ListQueryUnmarshaller.
+        .matchListMemberName(false)
+        .build();
+
     private final boolean hasResultWrapper;
+    private final boolean streaming;
 
     private QueryProtocolUnmarshaller(Builder builder) {
         this.hasResultWrapper = builder.hasResultWrapper;
+        this.streaming = builder.streaming;
     }
 
     public <TypeT extends SdkPojo> Pair<TypeT, Map<String, String>> unmarshall(SdkPojo sdkPojo,
                                                                                SdkHttpFullResponse response) {
+        if (streaming && response.content().isPresent()) {
+            return unmarshallStreaming(sdkPojo, response.content().get());
+        }
         XmlElement document = response.content().map(XmlDomParser::parse).orElse(XmlElement.empty());
         XmlElement resultRoot = hasResultWrapper ? document.getFirstChild() : document;
         return Pair.of(unmarshall(sdkPojo, resultRoot, response), parseMetadata(document));
@@ -101,6 +127,62 @@ public final class QueryProtocolUnmarshaller implements XmlErrorUnmarshaller {
         return metadata;
     }
 
+    /**
+     * Binds the response directly into the POJO with a {@link StreamingXmlUnmarshaller}, collecting the response metadata
+     * along the way.
+     */
+    private <TypeT extends SdkPojo> Pair<TypeT, Map<String, String>> unmarshallStreaming(SdkPojo sdkPojo,
+                                                                                        InputStream content) {
+        XMLStreamReader reader = STREAMING_UNMARSHALLER.openDocument(content);
+        try {
+            Map<String, String> metadata = new HashMap<>();
+            String[] requestId = new String[1];
+            StreamingXmlUnmarshaller.UnmatchedElementHandler metadataHandler = r -> {
+                if (r.getLocalName().equals("ResponseMetadata")) {
+                    readResponseMetadata(r, metadata);
+                } else if (r.getLocalName().equals("requestId")) {
+                    requestId[0] = StreamingXmlUnmarshaller.readText(r);
+                } else {
+                    StreamingXmlUnmarshaller.skipElement(r);
+                }
+            };
+
+            TypeT result = null;
+            if (hasResultWrapper) {
+                while (StreamingXmlUnmarshaller.nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+                    if (result == null && !reader.getLocalName().equals("ResponseMetadata")) {
+                        result = STREAMING_UNMARSHALLER.unmarshall(reader, sdkPojo, f -> null,
+                                                                   StreamingXmlUnmarshaller::skipElement);
+                    } else {
+                        metadataHandler.handle(reader);
+                    }
+                }
+                if (result == null) {
+                    result = (TypeT) ((Buildable) sdkPojo).build();
+                }
+            } else {
+                result = STREAMING_UNMARSHALLER.unmarshall(reader, sdkPojo, f -> null, metadataHandler);
+            }
+
+            if (requestId[0] != null) {
+                metadata.put(AWS_REQUEST_ID, requestId[0]);
+            }
+            return Pair.of(result, metadata);
+        } catch (XMLStreamException e) {
+            throw SdkClientException.create("Could not parse XML response.", e);
+        } finally {
+            StreamingXmlUnmarshaller.closeQuietly(reader);
+        }
+    }
+
+    private void readResponseMetadata(XMLStreamReader reader, Map<String, String> metadata) throws XMLStreamException {
+        while (StreamingXmlUnmarshaller.nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            String elementName = reader.getLocalName();
+            metadata.put(elementName.equals("RequestId") ? AWS_REQUEST_ID : elementName,
+                         StreamingXmlUnmarshaller.readText(reader));
+        }
+    }
+
     private String metadataKeyName(XmlElement c) {
         return c.elementName().equals("RequestId") ? AWS_REQUEST_ID : c.elementName();
     }
@@ -133,6 +215,7 @@ public final class QueryProtocolUnmarshaller implements XmlErrorUnmarshaller {
     public static final class Builder {
 
         private boolean hasResultWrapper;
+        private boolean streaming;
 
         private Builder() {
         }
@@ -182,6 +265,16 @@ public final class QueryProtocolUnmarshaller implements XmlErrorUnmarshaller {
             return this;
         }
 
+        /**
+         * @param streaming True to bind successful responses directly into the POJO with a {@link StreamingXmlUnmarshaller}
+         * instead of first parsing them with the {@link XmlDomParser}.
+         * @return This builder for method chaining.
+         */
+        public Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
         /**
          * @return New instance of {@link QueryProtocolUnmarshaller}.
          */
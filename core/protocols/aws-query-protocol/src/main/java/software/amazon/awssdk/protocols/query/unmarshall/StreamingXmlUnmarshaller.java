@@ -0,0 +1,457 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.protocols.query.unmarshall;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import software.amazon.awssdk.annotations.SdkProtectedApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.protocol.MarshallLocation;
+import software.amazon.awssdk.core.protocol.MarshallingType;
+import software.amazon.awssdk.core.traits.ListTrait;
+import software.amazon.awssdk.core.traits.MapTrait;
+import software.amazon.awssdk.core.traits.PayloadTrait;
+import software.amazon.awssdk.protocols.core.StringToValueConverter;
+import software.amazon.awssdk.utils.builder.Buildable;
+
+/**
+ * Unmarshaller that binds an XML document directly into the {@link SdkPojo} builders using the {@link XMLStreamReader} cursor
+ * API, rather than first building a tree of {@link XmlElement}s with {@link XmlDomParser}.
+ *
+ * <p>Element matching follows the same rules as the DOM based unmarshallers of the AWS/Query, EC2 and REST-XML protocols:
+ * the first occurrence of a non-flattened member wins, and every occurrence of a flattened list or map member contributes a
+ * member or entry.</p>
+ *
+ * <p>This class is thread-safe and it is recommended to reuse a single instance for best performance.</p>
+ */
+@SdkProtectedApi
+@ThreadSafe
+public final class StreamingXmlUnmarshaller {
+
+    private static final ThreadLocal<XMLInputFactory> FACTORY =
+        ThreadLocal.withInitial(XmlDomParser::createXmlInputFactory);
+
+    private static final Object NOT_SET = new Object();
+
+    private final Map<MarshallingType<?>, StringToValueConverter.StringToValue<?>> scalarConverters;
+
+    private final boolean matchListMemberName;
+
+    /**
+     * Field name lookup tables, keyed by the class of the builder being unmarshalled into.
+     */
+    private final Map<Class<?>, FieldTable> fieldTables = new ConcurrentHashMap<>();
+
+    private StreamingXmlUnmarshaller(Builder builder) {
+        this.scalarConverters = Collections.unmodifiableMap(new IdentityHashMap<>(builder.scalarConverters));
+        this.matchListMemberName = builder.matchListMemberName;
+    }
+
+    /**
+     * Creates a new cursor over the given document, positioned at the start of the root element.
+     *
+     * @param content XML document. Will not be closed.
+     * @return Reader positioned at the root element.
+     */
+    public XMLStreamReader openDocument(InputStream content) {
+        try {
+            XMLStreamReader reader = FACTORY.get().createXMLStreamReader(content);
+            try {
+                // Skip ahead to the first start element
+                while (reader.hasNext() && reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                    reader.next();
+                }
+                if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                    throw SdkClientException.create("Could not find root element in XML response.");
+                }
+                return reader;
+            } catch (XMLStreamException | RuntimeException e) {
+                closeQuietly(reader);
+                throw e;
+            }
+        } catch (XMLStreamException e) {
+            throw SdkClientException.create("Could not parse XML response.", e);
+        }
+    }
+
+    /**
+     * Closes a reader returned by {@link #openDocument(InputStream)}, ignoring any error. Closing the reader only releases the
+     * parser's resources; the content stream is closed by its owner.
+     */
+    public static void closeQuietly(XMLStreamReader reader) {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // Nothing useful can be done, the document was either read or failed to parse
+        }
+    }
+
+    /**
+     * Unmarshalls the element the reader is currently positioned at into the given builder. On return the reader is
+     * positioned at the matching end element.
+     *
+     * @param reader Reader positioned at the start element of the structure.
+     * @param sdkPojo Builder to unmarshall into.
+     * @param nonPayloadUnmarshaller Unmarshaller for members that are not bound to the payload (i.e. headers).
+     * @param unmatchedElementHandler Called for child elements that are not bound to a member of the structure.
+     * @return Built POJO.
+     */
+    public <TypeT extends SdkPojo> TypeT unmarshall(XMLStreamReader reader,
+                                                    SdkPojo sdkPojo,
+                                                    NonPayloadUnmarshaller nonPayloadUnmarshaller,
+                                                    UnmatchedElementHandler unmatchedElementHandler) {
+        try {
+            return unmarshallStructured(reader, sdkPojo, nonPayloadUnmarshaller, unmatchedElementHandler);
+        } catch (XMLStreamException e) {
+            throw SdkClientException.create("Could not parse XML response.", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TypeT extends SdkPojo> TypeT unmarshallStructured(XMLStreamReader reader,
+                                                               SdkPojo sdkPojo,
+                                                               NonPayloadUnmarshaller nonPayloadUnmarshaller,
+                                                               UnmatchedElementHandler unmatchedElementHandler)
+            throws XMLStreamException {
+
+        FieldTable fieldTable = fieldTables.computeIfAbsent(sdkPojo.getClass(), c -> new FieldTable(sdkPojo.sdkFields()));
+
+        for (SdkField<?> field : fieldTable.nonPayloadFields) {
+            field.set(sdkPojo, nonPayloadUnmarshaller.unmarshall(field));
+        }
+
+        if (fieldTable.explicitPayloadField != null) {
+            // The whole document is bound to a single member
+            fieldTable.explicitPayloadField.set(sdkPojo, readValue(reader, fieldTable.explicitPayloadField));
+            return (TypeT) ((Buildable) sdkPojo).build();
+        }
+
+        Object[] values = null;
+        while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            Integer index = fieldTable.payloadFieldIndexes.get(reader.getLocalName());
+            if (index == null) {
+                unmatchedElementHandler.handle(reader);
+                continue;
+            }
+            if (values == null) {
+                values = newValues(fieldTable.payloadFields.size());
+            }
+            SdkField<?> field = fieldTable.payloadFields.get(index);
+            if (isFlattenedList(field)) {
+                values[index] = appendToList(values[index], readValue(reader, memberFieldInfo(field)));
+            } else if (isFlattenedMap(field)) {
+                values[index] = readMapEntry(reader, field.getTrait(MapTrait.class), values[index]);
+            } else if (values[index] == NOT_SET) {
+                values[index] = readValue(reader, field);
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != NOT_SET) {
+                    fieldTable.payloadFields.get(i).set(sdkPojo, values[i]);
+                }
+            }
+        }
+        return (TypeT) ((Buildable) sdkPojo).build();
+    }
+
+    private Object readValue(XMLStreamReader reader, SdkField<?> field) throws XMLStreamException {
+        MarshallingType<?> marshallingType = field.marshallingType();
+        if (marshallingType == MarshallingType.SDK_POJO) {
+            return unmarshallStructured(reader, field.constructor().get(), f -> null, StreamingXmlUnmarshaller::skipElement);
+        } else if (marshallingType == MarshallingType.LIST) {
+            return readList(reader, field.getTrait(ListTrait.class));
+        } else if (marshallingType == MarshallingType.MAP) {
+            return readMap(reader, field.getTrait(MapTrait.class));
+        } else if (marshallingType == MarshallingType.NULL) {
+            skipElement(reader);
+            return null;
+        }
+        return readScalar(reader, field);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readScalar(XMLStreamReader reader, SdkField<?> field) throws XMLStreamException {
+        StringToValueConverter.StringToValue<Object> converter =
+            (StringToValueConverter.StringToValue<Object>) scalarConverters.get(field.marshallingType());
+        if (converter == null) {
+            throw SdkClientException.create("No unmarshaller registered for type " + field.marshallingType());
+        }
+        return converter.convert(readText(reader), (SdkField<Object>) field);
+    }
+
+    private List<?> readList(XMLStreamReader reader, ListTrait listTrait) throws XMLStreamException {
+        SdkField<?> memberInfo = listTrait.memberFieldInfo();
+        String memberLocation = listTrait.memberLocationName() != null ? listTrait.memberLocationName()
+                                                                       : memberInfo.locationName();
+        List<Object> list = new ArrayList<>();
+        while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            if (!matchListMemberName || reader.getLocalName().equals(memberLocation)) {
+                list.add(readValue(reader, memberInfo));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return list;
+    }
+
+    private Map<String, ?> readMap(XMLStreamReader reader, MapTrait mapTrait) throws XMLStreamException {
+        Map<String, Object> map = new HashMap<>();
+        while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            if (reader.getLocalName().equals("entry")) {
+                readMapEntry(reader, mapTrait, map);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMapEntry(XMLStreamReader reader, MapTrait mapTrait, Object currentMap)
+            throws XMLStreamException {
+
+        Map<String, Object> map = currentMap instanceof Map ? (Map<String, Object>) currentMap : new HashMap<>();
+        String key = null;
+        Object value = null;
+        while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            String elementName = reader.getLocalName();
+            if (key == null && elementName.equals(mapTrait.keyLocationName())) {
+                key = readText(reader);
+            } else if (value == null && elementName.equals(mapTrait.valueLocationName())) {
+                value = readValue(reader, mapTrait.valueFieldInfo());
+            } else {
+                skipElement(reader);
+            }
+        }
+        map.put(key, value);
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> appendToList(Object currentList, Object member) {
+        List<Object> list = currentList instanceof List ? (List<Object>) currentList : new ArrayList<>();
+        list.add(member);
+        return list;
+    }
+
+    private static Object[] newValues(int size) {
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = NOT_SET;
+        }
+        return values;
+    }
+
+    private static boolean isFlattenedList(SdkField<?> field) {
+        return field.marshallingType() == MarshallingType.LIST && field.getTrait(ListTrait.class).isFlattened();
+    }
+
+    private static boolean isFlattenedMap(SdkField<?> field) {
+        return field.marshallingType() == MarshallingType.MAP && field.getTrait(MapTrait.class).isFlattened();
+    }
+
+    private static SdkField<?> memberFieldInfo(SdkField<?> listField) {
+        return listField.getTrait(ListTrait.class).memberFieldInfo();
+    }
+
+    /**
+     * Advances to the next start or end element, skipping over character data, comments and processing instructions.
+     *
+     * @param reader Reader to advance.
+     * @return {@link XMLStreamConstants#START_ELEMENT} or {@link XMLStreamConstants#END_ELEMENT}.
+     */
+    public static int nextTag(XMLStreamReader reader) throws XMLStreamException {
+        int event = reader.next();
+        while (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw SdkClientException.create("Unexpected end of XML response.");
+            }
+            event = reader.next();
+        }
+        return event;
+    }
+
+    /**
+     * Reads the text content of the current element, consistent with {@link XmlElement#textContent()}. On return the reader
+     * is positioned at the matching end element.
+     *
+     * @param reader Reader positioned at a start element.
+     * @return Text content, or an empty string if the element has none.
+     */
+    public static String readText(XMLStreamReader reader) throws XMLStreamException {
+        String text = "";
+        StringBuilder run = null;
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (isCharacters(event)) {
+                if (run == null) {
+                    run = new StringBuilder();
+                }
+                run.append(reader.getText());
+            } else {
+                // Like the DOM parser, the last contiguous run of character data wins
+                if (run != null) {
+                    text = run.toString();
+                    run = null;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    skipElement(reader);
+                }
+            }
+            event = reader.next();
+        }
+        return run != null ? run.toString() : text;
+    }
+
+    private static boolean isCharacters(int event) {
+        return event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA ||
+               event == XMLStreamConstants.SPACE;
+    }
+
+    /**
+     * Skips the current element and all of its children. On return the reader is positioned at the matching end element.
+     *
+     * @param reader Reader positioned at a start element.
+     */
+    public static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * @return New {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Unmarshalls a member that is not bound to the payload (i.e. a header or the status code).
+     */
+    @FunctionalInterface
+    public interface NonPayloadUnmarshaller {
+
+        /**
+         * @param field Member being unmarshalled.
+         * @return Unmarshalled value.
+         */
+        Object unmarshall(SdkField<?> field);
+    }
+
+    /**
+     * Handles a child element that is not bound to a member of the structure being unmarshalled.
+     */
+    @FunctionalInterface
+    public interface UnmatchedElementHandler {
+
+        /**
+         * @param reader Reader positioned at the start element. Implementations must leave the reader positioned at the
+         * matching end element, for example by calling {@link #skipElement(XMLStreamReader)}.
+         */
+        void handle(XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    /**
+     * Pre-computed view of the {@link SdkField}s of a shape, indexed by element name.
+     */
+    private static final class FieldTable {
+
+        private final List<SdkField<?>> payloadFields = new ArrayList<>();
+        private final Map<String, Integer> payloadFieldIndexes = new HashMap<>();
+        private final List<SdkField<?>> nonPayloadFields = new ArrayList<>();
+        private SdkField<?> explicitPayloadField;
+
+        private FieldTable(List<SdkField<?>> sdkFields) {
+            for (SdkField<?> field : sdkFields) {
+                if (field.location() != MarshallLocation.PAYLOAD) {
+                    nonPayloadFields.add(field);
+                } else if (field.containsTrait(PayloadTrait.class)) {
+                    explicitPayloadField = field;
+                } else if (!payloadFieldIndexes.containsKey(field.unmarshallLocationName())) {
+                    payloadFieldIndexes.put(field.unmarshallLocationName(), payloadFields.size());
+                    payloadFields.add(field);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link StreamingXmlUnmarshaller}.
+     */
+    public static final class Builder {
+
+        private final Map<MarshallingType<?>, StringToValueConverter.StringToValue<?>> scalarConverters =
+            new IdentityHashMap<>();
+        private boolean matchListMemberName;
+
+        private Builder() {
+        }
+
+        /**
+         * Registers the converter used for text content of members of the given scalar type.
+         *
+         * @param marshallingType Scalar type.
+         * @param converter Converter from the element's text content.
+         * @return This builder for method chaining.
+         */
+        public <T> Builder scalarConverter(MarshallingType<T> marshallingType,
+                                           StringToValueConverter.StringToValue<T> converter) {
+            this.scalarConverters.put(marshallingType, converter);
+            return this;
+        }
+
+        /**
+         * @param matchListMemberName True if only children of a non-flattened list whose name matches the member location
+         * name are list members (REST-XML), false if all direct children are members (AWS/Query and EC2).
+         * @return This builder for method chaining.
+         */
+        public Builder matchListMemberName(boolean matchListMemberName) {
+            this.matchListMemberName = matchListMemberName;
+            return this;
+        }
+
+        /**
+         * @return New instance of {@link StreamingXmlUnmarshaller}.
+         */
+        public StreamingXmlUnmarshaller build() {
+            return new StreamingXmlUnmarshaller(this);
+        }
+    }
+}
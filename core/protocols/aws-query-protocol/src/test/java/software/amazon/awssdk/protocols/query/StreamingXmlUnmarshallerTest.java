@@ -0,0 +1,81 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.protocols.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.protocols.query.unmarshall.StreamingXmlUnmarshaller;
+import software.amazon.awssdk.protocols.query.unmarshall.XmlDomParser;
+import software.amazon.awssdk.protocols.query.unmarshall.XmlElement;
+import software.amazon.awssdk.utils.StringInputStream;
+
+public class StreamingXmlUnmarshallerTest {
+
+    private final StreamingXmlUnmarshaller unmarshaller = StreamingXmlUnmarshaller.builder().build();
+
+    @Test
+    public void openDocument_PositionedAtRootElement() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                     + "<!-- comment -->"
+                     + "<Struct><member>val</member></Struct>";
+        XMLStreamReader reader = unmarshaller.openDocument(new StringInputStream(xml));
+        assertThat(reader.getEventType()).isEqualTo(XMLStreamConstants.START_ELEMENT);
+        assertThat(reader.getLocalName()).isEqualTo("Struct");
+    }
+
+    @Test
+    public void readText_MatchesDomParser() throws XMLStreamException {
+        assertTextMatchesDom("<member>valOne</member>");
+        assertTextMatchesDom("<member></member>");
+        assertTextMatchesDom("<member/>");
+        assertTextMatchesDom("<member>a &amp; b</member>");
+        assertTextMatchesDom("<member><![CDATA[<cdata>]]> and text</member>");
+        assertTextMatchesDom("<member>before<child>nested</child>after</member>");
+        assertTextMatchesDom("<member>before<child>nested</child></member>");
+    }
+
+    @Test
+    public void skipElement_PositionedAtMatchingEndElement() throws XMLStreamException {
+        String xml = "<Struct><skipped><a><b/></a><a/></skipped><next>val</next></Struct>";
+        XMLStreamReader reader = unmarshaller.openDocument(new StringInputStream(xml));
+        assertThat(StreamingXmlUnmarshaller.nextTag(reader)).isEqualTo(XMLStreamConstants.START_ELEMENT);
+        StreamingXmlUnmarshaller.skipElement(reader);
+        assertThat(reader.getLocalName()).isEqualTo("skipped");
+
+        assertThat(StreamingXmlUnmarshaller.nextTag(reader)).isEqualTo(XMLStreamConstants.START_ELEMENT);
+        assertThat(reader.getLocalName()).isEqualTo("next");
+        assertThat(StreamingXmlUnmarshaller.readText(reader)).isEqualTo("val");
+        assertThat(StreamingXmlUnmarshaller.nextTag(reader)).isEqualTo(XMLStreamConstants.END_ELEMENT);
+    }
+
+    @Test
+    public void invalidXml_ThrowsException() {
+        assertThatThrownBy(() -> unmarshaller.openDocument(new StringInputStream("not xml")))
+            .isInstanceOf(SdkClientException.class);
+    }
+
+    private void assertTextMatchesDom(String xml) throws XMLStreamException {
+        XmlElement element = XmlDomParser.parse(new StringInputStream(xml));
+        XMLStreamReader reader = unmarshaller.openDocument(new StringInputStream(xml));
+        assertThat(StreamingXmlUnmarshaller.readText(reader)).isEqualTo(element.textContent());
+    }
+}
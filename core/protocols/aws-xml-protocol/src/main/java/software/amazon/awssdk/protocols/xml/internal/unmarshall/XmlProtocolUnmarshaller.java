@@ -17,11 +17,13 @@ package software.amazon.awssdk.protocols.xml.internal.unmarshall;
 
 import static java.util.Collections.singletonList;
 
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.xml.stream.XMLStreamReader;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.SdkField;
 import software.amazon.awssdk.core.SdkPojo;
@@ -32,6 +34,7 @@ import software.amazon.awssdk.core.traits.TimestampFormatTrait;
 import software.amazon.awssdk.http.SdkHttpFullResponse;
 import software.amazon.awssdk.protocols.core.StringToInstant;
 import software.amazon.awssdk.protocols.core.StringToValueConverter;
+import software.amazon.awssdk.protocols.query.unmarshall.StreamingXmlUnmarshaller;
 import software.amazon.awssdk.protocols.query.unmarshall.XmlDomParser;
 import software.amazon.awssdk.protocols.query.unmarshall.XmlElement;
 import software.amazon.awssdk.protocols.query.unmarshall.XmlErrorUnmarshaller;
@@ -46,12 +49,21 @@ public final class XmlProtocolUnmarshaller implements XmlErrorUnmarshaller {
 
     private static final XmlUnmarshallerRegistry REGISTRY = createUnmarshallerRegistry();
 
-    private XmlProtocolUnmarshaller() {
+    private static final StreamingXmlUnmarshaller STREAMING_UNMARSHALLER = createStreamingUnmarshaller();
+
+    private final boolean streaming;
+
+    private XmlProtocolUnmarshaller(Builder builder) {
+        this.streaming = builder.streaming;
     }
 
     public <TypeT extends SdkPojo> TypeT unmarshall(SdkPojo sdkPojo,
                                                     SdkHttpFullResponse response) {
 
+        if (streaming && hasPayloadMembers(sdkPojo) && response.content().isPresent()) {
+            return unmarshallStreaming(sdkPojo, response, response.content().get());
+        }
+
         XmlElement document = hasPayloadMembers(sdkPojo) && response.content().isPresent()
                               ? XmlDomParser.parse(response.content().get()) : null;
 
@@ -94,6 +106,32 @@ public final class XmlProtocolUnmarshaller implements XmlErrorUnmarshaller {
         return (SdkPojo) ((Buildable) sdkPojo).build();
     }
 
+    /**
+     * Binds the response directly into the POJO with a {@link StreamingXmlUnmarshaller}. Members bound to the headers or
+     * status code are still unmarshalled by the {@link XmlUnmarshallerRegistry}.
+     */
+    private <TypeT extends SdkPojo> TypeT unmarshallStreaming(SdkPojo sdkPojo,
+                                                             SdkHttpFullResponse response,
+                                                             InputStream content) {
+        XmlUnmarshallerContext context = XmlUnmarshallerContext.builder()
+                                                               .response(response)
+                                                               .registry(REGISTRY)
+                                                               .protocolUnmarshaller(this)
+                                                               .build();
+        XMLStreamReader reader = STREAMING_UNMARSHALLER.openDocument(content);
+        try {
+            return STREAMING_UNMARSHALLER.unmarshall(reader, sdkPojo, field -> unmarshallNonPayload(context, field),
+                                                     StreamingXmlUnmarshaller::skipElement);
+        } finally {
+            StreamingXmlUnmarshaller.closeQuietly(reader);
+        }
+    }
+
+    private Object unmarshallNonPayload(XmlUnmarshallerContext context, SdkField<?> field) {
+        XmlUnmarshaller<Object> unmarshaller = REGISTRY.getUnmarshaller(field.location(), field.marshallingType());
+        return unmarshaller.unmarshall(context, null, (SdkField<Object>) field);
+    }
+
     private boolean isExplicitPayloadMember(SdkField<?> field) {
         return field.containsTrait(PayloadTrait.class);
     }
@@ -140,6 +178,22 @@ public final class XmlProtocolUnmarshaller implements XmlErrorUnmarshaller {
             .build();
     }
 
+    private static StreamingXmlUnmarshaller createStreamingUnmarshaller() {
+        return StreamingXmlUnmarshaller
+            .builder()
+            .scalarConverter(MarshallingType.STRING, StringToValueConverter.TO_STRING)
+            .scalarConverter(MarshallingType.INTEGER, StringToValueConverter.TO_INTEGER)
+            .scalarConverter(MarshallingType.LONG, StringToValueConverter.TO_LONG)
+            .scalarConverter(MarshallingType.FLOAT, StringToValueConverter.TO_FLOAT)
+            .scalarConverter(MarshallingType.DOUBLE, StringToValueConverter.TO_DOUBLE)
+            .scalarConverter(MarshallingType.BIG_DECIMAL, StringToValueConverter.TO_BIG_DECIMAL)
+            .scalarConverter(MarshallingType.BOOLEAN, StringToValueConverter.TO_BOOLEAN)
+            .scalarConverter(MarshallingType.INSTANT, INSTANT_STRING_TO_VALUE)
+            .scalarConverter(MarshallingType.SDK_BYTES, StringToValueConverter.TO_SDK_BYTES)
+            .matchListMemberName(true)
+            .build();
+    }
+
     /**
      * @return New {@link Builder} instance.
      */
@@ -152,14 +206,26 @@ public final class XmlProtocolUnmarshaller implements XmlErrorUnmarshaller {
      */
     public static final class Builder {
 
+        private boolean streaming;
+
         private Builder() {
         }
 
+        /**
+         * @param streaming True to bind successful responses directly into the POJO with a {@link StreamingXmlUnmarshaller}
+         * instead of first parsing them with the {@link XmlDomParser}.
+         * @return This builder for method chaining.
+         */
+        public Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
         /**
          * @return New instance of {@link XmlProtocolUnmarshaller}.
          */
         public XmlProtocolUnmarshaller build() {
-            return new XmlProtocolUnmarshaller();
+            return new XmlProtocolUnmarshaller(this);
         }
     }
 }
@@ -16,40 +16,77 @@
 package software.amazon.awssdk.core;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicReference;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.utils.StringUtils;
 import software.amazon.awssdk.utils.Validate;
 
+/**
+ * Holds either a single byte array or, when created from several buffers received over the wire, those buffers themselves.
+ * Buffers are only copied into a contiguous array when a caller asks for something that needs one, like
+ * {@link #asUtf8String()}, and that array is then reused.
+ */
 @SdkInternalApi
 abstract class BytesWrapper {
     private final byte[] bytes;
+    private final ByteBuffer[] buffers;
+    private final AtomicReference<byte[]> flattenedBuffers = new AtomicReference<>();
 
     // Needed for serialization
     BytesWrapper() {
-        this(null);
+        this((byte[]) null);
     }
 
     BytesWrapper(byte[] bytes) {
         this.bytes = Validate.paramNotNull(bytes, "bytes");
+        this.buffers = null;
+    }
+
+    /**
+     * Wraps the remaining contents of the given buffers, in order, without copying them. Neither the buffers nor their
+     * contents may be modified afterwards.
+     */
+    BytesWrapper(ByteBuffer[] buffers) {
+        Validate.paramNotNull(buffers, "buffers");
+        this.bytes = null;
+        this.buffers = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            this.buffers[i] = buffers[i].slice().asReadOnlyBuffer();
+        }
     }
 
     final byte[] wrappedBytes() {
-        return bytes;
+        if (bytes != null) {
+            return bytes;
+        }
+        byte[] flattened = flattenedBuffers.get();
+        if (flattened == null) {
+            flattenedBuffers.compareAndSet(null, copyBuffers());
+            flattened = flattenedBuffers.get();
+        }
+        return flattened;
     }
 
     /**
      * @return The output as a read-only byte buffer.
      */
     public final ByteBuffer asByteBuffer() {
-        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        if (buffers != null && buffers.length == 1) {
+            return buffers[0].duplicate();
+        }
+        return ByteBuffer.wrap(wrappedBytes()).asReadOnlyBuffer();
     }
 
     /**
@@ -57,7 +94,11 @@ abstract class BytesWrapper {
      * @see #asByteBuffer() to prevent creating an additional array copy.
      */
     public final byte[] asByteArray() {
-        return Arrays.copyOf(bytes, bytes.length);
+        if (bytes == null && flattenedBuffers.get() == null) {
+            return copyBuffers();
+        }
+        byte[] wrapped = wrappedBytes();
+        return Arrays.copyOf(wrapped, wrapped.length);
     }
 
     /**
@@ -69,7 +110,7 @@ abstract class BytesWrapper {
      * provided charset
      */
     public final String asString(Charset charset) throws UncheckedIOException {
-        return StringUtils.fromBytes(bytes, charset);
+        return StringUtils.fromBytes(wrappedBytes(), charset);
     }
 
     /**
@@ -84,7 +125,12 @@ abstract class BytesWrapper {
      * @return The output as an input stream. This stream will not need to be closed.
      */
     public final InputStream asInputStream() {
-        return new ByteArrayInputStream(bytes);
+        if (bytes == null && flattenedBuffers.get() == null) {
+            Enumeration<InputStream> streams = Collections.enumeration(
+                Arrays.stream(buffers).map(b -> new ByteBufferInputStream(b.duplicate())).collect(toList()));
+            return new SequenceInputStream(streams);
+        }
+        return new ByteArrayInputStream(wrappedBytes());
     }
 
     @Override
@@ -98,11 +144,60 @@ abstract class BytesWrapper {
 
         BytesWrapper sdkBytes = (BytesWrapper) o;
 
-        return Arrays.equals(bytes, sdkBytes.bytes);
+        return Arrays.equals(wrappedBytes(), sdkBytes.wrappedBytes());
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(bytes);
+        return Arrays.hashCode(wrappedBytes());
+    }
+
+    private byte[] copyBuffers() {
+        int length = 0;
+        for (ByteBuffer buffer : buffers) {
+            length = Math.addExact(length, buffer.remaining());
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (ByteBuffer buffer : buffers) {
+            int remaining = buffer.remaining();
+            buffer.duplicate().get(result, offset, remaining);
+            offset += remaining;
+        }
+        return result;
+    }
+
+    /**
+     * An input stream reading the remaining contents of a buffer it owns.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(len, buffer.remaining());
+            buffer.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
     }
 }
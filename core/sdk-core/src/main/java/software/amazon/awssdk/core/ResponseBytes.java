@@ -15,7 +15,9 @@
 
 package software.amazon.awssdk.core;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.List;
 import software.amazon.awssdk.annotations.SdkPublicApi;
 import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.sync.ResponseTransformer;
@@ -36,10 +38,41 @@ public final class ResponseBytes<ResponseT> extends BytesWrapper {
         this.response = Validate.paramNotNull(response, "response");
     }
 
+    private ResponseBytes(ResponseT response, ByteBuffer[] buffers) {
+        super(buffers);
+        this.response = Validate.paramNotNull(response, "response");
+    }
+
     public static <ResponseT> ResponseBytes<ResponseT> fromByteArray(ResponseT response, byte[] bytes) {
         return new ResponseBytes<>(response, Arrays.copyOf(bytes, bytes.length));
     }
 
+    /**
+     * Create {@link ResponseBytes} from a byte array without copying the contents of the byte array. The caller must not
+     * modify the array after this method is called, because the returned object shares it.
+     */
+    public static <ResponseT> ResponseBytes<ResponseT> fromByteArrayUnsafe(ResponseT response, byte[] bytes) {
+        return new ResponseBytes<>(response, bytes);
+    }
+
+    /**
+     * Create {@link ResponseBytes} from the remaining contents of the given buffers, in order, without copying them. The
+     * buffers are exposed as read-only views through {@link #asByteBuffer()} and {@link #asInputStream()}, and are only
+     * copied into a single array when one is needed (e.g. for {@link #asUtf8String()}). The caller must not modify the
+     * buffers or their contents after this method is called.
+     */
+    public static <ResponseT> ResponseBytes<ResponseT> fromByteBuffersUnsafe(ResponseT response, List<ByteBuffer> buffers) {
+        Validate.paramNotNull(buffers, "buffers");
+        if (buffers.size() == 1) {
+            ByteBuffer buffer = buffers.get(0);
+            if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.limit() == buffer.array().length) {
+                return new ResponseBytes<>(response, buffer.array());
+            }
+        }
+        return new ResponseBytes<>(response, buffers.toArray(new ByteBuffer[0]));
+    }
+
     /**
      * @return the unmarshalled response object from the service.
      */
@@ -23,6 +23,7 @@ import java.util.concurrent.CompletableFuture;
 import software.amazon.awssdk.annotations.SdkPublicApi;
 import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.core.internal.async.ByteArrayAsyncResponseTransformer;
+import software.amazon.awssdk.core.internal.async.ByteBuffersAsyncResponseTransformer;
 import software.amazon.awssdk.core.internal.async.FileAsyncResponseTransformer;
 
 /**
@@ -131,6 +132,25 @@ public interface AsyncResponseTransformer<ResponseT, ResultT> {
         return toFile(file.toPath());
     }
 
+    /**
+     * Creates an {@link AsyncResponseTransformer} that writes all the content to the given file through a memory mapping of
+     * it. When the response has a Content-Length, the file is created at its full size up front and each chunk is copied
+     * straight into the mapped pages, which avoids a write call per chunk for large downloads. Responses without a
+     * Content-Length are written the same way as {@link #toFile(Path)}.
+     *
+     * <p>As with {@link #toFile(Path)}, the SDK will attempt to delete the file in the event of an error, and an exception
+     * will be thrown if the file already exists. Copying into the mapping happens on the thread delivering the content, and
+     * each mapped region is unmapped as soon as it is filled. Whether this is faster than {@link #toFile(Path)} depends on
+     * the file system: page faults on the freshly sized file can outweigh the saved write calls, so measure before using it.
+     *
+     * @param path        Path to file to write to.
+     * @param <ResponseT> Pojo Response type.
+     * @return AsyncResponseTransformer instance.
+     */
+    static <ResponseT> AsyncResponseTransformer<ResponseT, ResponseT> toMemoryMappedFile(Path path) {
+        return new FileAsyncResponseTransformer<>(path, true);
+    }
+
     /**
      * Creates an {@link AsyncResponseTransformer} that writes all content to a byte array.
      *
@@ -140,4 +160,20 @@ public interface AsyncResponseTransformer<ResponseT, ResultT> {
     static <ResponseT> AsyncResponseTransformer<ResponseT, ResponseBytes<ResponseT>> toBytes() {
         return new ByteArrayAsyncResponseTransformer<>();
     }
+
+    /**
+     * Creates an {@link AsyncResponseTransformer} that keeps the received content in the buffers it arrived in, rather than
+     * copying it into a byte array. The returned {@link ResponseBytes} exposes those buffers through
+     * {@link ResponseBytes#asByteBuffer()} and {@link ResponseBytes#asInputStream()} without copying them, and only
+     * assembles a single array when a method that needs one, like {@link ResponseBytes#asUtf8String()}, is called.
+     *
+     * <p>This avoids copying large responses in memory, but requires that the {@link SdkPublisher} never reuses a buffer
+     * after publishing it, which is the case for the SDK's own HTTP clients.
+     *
+     * @param <ResponseT> Pojo response type.
+     * @return AsyncResponseTransformer instance.
+     */
+    static <ResponseT> AsyncResponseTransformer<ResponseT, ResponseBytes<ResponseT>> toBytesWithoutCopying() {
+        return new ByteBuffersAsyncResponseTransformer<>();
+    }
 }
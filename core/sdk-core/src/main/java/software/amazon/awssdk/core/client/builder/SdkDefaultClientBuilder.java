@@ -18,7 +18,11 @@ package software.amazon.awssdk.core.client.builder;
 import static software.amazon.awssdk.core.ClientType.ASYNC;
 import static software.amazon.awssdk.core.ClientType.SYNC;
 import static software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR;
+import static software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption.HEDGING_POLICY;
 import static software.amazon.awssdk.core.client.config.SdkAdvancedClientOption.DISABLE_HOST_PREFIX_INJECTION;
+import static software.amazon.awssdk.core.client.config.SdkAdvancedClientOption.ENABLE_ADAPTIVE_RATE_LIMITING;
+import static software.amazon.awssdk.core.client.config.SdkAdvancedClientOption.ENABLE_STREAMING_UNMARSHALLING;
+import static software.amazon.awssdk.core.client.config.SdkAdvancedClientOption.MAX_CONCURRENT_RETRY_BACKOFFS;
 import static software.amazon.awssdk.core.client.config.SdkAdvancedClientOption.SIGNER;
 import static software.amazon.awssdk.core.client.config.SdkAdvancedClientOption.USER_AGENT_PREFIX;
 import static software.amazon.awssdk.core.client.config.SdkAdvancedClientOption.USER_AGENT_SUFFIX;
@@ -311,6 +315,7 @@ public abstract class SdkDefaultClientBuilder<B extends SdkClientBuilder<B, C>,
 
     public final B asyncConfiguration(ClientAsyncConfiguration asyncConfiguration) {
         clientConfiguration.option(FUTURE_COMPLETION_EXECUTOR, asyncConfiguration.advancedOption(FUTURE_COMPLETION_EXECUTOR));
+        clientConfiguration.option(HEDGING_POLICY, asyncConfiguration.advancedOption(HEDGING_POLICY));
         return thisBuilder();
     }
 
@@ -330,6 +335,12 @@ public abstract class SdkDefaultClientBuilder<B extends SdkClientBuilder<B, C>,
         clientConfiguration.option(API_CALL_ATTEMPT_TIMEOUT, overrideConfig.apiCallAttemptTimeout().orElse(null));
         clientConfiguration.option(DISABLE_HOST_PREFIX_INJECTION,
                                    overrideConfig.advancedOption(DISABLE_HOST_PREFIX_INJECTION).orElse(null));
+        clientConfiguration.option(ENABLE_STREAMING_UNMARSHALLING,
+                                   overrideConfig.advancedOption(ENABLE_STREAMING_UNMARSHALLING).orElse(null));
+        clientConfiguration.option(MAX_CONCURRENT_RETRY_BACKOFFS,
+                                   overrideConfig.advancedOption(MAX_CONCURRENT_RETRY_BACKOFFS).orElse(null));
+        clientConfiguration.option(ENABLE_ADAPTIVE_RATE_LIMITING,
+                                   overrideConfig.advancedOption(ENABLE_ADAPTIVE_RATE_LIMITING).orElse(null));
         return thisBuilder();
     }
 
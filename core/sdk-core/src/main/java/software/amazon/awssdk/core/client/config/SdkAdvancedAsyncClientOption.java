@@ -19,6 +19,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.core.retry.HedgingPolicy;
 
 /**
  * A collection of advanced options that can be configured on an async AWS client via
@@ -41,6 +42,13 @@ public final class SdkAdvancedAsyncClientOption<T> extends ClientOption<T> {
     public static final SdkAdvancedAsyncClientOption<Executor> FUTURE_COMPLETION_EXECUTOR =
             new SdkAdvancedAsyncClientOption<>(Executor.class);
 
+    /**
+     * Configure a {@link HedgingPolicy} to send a second attempt of slow requests to idempotent operations, using the response
+     * of whichever attempt completes first. By default, requests are not hedged.
+     */
+    public static final SdkAdvancedAsyncClientOption<HedgingPolicy> HEDGING_POLICY =
+            new SdkAdvancedAsyncClientOption<>(HedgingPolicy.class);
+
     private SdkAdvancedAsyncClientOption(Class<T> valueClass) {
         super(valueClass);
     }
@@ -55,6 +55,37 @@ public class SdkAdvancedClientOption<T> extends ClientOption<T> {
     public static final SdkAdvancedClientOption<Boolean> DISABLE_HOST_PREFIX_INJECTION =
         new SdkAdvancedClientOption<>(Boolean.class);
 
+    /**
+     * Whether response payloads should be unmarshalled directly from the parser's token stream, without first building an
+     * intermediate document tree. This reduces allocation for large responses. Only supported by some protocols, which
+     * ignore this option otherwise.
+     *
+     * <p>This is disabled by default.</p>
+     */
+    public static final SdkAdvancedClientOption<Boolean> ENABLE_STREAMING_UNMARSHALLING =
+        new SdkAdvancedClientOption<>(Boolean.class);
+
+    /**
+     * The maximum number of calls of a synchronous client that may be waiting to be retried at once. Each of them holds its
+     * calling thread while it waits, so once the limit is reached a call that would wait to be retried fails with its last
+     * error instead, keeping a throttling episode from tying up every thread of the caller's thread pool.
+     *
+     * <p>By default the number of waiting calls is not limited. Asynchronous clients wait without holding a thread, and
+     * ignore this option.</p>
+     */
+    public static final SdkAdvancedClientOption<Integer> MAX_CONCURRENT_RETRY_BACKOFFS =
+        new SdkAdvancedClientOption<>(Integer.class);
+
+    /**
+     * Whether the client should limit the rate at which it sends requests once the service throttles it, adapting the limit
+     * to the throttling responses it receives. While limited, requests wait before being sent instead of adding to the load
+     * of an overloaded service, so fewer of them are throttled and retried. Disabled by default.
+     *
+     * @see software.amazon.awssdk.core.retry.SendRateMetrics
+     */
+    public static final SdkAdvancedClientOption<Boolean> ENABLE_ADAPTIVE_RATE_LIMITING =
+        new SdkAdvancedClientOption<>(Boolean.class);
+
     protected SdkAdvancedClientOption(Class<T> valueClass) {
         super(valueClass);
     }
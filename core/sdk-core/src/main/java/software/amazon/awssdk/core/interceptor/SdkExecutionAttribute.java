@@ -18,6 +18,9 @@ package software.amazon.awssdk.core.interceptor;
 import software.amazon.awssdk.annotations.SdkPublicApi;
 import software.amazon.awssdk.core.ClientType;
 import software.amazon.awssdk.core.ServiceConfiguration;
+import software.amazon.awssdk.core.retry.RetryBackoffMetrics;
+import software.amazon.awssdk.core.retry.RetryCapacityMetrics;
+import software.amazon.awssdk.core.retry.SendRateMetrics;
 import software.amazon.awssdk.core.signer.Signer;
 
 /**
@@ -45,6 +48,24 @@ public class SdkExecutionAttribute {
     public static final ExecutionAttribute<ClientType> CLIENT_TYPE = new ExecutionAttribute<>("ClientType");
 
     public static final ExecutionAttribute<String> OPERATION_NAME = new ExecutionAttribute<>("OperationName");
+
+    /**
+     * The retry capacity of the client making the request. It is set once the request starts being sent, so it can be read
+     * from {@link ExecutionInterceptor#afterExecution} and {@link ExecutionInterceptor#onExecutionFailure}.
+     */
+    public static final ExecutionAttribute<RetryCapacityMetrics> RETRY_CAPACITY = new ExecutionAttribute<>("RetryCapacity");
+
+    /**
+     * The calls of the client making the request that are waiting to be retried. Set at the same time as
+     * {@link #RETRY_CAPACITY}.
+     */
+    public static final ExecutionAttribute<RetryBackoffMetrics> RETRY_BACKOFFS = new ExecutionAttribute<>("RetryBackoffs");
+
+    /**
+     * The send rate of the client making the request. Only set if
+     * {@link software.amazon.awssdk.core.client.config.SdkAdvancedClientOption#ENABLE_ADAPTIVE_RATE_LIMITING} is enabled.
+     */
+    public static final ExecutionAttribute<SendRateMetrics> SEND_RATE = new ExecutionAttribute<>("SendRate");
     
     protected SdkExecutionAttribute() {
     }
@@ -15,19 +15,19 @@
 
 package software.amazon.awssdk.core.internal.async;
 
-import static software.amazon.awssdk.utils.FunctionalUtils.invokeSafely;
-
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 
-import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.SdkResponse;
 import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.async.SdkPublisher;
-import software.amazon.awssdk.utils.BinaryUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.TransientByteBufferSubscriber;
 
 /**
  * Implementation of {@link AsyncResponseTransformer} that dumps content into a byte array and supports further
@@ -35,6 +35,10 @@ import software.amazon.awssdk.utils.BinaryUtils;
  *
  * This can be created with static methods on {@link AsyncResponseTransformer}.
  *
+ * <p>When the response carries a Content-Length, the array is allocated up front at that size and every received buffer is
+ * copied into it exactly once; the array is then handed to {@link ResponseBytes} without a further copy. The header is not
+ * trusted beyond a few megabytes: larger responses start from an array of that size and grow it as the content arrives.
+ *
  * @param <ResponseT> Pojo response type.
  * @see AsyncResponseTransformer#toBytes()
  */
@@ -48,7 +52,7 @@ public final class ByteArrayAsyncResponseTransformer<ResponseT> implements
     @Override
     public CompletableFuture<ResponseBytes<ResponseT>> prepare() {
         cf = new CompletableFuture<>();
-        return cf.thenApply(arr -> ResponseBytes.fromByteArray(response, arr));
+        return cf.thenApply(arr -> ResponseBytes.fromByteArrayUnsafe(response, arr));
     }
 
     @Override
@@ -58,7 +62,7 @@ public final class ByteArrayAsyncResponseTransformer<ResponseT> implements
 
     @Override
     public void onStream(SdkPublisher<ByteBuffer> publisher) {
-        publisher.subscribe(new BaosSubscriber(cf));
+        publisher.subscribe(new BaosSubscriber(cf, expectedContentLength(response)));
     }
 
     @Override
@@ -66,15 +70,57 @@ public final class ByteArrayAsyncResponseTransformer<ResponseT> implements
         cf.completeExceptionally(throwable);
     }
 
-    static class BaosSubscriber implements Subscriber<ByteBuffer> {
+    /**
+     * Returns the Content-Length of the given response, or -1 if it is unknown.
+     */
+    static long expectedContentLength(Object response) {
+        if (!(response instanceof SdkResponse)) {
+            return -1;
+        }
+        SdkHttpResponse httpResponse = ((SdkResponse) response).sdkHttpResponse();
+        if (httpResponse == null) {
+            return -1;
+        }
+        try {
+            return httpResponse.firstMatchingHeader("Content-Length").map(Long::parseLong).orElse(-1L);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Copies each buffer into the array before returning from {@code onNext}, so the HTTP client does not need to hand it a
+     * copy of its own buffers.
+     */
+    static class BaosSubscriber implements TransientByteBufferSubscriber {
+        private static final int DEFAULT_INITIAL_CAPACITY = 32;
+
+        /**
+         * The largest array allocated from the Content-Length before any content is received.
+         */
+        private static final int MAX_INITIAL_CAPACITY = 4 * 1024 * 1024;
+
+        /**
+         * The largest array size the JVM reliably allocates.
+         */
+        private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
         private final CompletableFuture<byte[]> resultFuture;
 
-        private ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        private byte[] bytes;
+
+        private int size;
 
         private Subscription subscription;
 
         BaosSubscriber(CompletableFuture<byte[]> resultFuture) {
+            this(resultFuture, -1);
+        }
+
+        BaosSubscriber(CompletableFuture<byte[]> resultFuture, long expectedLength) {
             this.resultFuture = resultFuture;
+            this.bytes = new byte[expectedLength >= 0 ? (int) Math.min(expectedLength, MAX_INITIAL_CAPACITY)
+                                                      : DEFAULT_INITIAL_CAPACITY];
         }
 
         @Override
@@ -89,19 +135,38 @@ public final class ByteArrayAsyncResponseTransformer<ResponseT> implements
 
         @Override
         public void onNext(ByteBuffer byteBuffer) {
-            invokeSafely(() -> baos.write(BinaryUtils.copyBytesFrom(byteBuffer)));
+            if (bytes == null) {
+                return;
+            }
+            int remaining = byteBuffer.remaining();
+            if (remaining > MAX_ARRAY_SIZE - size) {
+                subscription.cancel();
+                onError(SdkClientException.create("The response is too large to be held in a byte array."));
+                return;
+            }
+            ensureCapacity(remaining);
+            byteBuffer.duplicate().get(bytes, size, remaining);
+            size += remaining;
             subscription.request(1);
         }
 
         @Override
         public void onError(Throwable throwable) {
-            baos = null;
+            bytes = null;
             resultFuture.completeExceptionally(throwable);
         }
 
         @Override
         public void onComplete() {
-            resultFuture.complete(baos.toByteArray());
+            resultFuture.complete(size == bytes.length ? bytes : Arrays.copyOf(bytes, size));
+        }
+
+        private void ensureCapacity(int additional) {
+            if (additional <= bytes.length - size) {
+                return;
+            }
+            int newCapacity = (int) Math.min(MAX_ARRAY_SIZE, Math.max((long) size + additional, 2L * bytes.length));
+            bytes = Arrays.copyOf(bytes, newCapacity);
         }
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.async;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.http.async.TransientByteBufferSubscriber;
+
+/**
+ * Implementation of {@link AsyncResponseTransformer} that keeps the buffers it receives instead of copying them into a byte
+ * array, and exposes them through {@link ResponseBytes} without a final copy.
+ *
+ * <p>This relies on the publisher handing over each buffer for good, i.e. never reusing or modifying it after it has been
+ * signalled with {@code onNext}. The SDK's HTTP clients guarantee this.
+ *
+ * This can be created with static methods on {@link AsyncResponseTransformer}.
+ *
+ * @param <ResponseT> Pojo response type.
+ * @see AsyncResponseTransformer#toBytesWithoutCopying()
+ */
+@SdkInternalApi
+public final class ByteBuffersAsyncResponseTransformer<ResponseT> implements
+        AsyncResponseTransformer<ResponseT, ResponseBytes<ResponseT>> {
+
+    private volatile CompletableFuture<List<ByteBuffer>> cf;
+    private volatile ResponseT response;
+
+    @Override
+    public CompletableFuture<ResponseBytes<ResponseT>> prepare() {
+        cf = new CompletableFuture<>();
+        return cf.thenApply(buffers -> ResponseBytes.fromByteBuffersUnsafe(response, buffers));
+    }
+
+    @Override
+    public void onResponse(ResponseT response) {
+        this.response = response;
+    }
+
+    @Override
+    public void onStream(SdkPublisher<ByteBuffer> publisher) {
+        publisher.subscribe(new RetainingSubscriber(cf));
+    }
+
+    @Override
+    public void exceptionOccurred(Throwable throwable) {
+        cf.completeExceptionally(throwable);
+    }
+
+    /**
+     * Keeps the buffers it receives, so it must never be a {@link TransientByteBufferSubscriber}: the HTTP client has to
+     * hand it buffers it owns.
+     */
+    static class RetainingSubscriber implements Subscriber<ByteBuffer> {
+        private final CompletableFuture<List<ByteBuffer>> resultFuture;
+
+        private List<ByteBuffer> buffers = new ArrayList<>();
+
+        private Subscription subscription;
+
+        RetainingSubscriber(CompletableFuture<List<ByteBuffer>> resultFuture) {
+            this.resultFuture = resultFuture;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (this.subscription != null) {
+                s.cancel();
+                return;
+            }
+            this.subscription = s;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+            if (byteBuffer.hasRemaining()) {
+                buffers.add(byteBuffer);
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            buffers = null;
+            resultFuture.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            resultFuture.complete(buffers);
+        }
+    }
+}
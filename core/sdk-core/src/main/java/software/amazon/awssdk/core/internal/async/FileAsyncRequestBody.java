@@ -23,13 +23,15 @@ import java.nio.channels.CompletionHandler;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.internal.util.NoopSubscription;
+import software.amazon.awssdk.utils.Validate;
 import software.amazon.awssdk.utils.builder.SdkBuilder;
 
 /**
@@ -46,6 +48,11 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
      */
     private static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
 
+    /**
+     * Default number of chunks read from the file ahead of the subscriber.
+     */
+    private static final int DEFAULT_READ_AHEAD_DEPTH = 1;
+
     /**
      * File to read.
      */
@@ -56,9 +63,23 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
      */
     private final int chunkSizeInBytes;
 
+    /**
+     * Maximum number of chunks being read or waiting to be delivered at any time.
+     */
+    private final int readAheadDepth;
+
+    /**
+     * Whether chunks are read into direct buffers that are reused once the subscriber's onNext returns.
+     */
+    private final boolean pooledDirectBuffers;
+
     private FileAsyncRequestBody(DefaultBuilder builder) {
         this.path = builder.path;
         this.chunkSizeInBytes = builder.chunkSizeInBytes == null ? DEFAULT_CHUNK_SIZE : builder.chunkSizeInBytes;
+        this.readAheadDepth = Validate.isPositive(builder.readAheadDepth == null ? DEFAULT_READ_AHEAD_DEPTH
+                                                                                 : builder.readAheadDepth,
+                                                  "readAheadDepth");
+        this.pooledDirectBuffers = Boolean.TRUE.equals(builder.pooledDirectBuffers);
     }
 
     @Override
@@ -72,17 +93,19 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
 
     @Override
     public void subscribe(Subscriber<? super ByteBuffer> s) {
+        AsynchronousFileChannel channel = null;
         try {
-            AsynchronousFileChannel channel = openInputChannel(this.path);
+            channel = openInputChannel(this.path);
 
             // We need to synchronize here because the subscriber could call
             // request() from within onSubscribe which would potentially
             // trigger onNext before onSubscribe is finished.
-            Subscription subscription = new FileSubscription(channel, s, chunkSizeInBytes);
+            Subscription subscription = new FileSubscription(channel, channel.size(), s, this);
             synchronized (subscription) {
                 s.onSubscribe(subscription);
             }
         } catch (IOException e) {
+            closeQuietly(channel);
             // subscribe() must return normally, so we need to signal the
             // failure to open via onError() once onSubscribe() is signaled.
             s.onSubscribe(new NoopSubscription(s));
@@ -122,12 +145,39 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
          */
         Builder chunkSizeInBytes(Integer chunkSize);
 
+        /**
+         * Sets how many chunks may be read from the file at once, ahead of the subscriber asking for them. Reads are issued
+         * concurrently and their chunks are delivered in file order, so a deeper read ahead hides disk latency between chunks
+         * at the cost of holding up to this many chunks in memory.
+         *
+         * <p>The default read ahead depth is {@value #DEFAULT_READ_AHEAD_DEPTH}, which reads one chunk at a time.</p>
+         *
+         * @param readAheadDepth Maximum number of chunks being read or waiting to be delivered.
+         * @return This builder for method chaining.
+         */
+        Builder readAheadDepth(Integer readAheadDepth);
+
+        /**
+         * Sets whether chunks are read into a small pool of direct buffers that are reused, instead of a newly allocated heap
+         * buffer for every chunk. This avoids allocating garbage for every chunk and lets HTTP clients that write from
+         * direct memory, like the Netty client, skip a heap to direct copy.
+         *
+         * <p><b>A buffer is reused as soon as the subscriber's {@code onNext} returns.</b> Only enable this when the
+         * subscriber copies or writes out every buffer before returning from {@code onNext}, as the SDK's Netty HTTP client
+         * does. Disabled by default.</p>
+         *
+         * @param pooledDirectBuffers Whether to read into reused direct buffers.
+         * @return This builder for method chaining.
+         */
+        Builder pooledDirectBuffers(Boolean pooledDirectBuffers);
     }
 
     private static final class DefaultBuilder implements Builder {
 
         private Path path;
         private Integer chunkSizeInBytes;
+        private Integer readAheadDepth;
+        private Boolean pooledDirectBuffers;
 
         @Override
         public Builder path(Path path) {
@@ -149,6 +199,26 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
             chunkSizeInBytes(chunkSizeInBytes);
         }
 
+        @Override
+        public Builder readAheadDepth(Integer readAheadDepth) {
+            this.readAheadDepth = readAheadDepth;
+            return this;
+        }
+
+        public void setReadAheadDepth(Integer readAheadDepth) {
+            readAheadDepth(readAheadDepth);
+        }
+
+        @Override
+        public Builder pooledDirectBuffers(Boolean pooledDirectBuffers) {
+            this.pooledDirectBuffers = pooledDirectBuffers;
+            return this;
+        }
+
+        public void setPooledDirectBuffers(Boolean pooledDirectBuffers) {
+            pooledDirectBuffers(pooledDirectBuffers);
+        }
+
         @Override
         public FileAsyncRequestBody build() {
             return new FileAsyncRequestBody(this);
@@ -157,21 +227,47 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
 
     /**
      * Reads the file for one subscriber.
+     *
+     * <p>Up to {@code readAheadDepth} chunks are read concurrently at consecutive file positions. Each read gets a sequence
+     * number and a slot in {@link #chunks}; completed chunks wait in their slot until every earlier chunk has been delivered,
+     * so the subscriber always sees the file in order. All state is guarded by the subscription's monitor.</p>
      */
     private static final class FileSubscription implements Subscription {
         private final AsynchronousFileChannel inputChannel;
+        private final long fileSize;
         private final Subscriber<? super ByteBuffer> subscriber;
         private final int chunkSize;
+        private final boolean pooledDirectBuffers;
+
+        /**
+         * Completed chunks, indexed by sequence number modulo the read ahead depth. A null slot is still being read.
+         */
+        private final ByteBuffer[] chunks;
 
-        private long position = 0;
-        private AtomicLong outstandingDemand = new AtomicLong(0);
-        private boolean writeInProgress = false;
+        /**
+         * Direct buffers that have been delivered and can be read into again.
+         */
+        private final Deque<ByteBuffer> bufferPool = new ArrayDeque<>();
+
+        private long nextReadPosition = 0;
+        private long nextReadSequence = 0;
+        private long nextDeliverySequence = 0;
+        private long outstandingDemand = 0;
+        private boolean endOfFile = false;
+        private boolean draining = false;
+        private boolean drainAgain = false;
         private volatile boolean done = false;
 
-        private FileSubscription(AsynchronousFileChannel inputChannel, Subscriber<? super ByteBuffer> subscriber, int chunkSize) {
+        private FileSubscription(AsynchronousFileChannel inputChannel,
+                                 long fileSize,
+                                 Subscriber<? super ByteBuffer> subscriber,
+                                 FileAsyncRequestBody body) {
             this.inputChannel = inputChannel;
+            this.fileSize = fileSize;
             this.subscriber = subscriber;
-            this.chunkSize = chunkSize;
+            this.chunkSize = body.chunkSizeInBytes;
+            this.pooledDirectBuffers = body.pooledDirectBuffers;
+            this.chunks = new ByteBuffer[body.readAheadDepth];
         }
 
         @Override
@@ -187,21 +283,11 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
                 signalOnError(ex);
             } else {
                 try {
-                    // As governed by rule 3.17, when demand overflows `Long.MAX_VALUE` we treat the signalled demand as
-                    // "effectively unbounded"
-                    outstandingDemand.getAndUpdate(initialDemand -> {
-                        if (Long.MAX_VALUE - initialDemand < n) {
-                            return Long.MAX_VALUE;
-                        } else {
-                            return initialDemand + n;
-                        }
-                    });
-
                     synchronized (this) {
-                        if (!writeInProgress) {
-                            writeInProgress = true;
-                            readData();
-                        }
+                        // As governed by rule 3.17, when demand overflows `Long.MAX_VALUE` we treat the signalled demand as
+                        // "effectively unbounded"
+                        outstandingDemand = Long.MAX_VALUE - outstandingDemand < n ? Long.MAX_VALUE : outstandingDemand + n;
+                        drain();
                     }
                 } catch (Exception e) {
                     signalOnError(e);
@@ -219,33 +305,94 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
             }
         }
 
-        private void readData() {
+        /**
+         * Delivers the completed chunks the subscriber has asked for, in order, then tops up the reads in flight. Re-entrant
+         * calls, e.g. a request() from within onNext, are folded into the running drain loop.
+         */
+        private synchronized void drain() {
+            if (draining) {
+                drainAgain = true;
+                return;
+            }
+            draining = true;
+            try {
+                do {
+                    drainAgain = false;
+                    deliverCompletedChunks();
+                    startReads();
+                    completeIfFinished();
+                } while (drainAgain && !done);
+            } finally {
+                draining = false;
+            }
+        }
+
+        private void deliverCompletedChunks() {
+            while (!done && nextDeliverySequence < nextReadSequence) {
+                int slot = slot(nextDeliverySequence);
+                ByteBuffer chunk = chunks[slot];
+                if (chunk == null) {
+                    return;
+                }
+                if (chunk.hasRemaining()) {
+                    if (outstandingDemand == 0) {
+                        return;
+                    }
+                    if (outstandingDemand != Long.MAX_VALUE) {
+                        outstandingDemand--;
+                    }
+                    subscriber.onNext(chunk);
+                }
+                chunks[slot] = null;
+                nextDeliverySequence++;
+                releaseBuffer(chunk);
+            }
+        }
+
+        private void startReads() {
+            while (!done && !endOfFile && nextReadPosition < fileSize
+                   && nextReadSequence - nextDeliverySequence < chunks.length) {
+                ByteBuffer buffer = acquireBuffer();
+                buffer.limit((int) Math.min(chunkSize, fileSize - nextReadPosition));
+                readChunk(nextReadSequence, nextReadPosition, buffer);
+                nextReadPosition += buffer.limit();
+                nextReadSequence++;
+            }
+        }
+
+        private void completeIfFinished() {
+            if ((endOfFile || nextReadPosition >= fileSize) && nextDeliverySequence == nextReadSequence) {
+                signalOnComplete();
+                closeFile();
+            }
+        }
+
+        /**
+         * Reads into the remaining space of the buffer, starting at the given position. A read may return fewer bytes than
+         * asked for, in which case the rest of the chunk is read before the chunk is considered complete.
+         */
+        private void readChunk(long sequence, long position, ByteBuffer buffer) {
             // It's possible to have another request for data come in after we've closed the file.
             if (!inputChannel.isOpen()) {
                 return;
             }
 
-            ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
             inputChannel.read(buffer, position, buffer, new CompletionHandler<Integer, ByteBuffer>() {
                 @Override
                 public void completed(Integer result, ByteBuffer attachment) {
-                    if (result > 0) {
-                        attachment.flip();
-                        position += attachment.remaining();
-                        signalOnNext(attachment);
-                        // If we have more permits, queue up another read.
-                        if (outstandingDemand.decrementAndGet() > 0) {
-                            readData();
-                            return;
-                        }
-                    } else {
-                        // Reached the end of the file, notify the subscriber and cleanup
-                        signalOnComplete();
-                        closeFile();
+                    if (result >= 0 && attachment.hasRemaining()) {
+                        readChunk(sequence, position + result, attachment);
+                        return;
                     }
 
                     synchronized (FileSubscription.this) {
-                        writeInProgress = false;
+                        if (result < 0) {
+                            // The file got shorter since we subscribed.
+                            endOfFile = true;
+                        }
+                        attachment.flip();
+                        chunks[slot(sequence)] = attachment;
+                        drain();
                     }
                 }
 
@@ -257,6 +404,28 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
             });
         }
 
+        private int slot(long sequence) {
+            return (int) (sequence % chunks.length);
+        }
+
+        private ByteBuffer acquireBuffer() {
+            if (!pooledDirectBuffers) {
+                return ByteBuffer.allocate(chunkSize);
+            }
+            ByteBuffer buffer = bufferPool.poll();
+            if (buffer == null) {
+                return ByteBuffer.allocateDirect(chunkSize);
+            }
+            buffer.clear();
+            return buffer;
+        }
+
+        private void releaseBuffer(ByteBuffer buffer) {
+            if (pooledDirectBuffers) {
+                bufferPool.push(buffer);
+            }
+        }
+
         private void closeFile() {
             try {
                 inputChannel.close();
@@ -265,14 +434,6 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
             }
         }
 
-        private void signalOnNext(ByteBuffer bb) {
-            synchronized (this) {
-                if (!done) {
-                    subscriber.onNext(bb);
-                }
-            }
-        }
-
         private void signalOnComplete() {
             synchronized (this) {
                 if (!done) {
@@ -295,4 +456,14 @@ public final class FileAsyncRequestBody implements AsyncRequestBody {
     private static AsynchronousFileChannel openInputChannel(Path path) throws IOException {
         return AsynchronousFileChannel.open(path, StandardOpenOption.READ);
     }
+
+    private static void closeQuietly(AsynchronousFileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already failing, the original exception is what gets reported.
+            }
+        }
+    }
 }
@@ -15,52 +15,90 @@
 
 package software.amazon.awssdk.core.internal.async;
 
+import static software.amazon.awssdk.core.internal.async.ByteArrayAsyncResponseTransformer.expectedContentLength;
 import static software.amazon.awssdk.utils.FunctionalUtils.invokeSafely;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channel;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.http.async.TransientByteBufferSubscriber;
 
 /**
  * {@link AsyncResponseTransformer} that writes the data to the specified file.
  *
+ * <p>In memory mapped mode, a response with a known Content-Length is written by sizing the file up front and copying each
+ * chunk straight into a mapping of it, leaving the operating system to write the pages back. Responses without a
+ * Content-Length are written through an {@link AsynchronousFileChannel} as usual.
+ *
  * @param <ResponseT> Response POJO type.
  */
 @SdkInternalApi
 public final class FileAsyncResponseTransformer<ResponseT> implements AsyncResponseTransformer<ResponseT, ResponseT> {
     private final Path path;
-    private volatile AsynchronousFileChannel fileChannel;
+    private final boolean memoryMapped;
+    private volatile Channel fileChannel;
     private volatile CompletableFuture<Void> cf;
     private volatile ResponseT response;
 
     public FileAsyncResponseTransformer(Path path) {
+        this(path, false);
+    }
+
+    public FileAsyncResponseTransformer(Path path, boolean memoryMapped) {
         this.path = path;
+        this.memoryMapped = memoryMapped;
     }
 
     private AsynchronousFileChannel createChannel(Path path) throws IOException {
         return AsynchronousFileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
     }
 
+    /**
+     * Creates the file and grows it to its final size, so mapping each region doesn't have to extend it again.
+     */
+    private FileChannel createMappableChannel(Path path, long size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                               StandardOpenOption.CREATE_NEW);
+        try {
+            channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            invokeSafely(channel::close);
+            throw e;
+        }
+    }
+
     @Override
     public CompletableFuture<ResponseT> prepare() {
         cf = new CompletableFuture<>();
-        cf.whenComplete((r, t) -> {
+        return cf.whenComplete((r, t) -> {
+            // A failed download leaves a partial file behind, which for a memory mapped one is already at its full size.
             if (t != null && fileChannel != null) {
-                invokeSafely(fileChannel::close);
+                try {
+                    invokeSafely(fileChannel::close);
+                } finally {
+                    invokeSafely(() -> Files.deleteIfExists(path));
+                }
             }
-        });
-        return cf.thenApply(ignored -> response);
+        }).thenApply(ignored -> response);
     }
 
     @Override
@@ -71,8 +109,16 @@ public final class FileAsyncResponseTransformer<ResponseT> implements AsyncRespo
     @Override
     public void onStream(SdkPublisher<ByteBuffer> publisher) {
         // onStream may be called multiple times so reset the file channel every time
-        this.fileChannel = invokeSafely(() -> createChannel(path));
-        publisher.subscribe(new FileSubscriber(this.fileChannel, path, cf));
+        long contentLength = memoryMapped ? expectedContentLength(response) : -1;
+        if (contentLength > 0) {
+            FileChannel channel = invokeSafely(() -> createMappableChannel(path, contentLength));
+            this.fileChannel = channel;
+            publisher.subscribe(new MappedFileSubscriber(channel, path, contentLength, cf));
+        } else {
+            AsynchronousFileChannel channel = invokeSafely(() -> createChannel(path));
+            this.fileChannel = channel;
+            publisher.subscribe(new FileSubscriber(channel, path, cf));
+        }
     }
 
     @Override
@@ -181,4 +227,184 @@ public final class FileAsyncResponseTransformer<ResponseT> implements AsyncRespo
             return getClass() + ":" + path.toString();
         }
     }
+
+    /**
+     * {@link Subscriber} implementation that copies chunks into a memory mapping of a file that has already been sized to
+     * the expected content length. The file is mapped in regions of at most {@link #MAX_REGION_SIZE} bytes, as a single
+     * mapping can't exceed 2GB.
+     */
+    static class MappedFileSubscriber implements TransientByteBufferSubscriber {
+        static final long MAX_REGION_SIZE = 1L << 30;
+
+        private final FileChannel fileChannel;
+        private final Path path;
+        private final long contentLength;
+        private final long regionSize;
+        private final CompletableFuture<Void> future;
+
+        private Subscription subscription;
+        private MappedByteBuffer region;
+        private long position = 0;
+        private boolean failed = false;
+
+        MappedFileSubscriber(FileChannel fileChannel, Path path, long contentLength, CompletableFuture<Void> future) {
+            this(fileChannel, path, contentLength, MAX_REGION_SIZE, future);
+        }
+
+        MappedFileSubscriber(FileChannel fileChannel, Path path, long contentLength, long regionSize,
+                             CompletableFuture<Void> future) {
+            this.fileChannel = fileChannel;
+            this.path = path;
+            this.contentLength = contentLength;
+            this.regionSize = regionSize;
+            this.future = future;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (this.subscription != null) {
+                s.cancel();
+                return;
+            }
+            this.subscription = s;
+            // Request the first chunk to start producing content
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+            if (byteBuffer == null) {
+                throw new NullPointerException("Element must not be null");
+            }
+            if (failed) {
+                return;
+            }
+            if (byteBuffer.remaining() > contentLength - position) {
+                fail(SdkClientException.create("Received more than the expected " + contentLength + " bytes for " + path));
+                return;
+            }
+
+            try {
+                while (byteBuffer.hasRemaining()) {
+                    if (region == null || !region.hasRemaining()) {
+                        releaseRegion();
+                        region = fileChannel.map(FileChannel.MapMode.READ_WRITE, position,
+                                                 Math.min(regionSize, contentLength - position));
+                    }
+                    int length = Math.min(byteBuffer.remaining(), region.remaining());
+                    ByteBuffer chunk = byteBuffer.duplicate();
+                    chunk.limit(chunk.position() + length);
+                    region.put(chunk);
+                    byteBuffer.position(byteBuffer.position() + length);
+                    position += length;
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Error handled by response handler
+            releaseRegion();
+        }
+
+        @Override
+        public void onComplete() {
+            if (failed) {
+                return;
+            }
+            releaseRegion();
+            if (position != contentLength) {
+                future.completeExceptionally(SdkClientException.create("Expected " + contentLength + " bytes for " + path
+                                                                        + " but only received " + position));
+                return;
+            }
+            try {
+                invokeSafely(fileChannel::close);
+                future.complete(null);
+            } catch (RuntimeException exception) {
+                future.completeExceptionally(exception);
+            }
+        }
+
+        private void fail(Throwable t) {
+            failed = true;
+            releaseRegion();
+            subscription.cancel();
+            future.completeExceptionally(t);
+        }
+
+        /**
+         * Unmaps the current region. It is never accessed again: every signal is delivered serially, and each one maps a new
+         * region before writing.
+         */
+        private void releaseRegion() {
+            if (region != null) {
+                Unmapper.unmap(region);
+                region = null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getClass() + ":" + path.toString();
+        }
+    }
+
+    /**
+     * Releases a mapping right away instead of when its buffer is garbage collected, which would otherwise keep the file
+     * mapped and its address space reserved until then. The JDK only exposes this through internal APIs, so it is done
+     * reflectively and on a best effort basis: if neither the Java 9+ nor the Java 8 way is available, mappings are released
+     * by the garbage collector as before.
+     */
+    static final class Unmapper {
+        private static final Consumer<ByteBuffer> UNMAP = createUnmap();
+
+        private Unmapper() {
+        }
+
+        static boolean isSupported() {
+            return UNMAP != null;
+        }
+
+        /**
+         * Unmaps the given buffer. It must not be accessed afterwards.
+         */
+        static void unmap(MappedByteBuffer buffer) {
+            if (UNMAP == null) {
+                return;
+            }
+            try {
+                UNMAP.accept(buffer);
+            } catch (RuntimeException e) {
+                // The mapping is released when the buffer is garbage collected
+            }
+        }
+
+        private static Consumer<ByteBuffer> createUnmap() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                Object unsafe = theUnsafe.get(null);
+                return buffer -> invokeSafely(() -> invokeCleaner.invoke(unsafe, buffer));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Not Java 9+, fall back to the cleaner of the buffer
+            }
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return buffer -> invokeSafely(() -> {
+                    Object bufferCleaner = cleaner.invoke(buffer);
+                    return bufferCleaner == null ? null : clean.invoke(bufferCleaner);
+                });
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
 }
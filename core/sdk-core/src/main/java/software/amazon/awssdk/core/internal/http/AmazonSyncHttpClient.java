@@ -41,12 +41,13 @@ import software.amazon.awssdk.core.internal.http.pipeline.stages.MakeRequestMuta
 import software.amazon.awssdk.core.internal.http.pipeline.stages.MergeCustomHeadersStage;
 import software.amazon.awssdk.core.internal.http.pipeline.stages.MergeCustomQueryParamsStage;
 import software.amazon.awssdk.core.internal.http.pipeline.stages.MoveParametersToBodyStage;
+import software.amazon.awssdk.core.internal.http.pipeline.stages.RateLimitingStage;
 import software.amazon.awssdk.core.internal.http.pipeline.stages.RetryableStage;
 import software.amazon.awssdk.core.internal.http.pipeline.stages.SigningStage;
 import software.amazon.awssdk.core.internal.http.pipeline.stages.TimeoutExceptionHandlingStage;
 import software.amazon.awssdk.core.internal.http.pipeline.stages.UnwrapResponseContainer;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.core.internal.retry.SdkDefaultRetrySetting;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.http.SdkHttpFullResponse;
 import software.amazon.awssdk.utils.SdkAutoCloseable;
@@ -60,14 +61,15 @@ public final class AmazonSyncHttpClient implements SdkAutoCloseable {
     public AmazonSyncHttpClient(SdkClientConfiguration clientConfiguration) {
         this.httpClientDependencies = HttpClientDependencies.builder()
                                                             .clientConfiguration(clientConfiguration)
-                                                            .capacityManager(createCapacityManager())
+                                                            .retryCapacity(createRetryCapacity())
                                                             .build();
     }
 
-    private CapacityManager createCapacityManager() {
+    private RetryTokenBucket createRetryCapacity() {
         // When enabled, total retry capacity is computed based on retry cost and desired number of retries.
         // TODO: Allow customers to configure throttled retries (https://github.com/aws/aws-sdk-java-v2/issues/17)
-        return new CapacityManager(SdkDefaultRetrySetting.RETRY_THROTTLING_COST * SdkDefaultRetrySetting.THROTTLED_RETRIES);
+        return new RetryTokenBucket(SdkDefaultRetrySetting.RETRY_THROTTLING_COST * SdkDefaultRetrySetting.THROTTLED_RETRIES,
+                                    SdkDefaultRetrySetting.RETRY_CAPACITY_REFILL_PER_SECOND);
     }
 
     /**
@@ -228,6 +230,7 @@ public final class AmazonSyncHttpClient implements SdkAutoCloseable {
                                          .then(() -> new HandleResponseStage<>(
                                              getNonNullResponseHandler(responseHandler),
                                              getNonNullResponseHandler(errorResponseHandler)))
+                                         .wrappedWith(RateLimitingStage::new)
                                          .wrappedWith(ApiCallAttemptTimeoutTrackingStage::new)
                                          .wrappedWith(TimeoutExceptionHandlingStage::new)
                                          .wrappedWith(RetryableStage::new)::build)
@@ -19,10 +19,17 @@ import static software.amazon.awssdk.utils.Validate.paramNotNull;
 
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.SdkGlobalTime;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
 import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestPipelineBuilder;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
+import software.amazon.awssdk.core.internal.http.timers.HashedWheelTimer;
+import software.amazon.awssdk.core.internal.retry.AdaptiveRateLimiter;
+import software.amazon.awssdk.core.internal.retry.RequestHedger;
+import software.amazon.awssdk.core.internal.retry.RetryBackoffs;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
+import software.amazon.awssdk.core.retry.HedgingPolicy;
 import software.amazon.awssdk.utils.SdkAutoCloseable;
 
 /**
@@ -32,7 +39,11 @@ import software.amazon.awssdk.utils.SdkAutoCloseable;
 @SdkInternalApi
 public final class HttpClientDependencies implements SdkAutoCloseable {
     private final SdkClientConfiguration clientConfiguration;
-    private final CapacityManager capacityManager;
+    private final RetryTokenBucket retryCapacity;
+    private final RetryBackoffs retryBackoffs;
+    private final HashedWheelTimer timeoutTimer;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final RequestHedger requestHedger;
 
     /**
      * Time offset may be mutated by {@link RequestPipeline} implementations if a clock skew is detected.
@@ -41,7 +52,14 @@ public final class HttpClientDependencies implements SdkAutoCloseable {
 
     private HttpClientDependencies(Builder builder) {
         this.clientConfiguration = paramNotNull(builder.clientConfiguration, "ClientConfiguration");
-        this.capacityManager = paramNotNull(builder.capacityManager, "CapacityManager");
+        this.retryCapacity = paramNotNull(builder.retryCapacity, "RetryCapacity");
+        this.retryBackoffs = new RetryBackoffs(clientConfiguration.option(SdkAdvancedClientOption.MAX_CONCURRENT_RETRY_BACKOFFS));
+        this.timeoutTimer = builder.timeoutTimer != null ? builder.timeoutTimer : HashedWheelTimer.shared();
+        this.rateLimiter = Boolean.TRUE.equals(clientConfiguration.option(SdkAdvancedClientOption.ENABLE_ADAPTIVE_RATE_LIMITING))
+                           ? new AdaptiveRateLimiter()
+                           : null;
+        HedgingPolicy hedgingPolicy = clientConfiguration.option(SdkAdvancedAsyncClientOption.HEDGING_POLICY);
+        this.requestHedger = hedgingPolicy != null ? new RequestHedger(hedgingPolicy) : null;
     }
 
     public static Builder builder() {
@@ -53,10 +71,38 @@ public final class HttpClientDependencies implements SdkAutoCloseable {
     }
 
     /**
-     * @return CapacityManager object used for retry throttling.
+     * @return Token bucket used for retry throttling.
      */
-    public CapacityManager retryCapacity() {
-        return capacityManager;
+    public RetryTokenBucket retryCapacity() {
+        return retryCapacity;
+    }
+
+    /**
+     * @return The calls of the client that are waiting to be retried.
+     */
+    public RetryBackoffs retryBackoffs() {
+        return retryBackoffs;
+    }
+
+    /**
+     * @return Timer used to schedule API call and API call attempt timeouts, shared by all clients unless overridden.
+     */
+    public HashedWheelTimer timeoutTimer() {
+        return timeoutTimer;
+    }
+
+    /**
+     * @return Limiter of the rate at which the client sends requests, or null if adaptive rate limiting is disabled.
+     */
+    public AdaptiveRateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return Hedger of slow requests to idempotent operations, or null if no hedging policy is configured.
+     */
+    public RequestHedger requestHedger() {
+        return requestHedger;
     }
 
     /**
@@ -84,7 +130,8 @@ public final class HttpClientDependencies implements SdkAutoCloseable {
      */
     public static class Builder {
         private SdkClientConfiguration clientConfiguration;
-        private CapacityManager capacityManager;
+        private RetryTokenBucket retryCapacity;
+        private HashedWheelTimer timeoutTimer;
 
         private Builder() {}
 
@@ -93,8 +140,13 @@ public final class HttpClientDependencies implements SdkAutoCloseable {
             return this;
         }
 
-        public Builder capacityManager(CapacityManager capacityManager) {
-            this.capacityManager = capacityManager;
+        public Builder retryCapacity(RetryTokenBucket retryCapacity) {
+            this.retryCapacity = retryCapacity;
+            return this;
+        }
+
+        public Builder timeoutTimer(HashedWheelTimer timeoutTimer) {
+            this.timeoutTimer = timeoutTimer;
             return this;
         }
 
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.http.async;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.SdkStandardLogger;
+import software.amazon.awssdk.core.internal.http.timers.HashedWheelTimer;
+import software.amazon.awssdk.core.internal.retry.RequestHedger;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+
+/**
+ * Executes a request with the async HTTP client, sending a second, identical attempt if the first one has not received a
+ * response after the delay given by the {@link RequestHedger}.
+ *
+ * <p>Each attempt gets its own response handler, and only the attempt that wins is forwarded to the response handler of the
+ * request, so the response is consumed exactly once. An attempt wins when it receives successful response headers, or any
+ * response headers if no other attempt is in flight; the other attempt is then aborted by completing its future
+ * exceptionally. If every attempt fails, the request fails with the error of the last one, for the retry stage to handle.
+ */
+@SdkInternalApi
+public final class HedgedAsyncExecution {
+    private final SdkAsyncHttpClient httpClient;
+    private final AsyncExecuteRequest executeRequest;
+    private final RequestHedger hedger;
+    private final String operationName;
+    private final CompletableFuture<Void> executionFuture = new CompletableFuture<>();
+
+    private final Object lock = new Object();
+    private final List<Attempt> attempts = new ArrayList<>(2);
+    private int inFlight;
+    private Attempt winner;
+    private HashedWheelTimer.Timeout hedgeTimeout;
+
+    private HedgedAsyncExecution(SdkAsyncHttpClient httpClient,
+                                 AsyncExecuteRequest executeRequest,
+                                 RequestHedger hedger,
+                                 String operationName) {
+        this.httpClient = httpClient;
+        this.executeRequest = executeRequest;
+        this.hedger = hedger;
+        this.operationName = operationName;
+    }
+
+    /**
+     * Executes a request of a hedgeable operation. The request content publisher must support being subscribed to once per
+     * attempt.
+     *
+     * @param httpClient The HTTP client to execute the attempts with.
+     * @param executeRequest The request, including the response handler the winning attempt is forwarded to.
+     * @param hedger The client's hedging state.
+     * @param operationName The name of the operation, used to look up its latencies.
+     * @param timer The timer to schedule the hedge on.
+     * @param hedgeExecutor The executor to send the hedge from, so it is not sent from the timer thread.
+     * @return A future completed when the winning attempt completes, or failed when every attempt failed. Completing it
+     * exceptionally aborts the attempts in flight.
+     */
+    public static CompletableFuture<Void> execute(SdkAsyncHttpClient httpClient,
+                                                  AsyncExecuteRequest executeRequest,
+                                                  RequestHedger hedger,
+                                                  String operationName,
+                                                  HashedWheelTimer timer,
+                                                  Executor hedgeExecutor) {
+        HedgedAsyncExecution execution = new HedgedAsyncExecution(httpClient, executeRequest, hedger, operationName);
+        execution.start(timer, hedgeExecutor);
+        return execution.executionFuture;
+    }
+
+    private void start(HashedWheelTimer timer, Executor hedgeExecutor) {
+        long hedgeDelayNanos = hedger.onRequest(operationName);
+        Attempt primary = newAttempt(false);
+        executionFuture.whenComplete((r, t) -> {
+            cancelHedge();
+            if (t != null) {
+                abortAttempts(t);
+            }
+        });
+        if (hedgeDelayNanos >= 0) {
+            HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> hedgeExecutor.execute(this::hedge),
+                                                                hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            synchronized (lock) {
+                hedgeTimeout = timeout;
+            }
+        }
+        primary.send();
+    }
+
+    private Attempt newAttempt(boolean hedge) {
+        Attempt attempt = new Attempt(hedge);
+        synchronized (lock) {
+            attempts.add(attempt);
+            inFlight++;
+        }
+        return attempt;
+    }
+
+    private void hedge() {
+        Attempt hedge;
+        synchronized (lock) {
+            if (winner != null || inFlight == 0 || executionFuture.isDone() || !hedger.tryAcquireHedge()) {
+                return;
+            }
+            hedge = new Attempt(true);
+            attempts.add(hedge);
+            inFlight++;
+        }
+        SdkStandardLogger.REQUEST_LOGGER.debug(() -> "No response received in time, hedging " + operationName + " request");
+        hedge.send();
+    }
+
+    private void onHeaders(Attempt attempt, SdkHttpResponse response) {
+        List<Attempt> losers = new ArrayList<>(1);
+        synchronized (lock) {
+            if (winner != null || attempt.finished) {
+                return;
+            }
+            attempt.finished = true;
+            inFlight--;
+            if (!response.isSuccessful() && inFlight > 0) {
+                // Wait for the other attempt rather than use an error response
+                attempt.abort(new CancellationException("Error response received while another attempt is in flight"));
+                return;
+            }
+            winner = attempt;
+            for (Attempt other : attempts) {
+                if (!other.finished) {
+                    other.finished = true;
+                    losers.add(other);
+                }
+            }
+            inFlight = 0;
+        }
+        cancelHedge();
+
+        hedger.recordLatency(operationName, attempt.elapsedNanos());
+        if (attempt.hedge) {
+            hedger.hedgeWon();
+        }
+        for (Attempt loser : losers) {
+            if (!loser.hedge) {
+                // The primary attempt took at least this long; not recording it would hide the slow requests that were hedged
+                hedger.recordLatency(operationName, loser.elapsedNanos());
+            }
+            loser.abort(new CancellationException("Another attempt responded first"));
+        }
+        executeRequest.responseHandler().onHeaders(response);
+    }
+
+    private void onFailure(Attempt attempt, Throwable error) {
+        synchronized (lock) {
+            if (winner != null || attempt.finished) {
+                return;
+            }
+            attempt.finished = true;
+            inFlight--;
+            if (inFlight > 0) {
+                return;
+            }
+        }
+        cancelHedge();
+        executeRequest.responseHandler().onError(error);
+        executionFuture.completeExceptionally(error);
+    }
+
+    private boolean isWinner(Attempt attempt) {
+        synchronized (lock) {
+            return winner == attempt;
+        }
+    }
+
+    private void cancelHedge() {
+        HashedWheelTimer.Timeout timeout;
+        synchronized (lock) {
+            timeout = hedgeTimeout;
+        }
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void abortAttempts(Throwable cause) {
+        List<Attempt> toAbort;
+        synchronized (lock) {
+            toAbort = new ArrayList<>(attempts);
+        }
+        toAbort.forEach(a -> a.abort(cause));
+    }
+
+    /**
+     * A single attempt, receiving the response of its own HTTP exchange.
+     */
+    private final class Attempt implements SdkAsyncHttpResponseHandler {
+        private final boolean hedge;
+        private final long startNanos = System.nanoTime();
+        private volatile CompletableFuture<Void> future;
+        private volatile Throwable abortCause;
+
+        /**
+         * Guarded by {@link #lock}. Set once the attempt won, lost or failed.
+         */
+        private boolean finished;
+
+        private Attempt(boolean hedge) {
+            this.hedge = hedge;
+        }
+
+        private void send() {
+            AsyncExecuteRequest attemptRequest = AsyncExecuteRequest.builder()
+                                                                    .request(executeRequest.request())
+                                                                    .requestContentPublisher(
+                                                                        executeRequest.requestContentPublisher())
+                                                                    .responseHandler(this)
+                                                                    .fullDuplex(executeRequest.fullDuplex())
+                                                                    .build();
+            CompletableFuture<Void> attemptFuture;
+            try {
+                attemptFuture = httpClient.execute(attemptRequest);
+            } catch (RuntimeException e) {
+                onFailure(this, e);
+                return;
+            }
+            this.future = attemptFuture;
+            attemptFuture.whenComplete((r, t) -> {
+                if (isWinner(this)) {
+                    if (t == null) {
+                        executionFuture.complete(null);
+                    } else {
+                        executionFuture.completeExceptionally(t);
+                    }
+                } else if (t != null) {
+                    onFailure(this, t);
+                }
+            });
+            Throwable cause = abortCause;
+            if (cause != null) {
+                attemptFuture.completeExceptionally(cause);
+            }
+        }
+
+        private void abort(Throwable cause) {
+            abortCause = cause;
+            CompletableFuture<Void> attemptFuture = future;
+            if (attemptFuture != null) {
+                attemptFuture.completeExceptionally(cause);
+            }
+        }
+
+        private long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        @Override
+        public void onHeaders(SdkHttpResponse headers) {
+            HedgedAsyncExecution.this.onHeaders(this, headers);
+        }
+
+        @Override
+        public void onStream(Publisher<ByteBuffer> stream) {
+            if (isWinner(this)) {
+                executeRequest.responseHandler().onStream(stream);
+            } else {
+                stream.subscribe(new CancellingSubscriber());
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (isWinner(this)) {
+                executeRequest.responseHandler().onError(error);
+            } else {
+                onFailure(this, error);
+            }
+        }
+    }
+
+    /**
+     * Discards the response content of an attempt that lost.
+     */
+    private static final class CancellingSubscriber implements Subscriber<ByteBuffer> {
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.cancel();
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -22,7 +22,6 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import org.reactivestreams.Publisher;
-import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.http.HttpResponseHandler;
@@ -32,6 +31,7 @@ import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.http.SdkHttpFullResponse;
 import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.http.async.SdkHttpResponseHandler;
+import software.amazon.awssdk.http.async.TransientByteBufferSubscriber;
 import software.amazon.awssdk.utils.BinaryUtils;
 import software.amazon.awssdk.utils.CompletableFutureUtils;
 
@@ -91,7 +91,7 @@ public final class SyncResponseHandlerAdapter<T> implements TransformingAsyncRes
         });
     }
 
-    private static class BaosSubscriber implements Subscriber<ByteBuffer> {
+    private static class BaosSubscriber implements TransientByteBufferSubscriber {
         private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
         private final CompletableFuture<ByteArrayOutputStream> streamFuture;
         private Subscription subscription;
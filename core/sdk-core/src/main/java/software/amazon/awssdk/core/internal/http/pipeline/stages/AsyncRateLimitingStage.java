@@ -0,0 +1,96 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.http.pipeline.stages;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.SdkStandardLogger;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.client.config.SdkClientOption;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.internal.Response;
+import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
+import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
+import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
+import software.amazon.awssdk.core.internal.retry.AdaptiveRateLimiter;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+
+/**
+ * Wrapper around the pipeline for a single asynchronous request attempt that delays the attempt, if
+ * {@link SdkAdvancedClientOption#ENABLE_ADAPTIVE_RATE_LIMITING} is enabled, until the client's send rate allows it to be
+ * sent, and reports whether its response was a throttling response. The attempt is delayed on the client's scheduled
+ * executor, without holding a thread.
+ */
+@SdkInternalApi
+public final class AsyncRateLimitingStage<OutputT>
+    implements RequestPipeline<SdkHttpFullRequest, CompletableFuture<Response<OutputT>>> {
+
+    private final RequestPipeline<SdkHttpFullRequest, CompletableFuture<Response<OutputT>>> wrapped;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final ScheduledExecutorService scheduledExecutor;
+
+    public AsyncRateLimitingStage(HttpClientDependencies dependencies,
+                                  RequestPipeline<SdkHttpFullRequest, CompletableFuture<Response<OutputT>>> wrapped) {
+        this.wrapped = wrapped;
+        this.rateLimiter = dependencies.rateLimiter();
+        this.scheduledExecutor = dependencies.clientConfiguration().option(SdkClientOption.SCHEDULED_EXECUTOR_SERVICE);
+    }
+
+    @Override
+    public CompletableFuture<Response<OutputT>> execute(SdkHttpFullRequest request,
+                                                        RequestExecutionContext context) throws Exception {
+        if (rateLimiter == null) {
+            return wrapped.execute(request, context);
+        }
+        context.executionAttributes().putAttribute(SdkExecutionAttribute.SEND_RATE, rateLimiter);
+
+        long delayNanos = rateLimiter.acquire();
+        CompletableFuture<Response<OutputT>> responseFuture;
+        if (delayNanos > 0) {
+            SdkStandardLogger.REQUEST_LOGGER.debug(() -> "Client is being throttled, will send request in "
+                                                         + TimeUnit.NANOSECONDS.toMillis(delayNanos) + "ms");
+            responseFuture = new CompletableFuture<>();
+            scheduledExecutor.schedule(() -> executeDelayed(request, context, responseFuture), delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            responseFuture = wrapped.execute(request, context);
+        }
+
+        return responseFuture.whenComplete((r, t) -> {
+            if (r != null) {
+                rateLimiter.updateSendRate(RateLimitingStage.isThrottlingResponse(r));
+            }
+        });
+    }
+
+    private void executeDelayed(SdkHttpFullRequest request,
+                                RequestExecutionContext context,
+                                CompletableFuture<Response<OutputT>> responseFuture) {
+        try {
+            wrapped.execute(request, context).whenComplete((r, t) -> {
+                if (t != null) {
+                    responseFuture.completeExceptionally(t);
+                } else {
+                    responseFuture.complete(r);
+                }
+            });
+        } catch (Throwable t) {
+            responseFuture.completeExceptionally(t);
+        }
+    }
+}
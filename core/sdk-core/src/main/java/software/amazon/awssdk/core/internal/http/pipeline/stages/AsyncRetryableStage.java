@@ -28,13 +28,15 @@ import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.client.config.SdkClientOption;
 import software.amazon.awssdk.core.exception.NonRetryableException;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
 import software.amazon.awssdk.core.internal.Response;
 import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
 import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
 import software.amazon.awssdk.core.internal.http.TransformingAsyncResponseHandler;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
+import software.amazon.awssdk.core.internal.retry.RetryBackoffs;
 import software.amazon.awssdk.core.internal.retry.RetryHandler;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.core.internal.util.ClockSkewUtil;
 import software.amazon.awssdk.core.internal.util.ThrowableUtils;
 import software.amazon.awssdk.core.retry.RetryPolicy;
@@ -55,7 +57,8 @@ public final class AsyncRetryableStage<OutputT> implements RequestPipeline<SdkHt
     private final RequestPipeline<SdkHttpFullRequest, CompletableFuture<Response<OutputT>>> requestPipeline;
     private final ScheduledExecutorService scheduledExecutor;
     private final HttpClientDependencies dependencies;
-    private final CapacityManager retryCapacity;
+    private final RetryTokenBucket retryCapacity;
+    private final RetryBackoffs retryBackoffs;
     private final RetryPolicy retryPolicy;
 
     public AsyncRetryableStage(TransformingAsyncResponseHandler<OutputT> responseHandler,
@@ -66,6 +69,7 @@ public final class AsyncRetryableStage<OutputT> implements RequestPipeline<SdkHt
         this.scheduledExecutor = dependencies.clientConfiguration().option(SdkClientOption.SCHEDULED_EXECUTOR_SERVICE);
         this.retryPolicy = dependencies.clientConfiguration().option(SdkClientOption.RETRY_POLICY);
         this.retryCapacity = dependencies.retryCapacity();
+        this.retryBackoffs = dependencies.retryBackoffs();
         this.requestPipeline = requestPipeline;
     }
 
@@ -92,6 +96,8 @@ public final class AsyncRetryableStage<OutputT> implements RequestPipeline<SdkHt
             this.context = context;
             this.originalRequestBody = context.requestProvider();
             this.retryHandler = new RetryHandler(retryPolicy, retryCapacity);
+            context.executionAttributes().putAttribute(SdkExecutionAttribute.RETRY_CAPACITY, retryCapacity);
+            context.executionAttributes().putAttribute(SdkExecutionAttribute.RETRY_BACKOFFS, retryBackoffs);
         }
 
         public CompletableFuture<Response<OutputT>> execute() throws Exception {
@@ -178,10 +184,17 @@ public final class AsyncRetryableStage<OutputT> implements RequestPipeline<SdkHt
 
             SdkStandardLogger.REQUEST_LOGGER.debug(() -> "Retryable error detected, will retry in " + delay.toMillis() + "ms,"
                                                          + " attempt number " + retriesAttempted);
-            scheduledExecutor.schedule(() -> {
-                execute(future);
-                return null;
-            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+            retryBackoffs.beginScheduledBackoff();
+            try {
+                scheduledExecutor.schedule(() -> {
+                    retryBackoffs.endScheduledBackoff();
+                    execute(future);
+                    return null;
+                }, delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                retryBackoffs.endScheduledBackoff();
+                throw e;
+            }
         }
 
         private void beforeExecute() {
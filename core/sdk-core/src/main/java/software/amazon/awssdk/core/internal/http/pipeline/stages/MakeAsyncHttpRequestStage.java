@@ -32,16 +32,20 @@ import software.amazon.awssdk.core.client.config.SdkClientOption;
 import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
 import software.amazon.awssdk.core.interceptor.SdkInternalExecutionAttribute;
 import software.amazon.awssdk.core.internal.Response;
 import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
 import software.amazon.awssdk.core.internal.http.InterruptMonitor;
 import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
 import software.amazon.awssdk.core.internal.http.TransformingAsyncResponseHandler;
+import software.amazon.awssdk.core.internal.http.async.HedgedAsyncExecution;
 import software.amazon.awssdk.core.internal.http.async.SimpleHttpContentPublisher;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
+import software.amazon.awssdk.core.internal.http.timers.HashedWheelTimer;
 import software.amazon.awssdk.core.internal.http.timers.TimeoutTracker;
 import software.amazon.awssdk.core.internal.http.timers.TimerUtils;
+import software.amazon.awssdk.core.internal.retry.RequestHedger;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.http.SdkHttpFullResponse;
 import software.amazon.awssdk.http.SdkHttpMethod;
@@ -66,7 +70,9 @@ public final class MakeAsyncHttpRequestStage<OutputT>
     private final TransformingAsyncResponseHandler<? extends SdkException> errorResponseHandler;
     private final Executor futureCompletionExecutor;
     private final ScheduledExecutorService timeoutExecutor;
+    private final HashedWheelTimer timeoutTimer;
     private final Duration apiCallAttemptTimeout;
+    private final RequestHedger requestHedger;
 
     public MakeAsyncHttpRequestStage(TransformingAsyncResponseHandler<OutputT> responseHandler,
                                      TransformingAsyncResponseHandler<? extends SdkException> errorResponseHandler,
@@ -78,6 +84,8 @@ public final class MakeAsyncHttpRequestStage<OutputT>
         this.sdkAsyncHttpClient = dependencies.clientConfiguration().option(SdkClientOption.ASYNC_HTTP_CLIENT);
         this.apiCallAttemptTimeout = dependencies.clientConfiguration().option(SdkClientOption.API_CALL_ATTEMPT_TIMEOUT);
         this.timeoutExecutor = dependencies.clientConfiguration().option(SdkClientOption.SCHEDULED_EXECUTOR_SERVICE);
+        this.timeoutTimer = dependencies.timeoutTimer();
+        this.requestHedger = dependencies.requestHedger();
     }
 
     @Override
@@ -113,7 +121,7 @@ public final class MakeAsyncHttpRequestStage<OutputT>
                                                                 .fullDuplex(isFullDuplex(context.executionAttributes()))
                                                                 .build();
 
-        CompletableFuture<Void> httpClientFuture = sdkAsyncHttpClient.execute(executeRequest);
+        CompletableFuture<Void> httpClientFuture = doExecuteHttpRequest(executeRequest, context);
 
         CompletableFuture<Response<OutputT>> transformFuture = handler.prepare();
 
@@ -140,6 +148,22 @@ public final class MakeAsyncHttpRequestStage<OutputT>
         return responseFuture;
     }
 
+    /**
+     * Requests of hedgeable operations are hedged, unless their content comes from a streaming request body, which can only be
+     * read once.
+     */
+    private CompletableFuture<Void> doExecuteHttpRequest(AsyncExecuteRequest executeRequest, RequestExecutionContext context) {
+        String operationName = context.executionAttributes().getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        if (requestHedger != null
+            && requestHedger.isHedgeable(operationName)
+            && context.requestProvider() == null
+            && !executeRequest.fullDuplex()) {
+            return HedgedAsyncExecution.execute(sdkAsyncHttpClient, executeRequest, requestHedger, operationName,
+                                                timeoutTimer, timeoutExecutor);
+        }
+        return sdkAsyncHttpClient.execute(executeRequest);
+    }
+
     private boolean isFullDuplex(ExecutionAttributes executionAttributes) {
         return executionAttributes.getAttribute(SdkInternalExecutionAttribute.IS_FULL_DUPLEX) != null &&
                executionAttributes.getAttribute(SdkInternalExecutionAttribute.IS_FULL_DUPLEX);
@@ -167,6 +191,7 @@ public final class MakeAsyncHttpRequestStage<OutputT>
     private TimeoutTracker setupAttemptTimer(CompletableFuture<Response<OutputT>> executeFuture, RequestExecutionContext ctx) {
         long timeoutMillis = apiCallAttemptTimeoutInMillis(ctx.requestConfig());
         return TimerUtils.timeAsyncTaskIfNeeded(executeFuture,
+                                                timeoutTimer,
                                                 timeoutExecutor,
                                                 ApiCallAttemptTimeoutException.create(timeoutMillis),
                                                 timeoutMillis);
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.http.pipeline.stages;
+
+import java.util.concurrent.TimeUnit;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.SdkStandardLogger;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.internal.Response;
+import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
+import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
+import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
+import software.amazon.awssdk.core.internal.http.pipeline.RequestToResponsePipeline;
+import software.amazon.awssdk.core.internal.retry.AdaptiveRateLimiter;
+import software.amazon.awssdk.core.retry.RetryUtils;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+
+/**
+ * Wrapper around the pipeline for a single request attempt that waits, if
+ * {@link SdkAdvancedClientOption#ENABLE_ADAPTIVE_RATE_LIMITING} is enabled, until the client's send rate allows the attempt
+ * to be sent, and reports whether its response was a throttling response.
+ */
+@SdkInternalApi
+public final class RateLimitingStage<OutputT> implements RequestToResponsePipeline<OutputT> {
+
+    private final RequestPipeline<SdkHttpFullRequest, Response<OutputT>> wrapped;
+    private final AdaptiveRateLimiter rateLimiter;
+
+    public RateLimitingStage(HttpClientDependencies dependencies,
+                             RequestPipeline<SdkHttpFullRequest, Response<OutputT>> wrapped) {
+        this.wrapped = wrapped;
+        this.rateLimiter = dependencies.rateLimiter();
+    }
+
+    @Override
+    public Response<OutputT> execute(SdkHttpFullRequest request, RequestExecutionContext context) throws Exception {
+        if (rateLimiter == null) {
+            return wrapped.execute(request, context);
+        }
+        context.executionAttributes().putAttribute(SdkExecutionAttribute.SEND_RATE, rateLimiter);
+
+        long delayNanos = rateLimiter.acquire();
+        if (delayNanos > 0) {
+            SdkStandardLogger.REQUEST_LOGGER.debug(() -> "Client is being throttled, will send request in "
+                                                         + TimeUnit.NANOSECONDS.toMillis(delayNanos) + "ms");
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        }
+
+        Response<OutputT> response = wrapped.execute(request, context);
+        rateLimiter.updateSendRate(isThrottlingResponse(response));
+        return response;
+    }
+
+    static boolean isThrottlingResponse(Response<?> response) {
+        return response.isFailure() && RetryUtils.isThrottlingException(response.exception());
+    }
+}
@@ -17,21 +17,22 @@ package software.amazon.awssdk.core.internal.http.pipeline.stages;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.SdkStandardLogger;
 import software.amazon.awssdk.core.client.config.SdkClientOption;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
 import software.amazon.awssdk.core.internal.Response;
 import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
 import software.amazon.awssdk.core.internal.http.InterruptMonitor;
 import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestToResponsePipeline;
+import software.amazon.awssdk.core.internal.retry.RetryBackoffs;
 import software.amazon.awssdk.core.internal.retry.RetryHandler;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.core.internal.util.ClockSkewUtil;
 import software.amazon.awssdk.core.retry.RetryPolicy;
 import software.amazon.awssdk.core.retry.RetryUtils;
@@ -49,13 +50,15 @@ public final class RetryableStage<OutputT> implements RequestToResponsePipeline<
     private final RequestPipeline<SdkHttpFullRequest, Response<OutputT>> requestPipeline;
 
     private final HttpClientDependencies dependencies;
-    private final CapacityManager retryCapacity;
+    private final RetryTokenBucket retryCapacity;
+    private final RetryBackoffs retryBackoffs;
     private final RetryPolicy retryPolicy;
 
     public RetryableStage(HttpClientDependencies dependencies,
                           RequestPipeline<SdkHttpFullRequest, Response<OutputT>> requestPipeline) {
         this.dependencies = dependencies;
         this.retryCapacity = dependencies.retryCapacity();
+        this.retryBackoffs = dependencies.retryBackoffs();
         this.retryPolicy = dependencies.clientConfiguration().option(SdkClientOption.RETRY_POLICY);
         this.requestPipeline = requestPipeline;
     }
@@ -79,6 +82,8 @@ public final class RetryableStage<OutputT> implements RequestToResponsePipeline<
             this.request = request;
             this.context = context;
             this.retryHandler = new RetryHandler(retryPolicy, retryCapacity);
+            context.executionAttributes().putAttribute(SdkExecutionAttribute.RETRY_CAPACITY, retryCapacity);
+            context.executionAttributes().putAttribute(SdkExecutionAttribute.RETRY_BACKOFFS, retryBackoffs);
         }
 
         public Response<OutputT> execute() throws Exception {
@@ -92,6 +97,8 @@ public final class RetryableStage<OutputT> implements RequestToResponsePipeline<
                     } else {
                         retryHandler.setLastRetriedException(handleUnmarshalledException(response));
                     }
+                } catch (BackoffRejectedException e) {
+                    throw e.lastException;
                 } catch (SdkClientException | IOException e) {
                     retryHandler.setLastRetriedException(handleThrownException(e));
                 }
@@ -99,7 +106,6 @@ public final class RetryableStage<OutputT> implements RequestToResponsePipeline<
         }
 
         private void beforeExecute() throws InterruptedException {
-            retryHandler.retryCapacityConsumed(false);
             InterruptMonitor.checkInterrupted();
             ++requestCount;
         }
@@ -108,6 +114,8 @@ public final class RetryableStage<OutputT> implements RequestToResponsePipeline<
             if (retryHandler.isRetry()) {
                 doPauseBeforeRetry();
             }
+            // Cleared after the pause, so that a rejected pause can still return the capacity consumed for the retry
+            retryHandler.retryCapacityConsumed(false);
 
             SdkStandardLogger.REQUEST_LOGGER.debug(() -> (retryHandler.isRetry() ? "Retrying " : "Sending ") + "Request: " +
                                                          request);
@@ -150,7 +158,8 @@ public final class RetryableStage<OutputT> implements RequestToResponsePipeline<
         }
 
         /**
-         * Sleep for a period of time on failed request to avoid flooding a service with retries.
+         * Sleep for a period of time on failed request to avoid flooding a service with retries. If too many calls of the
+         * client are already sleeping, fail with the last exception instead, without it being retried again.
          */
         private void doPauseBeforeRetry() throws InterruptedException {
             int retriesAttempted = requestCount - 2;
@@ -158,7 +167,26 @@ public final class RetryableStage<OutputT> implements RequestToResponsePipeline<
 
             SdkStandardLogger.REQUEST_LOGGER.debug(() -> "Retryable error detected, will retry in " + delay.toMillis() + "ms,"
                                                          + " attempt number " + retriesAttempted);
-            TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+            if (!retryBackoffs.backoff(delay)) {
+                retryHandler.releaseAbandonedRetryCapacity();
+                log.debug(() -> "Not retrying request, too many requests are waiting to be retried: " + retryBackoffs);
+                throw new BackoffRejectedException(retryHandler.lastRetriedException());
+            }
+        }
+    }
+
+    /**
+     * Fails a call whose backoff was rejected with the exception of its last attempt. The exception is wrapped so that it's
+     * rethrown as is, rather than handled as the failure of another attempt.
+     */
+    private static final class BackoffRejectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final SdkException lastException;
+
+        private BackoffRejectedException(SdkException lastException) {
+            super(null, null, false, false);
+            this.lastException = lastException;
         }
     }
 }
@@ -21,18 +21,25 @@ import software.amazon.awssdk.http.Abortable;
 import software.amazon.awssdk.utils.Validate;
 
 /**
- * Api Call Timeout Tracker to track the {@link TimeoutTask} and the {@link ScheduledFuture}.
+ * Api Call Timeout Tracker to track the {@link TimeoutTask} and the {@link ScheduledFuture} or
+ * {@link HashedWheelTimer.Timeout} that schedules it.
  */
 @SdkInternalApi
 public final class ApiCallTimeoutTracker implements TimeoutTracker {
 
     private final TimeoutTask timeoutTask;
 
-    private final ScheduledFuture<?> future;
+    private final Runnable cancellation;
 
     public ApiCallTimeoutTracker(TimeoutTask timeout, ScheduledFuture<?> future) {
         this.timeoutTask = Validate.paramNotNull(timeout, "timeoutTask");
-        this.future = Validate.paramNotNull(future, "scheduledFuture");
+        Validate.paramNotNull(future, "scheduledFuture");
+        this.cancellation = () -> future.cancel(false);
+    }
+
+    public ApiCallTimeoutTracker(TimeoutTask timeout, HashedWheelTimer.Timeout wheelTimeout) {
+        this.timeoutTask = Validate.paramNotNull(timeout, "timeoutTask");
+        this.cancellation = Validate.paramNotNull(wheelTimeout, "wheelTimeout")::cancel;
     }
 
     @Override
@@ -47,7 +54,8 @@ public final class ApiCallTimeoutTracker implements TimeoutTracker {
 
     @Override
     public void cancel() {
-        future.cancel(false);
+        timeoutTask.cancel();
+        cancellation.run();
     }
 
     @Override
@@ -30,6 +30,7 @@ public final class AsyncTimeoutTask implements TimeoutTask {
     private static final Logger log = Logger.loggerFor(AsyncTimeoutTask.class);
     private final SdkException exception;
     private volatile boolean hasExecuted;
+    private volatile boolean cancelled;
 
     private final CompletableFuture<?> completableFuture;
 
@@ -46,6 +47,9 @@ public final class AsyncTimeoutTask implements TimeoutTask {
 
     @Override
     public void run() {
+        if (cancelled) {
+            return;
+        }
         hasExecuted = true;
         if (!completableFuture.isDone()) {
             completableFuture.completeExceptionally(exception);
@@ -56,4 +60,9 @@ public final class AsyncTimeoutTask implements TimeoutTask {
     public boolean hasExecuted() {
         return hasExecuted;
     }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.http.timers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.utils.Logger;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+import software.amazon.awssdk.utils.ThreadFactoryBuilder;
+import software.amazon.awssdk.utils.Validate;
+
+/**
+ * A timer for timeouts that are almost always cancelled before they expire, such as the API call and API call attempt
+ * timeouts. Timeouts are kept in a wheel of buckets, each covering one tick of time, so scheduling and cancelling a timeout
+ * are constant time operations, where a {@link java.util.concurrent.ScheduledThreadPoolExecutor} pays for a heap insertion
+ * and removal under a lock.
+ *
+ * <p>A single worker thread advances the wheel once per tick and runs the timeouts that have expired, so a timeout fires up
+ * to one tick late and the tasks it runs must be short. Timeouts being scheduled and cancelled are handed to the worker
+ * through lock-free queues, and only the worker touches the buckets. The worker is started when the first timeout is
+ * scheduled, and parks while no timeouts are pending.
+ *
+ * <p>One timer, returned by {@link #shared()}, is shared by all clients.
+ */
+@SdkInternalApi
+@ThreadSafe
+public final class HashedWheelTimer implements SdkAutoCloseable {
+    private static final Logger log = Logger.loggerFor(HashedWheelTimer.class);
+
+    private static final HashedWheelTimer SHARED =
+        new HashedWheelTimer("sdk-timeout-timer", TimeUnit.MILLISECONDS.toNanos(10), 512);
+
+    private final ThreadFactory threadFactory;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+
+    private final Queue<Timeout> scheduledTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTimeouts = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Thread worker;
+
+    /**
+     * @param threadNamePrefix The name prefix of the worker thread.
+     * @param tickNanos The length of a tick, and so the precision of the timer.
+     * @param ticksPerWheel The number of ticks in a round of the wheel, which must be a power of two.
+     */
+    public HashedWheelTimer(String threadNamePrefix, long tickNanos, int ticksPerWheel) {
+        Validate.isTrue(tickNanos > 0, "tickNanos must be positive");
+        Validate.isTrue(ticksPerWheel > 0 && Integer.bitCount(ticksPerWheel) == 1, "ticksPerWheel must be a power of two");
+        this.threadFactory = new ThreadFactoryBuilder().threadNamePrefix(threadNamePrefix).daemonThreads(true).build();
+        this.tickNanos = tickNanos;
+        this.wheel = new Bucket[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = ticksPerWheel - 1;
+    }
+
+    /**
+     * @return The timer shared by all clients, which has a tick of 10 milliseconds. It is never closed.
+     */
+    public static HashedWheelTimer shared() {
+        return SHARED;
+    }
+
+    /**
+     * Schedules a task to be run on the timer's worker thread once a delay has passed, unless the returned timeout is
+     * cancelled first.
+     *
+     * @param task The task to run. It must not block, or it delays every other timeout of the timer.
+     * @param delay The delay.
+     * @param unit The unit of the delay.
+     * @return The scheduled timeout.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        Validate.paramNotNull(task, "task");
+        if (closed.get()) {
+            throw new IllegalStateException("The timer has been closed.");
+        }
+        long deadlineNanos = System.nanoTime() - startNanos + unit.toNanos(delay);
+        if (delay > 0 && deadlineNanos < 0) {
+            deadlineNanos = Long.MAX_VALUE;
+        }
+
+        Timeout timeout = new Timeout(this, task, deadlineNanos);
+        scheduledTimeouts.add(timeout);
+        if (pendingTimeouts.getAndIncrement() == 0) {
+            wakeWorker();
+        }
+        return timeout;
+    }
+
+    /**
+     * @return The number of timeouts that have been scheduled and have neither expired nor been discarded after being
+     * cancelled.
+     */
+    public int pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * Stops the worker thread. Pending timeouts never expire. The {@link #shared()} timer cannot be closed.
+     */
+    @Override
+    public void close() {
+        if (this == SHARED) {
+            return;
+        }
+        if (closed.compareAndSet(false, true)) {
+            Thread thread = worker;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private void wakeWorker() {
+        if (started.compareAndSet(false, true)) {
+            Thread thread = threadFactory.newThread(this::run);
+            worker = thread;
+            thread.start();
+        } else {
+            Thread thread = worker;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - startNanos) / tickNanos;
+    }
+
+    private void run() {
+        long tick = currentTick();
+        while (!closed.get()) {
+            if (pendingTimeouts.get() == 0) {
+                // Every bucket is empty, so ticks passed while parked don't need to be visited.
+                LockSupport.park(this);
+                // Only closing the timer is meant to interrupt the worker, and a set flag would keep it from parking again.
+                Thread.interrupted();
+                tick = currentTick();
+                continue;
+            }
+
+            long tickDeadlineNanos = (tick + 1) * tickNanos;
+            if (!sleepUntil(tickDeadlineNanos)) {
+                return;
+            }
+
+            removeCancelledTimeouts();
+            transferScheduledTimeouts(tick);
+            wheel[(int) (tick & mask)].expireTimeouts(tickDeadlineNanos);
+            tick++;
+        }
+    }
+
+    private boolean sleepUntil(long deadlineNanos) {
+        long sleepNanos = deadlineNanos - (System.nanoTime() - startNanos);
+        if (sleepNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            return true;
+        } catch (InterruptedException e) {
+            if (closed.get()) {
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduledTimeouts(long tick) {
+        Timeout timeout;
+        while ((timeout = scheduledTimeouts.poll()) != null) {
+            timeout.transferred = true;
+            if (timeout.isCancelled()) {
+                pendingTimeouts.decrementAndGet();
+                continue;
+            }
+            long timeoutTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (timeoutTick - tick) / wheel.length;
+            wheel[(int) (Math.max(timeoutTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * A timeout scheduled with {@link #newTimeout(Runnable, long, TimeUnit)}.
+     */
+    public static final class Timeout {
+        private static final int SCHEDULED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadlineNanos;
+        private volatile int state = SCHEDULED;
+
+        /**
+         * Whether the worker has taken the timeout from the queue of scheduled timeouts. A timeout cancelled before that is
+         * discarded by the worker when it takes it, so it doesn't need to be queued for removal from its bucket.
+         */
+        private volatile boolean transferred;
+
+        // Only accessed by the worker thread.
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout previous;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadlineNanos) {
+            this.timer = timer;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancels the timeout, unless it has already expired.
+         *
+         * @return True if the timeout was cancelled by this call.
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, SCHEDULED, CANCELLED)) {
+                return false;
+            }
+            // The worker sets transferred before checking for a cancellation, so at least one of the two sees the other.
+            if (transferred) {
+                timer.cancelledTimeouts.add(this);
+            }
+            return true;
+        }
+
+        /**
+         * @return True if the timeout has been cancelled.
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * @return True if the timeout has expired and its task has been run, or is being run.
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, SCHEDULED, EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn(() -> "A timeout task threw an exception.", t);
+            }
+        }
+    }
+
+    /**
+     * The timeouts due in one tick of the wheel, or in that tick of a later round, as a doubly linked list. Only accessed by
+     * the worker thread.
+     */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts(long tickDeadlineNanos) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadlineNanos < tickDeadlineNanos) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.next = null;
+            timeout.previous = null;
+            pendingTimeouts.decrementAndGet();
+        }
+    }
+}
@@ -25,8 +25,12 @@ import software.amazon.awssdk.utils.Validate;
 @SdkInternalApi
 public final class SyncTimeoutTask implements TimeoutTask {
     private final Thread threadToInterrupt;
+    private final Object lock = new Object();
     private volatile boolean hasExecuted;
 
+    // Guarded by lock, so that the thread is never interrupted once cancel() has returned.
+    private boolean cancelled;
+
     private Abortable abortable;
 
     SyncTimeoutTask(Thread threadToInterrupt) {
@@ -40,8 +44,13 @@ public final class SyncTimeoutTask implements TimeoutTask {
 
     @Override
     public void run() {
-        hasExecuted = true;
-        threadToInterrupt.interrupt();
+        synchronized (lock) {
+            if (cancelled) {
+                return;
+            }
+            hasExecuted = true;
+            threadToInterrupt.interrupt();
+        }
 
         if (abortable != null) {
             abortable.abort();
@@ -52,4 +61,11 @@ public final class SyncTimeoutTask implements TimeoutTask {
     public boolean hasExecuted() {
         return hasExecuted;
     }
+
+    @Override
+    public void cancel() {
+        synchronized (lock) {
+            cancelled = true;
+        }
+    }
 }
\ No newline at end of file
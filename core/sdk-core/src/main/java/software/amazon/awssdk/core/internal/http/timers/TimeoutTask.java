@@ -31,4 +31,10 @@ public interface TimeoutTask extends Runnable {
      * @return True if timeout task has executed. False otherwise
      */
     boolean hasExecuted();
+
+    /**
+     * Prevents the task from running if it hasn't run yet. The task may already have been handed over to the executor that
+     * runs it, so it checks for the cancellation itself.
+     */
+    void cancel();
 }
\ No newline at end of file
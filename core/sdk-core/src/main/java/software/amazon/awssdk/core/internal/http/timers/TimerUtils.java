@@ -18,8 +18,7 @@ package software.amazon.awssdk.core.internal.http.timers;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import software.amazon.awssdk.annotations.SdkInternalApi;
@@ -37,14 +36,16 @@ public final class TimerUtils {
      * if not otherwise completed before the given timeout.
      *
      * @param completableFuture the completableFuture to be timed
-     * @param timeoutExecutor the executor to execute the {@link TimeoutTask}
+     * @param timer the timer to schedule the timeout with
+     * @param timeoutExecutor the executor to execute the {@link TimeoutTask} with once the timeout expires
      * @param exceptionToThrow the exception to thrown after timeout
      * @param timeoutInMills the timeout in milliseconds.
      * @param <T> the type of the {@link CompletableFuture}
      * @return a {@link TimeoutTracker}
      */
     public static <T> TimeoutTracker timeAsyncTaskIfNeeded(CompletableFuture<T> completableFuture,
-                                                           ScheduledExecutorService timeoutExecutor,
+                                                           HashedWheelTimer timer,
+                                                           Executor timeoutExecutor,
                                                            SdkClientException exceptionToThrow,
                                                            long timeoutInMills) {
         if (timeoutInMills <= 0) {
@@ -53,11 +54,8 @@ public final class TimerUtils {
 
         TimeoutTask timeoutTask = new AsyncTimeoutTask(completableFuture, exceptionToThrow);
 
-        ScheduledFuture<?> scheduledFuture =
-            timeoutExecutor.schedule(timeoutTask,
-                                     timeoutInMills,
-                                     TimeUnit.MILLISECONDS);
-        TimeoutTracker timeoutTracker = new ApiCallTimeoutTracker(timeoutTask, scheduledFuture);
+        TimeoutTracker timeoutTracker = new ApiCallTimeoutTracker(timeoutTask,
+                                                                  schedule(timer, timeoutExecutor, timeoutTask, timeoutInMills));
 
         completableFuture.whenComplete((o, t) -> timeoutTracker.cancel());
 
@@ -67,12 +65,14 @@ public final class TimerUtils {
     /**
      * Schedule a {@link TimeoutTask} that aborts the task if not otherwise completed before the given timeout.
      *
-     * @param timeoutExecutor the executor to execute the {@link TimeoutTask}
+     * @param timer the timer to schedule the timeout with
+     * @param timeoutExecutor the executor to execute the {@link TimeoutTask} with once the timeout expires
      * @param timeoutInMills the timeout in milliseconds.
      * @param threadToInterrupt the thread to interrupt
      * @return a {@link TimeoutTracker}
      */
-    public static TimeoutTracker timeSyncTaskIfNeeded(ScheduledExecutorService timeoutExecutor,
+    public static TimeoutTracker timeSyncTaskIfNeeded(HashedWheelTimer timer,
+                                                      Executor timeoutExecutor,
                                                       long timeoutInMills,
                                                       Thread threadToInterrupt) {
         if (timeoutInMills <= 0) {
@@ -81,11 +81,19 @@ public final class TimerUtils {
 
         SyncTimeoutTask timeoutTask = new SyncTimeoutTask(threadToInterrupt);
 
-        ScheduledFuture<?> scheduledFuture =
-            timeoutExecutor.schedule(timeoutTask,
-                                     timeoutInMills,
-                                     TimeUnit.MILLISECONDS);
-        return new ApiCallTimeoutTracker(timeoutTask, scheduledFuture);
+        return new ApiCallTimeoutTracker(timeoutTask, schedule(timer, timeoutExecutor, timeoutTask, timeoutInMills));
+    }
+
+    /**
+     * The timer's worker thread only hands an expired timeout over to the executor, because aborting a request can block and
+     * would delay every other timeout of the timer. Cancelling the timeout after that hand-over is a no-op, so the task
+     * checks {@link TimeoutTask#cancel()} itself before running.
+     */
+    private static HashedWheelTimer.Timeout schedule(HashedWheelTimer timer,
+                                                     Executor timeoutExecutor,
+                                                     TimeoutTask timeoutTask,
+                                                     long timeoutInMills) {
+        return timer.newTimeout(() -> timeoutExecutor.execute(timeoutTask), timeoutInMills, TimeUnit.MILLISECONDS);
     }
 
     public static long resolveTimeoutInMillis(Supplier<Optional<Duration>> supplier, Duration fallback) {
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.SdkTestInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.retry.SendRateMetrics;
+import software.amazon.awssdk.utils.ToString;
+
+/**
+ * Limits the rate at which a client sends requests, adapting the limit to the throttling responses of the service.
+ *
+ * <p>The client isn't limited until it is first throttled. From then on, requests are sent at the rate of a token bucket
+ * that is refilled at the send rate limit. Every throttling response multiplies the limit by {@value #BETA}, and while
+ * requests succeed the limit grows back along a cubic curve, as in the CUBIC congestion control algorithm: quickly at first,
+ * flattening out around the rate at which the client was last throttled, then quickly again to probe for more capacity. The
+ * limit is never raised to more than twice the rate the client is measured to be sending at.
+ *
+ * <p>A request calls {@link #acquire()} before it is sent, which reserves a token and returns how long the request has to
+ * wait for it, and reports its response with {@link #updateSendRate(boolean)}. The state of the limiter is guarded by a
+ * lock, which a client that has never been throttled doesn't take when acquiring tokens.
+ */
+@SdkInternalApi
+@ThreadSafe
+public final class AdaptiveRateLimiter implements SendRateMetrics {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double MIN_FILL_RATE = 0.5;
+    private static final double MIN_CAPACITY = 1;
+    private static final double SMOOTH = 0.8;
+    private static final double BETA = 0.7;
+    private static final double SCALE_CONSTANT = 0.4;
+
+    private final LongSupplier nanoClock;
+    private final Object lock = new Object();
+    private final LongAdder throttlingResponses = new LongAdder();
+    private volatile boolean limiting;
+
+    private double fillRate;
+    private double maxCapacity;
+    private double currentCapacity;
+    private double lastRefillTime;
+    private double measuredSendRate;
+    private double lastSendRateBucket;
+    private long requestCount;
+    private double lastMaxRate;
+    private double lastThrottleTime;
+    private double timeWindow;
+
+    public AdaptiveRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    @SdkTestInternalApi
+    AdaptiveRateLimiter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        double now = now();
+        this.lastRefillTime = now;
+        this.lastSendRateBucket = Math.floor(now * 2) / 2;
+        this.lastThrottleTime = now;
+    }
+
+    /**
+     * Reserves the token of a request that is about to be sent.
+     *
+     * @return The number of nanoseconds the request has to wait before it is sent, or 0 if it can be sent right away.
+     */
+    public long acquire() {
+        if (!limiting) {
+            return 0;
+        }
+        synchronized (lock) {
+            refill(now());
+            currentCapacity -= 1;
+            if (currentCapacity >= 0) {
+                return 0;
+            }
+            return (long) (-currentCapacity / fillRate * NANOS_PER_SECOND);
+        }
+    }
+
+    /**
+     * Adapts the send rate limit to the response of a request.
+     *
+     * @param throttled Whether the response was a throttling response.
+     */
+    public void updateSendRate(boolean throttled) {
+        if (throttled) {
+            throttlingResponses.increment();
+        }
+        synchronized (lock) {
+            double now = now();
+            updateMeasuredRate(now);
+
+            double calculatedRate;
+            if (throttled) {
+                double rateToUse = limiting ? Math.min(measuredSendRate, fillRate) : measuredSendRate;
+                lastMaxRate = rateToUse;
+                calculateTimeWindow();
+                lastThrottleTime = now;
+                calculatedRate = rateToUse * BETA;
+                if (!limiting) {
+                    // Start from an empty bucket, rather than with a burst of the capacity refilled while not limiting.
+                    currentCapacity = 0;
+                    lastRefillTime = now;
+                    limiting = true;
+                }
+            } else {
+                calculateTimeWindow();
+                calculatedRate = SCALE_CONSTANT * Math.pow(now - lastThrottleTime - timeWindow, 3) + lastMaxRate;
+            }
+
+            updateRate(now, Math.min(calculatedRate, 2 * measuredSendRate));
+        }
+    }
+
+    @Override
+    public boolean isLimiting() {
+        return limiting;
+    }
+
+    @Override
+    public double sendRateLimit() {
+        synchronized (lock) {
+            return limiting ? fillRate : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    public double measuredSendRate() {
+        synchronized (lock) {
+            return measuredSendRate;
+        }
+    }
+
+    @Override
+    public long throttlingResponses() {
+        return throttlingResponses.sum();
+    }
+
+    private double now() {
+        return nanoClock.getAsLong() / NANOS_PER_SECOND;
+    }
+
+    private void refill(double now) {
+        currentCapacity = Math.min(maxCapacity, currentCapacity + (now - lastRefillTime) * fillRate);
+        lastRefillTime = now;
+    }
+
+    private void updateRate(double now, double newRate) {
+        refill(now);
+        fillRate = Math.max(newRate, MIN_FILL_RATE);
+        maxCapacity = Math.max(newRate, MIN_CAPACITY);
+        currentCapacity = Math.min(currentCapacity, maxCapacity);
+    }
+
+    private void calculateTimeWindow() {
+        timeWindow = Math.cbrt(lastMaxRate * (1 - BETA) / SCALE_CONSTANT);
+    }
+
+    /**
+     * Measures the send rate over half second buckets, smoothed with an exponential moving average.
+     */
+    private void updateMeasuredRate(double now) {
+        double timeBucket = Math.floor(now * 2) / 2;
+        requestCount++;
+        if (timeBucket > lastSendRateBucket) {
+            double currentRate = requestCount / (timeBucket - lastSendRateBucket);
+            measuredSendRate = currentRate * SMOOTH + measuredSendRate * (1 - SMOOTH);
+            requestCount = 0;
+            lastSendRateBucket = timeBucket;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("SendRateMetrics")
+                       .add("limiting", isLimiting())
+                       .add("sendRateLimit", sendRateLimit())
+                       .add("measuredSendRate", measuredSendRate())
+                       .add("throttlingResponses", throttlingResponses())
+                       .build();
+    }
+}
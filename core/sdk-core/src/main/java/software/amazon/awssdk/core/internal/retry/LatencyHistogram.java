@@ -0,0 +1,110 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+
+/**
+ * A histogram of recent latencies, precise to within a quarter of a power of two. Recording a latency increments two
+ * counters, and the counts are halved every {@link #DECAY_INTERVAL} recordings so that the percentiles follow the latencies
+ * of the last few thousand requests.
+ *
+ * <p>Counts may be slightly off while they are being halved; that is acceptable for estimating a percentile.
+ */
+@SdkInternalApi
+@ThreadSafe
+final class LatencyHistogram {
+    static final int DECAY_INTERVAL = 1024;
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = Long.SIZE * SUB_BUCKETS;
+    private static final long NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong recordings = new AtomicLong();
+
+    /**
+     * Records a latency.
+     */
+    void record(long latencyNanos) {
+        counts.incrementAndGet(bucket(Math.max(latencyNanos / NANOS_PER_MICRO, 1)));
+        if (recordings.incrementAndGet() % DECAY_INTERVAL == 0) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long count;
+                do {
+                    count = counts.get(i);
+                } while (!counts.compareAndSet(i, count, count / 2));
+            }
+        }
+    }
+
+    /**
+     * @return The number of latencies recorded since the histogram was created, including decayed ones.
+     */
+    long recordings() {
+        return recordings.get();
+    }
+
+    /**
+     * Estimates a percentile of the recent latencies, rounding up to the upper bound of the bucket it falls in.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The estimated latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    long percentileNanos(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return upperBoundMicros(i) * NANOS_PER_MICRO;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The bucket of a value is made of its exponent, i.e. the position of its highest bit, and the next
+     * {@link #SUB_BUCKET_BITS} bits.
+     */
+    private static int bucket(long micros) {
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        if (exponent < SUB_BUCKET_BITS) {
+            return exponent * SUB_BUCKETS;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return exponent * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        if (exponent < SUB_BUCKET_BITS) {
+            return 1L << (exponent + 1);
+        }
+        int subBucket = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.retry.HedgingPolicy;
+import software.amazon.awssdk.utils.ToString;
+
+/**
+ * Client scoped state of request hedging: the recent attempt latencies of each hedgeable operation, from which the delay
+ * before a hedge is derived, and the budget that caps the number of hedges.
+ *
+ * <p>The budget is a token bucket, kept in thousandths of a hedge. Each request of a hedgeable operation adds
+ * {@link HedgingPolicy#maxExtraLoad()} of a hedge, up to {@link #MAX_BURST} hedges, and a hedge takes a whole one.
+ */
+@SdkInternalApi
+@ThreadSafe
+public final class RequestHedger {
+    /**
+     * The number of latencies recorded for an operation before its requests are hedged.
+     */
+    static final int MIN_RECORDINGS = 100;
+
+    static final int MAX_BURST = 10;
+
+    private static final long TOKENS_PER_HEDGE = 1000;
+
+    private final HedgingPolicy policy;
+    private final long minDelayNanos;
+    private final long tokensPerRequest;
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    public RequestHedger(HedgingPolicy policy) {
+        this.policy = policy;
+        this.minDelayNanos = policy.minDelay().toNanos();
+        this.tokensPerRequest = Math.max(1, Math.round(policy.maxExtraLoad() * TOKENS_PER_HEDGE));
+    }
+
+    /**
+     * @return true if requests to the given operation may be hedged
+     */
+    public boolean isHedgeable(String operationName) {
+        return operationName != null && policy.hedgeableOperations().contains(operationName);
+    }
+
+    /**
+     * Called once per request of a hedgeable operation, before it is sent, to add to the hedging budget.
+     *
+     * @return The delay in nanoseconds after which to hedge the request, or -1 if too few latencies of the operation were
+     * recorded to tell.
+     */
+    public long onRequest(String operationName) {
+        deposit();
+        LatencyHistogram histogram = histogram(operationName);
+        if (histogram.recordings() < MIN_RECORDINGS) {
+            return -1;
+        }
+        return Math.max(histogram.percentileNanos(policy.delayPercentile()), minDelayNanos);
+    }
+
+    /**
+     * Records the time an attempt of an operation took to receive response headers. For an attempt that was aborted because
+     * the other one responded first, this is the time until it was aborted.
+     */
+    public void recordLatency(String operationName, long latencyNanos) {
+        histogram(operationName).record(latencyNanos);
+    }
+
+    /**
+     * Attempts to take a hedge from the budget.
+     *
+     * @return true if a hedge may be sent
+     */
+    public boolean tryAcquireHedge() {
+        while (true) {
+            long available = budget.get();
+            if (available < TOKENS_PER_HEDGE) {
+                return false;
+            }
+            if (budget.compareAndSet(available, available - TOKENS_PER_HEDGE)) {
+                hedgesSent.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Called when the response of a hedge was used instead of the one of the attempt it hedged.
+     */
+    public void hedgeWon() {
+        hedgesWon.increment();
+    }
+
+    /**
+     * @return The number of hedges sent.
+     */
+    public long hedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    /**
+     * @return The number of hedges whose response was used.
+     */
+    public long hedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    private void deposit() {
+        while (true) {
+            long available = budget.get();
+            if (available >= MAX_BURST * TOKENS_PER_HEDGE) {
+                return;
+            }
+            if (budget.compareAndSet(available, Math.min(available + tokensPerRequest, MAX_BURST * TOKENS_PER_HEDGE))) {
+                return;
+            }
+        }
+    }
+
+    private LatencyHistogram histogram(String operationName) {
+        LatencyHistogram histogram = latencies.get(operationName);
+        return histogram != null ? histogram : latencies.computeIfAbsent(operationName, n -> new LatencyHistogram());
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("RequestHedger")
+                       .add("policy", policy)
+                       .add("hedgesSent", hedgesSent())
+                       .add("hedgesWon", hedgesWon())
+                       .build();
+    }
+}
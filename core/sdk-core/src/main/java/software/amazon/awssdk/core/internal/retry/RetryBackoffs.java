@@ -0,0 +1,160 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.retry.RetryBackoffMetrics;
+import software.amazon.awssdk.utils.ToString;
+import software.amazon.awssdk.utils.Validate;
+
+/**
+ * Tracks the calls of a client that are waiting to be retried, and makes synchronous calls wait.
+ *
+ * <p>A synchronous call waits with {@link #backoff(Duration)}, which holds the calling thread. The wait is a
+ * {@link ForkJoinPool#managedBlock managed block}, so a call made from a fork-join pool lets the pool start a compensating
+ * thread instead of losing a worker for the length of the backoff. If a maximum number of waiting calls is set, a call that
+ * would exceed it is not made to wait, and is expected to fail instead of being retried.
+ *
+ * <p>An asynchronous call waits on a scheduler without holding a thread. It is tracked with {@link #beginScheduledBackoff()}
+ * and {@link #endScheduledBackoff()}, and is never rejected.
+ */
+@SdkInternalApi
+@ThreadSafe
+public final class RetryBackoffs implements RetryBackoffMetrics {
+    private final int maxBackoffsInProgress;
+    private final AtomicInteger backoffsInProgress = new AtomicInteger();
+    private final LongAdder backoffs = new LongAdder();
+    private final LongAdder rejectedBackoffs = new LongAdder();
+
+    /**
+     * @param maxBackoffsInProgress The maximum number of synchronous calls that may wait at once, or null to not limit them.
+     */
+    public RetryBackoffs(Integer maxBackoffsInProgress) {
+        this.maxBackoffsInProgress = maxBackoffsInProgress == null
+                                     ? Integer.MAX_VALUE
+                                     : Validate.isPositive(maxBackoffsInProgress, "maxBackoffsInProgress");
+    }
+
+    /**
+     * Makes the calling thread wait for the given delay before a retry, unless the maximum number of calls is already waiting.
+     *
+     * @param delay The backoff delay computed by the retry policy.
+     * @return True if the call waited and should be retried, false if it was rejected and should fail instead.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public boolean backoff(Duration delay) throws InterruptedException {
+        long delayNanos = delay.toNanos();
+        if (delayNanos <= 0) {
+            return true;
+        }
+        if (!tryBegin()) {
+            rejectedBackoffs.increment();
+            return false;
+        }
+        try {
+            ForkJoinPool.managedBlock(new Sleeper(System.nanoTime() + delayNanos));
+            return true;
+        } finally {
+            backoffsInProgress.decrementAndGet();
+        }
+    }
+
+    /**
+     * Records that an asynchronous call has been scheduled to be retried after a delay. Must be followed by a call to
+     * {@link #endScheduledBackoff()} once the delay has passed.
+     */
+    public void beginScheduledBackoff() {
+        backoffsInProgress.incrementAndGet();
+        backoffs.increment();
+    }
+
+    /**
+     * Records that the delay of an asynchronous call recorded by {@link #beginScheduledBackoff()} has passed.
+     */
+    public void endScheduledBackoff() {
+        backoffsInProgress.decrementAndGet();
+    }
+
+    private boolean tryBegin() {
+        while (true) {
+            int current = backoffsInProgress.get();
+            if (current >= maxBackoffsInProgress) {
+                return false;
+            }
+            if (backoffsInProgress.compareAndSet(current, current + 1)) {
+                backoffs.increment();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int backoffsInProgress() {
+        return backoffsInProgress.get();
+    }
+
+    @Override
+    public long backoffs() {
+        return backoffs.sum();
+    }
+
+    @Override
+    public long rejectedBackoffs() {
+        return rejectedBackoffs.sum();
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("RetryBackoffs")
+                       .add("backoffsInProgress", backoffsInProgress())
+                       .add("maxBackoffsInProgress", maxBackoffsInProgress)
+                       .add("backoffs", backoffs())
+                       .add("rejectedBackoffs", rejectedBackoffs())
+                       .build();
+    }
+
+    /**
+     * Sleeps until a deadline, resuming after spurious wake-ups.
+     */
+    private static final class Sleeper implements ForkJoinPool.ManagedBlocker {
+        private final long deadlineNanos;
+
+        private Sleeper(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            }
+            return isReleasable();
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return deadlineNanos - System.nanoTime() <= 0;
+        }
+    }
+}
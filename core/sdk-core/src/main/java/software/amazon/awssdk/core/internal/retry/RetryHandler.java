@@ -21,7 +21,6 @@ import java.time.Duration;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
 import software.amazon.awssdk.core.retry.RetryPolicy;
 import software.amazon.awssdk.core.retry.RetryPolicyContext;
 import software.amazon.awssdk.core.retry.RetryUtils;
@@ -34,7 +33,7 @@ public final class RetryHandler {
     public static final String HEADER_SDK_RETRY_INFO = "amz-sdk-retry";
 
     private final RetryPolicy retryPolicy;
-    private final CapacityManager retryCapacity;
+    private final RetryTokenBucket retryCapacity;
 
     private Duration lastBackoffDelay = Duration.ZERO;
     private boolean retryCapacityConsumed;
@@ -42,7 +41,7 @@ public final class RetryHandler {
     private SdkException lastRetriedException;
 
     public RetryHandler(RetryPolicy retryPolicy,
-                        CapacityManager retryCapacity) {
+                        RetryTokenBucket retryCapacity) {
         this.retryPolicy = retryPolicy;
         this.retryCapacity = retryCapacity;
     }
@@ -96,6 +95,16 @@ public final class RetryHandler {
         }
     }
 
+    /**
+     * Returns the retry capacity consumed for a retry that was decided on but will not be attempted.
+     */
+    public void releaseAbandonedRetryCapacity() {
+        if (retryCapacityConsumed) {
+            retryCapacity.release(SdkDefaultRetrySetting.RETRY_THROTTLING_COST);
+            retryCapacityConsumed = false;
+        }
+    }
+
     /**
      * Computes the delay before the next retry should be attempted based on the retry policy context.
      * @return long value of how long to wait
@@ -142,6 +151,13 @@ public final class RetryHandler {
         this.lastRetriedException = exception;
     }
 
+    /**
+     * @return The last exception the has been seen by the retry handler, or null if there was none.
+     */
+    public SdkException lastRetriedException() {
+        return lastRetriedException;
+    }
+
     /**
      * Whether or not the current request is a retry. True if the original request has been retried at least one time.
      */
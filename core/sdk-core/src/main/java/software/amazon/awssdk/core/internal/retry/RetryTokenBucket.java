@@ -0,0 +1,218 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.SdkTestInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.retry.RetryCapacityMetrics;
+import software.amazon.awssdk.utils.ToString;
+
+/**
+ * A token bucket holding a client's retry capacity. Capacity is acquired and released with compare-and-set loops rather than
+ * under a lock, so threads retrying during an error storm don't contend on a monitor.
+ *
+ * <p>Besides being released, capacity is refilled at a fixed rate as time passes, so that retries resume at that rate while
+ * a service keeps failing. The refill is computed when capacity is acquired from a bucket that isn't full, from the time since
+ * the last refill, which costs a read of the clock. A full bucket can't be refilled, so acquiring from it doesn't read the
+ * clock; the refill restarts at the next acquisition or capacity check instead, so the time the bucket spent full isn't
+ * credited. Capacity is never refilled above the maximum.
+ */
+@SdkInternalApi
+@ThreadSafe
+public final class RetryTokenBucket implements RetryCapacityMetrics {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The last refill time of a bucket that has been full since its last refill, whose refill restarts at the next one.
+     */
+    private static final long REFILL_STOPPED = Long.MIN_VALUE;
+
+    private final int maxCapacity;
+    private final long nanosPerToken;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger availableCapacity;
+    private final AtomicLong lastRefillNanos;
+    private final LongAdder throttledRetries = new LongAdder();
+
+    /**
+     * Creates a bucket that is only refilled by releasing capacity.
+     *
+     * @param maxCapacity The maximum capacity, which the bucket starts with. If negative, the bucket doesn't throttle: every
+     * acquisition succeeds.
+     */
+    public RetryTokenBucket(int maxCapacity) {
+        this(maxCapacity, 0);
+    }
+
+    /**
+     * @param maxCapacity The maximum capacity, which the bucket starts with. If negative, the bucket doesn't throttle: every
+     * acquisition succeeds.
+     * @param refillPerSecond The capacity added every second, or 0 to only refill the bucket by releasing capacity.
+     */
+    public RetryTokenBucket(int maxCapacity, int refillPerSecond) {
+        this(maxCapacity, refillPerSecond, System::nanoTime);
+    }
+
+    @SdkTestInternalApi
+    RetryTokenBucket(int maxCapacity, int refillPerSecond, LongSupplier nanoClock) {
+        if (refillPerSecond < 0) {
+            throw new IllegalArgumentException("refillPerSecond cannot be negative");
+        }
+        this.maxCapacity = maxCapacity;
+        this.nanosPerToken = refillPerSecond > 0 ? NANOS_PER_SECOND / refillPerSecond : 0;
+        this.nanoClock = nanoClock;
+        this.availableCapacity = new AtomicInteger(maxCapacity);
+        this.lastRefillNanos = new AtomicLong(REFILL_STOPPED);
+    }
+
+    /**
+     * Attempts to acquire a single unit of capacity.
+     *
+     * @return true if capacity was acquired, false if not
+     */
+    public boolean acquire() {
+        return acquire(1);
+    }
+
+    /**
+     * Attempts to acquire a given amount of capacity. A failed attempt is counted as a throttled retry.
+     *
+     * @param capacity capacity to acquire
+     * @return true if capacity was acquired, false if not
+     * @throws IllegalArgumentException if given capacity is negative
+     */
+    public boolean acquire(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity to acquire cannot be negative");
+        }
+        if (maxCapacity < 0) {
+            return true;
+        }
+
+        refill();
+        while (true) {
+            int available = availableCapacity.get();
+            if (available < capacity) {
+                throttledRetries.increment();
+                return false;
+            }
+            if (available >= maxCapacity && capacity > 0 && lastRefillNanos.get() != REFILL_STOPPED) {
+                // The bucket is about to stop being full. The time it was full isn't credited, so its refill restarts.
+                lastRefillNanos.set(REFILL_STOPPED);
+            }
+            if (availableCapacity.compareAndSet(available, available - capacity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a single unit of capacity back to the bucket.
+     */
+    public void release() {
+        release(1);
+    }
+
+    /**
+     * Releases a given amount of capacity back to the bucket, up to its maximum capacity.
+     *
+     * @param capacity capacity to release
+     * @throws IllegalArgumentException if given capacity is negative
+     */
+    public void release(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity to release cannot be negative");
+        }
+        if (maxCapacity < 0) {
+            return;
+        }
+
+        while (true) {
+            int available = availableCapacity.get();
+            // In the common case the bucket is full, and is left alone without a write
+            if (available >= maxCapacity) {
+                return;
+            }
+            if (availableCapacity.compareAndSet(available, (int) Math.min((long) available + capacity, maxCapacity))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the capacity earned since the last refill, without reading the clock if the bucket is full. The thread that moves
+     * the last refill time forward adds the capacity for that time, so no period is credited twice.
+     */
+    private void refill() {
+        if (nanosPerToken == 0 || availableCapacity.get() >= maxCapacity) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long last = lastRefillNanos.get();
+        if (last == REFILL_STOPPED) {
+            lastRefillNanos.compareAndSet(REFILL_STOPPED, now);
+            return;
+        }
+        long tokens = (now - last) / nanosPerToken;
+        if (tokens > 0 && lastRefillNanos.compareAndSet(last, last + tokens * nanosPerToken)) {
+            release((int) Math.min(tokens, maxCapacity));
+        }
+    }
+
+    @Override
+    public int maxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * {@inheritDoc} Includes the capacity refilled since the last acquisition.
+     */
+    @Override
+    public int availableCapacity() {
+        if (maxCapacity >= 0) {
+            refill();
+        }
+        return availableCapacity.get();
+    }
+
+    /**
+     * @return The capacity taken by retries and not yet given back.
+     */
+    public int consumedCapacity() {
+        return maxCapacity < 0 ? 0 : maxCapacity - availableCapacity();
+    }
+
+    @Override
+    public long throttledRetries() {
+        return throttledRetries.sum();
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("RetryCapacityMetrics")
+                       .add("maxCapacity", maxCapacity)
+                       .add("availableCapacity", availableCapacity())
+                       .add("throttledRetries", throttledRetries())
+                       .build();
+    }
+}
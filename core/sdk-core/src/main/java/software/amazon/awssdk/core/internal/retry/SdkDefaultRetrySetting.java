@@ -43,6 +43,12 @@ public final class SdkDefaultRetrySetting {
      */
     public static final int THROTTLED_RETRIES = 100;
 
+    /**
+     * When throttled retries are enabled, this much retry capacity is refilled every second, so that while a service keeps
+     * failing one retry a second is still attempted once the capacity has been drained.
+     */
+    public static final int RETRY_CAPACITY_REFILL_PER_SECOND = RETRY_THROTTLING_COST;
+
     public static final Duration BASE_DELAY = Duration.ofMillis(100);
 
     public static final Duration THROTTLED_BASE_DELAY = Duration.ofMillis(500);
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.retry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import software.amazon.awssdk.annotations.Immutable;
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.utils.ToString;
+import software.amazon.awssdk.utils.Validate;
+import software.amazon.awssdk.utils.builder.CopyableBuilder;
+import software.amazon.awssdk.utils.builder.ToCopyableBuilder;
+
+/**
+ * Policy for hedging requests made by an async client, configured through
+ * {@link SdkAdvancedAsyncClientOption#HEDGING_POLICY}.
+ *
+ * <p>When an attempt of a hedgeable operation has not received a response after the configured percentile of that
+ * operation's recent latencies, a second, identical attempt is sent. Whichever attempt responds first is used and the other
+ * one is aborted. Only operations that are safe to execute twice, such as idempotent reads, should be listed in
+ * {@link Builder#hedgeableOperations(Collection)}: operations with side effects (e.g. SQS ReceiveMessage, which hides the
+ * messages it returns) must never be hedged. Requests with a streaming request body are never hedged.</p>
+ *
+ * <p>The extra load caused by hedging is capped by {@link #maxExtraLoad()}: each request of a hedgeable operation earns a
+ * fraction of a hedge, and a hedge is only sent if a whole one has been earned.</p>
+ *
+ * <p>Hedges are scheduled on a timer shared by all clients, which ticks every 10 milliseconds, so a hedge may be sent up to
+ * 10 milliseconds after its delay has passed. Delays much shorter than a tick can't be told apart.</p>
+ */
+@Immutable
+@SdkPublicApi
+public final class HedgingPolicy implements ToCopyableBuilder<HedgingPolicy.Builder, HedgingPolicy> {
+
+    private static final double DEFAULT_DELAY_PERCENTILE = 95.0;
+    private static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(10);
+    private static final double DEFAULT_MAX_EXTRA_LOAD = 0.05;
+
+    private final Set<String> hedgeableOperations;
+    private final double delayPercentile;
+    private final Duration minDelay;
+    private final double maxExtraLoad;
+
+    private HedgingPolicy(BuilderImpl builder) {
+        this.hedgeableOperations = Collections.unmodifiableSet(new HashSet<>(builder.hedgeableOperations));
+        this.delayPercentile = builder.delayPercentile;
+        this.minDelay = Validate.isNotNegative(Validate.paramNotNull(builder.minDelay, "minDelay"), "minDelay");
+        this.maxExtraLoad = builder.maxExtraLoad;
+        Validate.isTrue(delayPercentile > 0 && delayPercentile < 100, "delayPercentile must be between 0 and 100 (exclusive)");
+        Validate.isTrue(maxExtraLoad > 0 && maxExtraLoad <= 1, "maxExtraLoad must be greater than 0 and at most 1");
+    }
+
+    /**
+     * The names of the operations that may be hedged, e.g. {@code GetItem}.
+     */
+    public Set<String> hedgeableOperations() {
+        return hedgeableOperations;
+    }
+
+    /**
+     * The percentile of an operation's recent attempt latencies after which a hedge is sent.
+     */
+    public double delayPercentile() {
+        return delayPercentile;
+    }
+
+    /**
+     * The minimum time to wait for the first attempt before sending a hedge. The hedge is sent on the next 10 millisecond tick
+     * of the timer after the delay.
+     */
+    public Duration minDelay() {
+        return minDelay;
+    }
+
+    /**
+     * The maximum number of hedges sent, as a fraction of the requests of hedgeable operations.
+     */
+    public double maxExtraLoad() {
+        return maxExtraLoad;
+    }
+
+    @Override
+    public Builder toBuilder() {
+        return builder().hedgeableOperations(hedgeableOperations)
+                        .delayPercentile(delayPercentile)
+                        .minDelay(minDelay)
+                        .maxExtraLoad(maxExtraLoad);
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("HedgingPolicy")
+                       .add("hedgeableOperations", hedgeableOperations)
+                       .add("delayPercentile", delayPercentile)
+                       .add("minDelay", minDelay)
+                       .add("maxExtraLoad", maxExtraLoad)
+                       .build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        HedgingPolicy that = (HedgingPolicy) o;
+
+        if (Double.compare(that.delayPercentile, delayPercentile) != 0) {
+            return false;
+        }
+        if (Double.compare(that.maxExtraLoad, maxExtraLoad) != 0) {
+            return false;
+        }
+        if (!hedgeableOperations.equals(that.hedgeableOperations)) {
+            return false;
+        }
+        return minDelay.equals(that.minDelay);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hedgeableOperations.hashCode();
+        result = 31 * result + Double.hashCode(delayPercentile);
+        result = 31 * result + minDelay.hashCode();
+        result = 31 * result + Double.hashCode(maxExtraLoad);
+        return result;
+    }
+
+    public static Builder builder() {
+        return new BuilderImpl();
+    }
+
+    public interface Builder extends CopyableBuilder<Builder, HedgingPolicy> {
+        /**
+         * Configure the names of the operations that may be hedged. Only operations that are safe to execute twice should be
+         * listed.
+         */
+        Builder hedgeableOperations(Collection<String> hedgeableOperations);
+
+        /**
+         * Configure the names of the operations that may be hedged. Only operations that are safe to execute twice should be
+         * listed.
+         */
+        Builder hedgeableOperations(String... hedgeableOperations);
+
+        /**
+         * Configure the percentile of an operation's recent attempt latencies after which a hedge is sent. Defaults to 95.
+         */
+        Builder delayPercentile(double delayPercentile);
+
+        /**
+         * Configure the minimum time to wait for the first attempt before sending a hedge. Defaults to 10 milliseconds, the
+         * tick of the timer hedges are scheduled on; shorter delays are rounded up to the next tick.
+         */
+        Builder minDelay(Duration minDelay);
+
+        /**
+         * Configure the maximum number of hedges sent, as a fraction of the requests of hedgeable operations. Defaults to 0.05,
+         * i.e. at most 5% extra requests.
+         */
+        Builder maxExtraLoad(double maxExtraLoad);
+
+        HedgingPolicy build();
+    }
+
+    /**
+     * Builder for a {@link HedgingPolicy}.
+     */
+    private static final class BuilderImpl implements Builder {
+
+        private Set<String> hedgeableOperations = Collections.emptySet();
+        private double delayPercentile = DEFAULT_DELAY_PERCENTILE;
+        private Duration minDelay = DEFAULT_MIN_DELAY;
+        private double maxExtraLoad = DEFAULT_MAX_EXTRA_LOAD;
+
+        private BuilderImpl() {
+        }
+
+        @Override
+        public Builder hedgeableOperations(Collection<String> hedgeableOperations) {
+            this.hedgeableOperations = new HashSet<>(hedgeableOperations);
+            return this;
+        }
+
+        @Override
+        public Builder hedgeableOperations(String... hedgeableOperations) {
+            this.hedgeableOperations = new HashSet<>();
+            Collections.addAll(this.hedgeableOperations, hedgeableOperations);
+            return this;
+        }
+
+        public void setHedgeableOperations(Collection<String> hedgeableOperations) {
+            hedgeableOperations(hedgeableOperations);
+        }
+
+        @Override
+        public Builder delayPercentile(double delayPercentile) {
+            this.delayPercentile = delayPercentile;
+            return this;
+        }
+
+        public void setDelayPercentile(double delayPercentile) {
+            delayPercentile(delayPercentile);
+        }
+
+        @Override
+        public Builder minDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            minDelay(minDelay);
+        }
+
+        @Override
+        public Builder maxExtraLoad(double maxExtraLoad) {
+            this.maxExtraLoad = maxExtraLoad;
+            return this;
+        }
+
+        public void setMaxExtraLoad(double maxExtraLoad) {
+            maxExtraLoad(maxExtraLoad);
+        }
+
+        @Override
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.retry;
+
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * The calls of a client that are waiting, after a failed attempt, for the backoff delay of their retry policy to pass before
+ * they are retried. A synchronous call holds its calling thread while it waits, so a throttling episode shows up here as a
+ * rising number of backoffs in progress, which can be capped with
+ * {@link SdkAdvancedClientOption#MAX_CONCURRENT_RETRY_BACKOFFS}.
+ *
+ * <p>The metrics of the client making a request can be read by an
+ * {@link software.amazon.awssdk.core.interceptor.ExecutionInterceptor} from the {@link SdkExecutionAttribute#RETRY_BACKOFFS}
+ * execution attribute.
+ */
+@SdkPublicApi
+@ThreadSafe
+public interface RetryBackoffMetrics {
+
+    /**
+     * @return The number of calls that are currently waiting to be retried.
+     */
+    int backoffsInProgress();
+
+    /**
+     * @return The number of times a call has started waiting to be retried.
+     */
+    long backoffs();
+
+    /**
+     * @return The number of retries that were not attempted because the maximum number of calls was already waiting to be
+     * retried.
+     */
+    long rejectedBackoffs();
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.retry;
+
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * The state of a client's retry capacity, which throttles retries that aren't caused by throttling errors. Every such retry
+ * takes capacity from the client, and successful requests and the passing of time give it back. A retry for which there is
+ * not enough capacity is not attempted, so that a failing service isn't flooded with retries.
+ *
+ * <p>The metrics of the client making a request can be read by an
+ * {@link software.amazon.awssdk.core.interceptor.ExecutionInterceptor} from the {@link SdkExecutionAttribute#RETRY_CAPACITY}
+ * execution attribute.
+ */
+@SdkPublicApi
+@ThreadSafe
+public interface RetryCapacityMetrics {
+
+    /**
+     * @return The capacity of the client when no retries have taken any of it, or -1 if retries are not throttled.
+     */
+    int maxCapacity();
+
+    /**
+     * @return The capacity available for retries, or -1 if retries are not throttled.
+     */
+    int availableCapacity();
+
+    /**
+     * @return The number of retries that were not attempted because there was not enough capacity for them.
+     */
+    long throttledRetries();
+}
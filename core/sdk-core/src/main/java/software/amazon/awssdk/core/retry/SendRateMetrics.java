@@ -0,0 +1,58 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.retry;
+
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * The rate at which a client with {@link SdkAdvancedClientOption#ENABLE_ADAPTIVE_RATE_LIMITING} enabled sends requests. Once
+ * a service throttles the client, the client limits the rate at which it sends requests, lowering the limit on every
+ * throttling response and raising it again while requests succeed.
+ *
+ * <p>The metrics of the client making a request can be read by an
+ * {@link software.amazon.awssdk.core.interceptor.ExecutionInterceptor} from the {@link SdkExecutionAttribute#SEND_RATE}
+ * execution attribute.
+ */
+@SdkPublicApi
+@ThreadSafe
+public interface SendRateMetrics {
+
+    /**
+     * @return True if the client is limiting the rate at which it sends requests, which it starts doing the first time it is
+     * throttled.
+     */
+    boolean isLimiting();
+
+    /**
+     * @return The number of requests per second the client is limited to, or {@link Double#POSITIVE_INFINITY} if it is not
+     * limiting the rate at which it sends requests.
+     */
+    double sendRateLimit();
+
+    /**
+     * @return The number of requests per second the client has recently been sending, smoothed over the last few seconds.
+     */
+    double measuredSendRate();
+
+    /**
+     * @return The number of throttling responses the client has received.
+     */
+    long throttlingResponses();
+}
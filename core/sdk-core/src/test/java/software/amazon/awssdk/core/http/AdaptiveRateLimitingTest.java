@@ -0,0 +1,106 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.http;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
+import software.amazon.awssdk.core.client.config.SdkClientOption;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.internal.http.AmazonSyncHttpClient;
+import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.SendRateMetrics;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import utils.HttpTestUtils;
+import utils.http.WireMockTestBase;
+
+/**
+ * Tests that a client with adaptive rate limiting enabled starts limiting its send rate when a local stub throttles it.
+ */
+public class AdaptiveRateLimitingTest extends WireMockTestBase {
+
+    private static final String RESOURCE_PATH = "/throttled";
+
+    @Test
+    public void throttlingResponse_startsLimitingSendRate() throws Exception {
+        stubFor(get(urlEqualTo(RESOURCE_PATH)).willReturn(aResponse().withStatus(HttpStatusCode.THROTTLING)));
+
+        ExecutionContext executionContext = executeRequest(true);
+
+        SendRateMetrics sendRate = executionContext.executionAttributes().getAttribute(SdkExecutionAttribute.SEND_RATE);
+        assertThat(sendRate).isNotNull();
+        assertThat(sendRate.isLimiting()).isTrue();
+        assertThat(sendRate.throttlingResponses()).isEqualTo(1);
+        assertThat(sendRate.sendRateLimit()).isLessThan(Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void otherErrorResponse_doesNotLimitSendRate() throws Exception {
+        stubFor(get(urlEqualTo(RESOURCE_PATH)).willReturn(aResponse().withStatus(HttpStatusCode.INTERNAL_SERVER_ERROR)));
+
+        ExecutionContext executionContext = executeRequest(true);
+
+        SendRateMetrics sendRate = executionContext.executionAttributes().getAttribute(SdkExecutionAttribute.SEND_RATE);
+        assertThat(sendRate.isLimiting()).isFalse();
+        assertThat(sendRate.throttlingResponses()).isZero();
+    }
+
+    @Test
+    public void rateLimitingDisabled_doesNotExposeSendRate() throws Exception {
+        stubFor(get(urlEqualTo(RESOURCE_PATH)).willReturn(aResponse().withStatus(HttpStatusCode.THROTTLING)));
+
+        ExecutionContext executionContext = executeRequest(false);
+
+        assertThat(executionContext.executionAttributes().getAttribute(SdkExecutionAttribute.SEND_RATE)).isNull();
+    }
+
+    private ExecutionContext executeRequest(boolean rateLimitingEnabled) throws Exception {
+        SdkClientConfiguration config =
+            HttpTestUtils.testClientConfiguration().toBuilder()
+                         .option(SdkClientOption.SYNC_HTTP_CLIENT, HttpTestUtils.testSdkHttpClient())
+                         .option(SdkClientOption.RETRY_POLICY, RetryPolicy.none())
+                         .option(SdkAdvancedClientOption.ENABLE_ADAPTIVE_RATE_LIMITING, rateLimitingEnabled)
+                         .build();
+
+        AmazonSyncHttpClient httpClient = new AmazonSyncHttpClient(config);
+        SdkHttpFullRequest request = newGetRequest(RESOURCE_PATH).build();
+        ExecutionContext executionContext = ClientExecutionAndRequestTimerTestUtils.executionContext(request);
+
+        assertThatThrownBy(() -> httpClient.requestExecutionBuilder()
+                                           .request(request)
+                                           .originalRequest(NoopTestRequest.builder().build())
+                                           .executionContext(executionContext)
+                                           .errorResponseHandler((response, attributes) -> serviceError(response.statusCode()))
+                                           .execute())
+            .isInstanceOf(SdkServiceException.class);
+        return executionContext;
+    }
+
+    private static SdkServiceException serviceError(int statusCode) {
+        return SdkServiceException.builder().statusCode(statusCode).build();
+    }
+}
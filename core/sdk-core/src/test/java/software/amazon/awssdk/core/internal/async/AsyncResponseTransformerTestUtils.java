@@ -0,0 +1,103 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.async;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+/**
+ * Helpers to drive an {@link AsyncResponseTransformer} in tests without an HTTP client.
+ */
+public final class AsyncResponseTransformerTestUtils {
+    private AsyncResponseTransformerTestUtils() {
+    }
+
+    /**
+     * Streams the given chunks, encoded as UTF-8, through the transformer.
+     */
+    public static <T, R> CompletableFuture<R> transform(AsyncResponseTransformer<T, R> transformer,
+                                                        T response,
+                                                        String... chunks) {
+        CompletableFuture<R> future = transformer.prepare();
+        transformer.onResponse(response);
+        ByteBuffer[] buffers = Arrays.stream(chunks)
+                                     .map(c -> ByteBuffer.wrap(c.getBytes(StandardCharsets.UTF_8)))
+                                     .toArray(ByteBuffer[]::new);
+        transformer.onStream(publisherOf(Arrays.asList(buffers)));
+        return future;
+    }
+
+    /**
+     * A publisher that delivers the given buffers synchronously on subscription, ignoring demand.
+     */
+    public static SdkPublisher<ByteBuffer> publisherOf(List<ByteBuffer> buffers) {
+        return subscriber -> {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            buffers.forEach(subscriber::onNext);
+            subscriber.onComplete();
+        };
+    }
+
+    /**
+     * A response whose HTTP response carries the given Content-Length.
+     */
+    public static TestResponse response(long contentLength) {
+        return new TestResponse(SdkHttpResponse.builder()
+                                               .statusCode(200)
+                                               .putHeader("Content-Length", Long.toString(contentLength))
+                                               .build());
+    }
+
+    public static final class TestResponse extends SdkResponse {
+        private TestResponse(SdkHttpResponse httpResponse) {
+            super(new BuilderImpl() {
+                @Override
+                public SdkResponse build() {
+                    throw new UnsupportedOperationException();
+                }
+            }.sdkHttpResponse(httpResponse));
+        }
+
+        @Override
+        public Builder toBuilder() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<SdkField<?>> sdkFields() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.publisherOf;
+import static software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.response;
+import static software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.transform;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.TestResponse;
+import software.amazon.awssdk.utils.IoUtils;
+
+public class BytesAsyncResponseTransformerTest {
+
+    @Test
+    public void toBytes_ContentLengthMatches_ReturnsContent() throws Exception {
+        ResponseBytes<TestResponse> result = transform(AsyncResponseTransformer.toBytes(), response(11), "hello", " world")
+            .get();
+        assertThat(result.asUtf8String()).isEqualTo("hello world");
+    }
+
+    @Test
+    public void toBytes_MoreContentThanContentLength_GrowsArray() throws Exception {
+        ResponseBytes<TestResponse> result = transform(AsyncResponseTransformer.toBytes(), response(3), "hello", " world")
+            .get();
+        assertThat(result.asUtf8String()).isEqualTo("hello world");
+    }
+
+    @Test
+    public void toBytes_LessContentThanContentLength_TrimsArray() throws Exception {
+        ResponseBytes<TestResponse> result = transform(AsyncResponseTransformer.toBytes(), response(100), "hello").get();
+        assertThat(result.asByteArray()).hasSize(5);
+        assertThat(result.asUtf8String()).isEqualTo("hello");
+    }
+
+    @Test
+    public void toBytes_HugeContentLength_DoesNotPresizeArray() throws Exception {
+        ResponseBytes<TestResponse> result = transform(AsyncResponseTransformer.toBytes(), response(Integer.MAX_VALUE - 100L),
+                                                       "hello").get();
+        assertThat(result.asUtf8String()).isEqualTo("hello");
+    }
+
+    @Test
+    public void toBytes_NoContentLength_ReturnsContent() throws Exception {
+        ResponseBytes<Object> result = transform(AsyncResponseTransformer.toBytes(), new Object(), largeChunks()).get();
+        assertThat(result.asUtf8String()).isEqualTo(String.join("", largeChunks()));
+    }
+
+    @Test
+    public void toBytes_DoesNotModifyReceivedBuffers() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8));
+        AsyncResponseTransformer<Object, ResponseBytes<Object>> transformer = AsyncResponseTransformer.toBytes();
+        CompletableFuture<ResponseBytes<Object>> future = transformer.prepare();
+        transformer.onResponse(new Object());
+        transformer.onStream(publisherOf(Collections.singletonList(buffer)));
+
+        assertThat(future.get().asUtf8String()).isEqualTo("hello");
+        assertThat(buffer.remaining()).isEqualTo(5);
+    }
+
+    @Test
+    public void toBytes_ExceptionOccurred_FailsFuture() {
+        AsyncResponseTransformer<Object, ResponseBytes<Object>> transformer = AsyncResponseTransformer.toBytes();
+        CompletableFuture<ResponseBytes<Object>> future = transformer.prepare();
+        transformer.exceptionOccurred(new IOException("boom"));
+        assertThatThrownBy(future::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void toBytesWithoutCopying_MultipleBuffers_ExposesViews() throws Exception {
+        ResponseBytes<TestResponse> result = transform(AsyncResponseTransformer.toBytesWithoutCopying(), response(11),
+                                                       "hello", "", " world").get();
+
+        assertThat(IoUtils.toUtf8String(result.asInputStream())).isEqualTo("hello world");
+        assertThat(result.asByteBuffer().isReadOnly()).isTrue();
+        assertThat(result.asByteBuffer().remaining()).isEqualTo(11);
+        assertThat(result.asUtf8String()).isEqualTo("hello world");
+        assertThat(result.asByteArray()).isEqualTo("hello world".getBytes(StandardCharsets.UTF_8));
+        assertThat(result).isEqualTo(ResponseBytes.fromByteArray(result.response(),
+                                                                 "hello world".getBytes(StandardCharsets.UTF_8)));
+        assertThat(result.hashCode()).isEqualTo(ResponseBytes.fromByteArray(result.response(),
+                                                                            "hello world".getBytes(StandardCharsets.UTF_8))
+                                                             .hashCode());
+    }
+
+    @Test
+    public void toBytesWithoutCopying_NoContent_IsEmpty() throws Exception {
+        ResponseBytes<Object> result = transform(AsyncResponseTransformer.toBytesWithoutCopying(), new Object()).get();
+        assertThat(result.asByteArray()).isEmpty();
+        assertThat(result.asInputStream().read()).isEqualTo(-1);
+    }
+
+    @Test
+    public void fromByteBuffersUnsafe_SingleBuffer_SharesContent() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(5);
+        buffer.put("hello".getBytes(StandardCharsets.UTF_8)).flip();
+        ResponseBytes<Object> result = ResponseBytes.fromByteBuffersUnsafe(new Object(), Collections.singletonList(buffer));
+
+        buffer.put(0, (byte) 'j');
+        assertThat(result.asUtf8String()).isEqualTo("jello");
+        assertThatThrownBy(() -> result.asByteBuffer().put(0, (byte) 'x')).isInstanceOf(ReadOnlyBufferException.class);
+    }
+
+    @Test
+    public void fromByteBuffersUnsafe_RespectsBufferPositions() throws Exception {
+        ByteBuffer first = ByteBuffer.wrap("xxhello".getBytes(StandardCharsets.UTF_8));
+        first.position(2);
+        ByteBuffer second = ByteBuffer.wrap(" worldyy".getBytes(StandardCharsets.UTF_8));
+        second.limit(6);
+
+        ResponseBytes<Object> result = ResponseBytes.fromByteBuffersUnsafe(new Object(), Arrays.asList(first, second));
+        assertThat(IoUtils.toUtf8String(result.asInputStream())).isEqualTo("hello world");
+        assertThat(result.asUtf8String()).isEqualTo("hello world");
+        assertThat(first.position()).isEqualTo(2);
+    }
+
+    private static String[] largeChunks() {
+        String[] chunks = new String[50];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = String.format("%0100d", i);
+        }
+        return chunks;
+    }
+}
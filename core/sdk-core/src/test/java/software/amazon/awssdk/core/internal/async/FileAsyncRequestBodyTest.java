@@ -0,0 +1,134 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.utils.BinaryUtils;
+
+public class FileAsyncRequestBodyTest {
+    private static final int CHUNK_SIZE = 1024;
+
+    private static Path testFile;
+
+    private static byte[] testFileContent;
+
+    @BeforeClass
+    public static void setup() throws IOException {
+        testFileContent = new byte[CHUNK_SIZE * 100 + 123];
+        new Random(42).nextBytes(testFileContent);
+        testFile = Files.createTempFile(FileAsyncRequestBodyTest.class.getSimpleName(), ".dat");
+        Files.write(testFile, testFileContent);
+    }
+
+    @AfterClass
+    public static void teardown() throws IOException {
+        Files.deleteIfExists(testFile);
+    }
+
+    @Test
+    public void defaultSettings_ReadsWholeFileInOrder() throws Exception {
+        assertThat(readAll(FileAsyncRequestBody.builder().path(testFile).chunkSizeInBytes(CHUNK_SIZE).build(), 1))
+            .isEqualTo(testFileContent);
+    }
+
+    @Test
+    public void readAhead_ReadsWholeFileInOrder() throws Exception {
+        FileAsyncRequestBody body = FileAsyncRequestBody.builder()
+                                                        .path(testFile)
+                                                        .chunkSizeInBytes(CHUNK_SIZE)
+                                                        .readAheadDepth(8)
+                                                        .build();
+        assertThat(readAll(body, 3)).isEqualTo(testFileContent);
+    }
+
+    @Test
+    public void pooledDirectBuffers_ReadsWholeFileInOrder() throws Exception {
+        FileAsyncRequestBody body = FileAsyncRequestBody.builder()
+                                                        .path(testFile)
+                                                        .chunkSizeInBytes(CHUNK_SIZE)
+                                                        .readAheadDepth(8)
+                                                        .pooledDirectBuffers(true)
+                                                        .build();
+        assertThat(readAll(body, Long.MAX_VALUE)).isEqualTo(testFileContent);
+    }
+
+    @Test
+    public void emptyFile_CompletesWithoutElements() throws Exception {
+        Path emptyFile = Files.createTempFile(FileAsyncRequestBodyTest.class.getSimpleName(), ".dat");
+        try {
+            FileAsyncRequestBody body = FileAsyncRequestBody.builder().path(emptyFile).readAheadDepth(4).build();
+            assertThat(readAll(body, 1)).isEmpty();
+        } finally {
+            Files.deleteIfExists(emptyFile);
+        }
+    }
+
+    /**
+     * Subscribes to the body, requesting {@code batch} chunks at a time, and copies every chunk before returning from onNext
+     * as the pooled direct buffer mode requires.
+     */
+    private static byte[] readAll(FileAsyncRequestBody body, long batch) throws Exception {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        body.subscribe(new Subscriber<ByteBuffer>() {
+            private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            private Subscription subscription;
+            private long remainingInBatch;
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                remainingInBatch = batch;
+                s.request(batch);
+            }
+
+            @Override
+            public void onNext(ByteBuffer byteBuffer) {
+                byte[] bytes = BinaryUtils.copyBytesFrom(byteBuffer);
+                content.write(bytes, 0, bytes.length);
+                if (batch != Long.MAX_VALUE && --remainingInBatch == 0) {
+                    remainingInBatch = batch;
+                    subscription.request(batch);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(content.toByteArray());
+            }
+        });
+        return result.get(10, TimeUnit.SECONDS);
+    }
+}
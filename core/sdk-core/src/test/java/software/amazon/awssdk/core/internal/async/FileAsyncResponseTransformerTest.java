@@ -0,0 +1,137 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.publisherOf;
+import static software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.response;
+import static software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.transform;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.internal.async.AsyncResponseTransformerTestUtils.TestResponse;
+import software.amazon.awssdk.core.internal.async.FileAsyncResponseTransformer.MappedFileSubscriber;
+
+public class FileAsyncResponseTransformerTest {
+    private Path directory;
+
+    private Path target;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("file-transformer-test");
+        target = directory.resolve("target");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(target);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void toMemoryMappedFile_ContentLengthMatches_WritesContent() throws Exception {
+        transform(AsyncResponseTransformer.toMemoryMappedFile(target), response(11), "hello", " world").get();
+        assertThat(new String(Files.readAllBytes(target), StandardCharsets.UTF_8)).isEqualTo("hello world");
+    }
+
+    @Test
+    public void toMemoryMappedFile_NoContentLength_WritesContent() throws Exception {
+        transform(AsyncResponseTransformer.toMemoryMappedFile(target), new Object(), "hello world").get();
+        assertThat(new String(Files.readAllBytes(target), StandardCharsets.UTF_8)).isEqualTo("hello world");
+    }
+
+    @Test
+    public void toMemoryMappedFile_LessContentThanContentLength_Fails() {
+        assertThatThrownBy(() -> transform(AsyncResponseTransformer.toMemoryMappedFile(target), response(100), "hello").get())
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(SdkClientException.class);
+        assertThat(target).doesNotExist();
+    }
+
+    @Test
+    public void toMemoryMappedFile_MoreContentThanContentLength_Fails() {
+        assertThatThrownBy(() -> transform(AsyncResponseTransformer.toMemoryMappedFile(target), response(3), "hello").get())
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(SdkClientException.class);
+        assertThat(target).doesNotExist();
+    }
+
+    @Test
+    public void toMemoryMappedFile_FileExists_Throws() throws IOException {
+        Files.createFile(target);
+        AsyncResponseTransformer<TestResponse, TestResponse> transformer = AsyncResponseTransformer.toMemoryMappedFile(target);
+        transformer.prepare();
+        transformer.onResponse(response(5));
+        assertThatThrownBy(() -> transformer.onStream(publisherOf(Collections.emptyList())))
+            .hasRootCauseInstanceOf(java.nio.file.FileAlreadyExistsException.class);
+    }
+
+    @Test
+    public void toMemoryMappedFile_ExceptionOccurred_DeletesFile() {
+        AsyncResponseTransformer<TestResponse, TestResponse> transformer = AsyncResponseTransformer.toMemoryMappedFile(target);
+        CompletableFuture<TestResponse> future = transformer.prepare();
+        transformer.onResponse(response(5));
+        transformer.onStream(subscriber -> { });
+        assertThat(target).exists();
+
+        transformer.exceptionOccurred(new IOException("boom"));
+        assertThat(target).doesNotExist();
+        assertThat(future).isCompletedExceptionally();
+    }
+
+    @Test
+    public void unmapper_IsSupportedOnThisJvm() {
+        assertThat(FileAsyncResponseTransformer.Unmapper.isSupported()).isTrue();
+    }
+
+    @Test
+    public void mappedFileSubscriber_ChunksSpanRegions_WritesContent() throws Exception {
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE);
+        Subscriber<ByteBuffer> subscriber = new MappedFileSubscriber(channel, target, content.length, 64, future);
+
+        publisherOf(Arrays.asList(ByteBuffer.wrap(content, 0, 100),
+                                  ByteBuffer.wrap(content, 100, 0),
+                                  ByteBuffer.wrap(content, 100, 900))).subscribe(subscriber);
+
+        future.get();
+        assertThat(channel.isOpen()).isFalse();
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+    }
+}
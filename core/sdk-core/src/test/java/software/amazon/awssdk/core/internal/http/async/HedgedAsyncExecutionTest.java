@@ -0,0 +1,220 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.http.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.core.internal.http.timers.HashedWheelTimer;
+import software.amazon.awssdk.core.internal.retry.RequestHedger;
+import software.amazon.awssdk.core.retry.HedgingPolicy;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpFullResponse;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+import utils.ValidSdkObjects;
+
+/**
+ * Tests for {@link HedgedAsyncExecution}, with an HTTP client whose exchanges are completed by the tests.
+ */
+public class HedgedAsyncExecutionTest {
+    private static final String OPERATION = "GetItem";
+    private static final long HEDGE_DELAY_MILLIS = 20;
+
+    private final StubHttpClient httpClient = new StubHttpClient();
+    private final SdkAsyncHttpResponseHandler responseHandler = mock(SdkAsyncHttpResponseHandler.class);
+    private HashedWheelTimer timer;
+    private RequestHedger hedger;
+
+    @Before
+    public void setup() {
+        timer = new HashedWheelTimer("hedge-test-timer", TimeUnit.MILLISECONDS.toNanos(1), 64);
+        hedger = new RequestHedger(HedgingPolicy.builder()
+                                                .hedgeableOperations(OPERATION)
+                                                .minDelay(Duration.ofMillis(HEDGE_DELAY_MILLIS))
+                                                .maxExtraLoad(1)
+                                                .build());
+        for (int i = 0; i < 1000; i++) {
+            hedger.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    @After
+    public void teardown() {
+        timer.close();
+    }
+
+    @Test
+    public void fastResponse_isNotHedged() throws Exception {
+        CompletableFuture<Void> future = execute();
+        Exchange primary = httpClient.exchange(0);
+        primary.respond(200);
+
+        Thread.sleep(HEDGE_DELAY_MILLIS * 3);
+        assertThat(httpClient.exchanges).hasSize(1);
+        verify(responseHandler).onHeaders(any(SdkHttpResponse.class));
+
+        primary.future.complete(null);
+        assertThat(future).isCompleted();
+        assertThat(hedger.hedgesSent()).isZero();
+    }
+
+    @Test
+    public void slowResponse_isHedged_andFirstResponseWins() throws Exception {
+        CompletableFuture<Void> future = execute();
+        Exchange primary = httpClient.exchange(0);
+        Exchange hedge = httpClient.awaitExchange(1);
+
+        hedge.respond(200);
+        primary.respond(200);
+
+        verify(responseHandler).onHeaders(any(SdkHttpResponse.class));
+        assertThat(primary.future).isCompletedExceptionally();
+        assertThat(hedger.hedgesWon()).isEqualTo(1);
+
+        hedge.future.complete(null);
+        assertThat(future).isCompleted();
+        assertThat(future.isCompletedExceptionally()).isFalse();
+    }
+
+    @Test
+    public void errorResponse_waitsForOtherAttempt() throws Exception {
+        CompletableFuture<Void> future = execute();
+        Exchange primary = httpClient.exchange(0);
+        Exchange hedge = httpClient.awaitExchange(1);
+
+        primary.respond(500);
+        verify(responseHandler, never()).onHeaders(any(SdkHttpResponse.class));
+        assertThat(primary.future).isCompletedExceptionally();
+
+        hedge.respond(200);
+        hedge.future.complete(null);
+        verify(responseHandler).onHeaders(any(SdkHttpResponse.class));
+        assertThat(future).isCompleted();
+        assertThat(future.isCompletedExceptionally()).isFalse();
+    }
+
+    @Test
+    public void errorResponse_isUsedWhenNoOtherAttemptInFlight() throws Exception {
+        CompletableFuture<Void> future = execute();
+        Exchange primary = httpClient.exchange(0);
+
+        primary.respond(500);
+        primary.future.complete(null);
+
+        verify(responseHandler).onHeaders(any(SdkHttpResponse.class));
+        assertThat(future).isCompleted();
+        Thread.sleep(HEDGE_DELAY_MILLIS * 3);
+        assertThat(httpClient.exchanges).hasSize(1);
+    }
+
+    @Test
+    public void allAttemptsFailing_failsExecution() throws Exception {
+        CompletableFuture<Void> future = execute();
+        Exchange primary = httpClient.exchange(0);
+        Exchange hedge = httpClient.awaitExchange(1);
+
+        primary.fail(new IOException("primary"));
+        assertThat(future).isNotDone();
+
+        IOException lastError = new IOException("hedge");
+        hedge.fail(lastError);
+        assertThat(future).isCompletedExceptionally();
+        verify(responseHandler).onError(lastError);
+    }
+
+    @Test
+    public void abortingExecution_abortsAttemptsInFlight() throws Exception {
+        CompletableFuture<Void> future = execute();
+        Exchange primary = httpClient.exchange(0);
+        Exchange hedge = httpClient.awaitExchange(1);
+
+        future.completeExceptionally(new RuntimeException("timed out"));
+
+        assertThat(primary.future).isCompletedExceptionally();
+        assertThat(hedge.future).isCompletedExceptionally();
+    }
+
+    private CompletableFuture<Void> execute() {
+        SdkHttpFullRequest request = ValidSdkObjects.sdkHttpFullRequest().build();
+        AsyncExecuteRequest executeRequest = AsyncExecuteRequest.builder()
+                                                                .request(request)
+                                                                .requestContentPublisher(new SimpleHttpContentPublisher(request))
+                                                                .responseHandler(responseHandler)
+                                                                .build();
+        return HedgedAsyncExecution.execute(httpClient, executeRequest, hedger, OPERATION, timer, Runnable::run);
+    }
+
+    private static final class Exchange {
+        private final SdkAsyncHttpResponseHandler handler;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Exchange(SdkAsyncHttpResponseHandler handler) {
+            this.handler = handler;
+        }
+
+        private void respond(int statusCode) {
+            handler.onHeaders(SdkHttpFullResponse.builder().statusCode(statusCode).build());
+        }
+
+        private void fail(Throwable error) {
+            handler.onError(error);
+            future.completeExceptionally(error);
+        }
+    }
+
+    private static final class StubHttpClient implements SdkAsyncHttpClient {
+        private final List<Exchange> exchanges = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<Void> execute(AsyncExecuteRequest request) {
+            Exchange exchange = new Exchange(request.responseHandler());
+            exchanges.add(exchange);
+            return exchange.future;
+        }
+
+        private Exchange exchange(int index) {
+            return exchanges.get(index);
+        }
+
+        private Exchange awaitExchange(int index) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (exchanges.size() <= index && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            return exchanges.get(index);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -42,7 +42,7 @@ import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
 import software.amazon.awssdk.core.internal.http.timers.ApiCallTimeoutTracker;
 import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
 import software.amazon.awssdk.core.internal.http.timers.NoOpTimeoutTracker;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -66,7 +66,7 @@ public class ApiCallAttemptTimeoutTrackingStageTest {
                                                                                    SdkClientConfiguration.builder()
                                                                                                          .option(SCHEDULED_EXECUTOR_SERVICE, timeoutExecutor)
                                                                                                          .build())
-                                                                               .capacityManager(mock(CapacityManager.class))
+                                                                               .retryCapacity(new RetryTokenBucket(1))
                                                                                .build(), wrapped);
     }
 
@@ -42,7 +42,7 @@ import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
 import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
 import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.utils.ThreadFactoryBuilder;
 
@@ -64,7 +64,7 @@ public class ApiCallTimeoutTrackingStageTest {
                                                                                                                        (SdkClientOption
                                                                                                                             .SCHEDULED_EXECUTOR_SERVICE, timeoutExecutor)
                                                                                                                    .build())
-                                                                        .capacityManager(mock(CapacityManager.class))
+                                                                        .retryCapacity(new RetryTokenBucket(1))
                                                                         .build(),
                                                   wrapped);
     }
@@ -15,33 +15,32 @@
 
 package software.amazon.awssdk.core.internal.http.pipeline.stages;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyLong;
-import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
 import software.amazon.awssdk.core.client.config.SdkClientOption;
 import software.amazon.awssdk.core.http.NoopTestRequest;
-import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
 import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
 import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
 import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
 import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
+import software.amazon.awssdk.core.internal.http.timers.HashedWheelTimer;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.http.SdkHttpMethod;
 import utils.ValidSdkObjects;
@@ -64,8 +63,9 @@ public class AsyncApiCallTimeoutTrackingStageTest {
 
     private HttpClientDependencies dependencies;
 
-    @Mock
-    private CapacityManager capacityManager;
+    private RetryTokenBucket retryCapacity = new RetryTokenBucket(1);
+
+    private HashedWheelTimer timeoutTimer = new HashedWheelTimer("test-timeout-timer", TimeUnit.MILLISECONDS.toNanos(1), 64);
 
     private SdkHttpFullRequest httpRequest;
 
@@ -82,7 +82,8 @@ public class AsyncApiCallTimeoutTrackingStageTest {
 
         dependencies = HttpClientDependencies.builder()
                 .clientConfiguration(configuration)
-                .capacityManager(capacityManager)
+                .retryCapacity(retryCapacity)
+                .timeoutTimer(timeoutTimer)
                 .build();
 
         httpRequest = SdkHttpFullRequest.builder()
@@ -98,17 +99,26 @@ public class AsyncApiCallTimeoutTrackingStageTest {
 
         when(requestPipeline.execute(any(SdkHttpFullRequest.class), any(RequestExecutionContext.class)))
                 .thenReturn(new CompletableFuture());
+    }
 
-        when(executorService.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenReturn(mock(ScheduledFuture.class));
+    @After
+    public void methodTeardown() {
+        timeoutTimer.close();
     }
 
     @Test
     @SuppressWarnings("unchecked")
     public void testSchedulesTheTimeoutUsingSuppliedExecutorService() throws Exception {
+        CompletableFuture<Long> timeoutExecutedNanos = new CompletableFuture<>();
+        doAnswer(invocation -> timeoutExecutedNanos.complete(System.nanoTime()))
+                .when(executorService).execute(any(Runnable.class));
         AsyncApiCallTimeoutTrackingStage apiCallTimeoutTrackingStage = new AsyncApiCallTimeoutTrackingStage(dependencies,
                 requestPipeline);
+
+        long startNanos = System.nanoTime();
         apiCallTimeoutTrackingStage.execute(httpRequest, requestExecutionContext);
-        verify(executorService)
-                .schedule(any(Runnable.class), eq(TIMEOUT_MILLIS), eq(TimeUnit.MILLISECONDS));
+
+        long elapsedNanos = timeoutExecutedNanos.get(TIMEOUT_MILLIS + 1000, TimeUnit.MILLISECONDS) - startNanos;
+        assertThat(elapsedNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS));
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.http.pipeline.stages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
+import software.amazon.awssdk.core.client.config.SdkClientOption;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.http.NoopTestRequest;
+import software.amazon.awssdk.core.internal.Response;
+import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
+import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
+import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
+import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import utils.ValidSdkObjects;
+
+/**
+ * Unit tests for {@link AsyncRateLimitingStage}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncRateLimitingStageTest {
+
+    @Mock
+    private RequestPipeline<SdkHttpFullRequest, CompletableFuture<Response<Void>>> wrapped;
+
+    @Mock
+    private ScheduledExecutorService scheduledExecutor;
+
+    private HttpClientDependencies dependencies;
+
+    private AsyncRateLimitingStage<Void> stage;
+
+    @Before
+    public void setup() {
+        SdkClientConfiguration clientConfiguration =
+            SdkClientConfiguration.builder()
+                                  .option(SdkClientOption.SCHEDULED_EXECUTOR_SERVICE, scheduledExecutor)
+                                  .option(SdkAdvancedClientOption.ENABLE_ADAPTIVE_RATE_LIMITING, true)
+                                  .build();
+        dependencies = HttpClientDependencies.builder()
+                                             .clientConfiguration(clientConfiguration)
+                                             .retryCapacity(new RetryTokenBucket(1))
+                                             .build();
+        stage = new AsyncRateLimitingStage<>(dependencies, wrapped);
+    }
+
+    @Test
+    public void notThrottled_sendsRightAway() throws Exception {
+        when(wrapped.execute(any(SdkHttpFullRequest.class), any(RequestExecutionContext.class)))
+            .thenReturn(CompletableFuture.completedFuture(Response.fromSuccess(null, null)));
+
+        stage.execute(ValidSdkObjects.sdkHttpFullRequest().build(), requestContext()).join();
+        stage.execute(ValidSdkObjects.sdkHttpFullRequest().build(), requestContext()).join();
+
+        assertThat(dependencies.rateLimiter().isLimiting()).isFalse();
+        verify(scheduledExecutor, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void throttled_delaysNextAttemptOnScheduledExecutor() throws Exception {
+        SdkServiceException throttlingException = SdkServiceException.builder().statusCode(HttpStatusCode.THROTTLING).build();
+        when(wrapped.execute(any(SdkHttpFullRequest.class), any(RequestExecutionContext.class)))
+            .thenReturn(CompletableFuture.completedFuture(Response.fromFailure(throttlingException, null)));
+
+        stage.execute(ValidSdkObjects.sdkHttpFullRequest().build(), requestContext()).join();
+        assertThat(dependencies.rateLimiter().isLimiting()).isTrue();
+
+        CompletableFuture<Response<Void>> delayed = stage.execute(ValidSdkObjects.sdkHttpFullRequest().build(), requestContext());
+
+        assertThat(delayed).isNotDone();
+        verify(scheduledExecutor).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.NANOSECONDS));
+    }
+
+    private RequestExecutionContext requestContext() {
+        return RequestExecutionContext.builder()
+                                      .executionContext(ClientExecutionAndRequestTimerTestUtils.executionContext(null))
+                                      .originalRequest(NoopTestRequest.builder().build())
+                                      .build();
+    }
+}
@@ -15,10 +15,10 @@
 
 package software.amazon.awssdk.core.internal.http.pipeline.stages;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.awssdk.core.client.config.SdkClientOption.API_CALL_ATTEMPT_TIMEOUT;
@@ -28,22 +28,23 @@ import static software.amazon.awssdk.core.client.config.SdkClientOption.SCHEDULE
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
 import software.amazon.awssdk.core.http.ExecutionContext;
 import software.amazon.awssdk.core.http.NoopTestRequest;
-import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
 import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
 import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
+import software.amazon.awssdk.core.internal.http.timers.HashedWheelTimer;
 import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.core.internal.util.AsyncResponseHandlerTestUtils;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
 import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
 import utils.ValidSdkObjects;
 
@@ -58,24 +59,27 @@ public class MakeAsyncHttpRequestStageTest {
 
     private CompletableFuture<Void> clientExecuteFuture = CompletableFuture.completedFuture(null);
 
-    @Mock
-    private ScheduledFuture future;
+    private HashedWheelTimer timeoutTimer = new HashedWheelTimer("test-timeout-timer", TimeUnit.MILLISECONDS.toNanos(1), 64);
 
     private MakeAsyncHttpRequestStage stage;
 
     @Before
     public void setup() {
         when(sdkAsyncHttpClient.execute(any())).thenReturn(clientExecuteFuture);
-        when(timeoutExecutor.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenReturn(future);
+    }
+
+    @After
+    public void tearDown() {
+        timeoutTimer.close();
     }
 
     @Test
     public void apiCallAttemptTimeoutEnabled_shouldInvokeExecutor() throws Exception {
         stage = new MakeAsyncHttpRequestStage<>(AsyncResponseHandlerTestUtils.noOpResponseHandler(), AsyncResponseHandlerTestUtils.noOpResponseHandler(),
-                                              clientDependencies(Duration.ofMillis(1000)));
+                                              clientDependencies(Duration.ofMillis(10)));
         stage.execute(ValidSdkObjects.sdkHttpFullRequest().build(), requestContext());
 
-        verify(timeoutExecutor, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        verify(timeoutExecutor, timeout(1000)).execute(any(Runnable.class));
     }
 
     @Test
@@ -83,7 +87,8 @@ public class MakeAsyncHttpRequestStageTest {
         stage = new MakeAsyncHttpRequestStage<>(AsyncResponseHandlerTestUtils.noOpResponseHandler(), AsyncResponseHandlerTestUtils.noOpResponseHandler(), clientDependencies(null));
         stage.execute(ValidSdkObjects.sdkHttpFullRequest().build(), requestContext());
 
-        verify(timeoutExecutor, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        assertThat(timeoutTimer.pendingTimeouts()).isZero();
+        verify(timeoutExecutor, never()).execute(any(Runnable.class));
     }
 
     private HttpClientDependencies clientDependencies(Duration timeout) {
@@ -97,7 +102,8 @@ public class MakeAsyncHttpRequestStageTest {
 
         return HttpClientDependencies.builder()
                                      .clientConfiguration(configuration)
-                                     .capacityManager(new CapacityManager(2))
+                                     .retryCapacity(new RetryTokenBucket(2))
+                                     .timeoutTimer(timeoutTimer)
                                      .build();
     }
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.core.internal.http.pipeline.stages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
+import software.amazon.awssdk.core.client.config.SdkClientOption;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.http.NoopTestRequest;
+import software.amazon.awssdk.core.internal.http.HttpClientDependencies;
+import software.amazon.awssdk.core.internal.http.RequestExecutionContext;
+import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.FixedDelayBackoffStrategy;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+
+public class RetryableStageTest {
+    private static final int RETRY_CAPACITY = 100;
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private RetryTokenBucket retryCapacity;
+    private HttpClientDependencies dependencies;
+    private RetryableStage<Void> stage;
+
+    @Before
+    public void setup() {
+        retryCapacity = new RetryTokenBucket(RETRY_CAPACITY);
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+                                             .numRetries(3)
+                                             .backoffStrategy(FixedDelayBackoffStrategy.create(Duration.ofMillis(10)))
+                                             .build();
+        dependencies = HttpClientDependencies.builder()
+                                             .clientConfiguration(SdkClientConfiguration.builder()
+                                                                                        .option(SdkClientOption.RETRY_POLICY,
+                                                                                                retryPolicy)
+                                                                                        .option(SdkAdvancedClientOption
+                                                                                                    .MAX_CONCURRENT_RETRY_BACKOFFS,
+                                                                                                1)
+                                                                                        .build())
+                                             .retryCapacity(retryCapacity)
+                                             .build();
+        stage = new RetryableStage<>(dependencies, (request, context) -> {
+            attempts.incrementAndGet();
+            throw new IOException("Connection reset");
+        });
+    }
+
+    @Test
+    public void rejectedBackoff_FailsWithLastClientErrorWithoutRetryingIt() {
+        // Another call of the client takes the only backoff slot
+        dependencies.retryBackoffs().beginScheduledBackoff();
+
+        assertThatThrownBy(() -> stage.execute(request(), context()))
+            .isInstanceOf(SdkClientException.class)
+            .hasCauseInstanceOf(IOException.class);
+        assertThat(attempts).hasValue(1);
+        assertThat(dependencies.retryBackoffs().rejectedBackoffs()).isEqualTo(1);
+        assertThat(retryCapacity.availableCapacity()).isEqualTo(RETRY_CAPACITY);
+    }
+
+    @Test
+    public void acceptedBackoffs_RetryClientErrorUntilRetriesAreExhausted() {
+        assertThatThrownBy(() -> stage.execute(request(), context())).isInstanceOf(SdkClientException.class);
+        assertThat(attempts).hasValue(4);
+        assertThat(dependencies.retryBackoffs().backoffs()).isEqualTo(3);
+        assertThat(dependencies.retryBackoffs().rejectedBackoffs()).isEqualTo(0);
+    }
+
+    private static SdkHttpFullRequest request() {
+        return SdkHttpFullRequest.builder()
+                                 .protocol("https")
+                                 .host("example.com")
+                                 .method(SdkHttpMethod.GET)
+                                 .build();
+    }
+
+    private static RequestExecutionContext context() {
+        return RequestExecutionContext.builder()
+                                      .executionContext(ClientExecutionAndRequestTimerTestUtils.executionContext(null))
+                                      .originalRequest(NoopTestRequest.builder().build())
+                                      .build();
+    }
+}
@@ -41,7 +41,7 @@ import software.amazon.awssdk.core.internal.http.pipeline.RequestPipeline;
 import software.amazon.awssdk.core.internal.http.timers.ApiCallTimeoutTracker;
 import software.amazon.awssdk.core.internal.http.timers.ClientExecutionAndRequestTimerTestUtils;
 import software.amazon.awssdk.core.internal.http.timers.TimeoutTask;
-import software.amazon.awssdk.core.internal.util.CapacityManager;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import utils.ValidSdkObjects;
 
@@ -66,7 +66,7 @@ public class TimeoutExceptionHandlingStageTest {
     @Before
     public void setup() {
         stage = new TimeoutExceptionHandlingStage<>(HttpClientDependencies.builder()
-                                                                          .capacityManager(new CapacityManager(1))
+                                                                          .retryCapacity(new RetryTokenBucket(1))
                                                                           .clientConfiguration(SdkClientConfiguration.builder().build())
                                                                           .build(), requestPipeline);
     }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.http.timers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the behavior of the {@link HashedWheelTimer}
+ */
+public class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timeout-timer", TimeUnit.MILLISECONDS.toNanos(1), 8);
+
+    @After
+    public void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    public void timeout_runsTaskAfterDelay() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(ran::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        waitForPendingTimeouts(0);
+    }
+
+    @Test
+    public void cancelledTimeout_doesNotRunTask() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.isCancelled()).isTrue();
+        waitForPendingTimeouts(0);
+        Thread.sleep(50);
+        assertThat(runs.get()).isZero();
+    }
+
+    @Test
+    public void timeoutsSpanningSeveralRounds_allRun() throws InterruptedException {
+        int timeouts = 100;
+        CountDownLatch ran = new CountDownLatch(timeouts);
+        for (int i = 0; i < timeouts; i++) {
+            timer.newTimeout(ran::countDown, i, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        waitForPendingTimeouts(0);
+    }
+
+    @Test
+    public void cancelledTimeoutsInBuckets_areDiscarded() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout[] scheduled = new HashedWheelTimer.Timeout[50];
+        for (int i = 0; i < scheduled.length; i++) {
+            scheduled[i] = timer.newTimeout(runs::incrementAndGet, 1, TimeUnit.SECONDS);
+        }
+        // Let the worker move the timeouts into their buckets before cancelling them.
+        Thread.sleep(20);
+        for (HashedWheelTimer.Timeout timeout : scheduled) {
+            timeout.cancel();
+        }
+
+        waitForPendingTimeouts(0);
+        assertThat(runs.get()).isZero();
+    }
+
+    @Test
+    public void timer_resumesAfterBeingIdle() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        timer.newTimeout(first::countDown, 1, TimeUnit.MILLISECONDS);
+        assertThat(first.await(5, TimeUnit.SECONDS)).isTrue();
+        waitForPendingTimeouts(0);
+        Thread.sleep(50);
+
+        CountDownLatch second = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.newTimeout(second::countDown, 20, TimeUnit.MILLISECONDS);
+        assertThat(second.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void failingTask_doesNotStopTimer() throws InterruptedException {
+        timer.newTimeout(() -> {
+            throw new RuntimeException("Expected");
+        }, 1, TimeUnit.MILLISECONDS);
+        CountDownLatch ran = new CountDownLatch(1);
+        timer.newTimeout(ran::countDown, 5, TimeUnit.MILLISECONDS);
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedTimer_rejectsTimeouts() {
+        timer.close();
+        timer.newTimeout(() -> { }, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void sharedTimer_cannotBeClosed() throws InterruptedException {
+        HashedWheelTimer.shared().close();
+        CountDownLatch ran = new CountDownLatch(1);
+        HashedWheelTimer.shared().newTimeout(ran::countDown, 1, TimeUnit.MILLISECONDS);
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void waitForPendingTimeouts(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timer.pendingTimeouts() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(timer.pendingTimeouts()).isEqualTo(expected);
+    }
+}
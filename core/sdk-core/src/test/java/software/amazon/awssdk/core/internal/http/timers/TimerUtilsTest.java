@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.core.internal.http.timers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+/**
+ * Tests the {@link TimeoutTracker}s created by {@link TimerUtils} when the timeout executor is saturated.
+ */
+public class TimerUtilsTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timeout-timer", TimeUnit.MILLISECONDS.toNanos(1), 8);
+    private final ExecutorService timeoutExecutor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch releaseExecutor = new CountDownLatch(1);
+    private final CountDownLatch handedOver = new CountDownLatch(1);
+    private final Executor handOverRecordingExecutor = task -> {
+        timeoutExecutor.execute(task);
+        handedOver.countDown();
+    };
+
+    @After
+    public void tearDown() {
+        releaseExecutor.countDown();
+        timeoutExecutor.shutdownNow();
+        timer.close();
+        Thread.interrupted();
+    }
+
+    @Test
+    public void syncTracker_cancelledWhileQueuedOnExecutor_doesNotInterrupt() throws InterruptedException {
+        saturateExecutor();
+        TimeoutTracker tracker = TimerUtils.timeSyncTaskIfNeeded(timer, handOverRecordingExecutor, 10,
+                                                                 Thread.currentThread());
+        assertThat(handedOver.await(5, TimeUnit.SECONDS)).isTrue();
+
+        tracker.cancel();
+        releaseExecutor.countDown();
+        drainExecutor();
+
+        assertThat(Thread.interrupted()).isFalse();
+        assertThat(tracker.hasExecuted()).isFalse();
+    }
+
+    @Test
+    public void syncTracker_notCancelled_interrupts() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread caller = new Thread(() -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        caller.start();
+        TimeoutTracker tracker = TimerUtils.timeSyncTaskIfNeeded(timer, handOverRecordingExecutor, 10, caller);
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(tracker.hasExecuted()).isTrue();
+    }
+
+    @Test
+    public void asyncTracker_cancelledWhileQueuedOnExecutor_doesNotFailFuture() throws InterruptedException {
+        saturateExecutor();
+        CompletableFuture<String> future = new CompletableFuture<>();
+        TimeoutTracker tracker = TimerUtils.timeAsyncTaskIfNeeded(future, timer, handOverRecordingExecutor,
+                                                                  SdkClientException.create("timeout"), 10);
+        assertThat(handedOver.await(5, TimeUnit.SECONDS)).isTrue();
+
+        tracker.cancel();
+        releaseExecutor.countDown();
+        drainExecutor();
+
+        assertThat(future).isNotDone();
+        assertThat(tracker.hasExecuted()).isFalse();
+    }
+
+    private void saturateExecutor() {
+        timeoutExecutor.execute(() -> {
+            try {
+                releaseExecutor.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void drainExecutor() throws InterruptedException {
+        CountDownLatch drained = new CountDownLatch(1);
+        timeoutExecutor.execute(drained::countDown);
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Offset.offset;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Tests the behavior of the {@link AdaptiveRateLimiter}, partly by simulating a client sending requests to a service that
+ * throttles it, on a simulated clock.
+ */
+public class AdaptiveRateLimiterTest {
+
+    private final SimulatedClock clock = new SimulatedClock();
+    private final AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(clock::nanoTime);
+
+    @Test
+    public void notThrottled_doesNotLimit() {
+        for (int i = 0; i < 1000; i++) {
+            clock.advanceMillis(1);
+            assertThat(limiter.acquire()).isZero();
+            limiter.updateSendRate(false);
+        }
+        assertThat(limiter.isLimiting()).isFalse();
+        assertThat(limiter.sendRateLimit()).isEqualTo(Double.POSITIVE_INFINITY);
+        assertThat(limiter.measuredSendRate()).isGreaterThan(500);
+    }
+
+    @Test
+    public void throttled_limitsToFractionOfMeasuredRate() {
+        sendAtRate(100, 5, false);
+        double measuredRate = limiter.measuredSendRate();
+
+        limiter.updateSendRate(true);
+
+        assertThat(limiter.isLimiting()).isTrue();
+        assertThat(limiter.throttlingResponses()).isEqualTo(1);
+        assertThat(limiter.sendRateLimit()).isCloseTo(measuredRate * 0.7, offset(1.0));
+    }
+
+    @Test
+    public void limited_requestsAreSpacedBySendRate() {
+        sendAtRate(100, 5, false);
+        limiter.updateSendRate(true);
+        double rate = limiter.sendRateLimit();
+
+        // Reserving a burst of tokens makes each request wait one more interval than the one before it.
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+        assertThat(second - first).isCloseTo((long) (TimeUnit.SECONDS.toNanos(1) / rate),
+                                             offset(TimeUnit.MICROSECONDS.toNanos(10)));
+    }
+
+    @Test
+    public void limitRecovers_whileRequestsSucceed() {
+        sendAtRate(100, 5, false);
+        limiter.updateSendRate(true);
+        double throttledLimit = limiter.sendRateLimit();
+
+        sendAtRate(200, 10, false);
+
+        assertThat(limiter.sendRateLimit()).isGreaterThan(throttledLimit);
+    }
+
+    @Test
+    public void simulation_convergesOnThrottlingServiceCapacity() {
+        int capacity = 100;
+        ThrottlingServiceStub service = new ThrottlingServiceStub(capacity);
+        SimulatedClient client = new SimulatedClient(500);
+
+        client.run(service, 60);
+        long throttledBefore = service.throttled;
+        long servedBefore = service.served;
+        client.run(service, 60);
+        long throttled = service.throttled - throttledBefore;
+        long served = service.served - servedBefore;
+
+        // Without the limiter, four out of five requests would be throttled.
+        assertThat(limiter.isLimiting()).isTrue();
+        assertThat((double) throttled / (throttled + served)).isLessThan(0.1);
+        assertThat(served / 60.0).isBetween(capacity * 0.6, capacity * 1.01);
+    }
+
+    private void sendAtRate(int requestsPerSecond, int seconds, boolean throttled) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        for (int i = 0; i < requestsPerSecond * seconds; i++) {
+            clock.advance(intervalNanos);
+            limiter.updateSendRate(throttled);
+        }
+    }
+
+    /**
+     * A client that wants to send requests at a fixed rate, one at a time, and waits whenever the limiter tells it to.
+     */
+    private final class SimulatedClient {
+        private final long intervalNanos;
+
+        private SimulatedClient(int requestsPerSecond) {
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        }
+
+        private void run(ThrottlingServiceStub service, int seconds) {
+            long end = clock.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            while (clock.nanoTime() < end) {
+                clock.advance(intervalNanos);
+                clock.advance(limiter.acquire());
+                limiter.updateSendRate(!service.tryServe(clock.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * A service that serves a fixed number of requests per second, with a burst of a tenth of a second, and throttles the
+     * rest.
+     */
+    private static final class ThrottlingServiceStub {
+        private final double requestsPerNano;
+        private final double burst;
+        private double tokens;
+        private long lastNanos;
+        private long served;
+        private long throttled;
+
+        private ThrottlingServiceStub(int requestsPerSecond) {
+            this.requestsPerNano = requestsPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+            this.burst = requestsPerSecond / 10.0;
+            this.tokens = burst;
+        }
+
+        private boolean tryServe(long nowNanos) {
+            tokens = Math.min(burst, tokens + (nowNanos - lastNanos) * requestsPerNano);
+            lastNanos = nowNanos;
+            if (tokens >= 1) {
+                tokens -= 1;
+                served++;
+                return true;
+            }
+            throttled++;
+            return false;
+        }
+    }
+
+    private static final class SimulatedClock {
+        private long nanos;
+
+        private long nanoTime() {
+            return nanos;
+        }
+
+        private void advance(long nanos) {
+            this.nanos += nanos;
+        }
+
+        private void advanceMillis(long millis) {
+            advance(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import software.amazon.awssdk.core.retry.HedgingPolicy;
+
+/**
+ * Tests the behavior of the {@link RequestHedger}
+ */
+public class RequestHedgerTest {
+    private static final String OPERATION = "GetItem";
+
+    @Test
+    public void onlyListedOperationsAreHedgeable() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder().hedgeableOperations(OPERATION).build());
+        assertThat(hedger.isHedgeable(OPERATION)).isTrue();
+        assertThat(hedger.isHedgeable("ReceiveMessage")).isFalse();
+        assertThat(hedger.isHedgeable(null)).isFalse();
+    }
+
+    @Test
+    public void noHedgeDelay_untilEnoughLatenciesRecorded() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder().hedgeableOperations(OPERATION).build());
+        for (int i = 1; i < RequestHedger.MIN_RECORDINGS; i++) {
+            hedger.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(hedger.onRequest(OPERATION)).isEqualTo(-1);
+
+        hedger.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(hedger.onRequest(OPERATION)).isPositive();
+    }
+
+    @Test
+    public void hedgeDelay_isConfiguredPercentileOfOperationLatencies() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder()
+                                                             .hedgeableOperations(OPERATION, "Query")
+                                                             .delayPercentile(90)
+                                                             .minDelay(Duration.ZERO)
+                                                             .build());
+        for (int i = 0; i < 1000; i++) {
+            hedger.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(i % 10 == 0 ? 200 : 10));
+            hedger.recordLatency("Query", TimeUnit.MILLISECONDS.toNanos(i % 10 == 0 ? 400 : 100));
+        }
+
+        // Latencies are rounded up by at most a quarter
+        assertThat(hedger.onRequest(OPERATION)).isBetween(TimeUnit.MILLISECONDS.toNanos(10),
+                                                          TimeUnit.MILLISECONDS.toNanos(13));
+        assertThat(hedger.onRequest("Query")).isBetween(TimeUnit.MILLISECONDS.toNanos(100),
+                                                        TimeUnit.MILLISECONDS.toNanos(125));
+    }
+
+    @Test
+    public void hedgeDelay_isAtLeastMinDelay() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder()
+                                                             .hedgeableOperations(OPERATION)
+                                                             .minDelay(Duration.ofMillis(50))
+                                                             .build());
+        for (int i = 0; i < RequestHedger.MIN_RECORDINGS; i++) {
+            hedger.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertThat(hedger.onRequest(OPERATION)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void hedgeDelay_followsRecentLatencies() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder()
+                                                             .hedgeableOperations(OPERATION)
+                                                             .minDelay(Duration.ZERO)
+                                                             .build());
+        for (int i = 0; i < 1000; i++) {
+            hedger.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        for (int i = 0; i < 5000; i++) {
+            hedger.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(hedger.onRequest(OPERATION)).isLessThan(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void hedges_areLimitedToMaxExtraLoad() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder()
+                                                             .hedgeableOperations(OPERATION)
+                                                             .maxExtraLoad(0.1)
+                                                             .build());
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            hedger.onRequest(OPERATION);
+            if (hedger.tryAcquireHedge()) {
+                hedges++;
+            }
+        }
+        assertThat(hedges).isEqualTo(100);
+        assertThat(hedger.hedgesSent()).isEqualTo(100);
+    }
+
+    @Test
+    public void unusedBudget_isCapped() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder()
+                                                             .hedgeableOperations(OPERATION)
+                                                             .maxExtraLoad(0.5)
+                                                             .build());
+        for (int i = 0; i < 1000; i++) {
+            hedger.onRequest(OPERATION);
+        }
+        int hedges = 0;
+        while (hedger.tryAcquireHedge()) {
+            hedges++;
+        }
+        assertThat(hedges).isEqualTo(RequestHedger.MAX_BURST);
+    }
+}
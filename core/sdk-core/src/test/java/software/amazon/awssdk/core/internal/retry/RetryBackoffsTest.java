@@ -0,0 +1,110 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Tests the behavior of the {@link RetryBackoffs}
+ */
+public class RetryBackoffsTest {
+
+    @Test
+    public void backoff_waitsForDelay() throws InterruptedException {
+        RetryBackoffs backoffs = new RetryBackoffs(null);
+        long start = System.nanoTime();
+        assertThat(backoffs.backoff(Duration.ofMillis(50))).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(backoffs.backoffs()).isEqualTo(1);
+        assertThat(backoffs.backoffsInProgress()).isEqualTo(0);
+    }
+
+    @Test
+    public void backoff_zeroDelay_isNotTracked() throws InterruptedException {
+        RetryBackoffs backoffs = new RetryBackoffs(1);
+        assertThat(backoffs.backoff(Duration.ZERO)).isTrue();
+        assertThat(backoffs.backoffs()).isEqualTo(0);
+    }
+
+    @Test
+    public void backoff_limitReached_isRejected() throws Exception {
+        RetryBackoffs backoffs = new RetryBackoffs(1);
+        CountDownLatch waiting = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            return backoffUninterruptibly(backoffs, Duration.ofMillis(500));
+        });
+        waiting.await();
+        while (backoffs.backoffsInProgress() == 0) {
+            Thread.sleep(1);
+        }
+
+        assertThat(backoffs.backoff(Duration.ofMillis(500))).isFalse();
+        assertThat(backoffs.rejectedBackoffs()).isEqualTo(1);
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(backoffs.backoffsInProgress()).isEqualTo(0);
+        assertThat(backoffs.backoff(Duration.ofMillis(1))).isTrue();
+        assertThat(backoffs.backoffs()).isEqualTo(2);
+    }
+
+    @Test
+    public void backoff_interrupted_releasesSlot() throws Exception {
+        RetryBackoffs backoffs = new RetryBackoffs(1);
+        Thread.currentThread().interrupt();
+        try {
+            backoffs.backoff(Duration.ofSeconds(10));
+            throw new AssertionError("Expected an InterruptedException");
+        } catch (InterruptedException expected) {
+            // Expected
+        }
+        assertThat(backoffs.backoffsInProgress()).isEqualTo(0);
+        assertThat(backoffs.backoff(Duration.ofMillis(1))).isTrue();
+    }
+
+    @Test
+    public void scheduledBackoffs_areTrackedButNotLimited() {
+        RetryBackoffs backoffs = new RetryBackoffs(1);
+        backoffs.beginScheduledBackoff();
+        backoffs.beginScheduledBackoff();
+        assertThat(backoffs.backoffsInProgress()).isEqualTo(2);
+        backoffs.endScheduledBackoff();
+        backoffs.endScheduledBackoff();
+        assertThat(backoffs.backoffsInProgress()).isEqualTo(0);
+        assertThat(backoffs.backoffs()).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveLimit_isRejected() {
+        new RetryBackoffs(0);
+    }
+
+    private static boolean backoffUninterruptibly(RetryBackoffs backoffs, Duration delay) {
+        try {
+            return backoffs.backoff(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.core.internal.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the behavior of the {@link RetryTokenBucket}
+ */
+public class RetryTokenBucketTest {
+
+    /**
+     * Tests that capacity can be acquired when available and can not be
+     * once exhausted.
+     */
+    @Test
+    public void acquire() {
+        RetryTokenBucket bucket = new RetryTokenBucket(10);
+        Assert.assertTrue(bucket.acquire());
+        Assert.assertEquals(bucket.availableCapacity(), 9);
+        Assert.assertEquals(bucket.consumedCapacity(), 1);
+        Assert.assertTrue(bucket.acquire(9));
+        Assert.assertEquals(bucket.availableCapacity(), 0);
+        Assert.assertEquals(bucket.consumedCapacity(), 10);
+        Assert.assertFalse(bucket.acquire(1));
+    }
+
+    /**
+     * Tests that capacity can be properly released, making additional capacity
+     * available to be acquired.
+     */
+    @Test
+    public void release() {
+        RetryTokenBucket bucket = new RetryTokenBucket(10);
+        bucket.acquire(10);
+        bucket.release();
+        Assert.assertEquals(bucket.availableCapacity(), 1);
+        Assert.assertEquals(bucket.consumedCapacity(), 9);
+        bucket.release(50);
+        Assert.assertEquals(bucket.availableCapacity(), 10);
+        Assert.assertEquals(bucket.consumedCapacity(), 0);
+    }
+
+    /**
+     * Tests that, if created with negative capacity, the bucket effectively operates
+     * in a no-op mode.
+     */
+    @Test
+    public void noOp() {
+        RetryTokenBucket bucket = new RetryTokenBucket(-1);
+        Assert.assertTrue(bucket.acquire());
+        bucket.release();
+        Assert.assertTrue(bucket.acquire());
+        Assert.assertEquals(bucket.availableCapacity(), -1);
+        Assert.assertEquals(bucket.consumedCapacity(), 0);
+        Assert.assertEquals(bucket.throttledRetries(), 0);
+    }
+
+    @Test
+    public void failedAcquisitions_AreCountedAsThrottledRetries() {
+        RetryTokenBucket bucket = new RetryTokenBucket(5);
+        assertThat(bucket.acquire(5)).isTrue();
+        assertThat(bucket.acquire(5)).isFalse();
+        assertThat(bucket.acquire(1)).isFalse();
+
+        assertThat(bucket.throttledRetries()).isEqualTo(2);
+    }
+
+    @Test
+    public void capacity_IsRefilledOverTime() {
+        AtomicLong clock = new AtomicLong();
+        RetryTokenBucket bucket = new RetryTokenBucket(10, 5, clock::get);
+        bucket.acquire(10);
+        // The first check after the bucket stops being full starts the refill
+        assertThat(bucket.availableCapacity()).isEqualTo(0);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(bucket.availableCapacity()).isEqualTo(2);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(bucket.availableCapacity()).isEqualTo(5);
+        assertThat(bucket.acquire(5)).isTrue();
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(bucket.availableCapacity()).isEqualTo(10);
+    }
+
+    @Test
+    public void timeSpentFull_IsNotCreditedLater() {
+        AtomicLong clock = new AtomicLong();
+        RetryTokenBucket bucket = new RetryTokenBucket(10, 5, clock::get);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(bucket.acquire(10)).isTrue();
+
+        assertThat(bucket.availableCapacity()).isEqualTo(0);
+    }
+
+    @Test
+    public void acquiringFromFullBucket_DoesNotReadClock() {
+        AtomicInteger clockReads = new AtomicInteger();
+        RetryTokenBucket bucket = new RetryTokenBucket(10, 5, () -> {
+            clockReads.incrementAndGet();
+            return 0;
+        });
+
+        assertThat(bucket.acquire(5)).isTrue();
+        bucket.release(5);
+        assertThat(bucket.acquire(5)).isTrue();
+        assertThat(clockReads).hasValue(0);
+
+        assertThat(bucket.acquire(5)).isTrue();
+        assertThat(clockReads).hasValue(1);
+    }
+
+    @Test
+    public void concurrentAcquireAndRelease_KeepsCapacityConsistent() {
+        RetryTokenBucket bucket = new RetryTokenBucket(100);
+        AtomicInteger acquired = new AtomicInteger();
+        CompletableFuture<?>[] threads = IntStream.range(0, 8)
+                                                  .mapToObj(i -> CompletableFuture.runAsync(() -> retry(bucket, acquired, 10_000)))
+                                                  .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(threads).join();
+
+        assertThat(bucket.availableCapacity()).isEqualTo(100);
+        assertThat(acquired.get() + bucket.throttledRetries()).isEqualTo(80_000);
+    }
+
+    private static void retry(RetryTokenBucket bucket, AtomicInteger acquired, int retries) {
+        for (int i = 0; i < retries; i++) {
+            if (bucket.acquire(5)) {
+                acquired.incrementAndGet();
+                bucket.release(5);
+            }
+        }
+    }
+}
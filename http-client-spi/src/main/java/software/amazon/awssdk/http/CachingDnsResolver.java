@@ -0,0 +1,158 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.annotations.SdkProtectedApi;
+import software.amazon.awssdk.annotations.SdkTestInternalApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.utils.StringUtils;
+import software.amazon.awssdk.utils.Validate;
+
+/**
+ * A {@link DnsResolver} that reuses the addresses a host resolved to for a fixed time, so that the connections opened in a
+ * burst resolve their host once rather than once each.
+ *
+ * <p>The JDK does not expose the TTL of the records it resolved, so the time addresses are reused for is configured rather
+ * than taken from the records. Keep it short; it is added to whatever caching the delegate resolver does itself.
+ *
+ * <p>Concurrent lookups of a host that is not cached share one call to the delegate, even when caching is disabled.
+ */
+@SdkProtectedApi
+@ThreadSafe
+public final class CachingDnsResolver implements DnsResolver {
+    private final DnsResolver delegate;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<InetAddress[]>> lookupsInFlight = new ConcurrentHashMap<>();
+
+    public CachingDnsResolver(DnsResolver delegate, Duration ttl) {
+        this(delegate, ttl, System::nanoTime);
+    }
+
+    @SdkTestInternalApi
+    CachingDnsResolver(DnsResolver delegate, Duration ttl, LongSupplier nanoClock) {
+        this.delegate = Validate.paramNotNull(delegate, "delegate");
+        this.ttlNanos = Validate.isNotNegative(ttl, "ttl").toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        try {
+            return resolveAsync(host, Runnable::run).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnknownHostException) {
+                throw (UnknownHostException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the addresses of the given host, resolving it on the given executor if it is not cached. If the host is
+     * already being resolved, the returned future completes with the result of that lookup instead of starting another.
+     *
+     * @param host The host name to resolve.
+     * @param executor The executor to call the delegate resolver on.
+     * @return A future that completes with the addresses of the host, or with the {@link UnknownHostException} the host could
+     * not be resolved with.
+     */
+    public CompletableFuture<InetAddress[]> resolveAsync(String host, Executor executor) {
+        InetAddress[] cached = cachedAddresses(host);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        String key = StringUtils.lowerCase(host);
+        CompletableFuture<InetAddress[]> lookup = new CompletableFuture<>();
+        CompletableFuture<InetAddress[]> inFlight = lookupsInFlight.putIfAbsent(key, lookup);
+        if (inFlight != null) {
+            return inFlight.thenApply(InetAddress[]::clone);
+        }
+
+        try {
+            executor.execute(() -> lookUp(key, host, lookup));
+        } catch (RejectedExecutionException e) {
+            lookupsInFlight.remove(key, lookup);
+            lookup.completeExceptionally(e);
+        }
+        return lookup.thenApply(InetAddress[]::clone);
+    }
+
+    private void lookUp(String key, String host, CompletableFuture<InetAddress[]> lookup) {
+        try {
+            InetAddress[] addresses = delegate.resolve(host);
+            if (addresses == null || addresses.length == 0) {
+                throw new UnknownHostException(host);
+            }
+            if (ttlNanos > 0) {
+                cache.put(key, new CacheEntry(addresses.clone(), nanoClock.getAsLong() + ttlNanos));
+            }
+            lookup.complete(addresses.clone());
+        } catch (Throwable t) {
+            lookup.completeExceptionally(t);
+        } finally {
+            lookupsInFlight.remove(key, lookup);
+        }
+    }
+
+    /**
+     * Returns the addresses of the given host if they are cached and have not expired, without resolving the host.
+     *
+     * @param host The host name to look up.
+     * @return The cached addresses of the host, or null if the host has to be resolved.
+     */
+    public InetAddress[] cachedAddresses(String host) {
+        String key = StringUtils.lowerCase(host);
+        CacheEntry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos - nanoClock.getAsLong() <= 0) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.addresses.clone();
+    }
+
+    private static final class CacheEntry {
+        private final InetAddress[] addresses;
+        private final long expiresAtNanos;
+
+        private CacheEntry(InetAddress[] addresses, long expiresAtNanos) {
+            this.addresses = addresses;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import software.amazon.awssdk.annotations.SdkPublicApi;
+
+/**
+ * Resolves host names to the IP addresses the SDK's HTTP clients connect to. The default resolves host names with
+ * {@link InetAddress#getAllByName(String)}; a different resolver can be plugged into the client builders, for example to
+ * resolve hosts through a different name service or to point a host name at a fake server in tests.
+ *
+ * <p>Implementations may block. The asynchronous clients call the resolver from a dedicated thread pool rather than from
+ * their event loops.
+ */
+@SdkPublicApi
+@FunctionalInterface
+public interface DnsResolver {
+    /**
+     * Returns the IP addresses of the given host.
+     *
+     * @param host The host name to resolve.
+     * @return The addresses of the host, in order of preference. Never empty.
+     * @throws UnknownHostException If the host cannot be resolved.
+     */
+    InetAddress[] resolve(String host) throws UnknownHostException;
+
+    /**
+     * Returns the resolver that uses {@link InetAddress#getAllByName(String)}.
+     */
+    static DnsResolver system() {
+        return InetAddress::getAllByName;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http;
+
+import java.net.InetAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import software.amazon.awssdk.annotations.SdkProtectedApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.utils.Validate;
+
+/**
+ * Picks which of the addresses a host resolved to a new connection is opened to, so that the connections to a host that
+ * resolves to many addresses are spread over all of them rather than piling onto the first.
+ *
+ * <p>The address with the fewest open connections is picked. Ties, including the case where the HTTP client does not report
+ * its connections at all, are broken round-robin.
+ */
+@SdkProtectedApi
+@ThreadSafe
+public final class LeastConnectionsAddressSelector {
+    private final ConcurrentMap<InetAddress, Integer> openConnections = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * Returns the address the next connection should be opened to.
+     */
+    public InetAddress select(InetAddress[] addresses) {
+        Validate.notEmpty(addresses, "addresses must not be empty");
+        int start = Math.floorMod(nextIndex.getAndIncrement(), addresses.length);
+        InetAddress selected = null;
+        int fewestConnections = Integer.MAX_VALUE;
+        for (int i = 0; i < addresses.length; i++) {
+            InetAddress address = addresses[(start + i) % addresses.length];
+            int connections = openConnections.getOrDefault(address, 0);
+            if (connections < fewestConnections) {
+                selected = address;
+                fewestConnections = connections;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns a copy of the given addresses with the one {@link #select(InetAddress[])} picks moved to the front, for clients
+     * that try the addresses of a host in order.
+     */
+    public InetAddress[] prioritize(InetAddress[] addresses) {
+        InetAddress selected = select(addresses);
+        InetAddress[] prioritized = new InetAddress[addresses.length];
+        prioritized[0] = selected;
+        int next = 1;
+        for (InetAddress address : addresses) {
+            if (address != selected) {
+                prioritized[next++] = address;
+            }
+        }
+        return prioritized;
+    }
+
+    /**
+     * Records that a connection to the given address was opened.
+     */
+    public void connectionOpened(InetAddress address) {
+        openConnections.merge(address, 1, Integer::sum);
+    }
+
+    /**
+     * Records that a connection to the given address, earlier reported to {@link #connectionOpened(InetAddress)}, was closed.
+     */
+    public void connectionClosed(InetAddress address) {
+        openConnections.computeIfPresent(address, (a, connections) -> connections > 1 ? connections - 1 : null);
+    }
+
+    /**
+     * Returns the number of open connections to the given address.
+     */
+    public int openConnections(InetAddress address) {
+        return openConnections.getOrDefault(address, 0);
+    }
+}
@@ -97,6 +97,20 @@ public final class SdkHttpConfigurationOption<T> extends AttributeMap.Key<T> {
     public static final SdkHttpConfigurationOption<Boolean> REAP_IDLE_CONNECTIONS =
             new SdkHttpConfigurationOption<>("ReapIdleConnections", Boolean.class);
 
+    /**
+     * Number of connections to each host that idle connection reaping leaves open, even when they have been idle for longer
+     * than the {@link #CONNECTION_MAX_IDLE_TIMEOUT}.
+     */
+    public static final SdkHttpConfigurationOption<Integer> MIN_IDLE_CONNECTIONS =
+            new SdkHttpConfigurationOption<>("MinIdleConnections", Integer.class);
+
+    /**
+     * How long the addresses a host name resolved to are reused before the host name is resolved again. Zero disables
+     * caching, leaving it to the resolver in use.
+     */
+    public static final SdkHttpConfigurationOption<Duration> DNS_CACHE_TTL =
+            new SdkHttpConfigurationOption<>("DnsCacheTtl", Duration.class);
+
     private static final Duration DEFAULT_SOCKET_READ_TIMEOUT = Duration.ofSeconds(30);
     private static final Duration DEFAULT_SOCKET_WRITE_TIMEOUT = Duration.ofSeconds(30);
     private static final Duration DEFAULT_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
@@ -104,6 +118,8 @@ public final class SdkHttpConfigurationOption<T> extends AttributeMap.Key<T> {
     private static final Duration DEFAULT_CONNECTION_MAX_IDLE_TIMEOUT = Duration.ofSeconds(60);
     private static final Duration DEFAULT_CONNECTION_TIME_TO_LIVE = Duration.ZERO;
     private static final Boolean DEFAULT_REAP_IDLE_CONNECTIONS = Boolean.TRUE;
+    private static final int DEFAULT_MIN_IDLE_CONNECTIONS = 0;
+    private static final Duration DEFAULT_DNS_CACHE_TTL = Duration.ZERO;
     private static final int DEFAULT_MAX_CONNECTIONS = 50;
     private static final int DEFAULT_MAX_CONNECTION_ACQUIRES = 10_000;
     private static final Boolean DEFAULT_TRUST_ALL_CERTIFICATES = Boolean.FALSE;
@@ -123,6 +139,8 @@ public final class SdkHttpConfigurationOption<T> extends AttributeMap.Key<T> {
             .put(PROTOCOL, DEFAULT_PROTOCOL)
             .put(TRUST_ALL_CERTIFICATES, DEFAULT_TRUST_ALL_CERTIFICATES)
             .put(REAP_IDLE_CONNECTIONS, DEFAULT_REAP_IDLE_CONNECTIONS)
+            .put(MIN_IDLE_CONNECTIONS, DEFAULT_MIN_IDLE_CONNECTIONS)
+            .put(DNS_CACHE_TTL, DEFAULT_DNS_CACHE_TTL)
             .build();
 
     private final String name;
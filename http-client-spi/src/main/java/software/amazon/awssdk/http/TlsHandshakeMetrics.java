@@ -0,0 +1,177 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import javax.net.ssl.SSLSession;
+import software.amazon.awssdk.annotations.SdkProtectedApi;
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.utils.ToString;
+
+/**
+ * Counts the TLS handshakes made by one of the SDK's HTTP clients, and how long they took.
+ *
+ * <p>The HTTP clients share their TLS sessions across connection pools and clients, so a connection to an endpoint that was
+ * connected to before can usually resume the earlier session with an abbreviated handshake instead of a full one. A
+ * handshake counts as resumed when its session was negotiated by an earlier handshake of any client.
+ */
+@SdkPublicApi
+@ThreadSafe
+public final class TlsHandshakeMetrics {
+    /**
+     * The upper bounds of the latency histogram buckets. The last one is the largest possible duration.
+     */
+    private static final Duration[] LATENCY_BUCKET_BOUNDS =
+        Stream.concat(LongStream.of(1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000).mapToObj(Duration::ofMillis),
+                      Stream.of(Duration.ofSeconds(Long.MAX_VALUE, 999_999_999)))
+              .toArray(Duration[]::new);
+
+    /**
+     * The name of the value that marks a session as negotiated by a recorded handshake. The JDK carries the values of a
+     * session over to the session that resumes it, with both TLS 1.2 and TLS 1.3, even when the resumed session has a new ID.
+     */
+    private static final String RECORDED_SESSION = TlsHandshakeMetrics.class.getName() + ".recorded";
+
+    private final LongAdder fullHandshakes = new LongAdder();
+    private final LongAdder resumedHandshakes = new LongAdder();
+    private final LongAdder failedHandshakes = new LongAdder();
+    private final AtomicLongArray fullHandshakeLatencies = new AtomicLongArray(LATENCY_BUCKET_BOUNDS.length);
+    private final AtomicLongArray resumedHandshakeLatencies = new AtomicLongArray(LATENCY_BUCKET_BOUNDS.length);
+
+    private TlsHandshakeMetrics() {
+    }
+
+    /**
+     * @return New metrics for an HTTP client, with all counters at 0.
+     */
+    @SdkProtectedApi
+    public static TlsHandshakeMetrics create() {
+        return new TlsHandshakeMetrics();
+    }
+
+    /**
+     * Records a completed handshake. The handshake resumed an earlier session if the session was already marked by the
+     * handshake that negotiated it, and otherwise the session is marked now.
+     *
+     * @param session The session negotiated by the handshake.
+     * @param latency How long the handshake took.
+     */
+    @SdkProtectedApi
+    public void recordHandshake(SSLSession session, Duration latency) {
+        boolean resumed = session.getValue(RECORDED_SESSION) != null;
+        if (resumed) {
+            resumedHandshakes.increment();
+            resumedHandshakeLatencies.incrementAndGet(bucket(latency));
+        } else {
+            session.putValue(RECORDED_SESSION, Boolean.TRUE);
+            fullHandshakes.increment();
+            fullHandshakeLatencies.incrementAndGet(bucket(latency));
+        }
+    }
+
+    /**
+     * Records a handshake that failed, including ones that succeeded but whose peer could not be verified.
+     */
+    @SdkProtectedApi
+    public void recordFailedHandshake() {
+        failedHandshakes.increment();
+    }
+
+    /**
+     * @return The number of handshakes that negotiated a new session.
+     */
+    public long fullHandshakes() {
+        return fullHandshakes.sum();
+    }
+
+    /**
+     * @return The number of handshakes that resumed an earlier session.
+     */
+    public long resumedHandshakes() {
+        return resumedHandshakes.sum();
+    }
+
+    /**
+     * @return The number of handshakes that failed.
+     */
+    public long failedHandshakes() {
+        return failedHandshakes.sum();
+    }
+
+    /**
+     * Returns the latency histogram of the full handshakes. Each entry counts the handshakes that took at most its key, and
+     * longer than the previous key. The last key is the largest possible duration.
+     */
+    public SortedMap<Duration, Long> fullHandshakeLatencies() {
+        return histogram(fullHandshakeLatencies);
+    }
+
+    /**
+     * Returns the latency histogram of the resumed handshakes, in the same form as {@link #fullHandshakeLatencies()}.
+     */
+    public SortedMap<Duration, Long> resumedHandshakeLatencies() {
+        return histogram(resumedHandshakeLatencies);
+    }
+
+    /**
+     * Resets all of the counters to 0.
+     */
+    public void reset() {
+        fullHandshakes.reset();
+        resumedHandshakes.reset();
+        failedHandshakes.reset();
+        for (int i = 0; i < fullHandshakeLatencies.length(); i++) {
+            fullHandshakeLatencies.set(i, 0);
+            resumedHandshakeLatencies.set(i, 0);
+        }
+    }
+
+    private static int bucket(Duration latency) {
+        int bucket = 0;
+        while (latency.compareTo(LATENCY_BUCKET_BOUNDS[bucket]) > 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static SortedMap<Duration, Long> histogram(AtomicLongArray latencies) {
+        SortedMap<Duration, Long> histogram = new TreeMap<>();
+        for (int i = 0; i < LATENCY_BUCKET_BOUNDS.length; i++) {
+            histogram.put(LATENCY_BUCKET_BOUNDS[i], latencies.get(i));
+        }
+        return Collections.unmodifiableSortedMap(histogram);
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("TlsHandshakeMetrics")
+                       .add("fullHandshakes", fullHandshakes())
+                       .add("resumedHandshakes", resumedHandshakes())
+                       .add("failedHandshakes", failedHandshakes())
+                       .add("fullHandshakeLatencies", fullHandshakeLatencies())
+                       .add("resumedHandshakeLatencies", resumedHandshakeLatencies())
+                       .build();
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.async;
+
+import java.nio.ByteBuffer;
+import org.reactivestreams.Subscriber;
+import software.amazon.awssdk.annotations.SdkProtectedApi;
+
+/**
+ * A {@link Subscriber} of response content that is done with each buffer by the time {@link #onNext(Object)} returns: it
+ * copies or otherwise consumes the bytes synchronously and keeps no reference to the buffer afterwards.
+ *
+ * <p>An HTTP client may deliver to such a subscriber read-only views of its own (possibly pooled) network buffers instead of
+ * copies, and reuse those buffers as soon as {@code onNext} returns. Subscribers that do not implement this interface always
+ * receive buffers they own.
+ */
+@SdkProtectedApi
+public interface TransientByteBufferSubscriber extends Subscriber<ByteBuffer> {
+}
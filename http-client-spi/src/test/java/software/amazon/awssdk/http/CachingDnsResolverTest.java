@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingDnsResolverTest {
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicLong nanoTime = new AtomicLong();
+    private InetAddress[] addresses;
+    private CachingDnsResolver resolver;
+
+    @Before
+    public void setup() throws UnknownHostException {
+        addresses = new InetAddress[] { InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 1 }),
+                                        InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 2 }) };
+        resolver = new CachingDnsResolver(this::fakeResolve, Duration.ofSeconds(5), nanoTime::get);
+    }
+
+    @Test
+    public void resolveWithinTtl_UsesCachedAddresses() throws UnknownHostException {
+        assertThat(resolver.resolve("example.com")).containsExactly(addresses);
+        nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+
+        assertThat(resolver.resolve("EXAMPLE.com")).containsExactly(addresses);
+        assertThat(resolver.cachedAddresses("example.com")).containsExactly(addresses);
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    public void resolveAfterTtl_ResolvesAgain() throws UnknownHostException {
+        resolver.resolve("example.com");
+        nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(resolver.cachedAddresses("example.com")).isNull();
+        assertThat(resolver.resolve("example.com")).containsExactly(addresses);
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    public void zeroTtl_DoesNotCache() throws UnknownHostException {
+        resolver = new CachingDnsResolver(this::fakeResolve, Duration.ZERO, nanoTime::get);
+
+        resolver.resolve("example.com");
+        resolver.resolve("example.com");
+
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    public void unknownHost_IsNotCached() {
+        assertThatThrownBy(() -> resolver.resolve("unknown.example.com")).isInstanceOf(UnknownHostException.class);
+        assertThatThrownBy(() -> resolver.resolve("unknown.example.com")).isInstanceOf(UnknownHostException.class);
+
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    public void modifyingReturnedAddresses_DoesNotModifyCache() throws UnknownHostException {
+        resolver.resolve("example.com")[0] = null;
+
+        assertThat(resolver.resolve("example.com")).containsExactly(addresses);
+    }
+
+    @Test
+    public void concurrentLookupsOfSameHost_ShareOneResolution() throws Exception {
+        CountDownLatch resolving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        resolver = new CachingDnsResolver(host -> {
+            resolving.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return fakeResolve(host);
+        }, Duration.ZERO, nanoTime::get);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CompletableFuture<InetAddress[]> first = resolver.resolveAsync("example.com", executor);
+            assertThat(resolving.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<InetAddress[]> second = resolver.resolveAsync("EXAMPLE.com", executor);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(addresses);
+            assertThat(second.get(5, TimeUnit.SECONDS)).containsExactly(addresses);
+            assertThat(lookups).hasValue(1);
+
+            resolver.resolve("example.com");
+            assertThat(lookups).hasValue(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private InetAddress[] fakeResolve(String host) throws UnknownHostException {
+        lookups.incrementAndGet();
+        if (!host.equalsIgnoreCase("example.com")) {
+            throw new UnknownHostException(host);
+        }
+        return addresses.clone();
+    }
+}
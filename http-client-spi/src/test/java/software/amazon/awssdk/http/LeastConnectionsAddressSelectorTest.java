@@ -0,0 +1,78 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LeastConnectionsAddressSelectorTest {
+    private final LeastConnectionsAddressSelector selector = new LeastConnectionsAddressSelector();
+    private InetAddress[] addresses;
+
+    @Before
+    public void setup() throws UnknownHostException {
+        addresses = new InetAddress[] { InetAddress.getByAddress(new byte[] { 10, 0, 0, 1 }),
+                                        InetAddress.getByAddress(new byte[] { 10, 0, 0, 2 }),
+                                        InetAddress.getByAddress(new byte[] { 10, 0, 0, 3 }) };
+    }
+
+    @Test
+    public void withoutOpenConnections_SelectsRoundRobin() {
+        List<InetAddress> selected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            selected.add(selector.select(addresses));
+        }
+
+        assertThat(selected).containsExactly(addresses[0], addresses[1], addresses[2],
+                                             addresses[0], addresses[1], addresses[2]);
+    }
+
+    @Test
+    public void selectsAddressWithFewestOpenConnections() {
+        selector.connectionOpened(addresses[0]);
+        selector.connectionOpened(addresses[1]);
+        selector.connectionOpened(addresses[1]);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(selector.select(addresses)).isEqualTo(addresses[2]);
+        }
+    }
+
+    @Test
+    public void closedConnections_AreNoLongerCounted() {
+        selector.connectionOpened(addresses[0]);
+        selector.connectionOpened(addresses[0]);
+        selector.connectionClosed(addresses[0]);
+        assertThat(selector.openConnections(addresses[0])).isEqualTo(1);
+
+        selector.connectionClosed(addresses[0]);
+        selector.connectionClosed(addresses[0]);
+        assertThat(selector.openConnections(addresses[0])).isEqualTo(0);
+    }
+
+    @Test
+    public void prioritize_MovesSelectedAddressToFront() {
+        selector.connectionOpened(addresses[0]);
+
+        assertThat(selector.prioritize(addresses)).containsExactly(addresses[1], addresses[0], addresses[2]);
+    }
+}
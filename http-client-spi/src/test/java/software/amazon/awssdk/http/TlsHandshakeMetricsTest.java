@@ -0,0 +1,112 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import javax.net.ssl.SSLSession;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TlsHandshakeMetricsTest {
+    private TlsHandshakeMetrics metrics;
+
+    @Before
+    public void setup() {
+        metrics = TlsHandshakeMetrics.create();
+    }
+
+    @Test
+    public void newSession_IsFullHandshake() {
+        metrics.recordHandshake(newSession(), Duration.ofMillis(30));
+
+        assertThat(metrics.fullHandshakes()).isEqualTo(1);
+        assertThat(metrics.resumedHandshakes()).isEqualTo(0);
+        assertThat(metrics.fullHandshakeLatencies().get(Duration.ofMillis(50))).isEqualTo(1);
+        assertThat(metrics.resumedHandshakeLatencies().values()).containsOnly(0L);
+    }
+
+    @Test
+    public void sessionOfEarlierHandshake_IsResumedHandshake() {
+        SSLSession session = newSession();
+        metrics.recordHandshake(session, Duration.ofMillis(30));
+        metrics.recordHandshake(session, Duration.ofMillis(2));
+
+        assertThat(metrics.fullHandshakes()).isEqualTo(1);
+        assertThat(metrics.resumedHandshakes()).isEqualTo(1);
+        assertThat(metrics.resumedHandshakeLatencies().get(Duration.ofMillis(2))).isEqualTo(1);
+    }
+
+    @Test
+    public void sessionOfHandshakeRecordedByOtherClient_IsResumedHandshake() {
+        SSLSession session = newSession();
+        TlsHandshakeMetrics.create().recordHandshake(session, Duration.ofMillis(30));
+        metrics.recordHandshake(session, Duration.ofMillis(2));
+
+        assertThat(metrics.fullHandshakes()).isEqualTo(0);
+        assertThat(metrics.resumedHandshakes()).isEqualTo(1);
+    }
+
+    @Test
+    public void latencyHistogram_CountsEachHandshakeInOneBucket() {
+        metrics.recordHandshake(newSession(), Duration.ZERO);
+        metrics.recordHandshake(newSession(), Duration.ofMillis(1));
+        metrics.recordHandshake(newSession(), Duration.ofNanos(1_000_001));
+        metrics.recordHandshake(newSession(), Duration.ofMinutes(1));
+
+        SortedMap<Duration, Long> latencies = metrics.fullHandshakeLatencies();
+        assertThat(latencies.get(Duration.ofMillis(1))).isEqualTo(2);
+        assertThat(latencies.get(Duration.ofMillis(2))).isEqualTo(1);
+        assertThat(latencies.get(latencies.lastKey())).isEqualTo(1);
+        assertThat(latencies.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(4);
+    }
+
+    @Test
+    public void reset_ClearsCounters() {
+        metrics.recordHandshake(newSession(), Duration.ofMillis(30));
+        metrics.recordFailedHandshake();
+        metrics.reset();
+
+        assertThat(metrics.fullHandshakes()).isEqualTo(0);
+        assertThat(metrics.failedHandshakes()).isEqualTo(0);
+        assertThat(metrics.fullHandshakeLatencies().values()).containsOnly(0L);
+    }
+
+    /**
+     * A session that only supports reading and writing values, which is all the metrics use.
+     */
+    private static SSLSession newSession() {
+        Map<String, Object> values = new HashMap<>();
+        return (SSLSession) Proxy.newProxyInstance(SSLSession.class.getClassLoader(), new Class<?>[] {SSLSession.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getValue":
+                        return values.get(args[0]);
+                    case "putValue":
+                        values.put((String) args[0], args[1]);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
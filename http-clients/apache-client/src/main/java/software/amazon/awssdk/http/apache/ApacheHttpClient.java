@@ -22,13 +22,16 @@ import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_MAX_IDLE_TIMEOUT;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_TIMEOUT;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_TIME_TO_LIVE;
+import static software.amazon.awssdk.http.SdkHttpConfigurationOption.DNS_CACHE_TTL;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.GLOBAL_HTTP_DEFAULTS;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.MAX_CONNECTIONS;
+import static software.amazon.awssdk.http.SdkHttpConfigurationOption.MIN_IDLE_CONNECTIONS;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.READ_TIMEOUT;
 import static software.amazon.awssdk.utils.NumericUtils.saturatedCast;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
@@ -37,6 +40,8 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import javax.net.ssl.HostnameVerifier;
@@ -44,7 +49,10 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import org.apache.http.Header;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.Registry;
@@ -52,6 +60,8 @@ import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
 import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.routing.HttpRoutePlanner;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
@@ -59,25 +69,35 @@ import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLInitializationException;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.DefaultRoutePlanner;
 import org.apache.http.impl.conn.DefaultSchemePortResolver;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.pool.ConnPoolControl;
 import org.apache.http.protocol.HttpRequestExecutor;
 import software.amazon.awssdk.annotations.SdkPublicApi;
 import software.amazon.awssdk.annotations.SdkTestInternalApi;
 import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.DnsResolver;
 import software.amazon.awssdk.http.ExecutableHttpRequest;
 import software.amazon.awssdk.http.HttpExecuteRequest;
 import software.amazon.awssdk.http.HttpExecuteResponse;
 import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.SdkHttpConfigurationOption;
 import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
 import software.amazon.awssdk.http.apache.internal.ApacheHttpRequestConfig;
 import software.amazon.awssdk.http.apache.internal.DefaultConfiguration;
 import software.amazon.awssdk.http.apache.internal.SdkProxyRoutePlanner;
 import software.amazon.awssdk.http.apache.internal.conn.ClientConnectionManagerFactory;
+import software.amazon.awssdk.http.apache.internal.conn.ConnectionPrewarmer;
+import software.amazon.awssdk.http.apache.internal.conn.IdleConnectionFloorConnectionManager;
+import software.amazon.awssdk.http.apache.internal.conn.IdleConnectionFloorKeepAliveStrategy;
 import software.amazon.awssdk.http.apache.internal.conn.IdleConnectionReaper;
+import software.amazon.awssdk.http.apache.internal.conn.LockFreeConnectionManager;
 import software.amazon.awssdk.http.apache.internal.conn.SdkConnectionKeepAliveStrategy;
 import software.amazon.awssdk.http.apache.internal.conn.SdkTlsSocketFactory;
+import software.amazon.awssdk.http.apache.internal.conn.SpreadingDnsResolver;
 import software.amazon.awssdk.http.apache.internal.impl.ApacheHttpRequestFactory;
 import software.amazon.awssdk.http.apache.internal.impl.ApacheSdkHttpClient;
 import software.amazon.awssdk.http.apache.internal.impl.ConnectionManagerAwareHttpClient;
@@ -103,6 +123,10 @@ public final class ApacheHttpClient implements SdkHttpClient {
     private final ConnectionManagerAwareHttpClient httpClient;
     private final ApacheHttpRequestConfig requestConfig;
     private final AttributeMap resolvedOptions;
+    private final HttpRoutePlanner routePlanner;
+    private final long connectionKeepAliveMillis;
+    private final int idleConnectionFloor;
+    private final TlsHandshakeMetrics tlsHandshakeMetrics = TlsHandshakeMetrics.create();
 
     @SdkTestInternalApi
     ApacheHttpClient(ConnectionManagerAwareHttpClient httpClient,
@@ -111,14 +135,27 @@ public final class ApacheHttpClient implements SdkHttpClient {
         this.httpClient = httpClient;
         this.requestConfig = requestConfig;
         this.resolvedOptions = resolvedOptions;
+        this.routePlanner = new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE);
+        this.connectionKeepAliveMillis = 0;
+        this.idleConnectionFloor = 0;
     }
 
     private ApacheHttpClient(DefaultBuilder builder, AttributeMap resolvedOptions) {
+        this.routePlanner = createRoutePlanner(builder.proxyConfiguration);
+        this.connectionKeepAliveMillis = connectionKeepAliveMillis(resolvedOptions);
+        this.idleConnectionFloor = idleConnectionFloor(builder, resolvedOptions);
         this.httpClient = createClient(builder, resolvedOptions);
         this.requestConfig = createRequestConfig(builder, resolvedOptions);
         this.resolvedOptions = resolvedOptions;
     }
 
+    /**
+     * @return The counts and latencies of the TLS handshakes of this client's connections.
+     */
+    public TlsHandshakeMetrics tlsHandshakeMetrics() {
+        return tlsHandshakeMetrics;
+    }
+
     public static Builder builder() {
         return new DefaultBuilder();
     }
@@ -131,17 +168,18 @@ public final class ApacheHttpClient implements SdkHttpClient {
         // Note that it is important we register the original connection manager with the
         // IdleConnectionReaper as it's required for the successful deregistration of managers
         // from the reaper. See https://github.com/aws/aws-sdk-java/issues/722.
-        HttpClientConnectionManager cm = cmFactory.create(configuration, standardOptions);
+        HttpClientConnectionManager cm = cmFactory.create(configuration, standardOptions, tlsHandshakeMetrics);
 
         builder.setRequestExecutor(new HttpRequestExecutor())
                // SDK handles decompression
                .disableContentCompression()
-               .setKeepAliveStrategy(buildKeepAliveStrategy(standardOptions))
+               .setKeepAliveStrategy(buildKeepAliveStrategy(cm))
                .disableRedirectHandling()
                .disableAutomaticRetries()
                .setUserAgent("") // SDK will set the user agent header in the pipeline. Don't let Apache waste time
                .setConnectionManager(ClientConnectionManagerFactory.wrap(cm));
 
+        builder.setRoutePlanner(routePlanner);
         addProxyConfig(builder, configuration.proxyConfiguration);
 
         if (useIdleConnectionReaper(configuration)) {
@@ -158,20 +196,44 @@ public final class ApacheHttpClient implements SdkHttpClient {
 
             log.debug(() -> "Configuring Proxy. Proxy Host: " + proxyConfiguration.host());
 
-            builder.setRoutePlanner(new SdkProxyRoutePlanner(proxyConfiguration.host(),
-                                                             proxyConfiguration.port(),
-                                                             proxyConfiguration.scheme(),
-                                                             proxyConfiguration.nonProxyHosts()));
-
             if (isAuthenticatedProxy(proxyConfiguration)) {
                 builder.setDefaultCredentialsProvider(ApacheUtils.newProxyCredentialsProvider(proxyConfiguration));
             }
         }
     }
 
-    private ConnectionKeepAliveStrategy buildKeepAliveStrategy(AttributeMap standardOptions) {
-        long maxIdle = standardOptions.get(SdkHttpConfigurationOption.CONNECTION_MAX_IDLE_TIMEOUT).toMillis();
-        return maxIdle > 0 ? new SdkConnectionKeepAliveStrategy(maxIdle) : null;
+    private HttpRoutePlanner createRoutePlanner(ProxyConfiguration proxyConfiguration) {
+        if (isProxyEnabled(proxyConfiguration)) {
+            return new SdkProxyRoutePlanner(proxyConfiguration.host(),
+                                            proxyConfiguration.port(),
+                                            proxyConfiguration.scheme(),
+                                            proxyConfiguration.nonProxyHosts());
+        }
+        return new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConnectionKeepAliveStrategy buildKeepAliveStrategy(HttpClientConnectionManager cm) {
+        if (connectionKeepAliveMillis <= 0) {
+            return null;
+        }
+        ConnectionKeepAliveStrategy strategy = new SdkConnectionKeepAliveStrategy(connectionKeepAliveMillis);
+        if (idleConnectionFloor > 0 && cm instanceof ConnPoolControl) {
+            return new IdleConnectionFloorKeepAliveStrategy(strategy, (ConnPoolControl<HttpRoute>) cm, idleConnectionFloor);
+        }
+        return strategy;
+    }
+
+    private long connectionKeepAliveMillis(AttributeMap standardOptions) {
+        return Math.max(standardOptions.get(SdkHttpConfigurationOption.CONNECTION_MAX_IDLE_TIMEOUT).toMillis(), 0);
+    }
+
+    /**
+     * The number of connections to each route that are exempt from the maximum idle time. These are only kept open by the
+     * idle connection reaper, which closes the other connections once they've been idle for too long.
+     */
+    private int idleConnectionFloor(DefaultBuilder configuration, AttributeMap standardOptions) {
+        return useIdleConnectionReaper(configuration) ? standardOptions.get(MIN_IDLE_CONNECTIONS) : 0;
     }
 
     private boolean useIdleConnectionReaper(DefaultBuilder configuration) {
@@ -203,6 +265,45 @@ public final class ApacheHttpClient implements SdkHttpClient {
         };
     }
 
+    /**
+     * Opens connections to an endpoint ahead of the first requests to it, so those requests don't have to wait for the TCP
+     * and TLS handshakes. The connections are established one at a time on the calling thread, and returned to the
+     * connection pool once they are ready. Connections through a proxy to an HTTPS endpoint are not pre-warmed.
+     *
+     * <p>Idle connections are still closed by the idle connection reaper, down to {@link Builder#minIdleConnections(Integer)}
+     * connections per host, so pre-warming is best combined with a minimum that covers the connections it opens.</p>
+     *
+     * @param endpoint The endpoint to connect to. Only the scheme, host and port are used.
+     * @param connectionCount The number of connections to open, which is capped at the maximum number of connections.
+     * @throws IOException If a connection could not be established. The connections established before the failure are still
+     * added to the pool.
+     */
+    public void prewarmConnections(URI endpoint, int connectionCount) throws IOException {
+        Validate.paramNotNull(endpoint, "endpoint");
+        HttpClientContext context = ApacheUtils.newClientContext(requestConfig.proxyConfiguration());
+        context.setRequestConfig(RequestConfig.custom().setLocalAddress(requestConfig.localAddress()).build());
+
+        HttpRoute route;
+        try {
+            HttpHost target = new HttpHost(endpoint.getHost(), endpoint.getPort(), endpoint.getScheme());
+            route = routePlanner.determineRoute(target, new BasicHttpRequest("GET", "/"), context);
+        } catch (HttpException e) {
+            throw new IOException("Unable to determine the route to " + endpoint, e);
+        }
+        if (route.isTunnelled()) {
+            log.debug(() -> "Not pre-warming connections to " + endpoint + ", which are tunnelled through a proxy.");
+            return;
+        }
+
+        ConnectionPrewarmer prewarmer =
+            new ConnectionPrewarmer(httpClient.getHttpClientConnectionManager(),
+                                    saturatedCast(resolvedOptions.get(CONNECTION_TIMEOUT).toMillis()),
+                                    resolvedOptions.get(CONNECTION_ACQUIRE_TIMEOUT).toMillis(),
+                                    connectionKeepAliveMillis,
+                                    idleConnectionFloor);
+        prewarmer.prewarm(route, Math.min(connectionCount, resolvedOptions.get(MAX_CONNECTIONS)), context);
+    }
+
     @Override
     public void close() {
         HttpClientConnectionManager cm = httpClient.getHttpClientConnectionManager();
@@ -336,6 +437,39 @@ public final class ApacheHttpClient implements SdkHttpClient {
          * closed. This will not close connections currently in use. By default, this is enabled.
          */
         Builder useIdleConnectionReaper(Boolean useConnectionReaper);
+
+        /**
+         * Configure the number of connections to each host that the idle connection reaper leaves open. Connections that
+         * have been idle for longer than {@link #connectionMaxIdleTime(Duration)} are only closed while more than this many
+         * connections to their host are open. By default, this is 0.
+         *
+         * @see ApacheHttpClient#prewarmConnections(URI, int)
+         */
+        Builder minIdleConnections(Integer minIdleConnections);
+
+        /**
+         * Configure the {@link DnsResolver} that resolves the hosts the client connects to. By default, hosts are resolved
+         * with {@link InetAddress#getAllByName(String)}.
+         *
+         * <p>When a resolver or a {@link #dnsCacheTtl(Duration)} is configured, each new connection to a host that resolves to
+         * several addresses tries a different address first, round-robin, so that the connections are spread over all of
+         * them.</p>
+         */
+        Builder dnsResolver(DnsResolver dnsResolver);
+
+        /**
+         * Configure how long the addresses a host resolved to are reused for new connections before the host is resolved
+         * again. This caching comes on top of any caching done by the {@link #dnsResolver(DnsResolver)}. Zero disables it.
+         * By default, this is disabled.
+         */
+        Builder dnsCacheTtl(Duration dnsCacheTtl);
+
+        /**
+         * Configure whether connections should be pooled by a connection manager that leases and releases connections without
+         * taking a lock. Apache's pooling connection manager serializes the leases and releases of all connections on one
+         * lock, which limits throughput when many threads share the client. By default, this is disabled.
+         */
+        Builder useLockFreeConnectionPool(Boolean useLockFreeConnectionPool);
     }
 
     private static final class DefaultBuilder implements Builder {
@@ -344,6 +478,8 @@ public final class ApacheHttpClient implements SdkHttpClient {
         private InetAddress localAddress;
         private Boolean expectContinueEnabled;
         private Boolean useIdleConnectionReaper;
+        private DnsResolver dnsResolver;
+        private Boolean useLockFreeConnectionPool;
 
         private DefaultBuilder() {
         }
@@ -454,6 +590,50 @@ public final class ApacheHttpClient implements SdkHttpClient {
             useIdleConnectionReaper(useIdleConnectionReaper);
         }
 
+        @Override
+        public Builder minIdleConnections(Integer minIdleConnections) {
+            if (minIdleConnections != null) {
+                Validate.isNotNegative(minIdleConnections, "minIdleConnections");
+            }
+            standardOptions.put(MIN_IDLE_CONNECTIONS, minIdleConnections);
+            return this;
+        }
+
+        public void setMinIdleConnections(Integer minIdleConnections) {
+            minIdleConnections(minIdleConnections);
+        }
+
+        @Override
+        public Builder dnsResolver(DnsResolver dnsResolver) {
+            this.dnsResolver = dnsResolver;
+            return this;
+        }
+
+        public void setDnsResolver(DnsResolver dnsResolver) {
+            dnsResolver(dnsResolver);
+        }
+
+        @Override
+        public Builder dnsCacheTtl(Duration dnsCacheTtl) {
+            Validate.isNotNegative(dnsCacheTtl, "dnsCacheTtl");
+            standardOptions.put(DNS_CACHE_TTL, dnsCacheTtl);
+            return this;
+        }
+
+        public void setDnsCacheTtl(Duration dnsCacheTtl) {
+            dnsCacheTtl(dnsCacheTtl);
+        }
+
+        @Override
+        public Builder useLockFreeConnectionPool(Boolean useLockFreeConnectionPool) {
+            this.useLockFreeConnectionPool = useLockFreeConnectionPool;
+            return this;
+        }
+
+        public void setUseLockFreeConnectionPool(Boolean useLockFreeConnectionPool) {
+            useLockFreeConnectionPool(useLockFreeConnectionPool);
+        }
+
         @Override
         public SdkHttpClient buildWithDefaults(AttributeMap serviceDefaults) {
             AttributeMap resolvedOptions = standardOptions.build().merge(serviceDefaults).merge(GLOBAL_HTTP_DEFAULTS);
@@ -462,30 +642,77 @@ public final class ApacheHttpClient implements SdkHttpClient {
     }
 
     private static class ApacheConnectionManagerFactory {
+        /**
+         * The SSL contexts shared by all clients. TLS sessions are cached by the context that negotiated them, so sharing it
+         * lets a new connection resume a session negotiated by any client connected to the same endpoint before.
+         */
+        private static final ConcurrentMap<Boolean, SSLContext> SSL_CONTEXTS = new ConcurrentHashMap<>();
 
         public HttpClientConnectionManager create(ApacheHttpClient.DefaultBuilder configuration,
-                                                  AttributeMap standardOptions) {
-            ConnectionSocketFactory sslsf = getPreferredSocketFactory(standardOptions);
-
-            PoolingHttpClientConnectionManager cm = new
-                    PoolingHttpClientConnectionManager(
-                    createSocketFactoryRegistry(sslsf),
-                    null,
-                    DefaultSchemePortResolver.INSTANCE,
-                    null,
-                    standardOptions.get(SdkHttpConfigurationOption.CONNECTION_TIME_TO_LIVE).toMillis(),
-                    TimeUnit.MILLISECONDS);
-
-            cm.setDefaultMaxPerRoute(standardOptions.get(SdkHttpConfigurationOption.MAX_CONNECTIONS));
-            cm.setMaxTotal(standardOptions.get(SdkHttpConfigurationOption.MAX_CONNECTIONS));
+                                                  AttributeMap standardOptions,
+                                                  TlsHandshakeMetrics tlsHandshakeMetrics) {
+            ConnectionSocketFactory sslsf = getPreferredSocketFactory(standardOptions, tlsHandshakeMetrics);
+
+            long timeToLive = standardOptions.get(SdkHttpConfigurationOption.CONNECTION_TIME_TO_LIVE).toMillis();
+            int minIdleConnections = standardOptions.get(MIN_IDLE_CONNECTIONS);
+
+            SpreadingDnsResolver dnsResolver = dnsResolver(configuration, standardOptions.get(DNS_CACHE_TTL));
+
+            int maxConnections = standardOptions.get(SdkHttpConfigurationOption.MAX_CONNECTIONS);
+
+            if (Boolean.TRUE.equals(configuration.useLockFreeConnectionPool)) {
+                LockFreeConnectionManager cm = new LockFreeConnectionManager(createSocketFactoryRegistry(sslsf),
+                                                                             dnsResolver,
+                                                                             timeToLive,
+                                                                             TimeUnit.MILLISECONDS,
+                                                                             minIdleConnections);
+                cm.setDefaultMaxPerRoute(maxConnections);
+                cm.setMaxTotal(maxConnections);
+                cm.setDefaultSocketConfig(buildSocketConfig(standardOptions));
+                return cm;
+            }
+
+            PoolingHttpClientConnectionManager cm;
+            if (minIdleConnections > 0) {
+                cm = new IdleConnectionFloorConnectionManager(createSocketFactoryRegistry(sslsf),
+                                                              dnsResolver,
+                                                              timeToLive,
+                                                              TimeUnit.MILLISECONDS,
+                                                              minIdleConnections);
+            } else {
+                cm = new PoolingHttpClientConnectionManager(
+                        createSocketFactoryRegistry(sslsf),
+                        null,
+                        DefaultSchemePortResolver.INSTANCE,
+                        dnsResolver,
+                        timeToLive,
+                        TimeUnit.MILLISECONDS);
+            }
+
+            cm.setDefaultMaxPerRoute(maxConnections);
+            cm.setMaxTotal(maxConnections);
             cm.setDefaultSocketConfig(buildSocketConfig(standardOptions));
 
             return cm;
         }
 
-        private ConnectionSocketFactory getPreferredSocketFactory(AttributeMap standardOptions) {
+        /**
+         * Returns the resolver of the hosts connected to, or null to leave them to Apache's default resolver when neither a
+         * resolver nor a cache TTL is configured.
+         */
+        private SpreadingDnsResolver dnsResolver(ApacheHttpClient.DefaultBuilder configuration, Duration dnsCacheTtl) {
+            if (configuration.dnsResolver == null && dnsCacheTtl.isZero()) {
+                return null;
+            }
+            return new SpreadingDnsResolver(configuration.dnsResolver == null ? DnsResolver.system() : configuration.dnsResolver,
+                                            dnsCacheTtl);
+        }
+
+        private ConnectionSocketFactory getPreferredSocketFactory(AttributeMap standardOptions,
+                                                                  TlsHandshakeMetrics tlsHandshakeMetrics) {
             // TODO v2 custom socket factory
-            return new SdkTlsSocketFactory(getSslContext(standardOptions), getHostNameVerifier(standardOptions));
+            return new SdkTlsSocketFactory(getSslContext(standardOptions), getHostNameVerifier(standardOptions),
+                                           tlsHandshakeMetrics);
         }
 
         private HostnameVerifier getHostNameVerifier(AttributeMap standardOptions) {
@@ -495,12 +722,16 @@ public final class ApacheHttpClient implements SdkHttpClient {
         }
 
         private SSLContext getSslContext(AttributeMap standardOptions) {
-            TrustManager[] trustManagers = null;
-            if (standardOptions.get(SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES)) {
+            boolean trustAllCertificates = standardOptions.get(SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES);
+            if (trustAllCertificates) {
                 log.warn(() -> "SSL Certificate verification is disabled. This is not a safe setting and should only be "
                                + "used for testing.");
-                trustManagers = trustAllTrustManager();
             }
+            return SSL_CONTEXTS.computeIfAbsent(trustAllCertificates, ApacheConnectionManagerFactory::createSslContext);
+        }
+
+        private static SSLContext createSslContext(boolean trustAllCertificates) {
+            TrustManager[] trustManagers = trustAllCertificates ? trustAllTrustManager() : null;
 
             try {
                 SSLContext sslcontext = SSLContext.getInstance("TLS");
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+
+/**
+ * Establishes connections in a connection manager ahead of the requests that will use them.
+ *
+ * <p>All of the connections are leased from the connection manager before any is released, so each needs its own connection
+ * unless the pool already has enough idle ones. Connections that aren't open yet are connected, including the TLS handshake
+ * for secure routes, one at a time on the calling thread.
+ */
+@SdkInternalApi
+public final class ConnectionPrewarmer {
+    private final HttpClientConnectionManager connectionManager;
+    private final int connectTimeoutMillis;
+    private final long connectionAcquireTimeoutMillis;
+    private final long keepAliveMillis;
+    private final int idleConnectionFloor;
+
+    /**
+     * @param connectionManager The connection manager to open the connections in.
+     * @param connectTimeoutMillis The timeout for establishing each connection.
+     * @param connectionAcquireTimeoutMillis The timeout for leasing each connection from the connection manager.
+     * @param keepAliveMillis How long the connections may be reused for once released, or 0 for no limit.
+     * @param idleConnectionFloor The number of connections to each route that are kept open by the idle connection reaper
+     * instead of expiring after {@code keepAliveMillis}.
+     */
+    public ConnectionPrewarmer(HttpClientConnectionManager connectionManager,
+                               int connectTimeoutMillis,
+                               long connectionAcquireTimeoutMillis,
+                               long keepAliveMillis,
+                               int idleConnectionFloor) {
+        this.connectionManager = connectionManager;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.connectionAcquireTimeoutMillis = connectionAcquireTimeoutMillis;
+        this.keepAliveMillis = keepAliveMillis;
+        this.idleConnectionFloor = idleConnectionFloor;
+    }
+
+    /**
+     * Opens up to {@code connectionCount} connections to the given route, and releases all of them to the connection manager.
+     *
+     * @throws IOException If a connection could not be leased or established. The connections that were established before
+     * the failure are still released to the connection manager.
+     */
+    public void prewarm(HttpRoute route, int connectionCount, HttpClientContext context) throws IOException {
+        List<HttpClientConnection> connections = new ArrayList<>(connectionCount);
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                HttpClientConnection connection = lease(route);
+                connections.add(connection);
+                if (!connection.isOpen()) {
+                    connectionManager.connect(connection, route, connectTimeoutMillis, context);
+                    connectionManager.routeComplete(connection, route, context);
+                }
+            }
+        } finally {
+            // Connections that failed to connect aren't open, and are discarded by the connection manager. The connections
+            // released last are the most recently used ones, which the idle connection reaper keeps open.
+            for (int i = 0; i < connections.size(); i++) {
+                long keepAlive = i < connections.size() - idleConnectionFloor ? keepAliveMillis : 0;
+                connectionManager.releaseConnection(connections.get(i), null, keepAlive, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private HttpClientConnection lease(HttpRoute route) throws IOException {
+        try {
+            return connectionManager.requestConnection(route, null)
+                                    .get(connectionAcquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while leasing a connection to " + route, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to lease a connection to " + route, e.getCause());
+        }
+    }
+}
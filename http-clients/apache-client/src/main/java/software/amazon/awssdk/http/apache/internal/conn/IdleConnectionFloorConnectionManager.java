@@ -0,0 +1,88 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolEntry;
+import org.apache.http.pool.PoolStats;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+
+/**
+ * A {@link PoolingHttpClientConnectionManager} that leaves a minimum number of connections to each route open when closing
+ * idle connections.
+ *
+ * <p>An idle connection is only closed while more than the minimum number of connections to its route are open, counting the
+ * leased ones. The most recently used idle connections are the ones kept open.
+ */
+@SdkInternalApi
+public final class IdleConnectionFloorConnectionManager extends PoolingHttpClientConnectionManager {
+    private final int minIdleConnections;
+
+    public IdleConnectionFloorConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                                DnsResolver dnsResolver,
+                                                long timeToLive,
+                                                TimeUnit timeUnit,
+                                                int minIdleConnections) {
+        super(socketFactoryRegistry, null, DefaultSchemePortResolver.INSTANCE, dnsResolver, timeToLive, timeUnit);
+        this.minIdleConnections = minIdleConnections;
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTimeout, TimeUnit timeUnit) {
+        long deadline = System.currentTimeMillis() - Math.max(timeUnit.toMillis(idleTimeout), 0);
+
+        // Available connections are listed most recently used first
+        Map<HttpRoute, List<PoolEntry<HttpRoute, ManagedHttpClientConnection>>> idleConnections = new HashMap<>();
+        enumAvailable(entry -> {
+            if (entry.getUpdated() <= deadline) {
+                idleConnections.computeIfAbsent(entry.getRoute(), r -> new ArrayList<>()).add(entry);
+            }
+        });
+
+        Set<PoolEntry<HttpRoute, ManagedHttpClientConnection>> toClose = new HashSet<>();
+        idleConnections.forEach((route, entries) -> {
+            PoolStats stats = getStats(route);
+            int closeable = Math.min(entries.size(), stats.getLeased() + stats.getAvailable() - minIdleConnections);
+            if (closeable > 0) {
+                toClose.addAll(entries.subList(entries.size() - closeable, entries.size()));
+            }
+        });
+
+        if (!toClose.isEmpty()) {
+            // A connection that was leased in the meantime is no longer available, and one that was used and released
+            // again is no longer idle, so neither is closed.
+            enumAvailable(entry -> {
+                if (toClose.contains(entry) && entry.getUpdated() <= deadline) {
+                    entry.close();
+                }
+            });
+        }
+    }
+}
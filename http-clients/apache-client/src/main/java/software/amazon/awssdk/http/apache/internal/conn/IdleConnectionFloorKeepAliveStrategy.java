@@ -0,0 +1,75 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.routing.RouteInfo;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+
+/**
+ * A {@link ConnectionKeepAliveStrategy} that exempts the connections kept open by the idle connection floor from the
+ * configured maximum idle time.
+ *
+ * <p>While no more than the minimum number of connections to a route are open, a released connection is only kept alive for
+ * as long as the server's Keep-Alive header allows, if it sends one. Otherwise the delegate strategy is used. Connections
+ * beyond the floor are closed by the idle connection reaper once they've been idle for too long, whether or not they've
+ * expired.
+ */
+@SdkInternalApi
+public final class IdleConnectionFloorKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+    private final ConnectionKeepAliveStrategy delegate;
+    private final ConnPoolControl<HttpRoute> connectionPool;
+    private final int minIdleConnections;
+
+    /**
+     * @param delegate The strategy for the connections beyond the floor.
+     * @param connectionPool The pool the connections are released to.
+     * @param minIdleConnections The number of connections to each route that the idle connection reaper leaves open.
+     */
+    public IdleConnectionFloorKeepAliveStrategy(ConnectionKeepAliveStrategy delegate,
+                                                ConnPoolControl<HttpRoute> connectionPool,
+                                                int minIdleConnections) {
+        this.delegate = delegate;
+        this.connectionPool = connectionPool;
+        this.minIdleConnections = minIdleConnections;
+    }
+
+    @Override
+    public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+        RouteInfo route = HttpClientContext.adapt(context).getHttpRoute();
+        if (route instanceof HttpRoute && isWithinFloor((HttpRoute) route)) {
+            return DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        }
+        return delegate.getKeepAliveDuration(response, context);
+    }
+
+    /**
+     * The connection being released is still counted as leased, so it's within the floor when it's one of the first
+     * {@code minIdleConnections} connections to its route.
+     */
+    private boolean isWithinFloor(HttpRoute route) {
+        PoolStats stats = connectionPool.getStats(route);
+        return stats.getLeased() + stats.getAvailable() <= minIdleConnections;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.net.ssl.SSLSession;
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.impl.conn.ConnectionShutdownException;
+import org.apache.http.protocol.HttpContext;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.utils.ToString;
+
+/**
+ * The connection handed out by {@link LockFreeConnectionManager} for the duration of a lease. It delegates to the pooled
+ * connection until it is released, after which it no longer gives access to it.
+ */
+@SdkInternalApi
+final class LeasedConnection implements ManagedHttpClientConnection, HttpContext {
+    private final AtomicReference<LockFreeConnectionManager.PoolEntry> entry;
+
+    LeasedConnection(LockFreeConnectionManager.PoolEntry entry) {
+        this.entry = new AtomicReference<>(entry);
+    }
+
+    /**
+     * Returns the pool entry of this lease, or null if it was detached already.
+     */
+    LockFreeConnectionManager.PoolEntry poolEntry() {
+        return entry.get();
+    }
+
+    /**
+     * Ends the lease, returning its pool entry the first time it is called and null afterwards.
+     */
+    LockFreeConnectionManager.PoolEntry detach() {
+        return entry.getAndSet(null);
+    }
+
+    private ManagedHttpClientConnection connection() {
+        LockFreeConnectionManager.PoolEntry current = entry.get();
+        return current == null ? null : current.connection();
+    }
+
+    private ManagedHttpClientConnection validConnection() {
+        ManagedHttpClientConnection connection = connection();
+        if (connection == null) {
+            throw new ConnectionShutdownException();
+        }
+        return connection;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ManagedHttpClientConnection connection = connection();
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+        ManagedHttpClientConnection connection = connection();
+        if (connection != null) {
+            connection.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        ManagedHttpClientConnection connection = connection();
+        return connection != null && connection.isOpen();
+    }
+
+    @Override
+    public boolean isStale() {
+        ManagedHttpClientConnection connection = connection();
+        return connection == null || connection.isStale();
+    }
+
+    @Override
+    public void setSocketTimeout(int timeout) {
+        validConnection().setSocketTimeout(timeout);
+    }
+
+    @Override
+    public int getSocketTimeout() {
+        return validConnection().getSocketTimeout();
+    }
+
+    @Override
+    public String getId() {
+        return validConnection().getId();
+    }
+
+    @Override
+    public void bind(Socket socket) throws IOException {
+        validConnection().bind(socket);
+    }
+
+    @Override
+    public Socket getSocket() {
+        return validConnection().getSocket();
+    }
+
+    @Override
+    public SSLSession getSSLSession() {
+        return validConnection().getSSLSession();
+    }
+
+    @Override
+    public boolean isResponseAvailable(int timeout) throws IOException {
+        return validConnection().isResponseAvailable(timeout);
+    }
+
+    @Override
+    public void sendRequestHeader(HttpRequest request) throws HttpException, IOException {
+        validConnection().sendRequestHeader(request);
+    }
+
+    @Override
+    public void sendRequestEntity(HttpEntityEnclosingRequest request) throws HttpException, IOException {
+        validConnection().sendRequestEntity(request);
+    }
+
+    @Override
+    public HttpResponse receiveResponseHeader() throws HttpException, IOException {
+        return validConnection().receiveResponseHeader();
+    }
+
+    @Override
+    public void receiveResponseEntity(HttpResponse response) throws HttpException, IOException {
+        validConnection().receiveResponseEntity(response);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        validConnection().flush();
+    }
+
+    @Override
+    public HttpConnectionMetrics getMetrics() {
+        return validConnection().getMetrics();
+    }
+
+    @Override
+    public InetAddress getLocalAddress() {
+        return validConnection().getLocalAddress();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return validConnection().getLocalPort();
+    }
+
+    @Override
+    public InetAddress getRemoteAddress() {
+        return validConnection().getRemoteAddress();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return validConnection().getRemotePort();
+    }
+
+    @Override
+    public Object getAttribute(String id) {
+        ManagedHttpClientConnection connection = validConnection();
+        return connection instanceof HttpContext ? ((HttpContext) connection).getAttribute(id) : null;
+    }
+
+    @Override
+    public void setAttribute(String id, Object obj) {
+        ManagedHttpClientConnection connection = validConnection();
+        if (connection instanceof HttpContext) {
+            ((HttpContext) connection).setAttribute(id, obj);
+        }
+    }
+
+    @Override
+    public Object removeAttribute(String id) {
+        ManagedHttpClientConnection connection = validConnection();
+        return connection instanceof HttpContext ? ((HttpContext) connection).removeAttribute(id) : null;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("LeasedConnection")
+                       .add("connection", connection())
+                       .build();
+    }
+}
@@ -0,0 +1,635 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.HttpClientConnectionOperator;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.ConnectionShutdownException;
+import org.apache.http.impl.conn.DefaultHttpClientConnectionOperator;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.utils.Logger;
+import software.amazon.awssdk.utils.Validate;
+
+/**
+ * A connection manager that leases and releases connections without taking a lock, as a replacement for
+ * {@link org.apache.http.impl.conn.PoolingHttpClientConnectionManager}, whose pool serializes every lease and release of every
+ * route on one lock.
+ *
+ * <p>Each route has its own pool. The idle connections of a route are kept in a concurrent deque, most recently used first,
+ * and the limits on the connections leased per route and in total are kept by semaphores, which are acquired without
+ * blocking as long as there is room. Only a thread that has to wait for a connection to be released parks.
+ *
+ * <p>Differences from the pooling connection manager:
+ * <ul>
+ *     <li>The total limit applies to leased connections. Idle connections to one route don't keep another route from
+ *     opening connections; they are closed by the idle connection reaper instead.</li>
+ *     <li>The state connections are released with is not used to pick the connection of a lease.</li>
+ * </ul>
+ *
+ * <p>No monitors are held while waiting, so virtual threads waiting for a connection don't pin their carrier threads. A
+ * waiting thread parks until a permit is released or its deadline passes, and is unparked if its lease request is cancelled
+ * or the manager is shut down. Interrupts are not used to wake waiters; interrupting a waiting thread makes its lease throw
+ * {@link InterruptedException}.
+ *
+ * <p>When a minimum number of idle connections is configured, closing idle connections leaves that many connections to each
+ * route open, like {@link IdleConnectionFloorConnectionManager} does.
+ */
+@SdkInternalApi
+public final class LockFreeConnectionManager implements HttpClientConnectionManager, ConnPoolControl<HttpRoute> {
+    private static final Logger log = Logger.loggerFor(LockFreeConnectionManager.class);
+
+    /**
+     * How long a connection may be idle before it is checked for staleness when it is leased again.
+     */
+    private static final long VALIDATE_AFTER_INACTIVITY_MILLIS = 2_000;
+
+    private static final int DEFAULT_MAX_TOTAL = 20;
+    private static final int DEFAULT_MAX_PER_ROUTE = 2;
+
+    private final HttpClientConnectionOperator connectionOperator;
+    private final ManagedHttpClientConnectionFactory connectionFactory = ManagedHttpClientConnectionFactory.INSTANCE;
+    private final long timeToLiveMillis;
+    private final int minIdleConnections;
+    private final ConcurrentMap<HttpRoute, RoutePool> routePools = new ConcurrentHashMap<>();
+    private final Map<HttpRoute, Integer> maxPerRoute = new ConcurrentHashMap<>();
+    private final Object limitsLock = new Object();
+    private final ResizableSemaphore totalPermits = new ResizableSemaphore(DEFAULT_MAX_TOTAL);
+    private final Waiters totalPermitWaiters = new Waiters();
+    private volatile int maxTotal = DEFAULT_MAX_TOTAL;
+    private volatile int defaultMaxPerRoute = DEFAULT_MAX_PER_ROUTE;
+    private volatile SocketConfig defaultSocketConfig = SocketConfig.DEFAULT;
+    private volatile boolean isShutdown;
+
+    /**
+     * @param socketFactoryRegistry The socket factories of the supported schemes.
+     * @param dnsResolver The resolver of the hosts connected to, or null for the system resolver.
+     * @param timeToLive The maximum time a connection may be reused for, or 0 for no limit.
+     * @param timeUnit The unit of the time to live.
+     * @param minIdleConnections The number of connections to each route that closing idle connections leaves open.
+     */
+    public LockFreeConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                     DnsResolver dnsResolver,
+                                     long timeToLive,
+                                     TimeUnit timeUnit,
+                                     int minIdleConnections) {
+        this.connectionOperator = new DefaultHttpClientConnectionOperator(socketFactoryRegistry,
+                                                                          DefaultSchemePortResolver.INSTANCE,
+                                                                          dnsResolver);
+        this.timeToLiveMillis = timeUnit.toMillis(timeToLive);
+        this.minIdleConnections = minIdleConnections;
+    }
+
+    public void setDefaultSocketConfig(SocketConfig defaultSocketConfig) {
+        this.defaultSocketConfig = defaultSocketConfig != null ? defaultSocketConfig : SocketConfig.DEFAULT;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        Validate.paramNotNull(route, "route");
+        return new LeaseRequest(route);
+    }
+
+    private HttpClientConnection lease(HttpRoute route, long timeout, TimeUnit timeUnit, LeaseRequest request)
+            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+        checkNotShutdown();
+        RoutePool pool = routePool(route);
+        long deadlineNanos = timeout > 0 ? System.nanoTime() + timeUnit.toNanos(timeout) : 0;
+
+        pool.pending.incrementAndGet();
+        try {
+            acquire(pool.permits, pool.permitWaiters, timeout > 0, deadlineNanos, request);
+            boolean acquired = false;
+            try {
+                acquire(totalPermits, totalPermitWaiters, timeout > 0, deadlineNanos, request);
+                acquired = true;
+            } finally {
+                if (!acquired) {
+                    pool.releasePermit();
+                }
+            }
+        } finally {
+            pool.pending.decrementAndGet();
+        }
+
+        try {
+            return new LeasedConnection(takeOrCreate(pool, timeout > 0, deadlineNanos, request));
+        } catch (RuntimeException | InterruptedException | ExecutionException | ConnectionPoolTimeoutException e) {
+            releasePermits(pool);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a permit right away if one is free, or otherwise waits for one.
+     */
+    private void acquire(Semaphore permits, Waiters waiters, boolean hasDeadline, long deadlineNanos, LeaseRequest request)
+            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+        if (!permits.tryAcquire()) {
+            await(() -> permits.tryAcquire() ? permits : null, waiters, hasDeadline, deadlineNanos, request);
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection of the route that can still be used, or creates a new one if the route
+     * has room for it. The caller holds a permit of the route, so when neither is possible one of the route's connections is
+     * on its way back to the pool, and the caller waits until it's returned or closed.
+     */
+    private PoolEntry takeOrCreate(RoutePool pool, boolean hasDeadline, long deadlineNanos, LeaseRequest request)
+            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+        PoolEntry entry = tryTakeOrCreate(pool);
+        if (entry != null) {
+            return entry;
+        }
+        return await(() -> tryTakeOrCreate(pool), pool.connectionWaiters, hasDeadline, deadlineNanos, request);
+    }
+
+    /**
+     * Parks among the given waiters until the attempt returns a result, the deadline passes, the request is cancelled, the
+     * manager is shut down or the thread is interrupted.
+     */
+    private <T> T await(Supplier<T> attempt, Waiters waiters, boolean hasDeadline, long deadlineNanos, LeaseRequest request)
+            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        request.waiter = current;
+        try {
+            while (true) {
+                // Tried after the thread is queued, so a change either shows here or unparks the thread
+                T result = attempt.get();
+                if (result != null) {
+                    return result;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (request.isCancelled()) {
+                    throw new ExecutionException(new CancellationException("Operation aborted"));
+                }
+                checkNotShutdown();
+                if (hasDeadline) {
+                    long remainingNanos = deadlineNanos - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+                    }
+                    LockSupport.parkNanos(this, remainingNanos);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        } finally {
+            request.waiter = null;
+            waiters.remove(current);
+        }
+    }
+
+    private PoolEntry tryTakeOrCreate(RoutePool pool) {
+        PoolEntry entry;
+        while ((entry = pool.available.pollFirst()) != null) {
+            if (isReusable(entry)) {
+                return entry;
+            }
+            discard(entry);
+        }
+        if (pool.tryAllocate()) {
+            try {
+                return new PoolEntry(pool, connectionFactory.create(pool.route, ConnectionConfig.DEFAULT), timeToLiveMillis);
+            } catch (RuntimeException e) {
+                pool.allocated.decrementAndGet();
+                pool.connectionWaiters.wakeFirst();
+                throw e;
+            }
+        }
+        return null;
+    }
+
+    private boolean isReusable(PoolEntry entry) {
+        long now = System.currentTimeMillis();
+        if (!entry.connection.isOpen() || entry.isExpired(now)) {
+            return false;
+        }
+        return entry.updated + VALIDATE_AFTER_INACTIVITY_MILLIS > now || !entry.connection.isStale();
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection managedConnection, Object state, long keepAlive, TimeUnit timeUnit) {
+        PoolEntry entry = leasedConnection(managedConnection).detach();
+        if (entry == null) {
+            return;
+        }
+        RoutePool pool = entry.pool;
+        try {
+            ManagedHttpClientConnection connection = entry.connection;
+            if (connection.isOpen() && entry.routeComplete && !isShutdown) {
+                entry.updateExpiry(keepAlive, timeUnit != null ? timeUnit : TimeUnit.MILLISECONDS);
+                connection.setSocketTimeout(0);
+                pool.available.offerFirst(entry);
+                pool.connectionWaiters.wakeFirst();
+                // The pool may have been shut down after the check above, and closed its idle connections without this one
+                if (isShutdown && pool.available.removeFirstOccurrence(entry)) {
+                    discard(entry);
+                }
+            } else {
+                discard(entry);
+            }
+        } finally {
+            releasePermits(pool);
+        }
+    }
+
+    private void releasePermits(RoutePool pool) {
+        totalPermits.release();
+        totalPermitWaiters.wakeFirst();
+        pool.releasePermit();
+    }
+
+    @Override
+    public void connect(HttpClientConnection managedConnection, HttpRoute route, int connectTimeout, HttpContext context)
+            throws IOException {
+        HttpHost host = route.getProxyHost() != null ? route.getProxyHost() : route.getTargetHost();
+        connectionOperator.connect(poolEntry(managedConnection).connection, host, route.getLocalSocketAddress(), connectTimeout,
+                                   defaultSocketConfig, context);
+    }
+
+    @Override
+    public void upgrade(HttpClientConnection managedConnection, HttpRoute route, HttpContext context) throws IOException {
+        connectionOperator.upgrade(poolEntry(managedConnection).connection, route.getTargetHost(), context);
+    }
+
+    @Override
+    public void routeComplete(HttpClientConnection managedConnection, HttpRoute route, HttpContext context) {
+        poolEntry(managedConnection).routeComplete = true;
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+        long deadline = System.currentTimeMillis() - Math.max(timeUnit.toMillis(idleTime), 0);
+        routePools.values().forEach(pool -> closeAvailable(pool, e -> e.updated <= deadline, minIdleConnections));
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        long now = System.currentTimeMillis();
+        routePools.values().forEach(pool -> closeAvailable(pool, e -> e.isExpired(now), 0));
+    }
+
+    /**
+     * Closes the idle connections of the route that match the predicate, least recently used first, while more than the given
+     * number of connections to the route are open. A connection leased in the meantime is not closed.
+     */
+    private void closeAvailable(RoutePool pool, Predicate<PoolEntry> predicate, int minOpenConnections) {
+        int closeable = pool.allocated.get() - minOpenConnections;
+        for (PoolEntry entry : (Iterable<PoolEntry>) pool.available::descendingIterator) {
+            if (closeable <= 0) {
+                return;
+            }
+            if (predicate.test(entry) && pool.available.removeFirstOccurrence(entry)) {
+                discard(entry);
+                closeable--;
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        totalPermitWaiters.wakeAll();
+        routePools.values().forEach(pool -> {
+            pool.permitWaiters.wakeAll();
+            pool.connectionWaiters.wakeAll();
+            PoolEntry entry;
+            while ((entry = pool.available.pollFirst()) != null) {
+                discard(entry);
+            }
+        });
+    }
+
+    private void discard(PoolEntry entry) {
+        try {
+            entry.connection.close();
+        } catch (IOException e) {
+            log.debug(() -> "Unable to close connection " + entry.connection, e);
+        } finally {
+            entry.pool.allocated.decrementAndGet();
+            entry.pool.connectionWaiters.wakeFirst();
+        }
+    }
+
+    private void checkNotShutdown() {
+        if (isShutdown) {
+            throw new IllegalStateException("Connection pool shut down");
+        }
+    }
+
+    private RoutePool routePool(HttpRoute route) {
+        RoutePool pool = routePools.get(route);
+        if (pool != null) {
+            return pool;
+        }
+        // Creating a pool is synchronized with changes to the limits, so that a new pool can't miss a change
+        synchronized (limitsLock) {
+            return routePools.computeIfAbsent(route, r -> new RoutePool(r, getMaxPerRoute(r)));
+        }
+    }
+
+    private static LeasedConnection leasedConnection(HttpClientConnection managedConnection) {
+        Validate.isTrue(managedConnection instanceof LeasedConnection,
+                        "Connection %s was not leased from this connection manager", managedConnection);
+        return (LeasedConnection) managedConnection;
+    }
+
+    private static PoolEntry poolEntry(HttpClientConnection managedConnection) {
+        PoolEntry entry = leasedConnection(managedConnection).poolEntry();
+        if (entry == null) {
+            throw new ConnectionShutdownException();
+        }
+        return entry;
+    }
+
+    @Override
+    public void setMaxTotal(int max) {
+        Validate.isPositive(max, "max");
+        synchronized (limitsLock) {
+            totalPermits.resize(max - maxTotal);
+            maxTotal = max;
+            totalPermitWaiters.wakeFirst();
+        }
+    }
+
+    @Override
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    @Override
+    public void setDefaultMaxPerRoute(int max) {
+        Validate.isPositive(max, "max");
+        synchronized (limitsLock) {
+            defaultMaxPerRoute = max;
+            routePools.forEach((route, pool) -> {
+                if (!maxPerRoute.containsKey(route)) {
+                    pool.setMaxConnections(max);
+                }
+            });
+        }
+    }
+
+    @Override
+    public int getDefaultMaxPerRoute() {
+        return defaultMaxPerRoute;
+    }
+
+    @Override
+    public void setMaxPerRoute(HttpRoute route, int max) {
+        Validate.isPositive(max, "max");
+        synchronized (limitsLock) {
+            maxPerRoute.put(route, max);
+            RoutePool pool = routePools.get(route);
+            if (pool != null) {
+                pool.setMaxConnections(max);
+            }
+        }
+    }
+
+    @Override
+    public int getMaxPerRoute(HttpRoute route) {
+        return maxPerRoute.getOrDefault(route, defaultMaxPerRoute);
+    }
+
+    @Override
+    public PoolStats getTotalStats() {
+        int leased = 0;
+        int pending = 0;
+        int available = 0;
+        for (RoutePool pool : routePools.values()) {
+            leased += pool.leased();
+            pending += pool.pending.get();
+            available += pool.available.size();
+        }
+        return new PoolStats(leased, pending, available, maxTotal);
+    }
+
+    @Override
+    public PoolStats getStats(HttpRoute route) {
+        RoutePool pool = routePools.get(route);
+        if (pool == null) {
+            return new PoolStats(0, 0, 0, getMaxPerRoute(route));
+        }
+        return new PoolStats(pool.leased(), pool.pending.get(), pool.available.size(), pool.maxConnections);
+    }
+
+    /**
+     * A request for a connection, which waits for the connection when {@link #get(long, TimeUnit)} is called.
+     */
+    private final class LeaseRequest implements ConnectionRequest {
+        private final HttpRoute route;
+        private volatile Thread waiter;
+        private volatile boolean cancelled;
+
+        private LeaseRequest(HttpRoute route) {
+            this.route = route;
+        }
+
+        @Override
+        public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+            return lease(route, timeout, timeUnit, this);
+        }
+
+        @Override
+        public boolean cancel() {
+            cancelled = true;
+            // The waiter checks for cancellation after publishing itself, so it either sees the flag or is unparked here
+            Thread thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        private boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * The connections of one route.
+     */
+    private static final class RoutePool {
+        private final HttpRoute route;
+        private final ConcurrentLinkedDeque<PoolEntry> available = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger allocated = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final ResizableSemaphore permits;
+        private final Waiters permitWaiters = new Waiters();
+        // The permit holders waiting for a connection to be returned, because all the route's connections are leased
+        private final Waiters connectionWaiters = new Waiters();
+        private volatile int maxConnections;
+
+        private RoutePool(HttpRoute route, int maxConnections) {
+            this.route = route;
+            this.maxConnections = maxConnections;
+            this.permits = new ResizableSemaphore(maxConnections);
+        }
+
+        /**
+         * Changes the limit of the route. Only called while holding the limits lock of the connection manager.
+         */
+        private void setMaxConnections(int max) {
+            permits.resize(max - maxConnections);
+            maxConnections = max;
+            permitWaiters.wakeFirst();
+            connectionWaiters.wakeFirst();
+        }
+
+        private void releasePermit() {
+            permits.release();
+            permitWaiters.wakeFirst();
+        }
+
+        /**
+         * Counts a new connection if the route has room for it.
+         */
+        private boolean tryAllocate() {
+            while (true) {
+                int current = allocated.get();
+                if (current >= maxConnections) {
+                    return false;
+                }
+                if (allocated.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private int leased() {
+            return Math.max(maxConnections - permits.availablePermits(), 0);
+        }
+    }
+
+    /**
+     * A pooled connection and the bookkeeping needed to decide whether it can be reused.
+     */
+    static final class PoolEntry {
+        private final RoutePool pool;
+        private final ManagedHttpClientConnection connection;
+        private final long validUntil;
+        private volatile long updated;
+        private volatile long expiry;
+        private volatile boolean routeComplete;
+
+        private PoolEntry(RoutePool pool, ManagedHttpClientConnection connection, long timeToLiveMillis) {
+            long now = System.currentTimeMillis();
+            this.pool = pool;
+            this.connection = connection;
+            this.validUntil = timeToLiveMillis > 0 ? now + timeToLiveMillis : Long.MAX_VALUE;
+            this.updated = now;
+            this.expiry = validUntil;
+        }
+
+        ManagedHttpClientConnection connection() {
+            return connection;
+        }
+
+        private void updateExpiry(long keepAlive, TimeUnit timeUnit) {
+            long now = System.currentTimeMillis();
+            long keepAliveExpiry = keepAlive > 0 ? now + timeUnit.toMillis(keepAlive) : Long.MAX_VALUE;
+            updated = now;
+            expiry = Math.min(keepAliveExpiry, validUntil);
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiry;
+        }
+    }
+
+    /**
+     * The threads waiting for something of the pool, in the order they started waiting. A change that may let a waiter
+     * proceed wakes the first one, and every waiter wakes the next one when it stops waiting, whether or not it got what it
+     * waited for, so that a wakeup is never lost to a waiter that has already left.
+     */
+    private static final class Waiters {
+        private final ConcurrentLinkedQueue<Thread> threads = new ConcurrentLinkedQueue<>();
+
+        private void add(Thread thread) {
+            threads.add(thread);
+        }
+
+        private void remove(Thread thread) {
+            threads.remove(thread);
+            wakeFirst();
+        }
+
+        private void wakeFirst() {
+            Thread first = threads.peek();
+            if (first != null) {
+                LockSupport.unpark(first);
+            }
+        }
+
+        private void wakeAll() {
+            threads.forEach(LockSupport::unpark);
+        }
+    }
+
+    /**
+     * A semaphore whose number of permits can be changed while permits are taken.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        private ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        private void resize(int delta) {
+            if (delta > 0) {
+                release(delta);
+            } else if (delta < 0) {
+                reducePermits(-delta);
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ package software.amazon.awssdk.http.apache.internal.conn;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +29,7 @@ import org.apache.http.HttpHost;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.protocol.HttpContext;
 import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
 import software.amazon.awssdk.http.apache.internal.net.SdkSocket;
 import software.amazon.awssdk.http.apache.internal.net.SdkSslSocket;
 import software.amazon.awssdk.utils.Logger;
@@ -40,14 +42,21 @@ public class SdkTlsSocketFactory extends SSLConnectionSocketFactory {
 
     private static final Logger log = Logger.loggerFor(SdkTlsSocketFactory.class);
     private final SSLContext sslContext;
+    private final TlsHandshakeMetrics metrics;
 
     public SdkTlsSocketFactory(final SSLContext sslContext, final HostnameVerifier hostnameVerifier) {
+        this(sslContext, hostnameVerifier, TlsHandshakeMetrics.create());
+    }
+
+    public SdkTlsSocketFactory(final SSLContext sslContext, final HostnameVerifier hostnameVerifier,
+                               final TlsHandshakeMetrics metrics) {
         super(sslContext, hostnameVerifier);
         if (sslContext == null) {
             throw new IllegalArgumentException(
                     "sslContext must not be null. " + "Use SSLContext.getDefault() if you are unsure.");
         }
         this.sslContext = sslContext;
+        this.metrics = metrics;
     }
 
     /**
@@ -100,6 +109,28 @@ public class SdkTlsSocketFactory extends SSLConnectionSocketFactory {
         return false;
     }
 
+    /**
+     * {@inheritDoc} Records the handshake in the client's {@link TlsHandshakeMetrics}.
+     */
+    @Override
+    public Socket createLayeredSocket(final Socket socket,
+                                      final String target,
+                                      final int port,
+                                      final HttpContext context) throws IOException {
+        long startNanos = System.nanoTime();
+        Socket layeredSocket;
+        try {
+            layeredSocket = super.createLayeredSocket(socket, target, port, context);
+        } catch (IOException | RuntimeException e) {
+            metrics.recordFailedHandshake();
+            throw e;
+        }
+        if (layeredSocket instanceof SSLSocket) {
+            metrics.recordHandshake(((SSLSocket) layeredSocket).getSession(), Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+        return layeredSocket;
+    }
+
     @Override
     public Socket connectSocket(
             final int connectTimeout,
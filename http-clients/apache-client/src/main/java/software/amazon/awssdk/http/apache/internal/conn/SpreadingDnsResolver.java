@@ -0,0 +1,47 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import org.apache.http.conn.DnsResolver;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.http.CachingDnsResolver;
+import software.amazon.awssdk.http.LeastConnectionsAddressSelector;
+
+/**
+ * Adapts an SDK {@link software.amazon.awssdk.http.DnsResolver} to Apache, caching the addresses of each host for the
+ * configured TTL.
+ *
+ * <p>Apache tries the addresses of a host in the order they are returned, so each lookup moves a different address to the
+ * front, round-robin, to spread the connections to a host with many addresses over all of them. The other addresses are kept
+ * in order behind it to fall back on.
+ */
+@SdkInternalApi
+public final class SpreadingDnsResolver implements DnsResolver {
+    private final CachingDnsResolver delegate;
+    private final LeastConnectionsAddressSelector addressSelector = new LeastConnectionsAddressSelector();
+
+    public SpreadingDnsResolver(software.amazon.awssdk.http.DnsResolver delegate, Duration cacheTtl) {
+        this.delegate = new CachingDnsResolver(delegate, cacheTtl);
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        return addressSelector.prioritize(delegate.resolve(host));
+    }
+}
@@ -15,18 +15,25 @@
 
 package software.amazon.awssdk.http.apache;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES;
 
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import software.amazon.awssdk.http.DnsResolver;
 import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.SdkHttpClientTestSuite;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
 import software.amazon.awssdk.http.apache.internal.ApacheHttpRequestConfig;
 import software.amazon.awssdk.http.apache.internal.impl.ConnectionManagerAwareHttpClient;
 import software.amazon.awssdk.utils.AttributeMap;
@@ -55,6 +62,70 @@ public class ApacheHttpClientWireMockTest extends SdkHttpClientTestSuite {
         testForResponseCodeUsingHttps(client, HttpURLConnection.HTTP_OK);
     }
 
+    @Test
+    public void prewarmConnections_ThenRequestsSucceed() throws Exception {
+        ApacheHttpClient client = (ApacheHttpClient) ApacheHttpClient.builder()
+                                                                     .minIdleConnections(1)
+                                                                     .buildWithDefaults(AttributeMap.builder()
+                                                                                                    .put(TRUST_ALL_CERTIFICATES,
+                                                                                                         Boolean.TRUE)
+                                                                                                    .build());
+
+        client.prewarmConnections(URI.create("https://localhost:" + mockServer.httpsPort()), 2);
+        testForResponseCodeUsingHttps(client, HttpURLConnection.HTTP_OK);
+    }
+
+    @Test
+    public void newClient_ResumesTlsSessionOfEarlierClient() throws Exception {
+        AttributeMap trustAllCertificates = AttributeMap.builder().put(TRUST_ALL_CERTIFICATES, Boolean.TRUE).build();
+        TlsHandshakeMetrics firstMetrics;
+        TlsHandshakeMetrics secondMetrics;
+
+        try (ApacheHttpClient first = (ApacheHttpClient) ApacheHttpClient.builder().buildWithDefaults(trustAllCertificates)) {
+            testForResponseCodeUsingHttps(first, HttpURLConnection.HTTP_OK);
+            firstMetrics = first.tlsHandshakeMetrics();
+        }
+        mockServer.resetRequests();
+        try (ApacheHttpClient second = (ApacheHttpClient) ApacheHttpClient.builder().buildWithDefaults(trustAllCertificates)) {
+            testForResponseCodeUsingHttps(second, HttpURLConnection.HTTP_OK);
+            secondMetrics = second.tlsHandshakeMetrics();
+        }
+
+        // The first client's session may have been negotiated by an earlier test, but the second client resumes it
+        assertThat(firstMetrics.fullHandshakes() + firstMetrics.resumedHandshakes()).isEqualTo(1);
+        assertThat(secondMetrics.fullHandshakes()).isEqualTo(0);
+        assertThat(secondMetrics.resumedHandshakes()).isEqualTo(1);
+    }
+
+    @Test
+    public void lockFreeConnectionPool_CanMakeRequests() throws Exception {
+        try (SdkHttpClient client = ApacheHttpClient.builder()
+                                                    .useLockFreeConnectionPool(true)
+                                                    .minIdleConnections(1)
+                                                    .buildWithDefaults(AttributeMap.builder()
+                                                                                   .put(TRUST_ALL_CERTIFICATES, Boolean.TRUE)
+                                                                                   .build())) {
+            testForResponseCodeUsingHttps(client, HttpURLConnection.HTTP_OK);
+            mockServer.resetRequests();
+            testForResponseCodeUsingHttps(client, HttpURLConnection.HTTP_OK);
+        }
+    }
+
+    @Test
+    public void customDnsResolver_ResolvesHostsOfNewConnections() throws Exception {
+        List<String> resolvedHosts = new CopyOnWriteArrayList<>();
+        DnsResolver fakeResolver = host -> {
+            resolvedHosts.add(host);
+            return new InetAddress[] { InetAddress.getLoopbackAddress() };
+        };
+
+        try (ApacheHttpClient client = (ApacheHttpClient) ApacheHttpClient.builder().dnsResolver(fakeResolver).build()) {
+            client.prewarmConnections(URI.create("http://fake-host.example:" + mockServer.port()), 1);
+        }
+
+        assertThat(resolvedHosts).containsExactly("fake-host.example");
+    }
+
     @Test
     public void closeClient_shouldCloseUnderlyingResources() {
         ApacheHttpClient client = new ApacheHttpClient(httpClient, ApacheHttpRequestConfig.builder().build(), AttributeMap.empty());
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IdleConnectionFloorConnectionManager}, {@link IdleConnectionFloorKeepAliveStrategy} and
+ * {@link ConnectionPrewarmer}.
+ */
+public class IdleConnectionFloorConnectionManagerTest {
+    private ServerSocket server;
+    private HttpRoute route;
+    private IdleConnectionFloorConnectionManager connectionManager;
+
+    @Before
+    public void setup() throws IOException {
+        // Connections are established in the server's backlog without being accepted
+        server = new ServerSocket(0);
+        route = new HttpRoute(new HttpHost("localhost", server.getLocalPort(), "http"));
+        connectionManager = new IdleConnectionFloorConnectionManager(
+            RegistryBuilder.<ConnectionSocketFactory>create()
+                           .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                           .build(),
+            null, 0, TimeUnit.MILLISECONDS, 2);
+        connectionManager.setDefaultMaxPerRoute(10);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connectionManager.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void prewarm_OpensConnectionsInPool() throws IOException {
+        prewarm(3);
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(3);
+        assertThat(connectionManager.getStats(route).getLeased()).isEqualTo(0);
+    }
+
+    @Test
+    public void prewarm_ReusesIdleConnections() throws IOException {
+        prewarm(2);
+        prewarm(3);
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(3);
+    }
+
+    @Test
+    public void closeIdleConnections_LeavesMinimumOpen() throws IOException {
+        prewarm(3);
+        connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    public void closeIdleConnections_CountsLeasedConnectionsTowardsMinimum() throws Exception {
+        prewarm(3);
+        HttpClientConnection leased = connectionManager.requestConnection(route, null).get(1, TimeUnit.SECONDS);
+
+        connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(1);
+        assertThat(leased.isOpen()).isTrue();
+    }
+
+    @Test
+    public void closeIdleConnections_KeepsConnectionsThatAreNotIdleForLongEnough() throws IOException {
+        prewarm(3);
+        connectionManager.closeIdleConnections(1, TimeUnit.HOURS);
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(3);
+    }
+
+    @Test
+    public void prewarm_ConnectionsWithinFloorDoNotExpire() throws Exception {
+        new ConnectionPrewarmer(connectionManager, 1000, 1000, 1, 2).prewarm(route, 3, HttpClientContext.create());
+        Thread.sleep(10);
+
+        connectionManager.closeExpiredConnections();
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    public void keepAliveStrategy_ConnectionsWithinFloor_OnlyExpireWhenServerSaysSo() throws IOException {
+        prewarm(2);
+        assertThat(keepAliveStrategy().getKeepAliveDuration(response(null), routeContext())).isEqualTo(-1);
+        assertThat(keepAliveStrategy().getKeepAliveDuration(response("timeout=5"), routeContext())).isEqualTo(5000);
+    }
+
+    @Test
+    public void keepAliveStrategy_ConnectionsBeyondFloor_UseMaxIdleTime() throws IOException {
+        prewarm(3);
+        assertThat(keepAliveStrategy().getKeepAliveDuration(response(null), routeContext())).isEqualTo(1000);
+    }
+
+    private IdleConnectionFloorKeepAliveStrategy keepAliveStrategy() {
+        return new IdleConnectionFloorKeepAliveStrategy(new SdkConnectionKeepAliveStrategy(1000), connectionManager, 2);
+    }
+
+    private HttpClientContext routeContext() {
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(HttpClientContext.HTTP_ROUTE, route);
+        return context;
+    }
+
+    private static HttpResponse response(String keepAlive) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        if (keepAlive != null) {
+            response.addHeader("Keep-Alive", keepAlive);
+        }
+        return response;
+    }
+
+    private void prewarm(int connectionCount) throws IOException {
+        new ConnectionPrewarmer(connectionManager, 1000, 1000, 0, 0).prewarm(route, connectionCount, HttpClientContext.create());
+    }
+}
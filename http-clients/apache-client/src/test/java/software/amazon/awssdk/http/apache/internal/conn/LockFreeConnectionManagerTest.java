@@ -0,0 +1,277 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LockFreeConnectionManagerTest {
+    private ServerSocket server;
+    private HttpRoute route;
+    private LockFreeConnectionManager connectionManager;
+
+    @Before
+    public void setup() throws IOException {
+        // Connections are established in the server's backlog without being accepted
+        server = new ServerSocket(0, 100);
+        route = new HttpRoute(new HttpHost("localhost", server.getLocalPort(), "http"));
+        connectionManager = new LockFreeConnectionManager(
+            RegistryBuilder.<ConnectionSocketFactory>create()
+                           .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                           .build(),
+            null, 0, TimeUnit.MILLISECONDS, 2);
+        connectionManager.setDefaultMaxPerRoute(4);
+        connectionManager.setMaxTotal(4);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connectionManager.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void releasedConnection_IsReusedByNextLease() throws Exception {
+        HttpClientConnection first = leaseAndConnect();
+        String id = first.toString();
+        connectionManager.releaseConnection(first, null, 0, TimeUnit.MILLISECONDS);
+
+        HttpClientConnection second = lease();
+        assertThat(second.isOpen()).isTrue();
+        assertThat(second.toString()).isEqualTo(id);
+        assertThat(connectionManager.getStats(route).getLeased()).isEqualTo(1);
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(0);
+    }
+
+    @Test
+    public void releasedConnection_IsDetachedFromLease() throws Exception {
+        HttpClientConnection connection = leaseAndConnect();
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+
+        assertThat(connection.isOpen()).isFalse();
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    public void connectionThatIsNotOpen_IsDiscardedOnRelease() throws Exception {
+        connectionManager.releaseConnection(lease(), null, 0, TimeUnit.MILLISECONDS);
+
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(0);
+        assertThat(connectionManager.getStats(route).getLeased()).isEqualTo(0);
+    }
+
+    @Test
+    public void leaseBeyondRouteLimit_TimesOut() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            lease();
+        }
+
+        assertThatThrownBy(() -> connectionManager.requestConnection(route, null).get(50, TimeUnit.MILLISECONDS))
+            .isInstanceOf(ConnectionPoolTimeoutException.class);
+        assertThat(connectionManager.getStats(route).getPending()).isEqualTo(0);
+    }
+
+    @Test
+    public void waitingLease_GetsReleasedConnection() throws Exception {
+        List<HttpClientConnection> connections = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            connections.add(leaseAndConnect());
+        }
+        CompletableFuture<HttpClientConnection> waiting = CompletableFuture.supplyAsync(this::leaseUnchecked);
+        Thread.sleep(100);
+        assertThat(waiting).isNotDone();
+
+        connectionManager.releaseConnection(connections.get(0), null, 0, TimeUnit.MILLISECONDS);
+        assertThat(waiting.get(5, TimeUnit.SECONDS).isOpen()).isTrue();
+    }
+
+    @Test
+    public void cancelledLease_StopsWaiting() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            lease();
+        }
+        ConnectionRequest request = connectionManager.requestConnection(route, null);
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                request.get(0, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw new CancellationException(e.getCause().getMessage());
+            } catch (InterruptedException | ConnectionPoolTimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+
+        request.cancel();
+        assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void cancelledLease_DoesNotInterruptWaiter() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            lease();
+        }
+        ConnectionRequest request = connectionManager.requestConnection(route, null);
+        CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                request.get(0, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                interrupted.complete(Thread.currentThread().isInterrupted());
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+
+        request.cancel();
+        assertThat(interrupted.get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    public void interruptedLease_ThrowsInterruptedException() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            lease();
+        }
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                lease();
+            } catch (Exception e) {
+                failure.complete(e);
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+
+        waiter.interrupt();
+        assertThat(failure.get(5, TimeUnit.SECONDS)).isInstanceOf(InterruptedException.class);
+        assertThat(connectionManager.getStats(route).getPending()).isEqualTo(0);
+    }
+
+    @Test
+    public void shutdown_WakesWaitingLease() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            lease();
+        }
+        CompletableFuture<HttpClientConnection> waiting = CompletableFuture.supplyAsync(this::leaseUnchecked);
+        Thread.sleep(50);
+
+        connectionManager.shutdown();
+        assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS)).hasMessageContaining("Connection pool shut down");
+    }
+
+    @Test
+    public void closeIdleConnections_LeavesMinimumOpen() throws Exception {
+        List<HttpClientConnection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            connections.add(leaseAndConnect());
+        }
+        connections.forEach(c -> connectionManager.releaseConnection(c, null, 0, TimeUnit.MILLISECONDS));
+
+        connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    public void expiredConnection_IsNotReused() throws Exception {
+        HttpClientConnection connection = leaseAndConnect();
+        connectionManager.releaseConnection(connection, null, 1, TimeUnit.MILLISECONDS);
+        Thread.sleep(10);
+
+        assertThat(lease().isOpen()).isFalse();
+    }
+
+    @Test
+    public void shutdown_ClosesIdleConnectionsAndRejectsLeases() throws Exception {
+        HttpClientConnection connection = leaseAndConnect();
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+
+        connectionManager.shutdown();
+        assertThat(connectionManager.getStats(route).getAvailable()).isEqualTo(0);
+        assertThatThrownBy(this::lease).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void concurrentLeasesAndReleases_StayWithinRouteLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        HttpClientConnection connection = leaseAndConnect();
+                        assertThat(connectionManager.getStats(route).getLeased()).isLessThanOrEqualTo(4);
+                        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(connectionManager.getStats(route).getLeased()).isEqualTo(0);
+        assertThat(connectionManager.getStats(route).getAvailable()).isBetween(1, 4);
+    }
+
+    private HttpClientConnection lease() throws Exception {
+        return connectionManager.requestConnection(route, null).get(5, TimeUnit.SECONDS);
+    }
+
+    private HttpClientConnection leaseUnchecked() {
+        try {
+            return lease();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpClientConnection leaseAndConnect() throws Exception {
+        HttpClientConnection connection = lease();
+        if (!connection.isOpen()) {
+            connectionManager.connect(connection, route, 1000, HttpClientContext.create());
+            connectionManager.routeComplete(connection, route, HttpClientContext.create());
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.apache.internal.conn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SpreadingDnsResolverTest {
+
+    @Test
+    public void eachLookup_TriesADifferentAddressFirst() throws UnknownHostException {
+        InetAddress[] addresses = { InetAddress.getByAddress(new byte[] { 10, 0, 0, 1 }),
+                                    InetAddress.getByAddress(new byte[] { 10, 0, 0, 2 }) };
+        AtomicInteger lookups = new AtomicInteger();
+        SpreadingDnsResolver resolver = new SpreadingDnsResolver(host -> {
+            lookups.incrementAndGet();
+            return addresses;
+        }, Duration.ofMinutes(1));
+
+        assertThat(resolver.resolve("example.com")).containsExactly(addresses[0], addresses[1]);
+        assertThat(resolver.resolve("example.com")).containsExactly(addresses[1], addresses[0]);
+        assertThat(resolver.resolve("example.com")).containsExactly(addresses[0], addresses[1]);
+        assertThat(lookups).hasValue(1);
+    }
+}
@@ -483,7 +483,7 @@ public class ForkedHttp2MultiplexCodec extends Http2FrameCodec {
 
         void streamClosed() {
             streamClosedWithoutError = true;
-            if (readInProgress) {
+            if (readInProgress && (inboundBuffer == null || inboundBuffer.isEmpty())) {
                 // Just call closeForcibly() as this will take care of fireChannelInactive().
                 unsafe().closeForcibly();
             } else {
@@ -953,7 +953,8 @@ public class ForkedHttp2MultiplexCodec extends Http2FrameCodec {
                     allocHandle.readComplete();
                     pipeline().fireChannelReadComplete();
                     flush();
-                    if (closePending) {
+                    // Frames that didn't fit in this read are still queued, so the close has to wait for the next one.
+                    if (closePending && inboundBuffer.isEmpty()) {
                         unsafe.closeForcibly();
                     }
                 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty;
+
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+
+/**
+ * The stream statistics of one HTTP/2 connection of a {@link NettyNioAsyncHttpClient}. The values are read when the methods
+ * are called, so they keep changing while the connection is in use.
+ *
+ * <p>The connections of a client can be listed with {@link NettyNioAsyncHttpClient#http2ConnectionMetrics()}.
+ */
+@SdkPublicApi
+@ThreadSafe
+public interface Http2ConnectionMetrics {
+
+    /**
+     * @return The number of streams that are currently open on the connection.
+     */
+    long openStreams();
+
+    /**
+     * @return The most streams that have been open on the connection at once.
+     */
+    long peakOpenStreams();
+
+    /**
+     * @return The number of streams that have been opened on the connection since it was established.
+     */
+    long totalStreams();
+
+    /**
+     * @return The most streams the connection may have open at once. This is the server's MAX_CONCURRENT_STREAMS setting,
+     * capped by the client's own limit, once the server's settings have been received.
+     */
+    long maxConcurrentStreams();
+}
@@ -19,8 +19,10 @@ import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_MAX_IDLE_TIMEOUT;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_TIMEOUT;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_TIME_TO_LIVE;
+import static software.amazon.awssdk.http.SdkHttpConfigurationOption.DNS_CACHE_TTL;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.MAX_CONNECTIONS;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.MAX_PENDING_CONNECTION_ACQUIRES;
+import static software.amazon.awssdk.http.SdkHttpConfigurationOption.MIN_IDLE_CONNECTIONS;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.READ_TIMEOUT;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.REAP_IDLE_CONNECTIONS;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.WRITE_TIMEOUT;
@@ -29,30 +31,36 @@ import static software.amazon.awssdk.utils.FunctionalUtils.runAndLogError;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.pool.SimpleChannelPool;
-import io.netty.handler.codec.http2.Http2SecurityUtil;
 import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
-import io.netty.handler.ssl.SupportedCipherSuiteFilter;
-import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
-import javax.net.ssl.SSLException;
-import javax.net.ssl.TrustManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.annotations.SdkPublicApi;
 import software.amazon.awssdk.annotations.SdkTestInternalApi;
+import software.amazon.awssdk.http.DnsResolver;
 import software.amazon.awssdk.http.Protocol;
 import software.amazon.awssdk.http.SdkHttpConfigurationOption;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
 import software.amazon.awssdk.http.SdkHttpRequest;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
 import software.amazon.awssdk.http.async.AsyncExecuteRequest;
 import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
 import software.amazon.awssdk.http.nio.netty.internal.ChannelPipelineInitializer;
+import software.amazon.awssdk.http.nio.netty.internal.ConnectionPrewarmer;
+import software.amazon.awssdk.http.nio.netty.internal.EventLoopShardedChannelPool;
 import software.amazon.awssdk.http.nio.netty.internal.HandlerRemovingChannelPool;
 import software.amazon.awssdk.http.nio.netty.internal.HonorCloseOnReleaseChannelPool;
 import software.amazon.awssdk.http.nio.netty.internal.NettyConfiguration;
@@ -60,10 +68,13 @@ import software.amazon.awssdk.http.nio.netty.internal.NettyRequestExecutor;
 import software.amazon.awssdk.http.nio.netty.internal.NonManagedEventLoopGroup;
 import software.amazon.awssdk.http.nio.netty.internal.ReleaseOnceChannelPool;
 import software.amazon.awssdk.http.nio.netty.internal.RequestContext;
+import software.amazon.awssdk.http.nio.netty.internal.SdkAddressResolverGroup;
 import software.amazon.awssdk.http.nio.netty.internal.SdkChannelOptions;
 import software.amazon.awssdk.http.nio.netty.internal.SdkChannelPoolMap;
 import software.amazon.awssdk.http.nio.netty.internal.SharedSdkEventLoopGroup;
+import software.amazon.awssdk.http.nio.netty.internal.SharedSslContext;
 import software.amazon.awssdk.http.nio.netty.internal.http2.HttpOrHttp2ChannelPool;
+import software.amazon.awssdk.http.nio.netty.internal.http2.MultiplexedChannelRecord;
 import software.amazon.awssdk.utils.AttributeMap;
 import software.amazon.awssdk.utils.Either;
 import software.amazon.awssdk.utils.Validate;
@@ -82,13 +93,19 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
     private final SdkChannelOptions sdkChannelOptions;
     private final NettyConfiguration configuration;
     private final long maxStreams;
+    private final boolean eventLoopLocalConnectionPools;
+    private final SdkAddressResolverGroup addressResolverGroup;
+    private final Set<MultiplexedChannelRecord> http2Connections = ConcurrentHashMap.newKeySet();
+    private final TlsHandshakeMetrics tlsHandshakeMetrics = TlsHandshakeMetrics.create();
     private Protocol protocol;
 
     NettyNioAsyncHttpClient(DefaultBuilder builder, AttributeMap serviceDefaultsMap) {
         this.configuration = new NettyConfiguration(serviceDefaultsMap);
         this.protocol = serviceDefaultsMap.get(SdkHttpConfigurationOption.PROTOCOL);
         this.maxStreams = builder.maxHttp2Streams == null ? Integer.MAX_VALUE : builder.maxHttp2Streams;
+        this.eventLoopLocalConnectionPools = Boolean.TRUE.equals(builder.eventLoopLocalConnectionPools);
         this.sdkEventLoopGroup = eventLoopGroup(builder);
+        this.addressResolverGroup = addressResolverGroup(builder, serviceDefaultsMap.get(DNS_CACHE_TTL));
         this.pools = createChannelPoolMap();
         this.sdkChannelOptions = channelOptions(builder);
     }
@@ -104,6 +121,20 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
         this.sdkChannelOptions = sdkChannelOptions;
         this.configuration = configuration;
         this.maxStreams = maxStreams;
+        this.eventLoopLocalConnectionPools = false;
+        this.addressResolverGroup = null;
+    }
+
+    /**
+     * Creates the group that resolves hosts off the event loops, if a resolver or a cache TTL is configured. Otherwise hosts
+     * are resolved by Netty's default resolver, as they always have been.
+     */
+    private static SdkAddressResolverGroup addressResolverGroup(DefaultBuilder builder, Duration dnsCacheTtl) {
+        if (builder.dnsResolver == null && dnsCacheTtl.isZero()) {
+            return null;
+        }
+        return new SdkAddressResolverGroup(builder.dnsResolver == null ? DnsResolver.system() : builder.dnsResolver,
+                                           dnsCacheTtl);
     }
 
     private SdkChannelOptions channelOptions(DefaultBuilder builder) {
@@ -116,6 +147,45 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
         return new NettyRequestExecutor(ctx).execute();
     }
 
+    /**
+     * Opens connections to an endpoint ahead of the first requests to it, so those requests don't have to wait for the TCP
+     * and TLS handshakes. The connections are established at the same time, and returned to the connection pool once they
+     * are ready. For HTTP/2, enough connections are opened to carry {@code connectionCount} concurrent streams.
+     *
+     * <p>Idle connections are still closed after {@link Builder#connectionMaxIdleTime(Duration)}, down to
+     * {@link Builder#minIdleConnections(Integer)} connections per host, so pre-warming is best combined with a minimum that
+     * covers the connections it opens.</p>
+     *
+     * @param endpoint The endpoint to connect to. Only the scheme, host and port are used.
+     * @param connectionCount The number of connections to open, which is capped at the maximum concurrency.
+     * @return A future that completes when the connections are in the pool, or completes exceptionally if any of them could
+     * not be established.
+     */
+    public CompletableFuture<Void> prewarmConnections(URI endpoint, int connectionCount) {
+        Validate.paramNotNull(endpoint, "endpoint");
+        SdkHttpRequest request = SdkHttpFullRequest.builder().uri(endpoint).method(SdkHttpMethod.GET).build();
+        return ConnectionPrewarmer.prewarm(pools.get(poolKey(request)),
+                                           Math.min(connectionCount, configuration.maxConnections()));
+    }
+
+    /**
+     * Lists the HTTP/2 connections the client currently has open, with the stream statistics of each. The list is a snapshot
+     * of the open connections, but the statistics of each connection are read when its methods are called. Connections that
+     * use HTTP/1.1 are not included.
+     *
+     * @return The metrics of the open HTTP/2 connections, across all endpoints.
+     */
+    public List<Http2ConnectionMetrics> http2ConnectionMetrics() {
+        return Collections.unmodifiableList(new ArrayList<>(http2Connections));
+    }
+
+    /**
+     * @return The counts and latencies of the TLS handshakes of this client's connections.
+     */
+    public TlsHandshakeMetrics tlsHandshakeMetrics() {
+        return tlsHandshakeMetrics;
+    }
+
     public static Builder builder() {
         return new DefaultBuilder();
     }
@@ -142,19 +212,7 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
         if (!protocol.equalsIgnoreCase("https")) {
             return null;
         }
-        try {
-            return SslContextBuilder.forClient()
-                                    .sslProvider(SslContext.defaultClientProvider())
-                                    .ciphers(Http2SecurityUtil.CIPHERS, SupportedCipherSuiteFilter.INSTANCE)
-                                    .trustManager(getTrustManager())
-                                    .build();
-        } catch (SSLException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private TrustManagerFactory getTrustManager() {
-        return configuration.trustAllCertificates() ? InsecureTrustManagerFactory.INSTANCE : null;
+        return SharedSslContext.get(configuration.trustAllCertificates());
     }
 
     private SdkChannelPoolMap<URI, ChannelPool> createChannelPoolMap() {
@@ -170,17 +228,41 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
                         // TODO run some performance tests with and without this.
                         .remoteAddress(key.getHost(), key.getPort());
                 sdkChannelOptions.channelOptions().forEach(bootstrap::option);
+                if (addressResolverGroup != null) {
+                    bootstrap.resolver(addressResolverGroup);
+                }
 
                 AtomicReference<ChannelPool> channelPoolRef = new AtomicReference<>();
                 ChannelPipelineInitializer handler =
-                    new ChannelPipelineInitializer(protocol, sslContext, maxStreams, channelPoolRef, configuration);
-                channelPoolRef.set(createChannelPool(bootstrap, handler));
+                    new ChannelPipelineInitializer(protocol, sslContext, key, maxStreams, channelPoolRef, configuration,
+                                                   addressResolverGroup == null ? null : addressResolverGroup.addressSelector(),
+                                                   tlsHandshakeMetrics);
+                if (eventLoopLocalConnectionPools) {
+                    channelPoolRef.set(createEventLoopShardedChannelPool(bootstrap, handler));
+                } else {
+                    channelPoolRef.set(createChannelPool(bootstrap, handler, configuration.maxConnections(),
+                                                         configuration.maxPendingConnectionAcquires()));
+                }
                 return channelPoolRef.get();
             }
         };
     }
 
-    private ChannelPool createChannelPool(Bootstrap bootstrap, ChannelPipelineInitializer handler) {
+    private ChannelPool createEventLoopShardedChannelPool(Bootstrap bootstrap, ChannelPipelineInitializer handler) {
+        List<EventLoop> eventLoops = new ArrayList<>();
+        sdkEventLoopGroup.eventLoopGroup().forEach(e -> eventLoops.add((EventLoop) e));
+        // Each shard is a complete pool bound to one event loop, so a channel is always acquired and released on the loop
+        // it's registered with. Shards already guard against double releases.
+        return EventLoopShardedChannelPool.create(
+            eventLoops,
+            configuration.maxConnections(),
+            configuration.maxPendingConnectionAcquires(),
+            (eventLoop, maxConcurrency, maxPendingAcquires) ->
+                createChannelPool(bootstrap.clone(eventLoop), handler, maxConcurrency, maxPendingAcquires));
+    }
+
+    private ChannelPool createChannelPool(Bootstrap bootstrap, ChannelPipelineInitializer handler, int maxConcurrency,
+                                          int maxPendingAcquires) {
         // Create a simple channel pool for pooling raw TCP connections to the service.
         ChannelPool channelPool = new SimpleChannelPool(bootstrap, handler);
 
@@ -190,8 +272,10 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
         // Wrap the channel pool such that HTTP 2 channels won't be released to the underlying pool while they're still in use.
         channelPool = new HttpOrHttp2ChannelPool(channelPool,
                                                  bootstrap,
-                                                 configuration.maxConnections(),
-                                                 configuration);
+                                                 maxConcurrency,
+                                                 maxPendingAcquires,
+                                                 configuration,
+                                                 http2Connections);
 
 
         // Wrap the channel pool such that we remove request-specific handlers with each request.
@@ -211,6 +295,9 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
     @Override
     public void close() {
         runAndLogError(log, "Unable to close channel pools", pools::close);
+        if (addressResolverGroup != null) {
+            runAndLogError(log, "Unable to close address resolvers", addressResolverGroup::close);
+        }
         runAndLogError(log, "Unable to shutdown event loop", sdkEventLoopGroup.eventLoopGroup()::shutdownGracefully);
     }
 
@@ -301,6 +388,15 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
          */
         Builder useIdleConnectionReaper(Boolean useConnectionReaper);
 
+        /**
+         * Configure the number of connections to each host that are kept open when idle connections are closed. Connections
+         * that have been idle for longer than {@link #connectionMaxIdleTime(Duration)} are only closed while more than this
+         * many connections to their host are open. By default, this is 0.
+         *
+         * @see NettyNioAsyncHttpClient#prewarmConnections(URI, int)
+         */
+        Builder minIdleConnections(Integer minIdleConnections);
+
         /**
          * Sets the {@link SdkEventLoopGroup} to use for the Netty HTTP client. This event loop group may be shared
          * across multiple HTTP clients for better resource and thread utilization. The preferred way to create
@@ -368,6 +464,44 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
          * @return This builder for method chaining.
          */
         Builder maxHttp2Streams(Integer maxHttp2Streams);
+
+        /**
+         * Configure whether each event loop should own its own share of the connections to an endpoint. When enabled, the
+         * connections to an endpoint are split across the event loops of the {@link SdkEventLoopGroup}, and a connection is
+         * acquired from the pool of the calling event loop (or a round-robin choice for other threads), falling back to the
+         * least loaded event loop once its share is exhausted. {@link #maxConcurrency(Integer)} and
+         * {@link #maxPendingConnectionAcquires(Integer)} are split evenly between the event loops.
+         *
+         * <p>By default this is disabled, and all connections to an endpoint are managed by a single event loop.</p>
+         *
+         * @param eventLoopLocalConnectionPools Whether to shard the connection pool of each endpoint by event loop.
+         * @return This builder for method chaining.
+         */
+        Builder eventLoopLocalConnectionPools(Boolean eventLoopLocalConnectionPools);
+
+        /**
+         * Sets the {@link DnsResolver} that resolves the hosts the client connects to. The resolver is called from a small
+         * thread pool owned by the client rather than from the event loops, so it may block. By default, hosts are resolved by
+         * Netty's default resolver.
+         *
+         * <p>When a resolver or a {@link #dnsCacheTtl(Duration)} is configured, new connections to a host that resolves to
+         * several addresses are opened to the address with the fewest open connections, so that the connections are spread
+         * over all of them.</p>
+         *
+         * @param dnsResolver The resolver to use.
+         * @return This builder for method chaining.
+         */
+        Builder dnsResolver(DnsResolver dnsResolver);
+
+        /**
+         * Configure how long the addresses a host resolved to are reused for new connections before the host is resolved
+         * again. This caching comes on top of any caching done by the {@link #dnsResolver(DnsResolver)}. Zero disables it.
+         * By default, this is disabled.
+         *
+         * @param dnsCacheTtl How long resolved addresses are reused.
+         * @return This builder for method chaining.
+         */
+        Builder dnsCacheTtl(Duration dnsCacheTtl);
     }
 
     /**
@@ -383,6 +517,8 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
         private SdkEventLoopGroup eventLoopGroup;
         private SdkEventLoopGroup.Builder eventLoopGroupBuilder;
         private Integer maxHttp2Streams;
+        private Boolean eventLoopLocalConnectionPools;
+        private DnsResolver dnsResolver;
 
         private DefaultBuilder() {
         }
@@ -518,6 +654,19 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
             useIdleConnectionReaper(useIdleConnectionReaper);
         }
 
+        @Override
+        public Builder minIdleConnections(Integer minIdleConnections) {
+            if (minIdleConnections != null) {
+                Validate.isNotNegative(minIdleConnections, "minIdleConnections");
+            }
+            standardOptions.put(MIN_IDLE_CONNECTIONS, minIdleConnections);
+            return this;
+        }
+
+        public void setMinIdleConnections(Integer minIdleConnections) {
+            minIdleConnections(minIdleConnections);
+        }
+
         @Override
         public Builder eventLoopGroup(SdkEventLoopGroup eventLoopGroup) {
             this.eventLoopGroup = eventLoopGroup;
@@ -564,6 +713,37 @@ public final class NettyNioAsyncHttpClient implements SdkAsyncHttpClient {
             maxHttp2Streams(maxHttp2Streams);
         }
 
+        @Override
+        public Builder eventLoopLocalConnectionPools(Boolean eventLoopLocalConnectionPools) {
+            this.eventLoopLocalConnectionPools = eventLoopLocalConnectionPools;
+            return this;
+        }
+
+        public void setEventLoopLocalConnectionPools(Boolean eventLoopLocalConnectionPools) {
+            eventLoopLocalConnectionPools(eventLoopLocalConnectionPools);
+        }
+
+        @Override
+        public Builder dnsResolver(DnsResolver dnsResolver) {
+            this.dnsResolver = dnsResolver;
+            return this;
+        }
+
+        public void setDnsResolver(DnsResolver dnsResolver) {
+            dnsResolver(dnsResolver);
+        }
+
+        @Override
+        public Builder dnsCacheTtl(Duration dnsCacheTtl) {
+            Validate.isNotNegative(dnsCacheTtl, "dnsCacheTtl");
+            standardOptions.put(DNS_CACHE_TTL, dnsCacheTtl);
+            return this;
+        }
+
+        public void setDnsCacheTtl(Duration dnsCacheTtl) {
+            dnsCacheTtl(dnsCacheTtl);
+        }
+
         @Override
         public SdkAsyncHttpClient buildWithDefaults(AttributeMap serviceDefaults) {
             return new NettyNioAsyncHttpClient(this, standardOptions.build()
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import org.reactivestreams.Publisher;
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ContentStreamProvider;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.Protocol;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpRequest;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+import software.amazon.awssdk.http.nio.netty.internal.InputStreamPublisher;
+import software.amazon.awssdk.http.nio.netty.internal.SubscriberInputStream;
+import software.amazon.awssdk.utils.AttributeMap;
+
+/**
+ * An implementation of {@link SdkHttpClient} that runs blocking requests on the Netty non-blocking HTTP client, so that they
+ * can be multiplexed over a small number of HTTP/2 connections. Each in-flight request is an HTTP/2 stream rather than a
+ * connection of its own, so a large number of concurrent callers need only
+ * {@code maxConcurrency / maxHttp2Streams} connections to a host instead of one each.
+ *
+ * <p>The calling thread is blocked until the response headers arrive, and the response body is streamed to it as it reads
+ * the returned stream. The request body is read on the calling thread as well, so the event loops never block on the
+ * caller's I/O.</p>
+ *
+ * <p>HTTP/2 is used by default, and is negotiated with prior knowledge, so the service must support it. Not all services
+ * do; {@link Builder#protocol(Protocol)} can switch the client to HTTP/1.1.</p>
+ *
+ * <p>This can be created via {@link #builder()}</p>
+ */
+@SdkPublicApi
+public final class NettySyncHttpClient implements SdkHttpClient {
+    private final SdkAsyncHttpClient delegate;
+
+    private NettySyncHttpClient(SdkAsyncHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    public static Builder builder() {
+        return new DefaultBuilder();
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+        return new NettyExecutableHttpRequest(delegate, request);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Builder that allows configuration of the synchronous Netty HTTP client. Use {@link #builder()} to configure and
+     * construct a client.
+     *
+     * @see NettyNioAsyncHttpClient.Builder
+     */
+    public interface Builder extends SdkHttpClient.Builder<NettySyncHttpClient.Builder> {
+
+        /**
+         * Maximum number of allowed concurrent requests. For HTTP/1.1 this is the same as max connections. For HTTP/2
+         * the number of connections that will be used depends on {@link #maxHttp2Streams(Integer)}.
+         *
+         * @param maxConcurrency New value for max concurrency.
+         * @return This builder for method chaining.
+         */
+        Builder maxConcurrency(Integer maxConcurrency);
+
+        /**
+         * Sets the max number of concurrent streams for an HTTP/2 connection. This cannot exceed the MAX_CONCURRENT_STREAMS
+         * setting returned by the service; if it does the service setting is used instead.
+         *
+         * @param maxHttp2Streams Max concurrent HTTP/2 streams per connection.
+         * @return This builder for method chaining.
+         */
+        Builder maxHttp2Streams(Integer maxHttp2Streams);
+
+        /**
+         * The maximum number of requests allowed to wait for a stream or connection. Once this is exceeded, requests are
+         * failed.
+         *
+         * @param maxPendingAcquires Max number of pending acquires
+         * @return This builder for method chaining.
+         */
+        Builder maxPendingConnectionAcquires(Integer maxPendingAcquires);
+
+        /**
+         * Sets the HTTP protocol to use (i.e. HTTP/1.1 or HTTP/2). By default, this is HTTP/2.
+         *
+         * @param protocol Protocol to use.
+         * @return This builder for method chaining.
+         */
+        Builder protocol(Protocol protocol);
+
+        /**
+         * The amount of time to wait for a read on a socket before an exception is thrown.
+         *
+         * @param readTimeout timeout duration
+         * @return this builder for method chaining.
+         */
+        Builder readTimeout(Duration readTimeout);
+
+        /**
+         * The amount of time to wait for a write on a socket before an exception is thrown.
+         *
+         * @param writeTimeout timeout duration
+         * @return this builder for method chaining.
+         */
+        Builder writeTimeout(Duration writeTimeout);
+
+        /**
+         * The amount of time to wait when initially establishing a connection before giving up and timing out.
+         *
+         * @param timeout the timeout duration
+         * @return this builder for method chaining.
+         */
+        Builder connectionTimeout(Duration timeout);
+
+        /**
+         * The amount of time to wait when acquiring a stream or connection from the pool before giving up and timing out.
+         *
+         * @param connectionAcquisitionTimeout the timeout duration
+         * @return this builder for method chaining.
+         */
+        Builder connectionAcquisitionTimeout(Duration connectionAcquisitionTimeout);
+
+        /**
+         * Sets the {@link SdkEventLoopGroup} that runs the connections of the client. The group is not closed when the client
+         * is closed. By default, an event loop group shared by all Netty HTTP clients is used.
+         *
+         * @param eventLoopGroup Netty {@link SdkEventLoopGroup} to use.
+         * @return This builder for method chaining.
+         * @see NettyNioAsyncHttpClient.Builder#eventLoopGroup(SdkEventLoopGroup)
+         */
+        Builder eventLoopGroup(SdkEventLoopGroup eventLoopGroup);
+    }
+
+    private static final class DefaultBuilder implements Builder {
+        private final NettyNioAsyncHttpClient.Builder asyncBuilder = NettyNioAsyncHttpClient.builder()
+                                                                                             .protocol(Protocol.HTTP2);
+
+        private DefaultBuilder() {
+        }
+
+        @Override
+        public Builder maxConcurrency(Integer maxConcurrency) {
+            asyncBuilder.maxConcurrency(maxConcurrency);
+            return this;
+        }
+
+        public void setMaxConcurrency(Integer maxConcurrency) {
+            maxConcurrency(maxConcurrency);
+        }
+
+        @Override
+        public Builder maxHttp2Streams(Integer maxHttp2Streams) {
+            asyncBuilder.maxHttp2Streams(maxHttp2Streams);
+            return this;
+        }
+
+        public void setMaxHttp2Streams(Integer maxHttp2Streams) {
+            maxHttp2Streams(maxHttp2Streams);
+        }
+
+        @Override
+        public Builder maxPendingConnectionAcquires(Integer maxPendingAcquires) {
+            asyncBuilder.maxPendingConnectionAcquires(maxPendingAcquires);
+            return this;
+        }
+
+        public void setMaxPendingConnectionAcquires(Integer maxPendingAcquires) {
+            maxPendingConnectionAcquires(maxPendingAcquires);
+        }
+
+        @Override
+        public Builder protocol(Protocol protocol) {
+            asyncBuilder.protocol(protocol);
+            return this;
+        }
+
+        public void setProtocol(Protocol protocol) {
+            protocol(protocol);
+        }
+
+        @Override
+        public Builder readTimeout(Duration readTimeout) {
+            asyncBuilder.readTimeout(readTimeout);
+            return this;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            readTimeout(readTimeout);
+        }
+
+        @Override
+        public Builder writeTimeout(Duration writeTimeout) {
+            asyncBuilder.writeTimeout(writeTimeout);
+            return this;
+        }
+
+        public void setWriteTimeout(Duration writeTimeout) {
+            writeTimeout(writeTimeout);
+        }
+
+        @Override
+        public Builder connectionTimeout(Duration timeout) {
+            asyncBuilder.connectionTimeout(timeout);
+            return this;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            connectionTimeout(connectionTimeout);
+        }
+
+        @Override
+        public Builder connectionAcquisitionTimeout(Duration connectionAcquisitionTimeout) {
+            asyncBuilder.connectionAcquisitionTimeout(connectionAcquisitionTimeout);
+            return this;
+        }
+
+        public void setConnectionAcquisitionTimeout(Duration connectionAcquisitionTimeout) {
+            connectionAcquisitionTimeout(connectionAcquisitionTimeout);
+        }
+
+        @Override
+        public Builder eventLoopGroup(SdkEventLoopGroup eventLoopGroup) {
+            asyncBuilder.eventLoopGroup(eventLoopGroup);
+            return this;
+        }
+
+        public void setEventLoopGroup(SdkEventLoopGroup eventLoopGroup) {
+            eventLoopGroup(eventLoopGroup);
+        }
+
+        @Override
+        public SdkHttpClient buildWithDefaults(AttributeMap serviceDefaults) {
+            return new NettySyncHttpClient(asyncBuilder.buildWithDefaults(serviceDefaults));
+        }
+    }
+
+    /**
+     * A single blocking request, which is also the handler of the asynchronous request it's run as.
+     */
+    private static final class NettyExecutableHttpRequest implements ExecutableHttpRequest, SdkAsyncHttpResponseHandler {
+        private final SdkAsyncHttpClient delegate;
+        private final HttpExecuteRequest request;
+        private final CompletableFuture<SdkHttpResponse> responseHeaders = new CompletableFuture<>();
+        private final SubscriberInputStream responseBody = new SubscriberInputStream();
+        private volatile InputStreamPublisher requestContent;
+        private volatile CompletableFuture<Void> executeFuture;
+        private volatile boolean aborted;
+
+        private NettyExecutableHttpRequest(SdkAsyncHttpClient delegate, HttpExecuteRequest request) {
+            this.delegate = delegate;
+            this.request = request;
+        }
+
+        @Override
+        public HttpExecuteResponse call() throws IOException {
+            SdkHttpRequest httpRequest = request.httpRequest();
+            InputStream content = request.contentStreamProvider().map(ContentStreamProvider::newStream).orElse(null);
+            InputStreamPublisher publisher = new InputStreamPublisher(content, contentLength(httpRequest));
+            requestContent = publisher;
+            if (aborted) {
+                throw new IOException("Request was aborted");
+            }
+
+            executeFuture = delegate.execute(AsyncExecuteRequest.builder()
+                                                                .request(httpRequest)
+                                                                .requestContentPublisher(publisher)
+                                                                .responseHandler(this)
+                                                                .build());
+            // The request body has been written in full by the time the response arrives, or the request has failed.
+            responseHeaders.whenComplete((r, t) -> publisher.cancel());
+            executeFuture.whenComplete(this::onExecuteComplete);
+            if (aborted) {
+                abort();
+            }
+
+            try {
+                publisher.publish();
+                SdkHttpResponse response = responseHeaders.get();
+                return HttpExecuteResponse.builder()
+                                          .response(response)
+                                          .responseBody(AbortableInputStream.create(responseBody, this::abort))
+                                          .build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort();
+                throw new InterruptedIOException("Interrupted while waiting for the response");
+            } catch (ExecutionException e) {
+                throw toIoException(e.getCause());
+            } catch (IOException | RuntimeException e) {
+                abort();
+                throw e;
+            }
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+            IOException cause = new IOException("Request was aborted");
+            responseHeaders.completeExceptionally(cause);
+            responseBody.close();
+            InputStreamPublisher content = requestContent;
+            if (content != null) {
+                content.cancel();
+            }
+            CompletableFuture<Void> future = executeFuture;
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+
+        private void onExecuteComplete(Void result, Throwable error) {
+            requestContent.cancel();
+            if (error != null) {
+                onError(error);
+            }
+        }
+
+        @Override
+        public void onHeaders(SdkHttpResponse headers) {
+            responseHeaders.complete(headers);
+        }
+
+        @Override
+        public void onStream(Publisher<ByteBuffer> stream) {
+            stream.subscribe(responseBody);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            responseHeaders.completeExceptionally(error);
+            responseBody.onError(error);
+        }
+
+        private static Long contentLength(SdkHttpRequest request) {
+            return request.firstMatchingHeader("Content-Length").map(Long::parseLong).orElse(null);
+        }
+
+        private static IOException toIoException(Throwable cause) {
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                return (IOException) cause;
+            }
+            return new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -18,12 +18,17 @@ package software.amazon.awssdk.http.nio.netty;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import java.util.Optional;
 import java.util.concurrent.ThreadFactory;
 import software.amazon.awssdk.annotations.SdkPublicApi;
 import software.amazon.awssdk.http.nio.netty.internal.utils.SocketChannelResolver;
+import software.amazon.awssdk.utils.Logger;
 import software.amazon.awssdk.utils.ThreadFactoryBuilder;
 import software.amazon.awssdk.utils.Validate;
 
@@ -48,23 +53,29 @@ import software.amazon.awssdk.utils.Validate;
  */
 @SdkPublicApi
 public final class SdkEventLoopGroup {
+    private static final Logger log = Logger.loggerFor(SdkEventLoopGroup.class);
 
     private final EventLoopGroup eventLoopGroup;
     private final ChannelFactory<? extends Channel> channelFactory;
+    private final TransportType transportType;
 
     SdkEventLoopGroup(EventLoopGroup eventLoopGroup, ChannelFactory<? extends Channel> channelFactory) {
         Validate.paramNotNull(eventLoopGroup, "eventLoopGroup");
         Validate.paramNotNull(channelFactory, "channelFactory");
         this.eventLoopGroup = eventLoopGroup;
         this.channelFactory = channelFactory;
+        this.transportType = null;
     }
 
     /**
      * Create an instance of {@link SdkEventLoopGroup} from the builder
      */
     private SdkEventLoopGroup(DefaultBuilder builder) {
+        // NIO stays the default until it's understood why epoll raises channel inactive after a successful response, which
+        // causes problems with retries.
+        this.transportType = resolveTransportType(Optional.ofNullable(builder.transportType).orElse(TransportType.NIO));
         this.eventLoopGroup = resolveEventLoopGroup(builder);
-        this.channelFactory = resolveChannelFactory();
+        this.channelFactory = resolveChannelFactory(builder);
     }
 
     /**
@@ -81,6 +92,14 @@ public final class SdkEventLoopGroup {
         return channelFactory;
     }
 
+    /**
+     * @return The transport used by this event loop group, after falling back from any transport that wasn't available,
+     * or empty if the event loop group was provided with {@link #create(EventLoopGroup, ChannelFactory)}.
+     */
+    public Optional<TransportType> transportType() {
+        return Optional.ofNullable(transportType);
+    }
+
     /**
      * Creates a new instance of SdkEventLoopGroup with {@link EventLoopGroup} and {@link ChannelFactory}
      * to be used with {@link NettyNioAsyncHttpClient}.
@@ -116,23 +135,31 @@ public final class SdkEventLoopGroup {
         ThreadFactory threadFactory = Optional.ofNullable(builder.threadFactory)
                                               .orElse(new ThreadFactoryBuilder().threadNamePrefix("aws-java-sdk-NettyEventLoop")
                                                                                 .build());
+        if (transportType == TransportType.EPOLL) {
+            return new EpollEventLoopGroup(numThreads, threadFactory);
+        }
         return new NioEventLoopGroup(numThreads, threadFactory);
-        /*
-        Need to investigate why epoll is raising channel inactive after successful response that causes
-        problems with retries.
-
-        if (Epoll.isAvailable() && isNotAwsLambda()) {
-            return new EpollEventLoopGroup(numThreads, resolveThreadFactory());
-        } else {
-
-        }*/
     }
 
-    private ChannelFactory<? extends Channel> resolveChannelFactory() {
-        // Currently we only support NioEventLoopGroup
+    private ChannelFactory<? extends Channel> resolveChannelFactory(DefaultBuilder builder) {
+        if (transportType == TransportType.EPOLL) {
+            return new EpollSocketChannelFactory(Boolean.TRUE.equals(builder.tcpQuickAck),
+                                                 Boolean.TRUE.equals(builder.tcpFastOpenConnect));
+        }
         return NioSocketChannel::new;
     }
 
+    /**
+     * Returns the requested transport if it's available, otherwise NIO.
+     */
+    private static TransportType resolveTransportType(TransportType requested) {
+        if (requested == TransportType.EPOLL && !Epoll.isAvailable()) {
+            log.warn(() -> "The " + requested + " transport is not available, falling back to " + TransportType.NIO + ".");
+            return TransportType.NIO;
+        }
+        return requested;
+    }
+
     /**
      * A builder for {@link SdkEventLoopGroup}.
      *
@@ -159,6 +186,35 @@ public final class SdkEventLoopGroup {
          */
         Builder threadFactory(ThreadFactory threadFactory);
 
+        /**
+         * The socket transport to use. If the transport isn't available on this platform, {@link TransportType#NIO} is used
+         * instead. If not set, {@link TransportType#NIO} is used.
+         *
+         * @param transportType Transport to use.
+         * @return This builder for method chaining.
+         * @see SdkEventLoopGroup#transportType()
+         */
+        Builder transportType(TransportType transportType);
+
+        /**
+         * Whether to enable TCP_QUICKACK on each connection, so the kernel acknowledges received data immediately instead of
+         * delaying the acknowledgement. Only used with the {@link TransportType#EPOLL} transport. Defaults to false.
+         *
+         * @param tcpQuickAck Whether to enable TCP_QUICKACK.
+         * @return This builder for method chaining.
+         */
+        Builder tcpQuickAck(Boolean tcpQuickAck);
+
+        /**
+         * Whether to enable TCP_FASTOPEN_CONNECT on each connection, so data can be sent with the SYN when connecting to a
+         * server that has been connected to before. Only used with the {@link TransportType#EPOLL} transport, and requires
+         * TCP Fast Open to be enabled for clients in the kernel. Defaults to false.
+         *
+         * @param tcpFastOpenConnect Whether to enable TCP_FASTOPEN_CONNECT.
+         * @return This builder for method chaining.
+         */
+        Builder tcpFastOpenConnect(Boolean tcpFastOpenConnect);
+
         SdkEventLoopGroup build();
     }
 
@@ -166,6 +222,9 @@ public final class SdkEventLoopGroup {
 
         private Integer numberOfThreads;
         private ThreadFactory threadFactory;
+        private TransportType transportType;
+        private Boolean tcpQuickAck;
+        private Boolean tcpFastOpenConnect;
 
         private DefaultBuilder() {
         }
@@ -190,9 +249,65 @@ public final class SdkEventLoopGroup {
             threadFactory(threadFactory);
         }
 
+        @Override
+        public Builder transportType(TransportType transportType) {
+            this.transportType = transportType;
+            return this;
+        }
+
+        public void setTransportType(TransportType transportType) {
+            transportType(transportType);
+        }
+
+        @Override
+        public Builder tcpQuickAck(Boolean tcpQuickAck) {
+            this.tcpQuickAck = tcpQuickAck;
+            return this;
+        }
+
+        public void setTcpQuickAck(Boolean tcpQuickAck) {
+            tcpQuickAck(tcpQuickAck);
+        }
+
+        @Override
+        public Builder tcpFastOpenConnect(Boolean tcpFastOpenConnect) {
+            this.tcpFastOpenConnect = tcpFastOpenConnect;
+            return this;
+        }
+
+        public void setTcpFastOpenConnect(Boolean tcpFastOpenConnect) {
+            tcpFastOpenConnect(tcpFastOpenConnect);
+        }
+
         @Override
         public SdkEventLoopGroup build() {
             return new SdkEventLoopGroup(this);
         }
     }
+
+    /**
+     * Creates edge-triggered epoll socket channels with the configured TCP options.
+     */
+    private static final class EpollSocketChannelFactory implements ChannelFactory<EpollSocketChannel> {
+        private final boolean tcpQuickAck;
+        private final boolean tcpFastOpenConnect;
+
+        private EpollSocketChannelFactory(boolean tcpQuickAck, boolean tcpFastOpenConnect) {
+            this.tcpQuickAck = tcpQuickAck;
+            this.tcpFastOpenConnect = tcpFastOpenConnect;
+        }
+
+        @Override
+        public EpollSocketChannel newChannel() {
+            EpollSocketChannel channel = new EpollSocketChannel();
+            channel.config().setEpollMode(EpollMode.EDGE_TRIGGERED);
+            if (tcpQuickAck) {
+                channel.config().setTcpQuickAck(true);
+            }
+            if (tcpFastOpenConnect) {
+                channel.config().setTcpFastOpenConnect(true);
+            }
+            return channel;
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty;
+
+import software.amazon.awssdk.annotations.SdkPublicApi;
+
+/**
+ * The socket transport used by an {@link SdkEventLoopGroup} created with {@link SdkEventLoopGroup#builder()}.
+ *
+ * <p>The epoll transport is only available on Linux, and only when its native library can be loaded. When it isn't
+ * available, {@link #NIO} is used instead.
+ *
+ * @see SdkEventLoopGroup.Builder#transportType(TransportType)
+ */
+@SdkPublicApi
+public enum TransportType {
+    /**
+     * The JDK's non-blocking socket transport, which is available everywhere. This is the default.
+     */
+    NIO,
+
+    /**
+     * Netty's native epoll transport, used in edge-triggered mode. This is included with the client, and is available on
+     * Linux x86_64. Epoll channels have been seen to become inactive after a successful response, which can interfere
+     * with retries, so this should be tested with the workload before it is used.
+     */
+    EPOLL
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.http.LeastConnectionsAddressSelector;
+
+/**
+ * Reports a connection to the {@link LeastConnectionsAddressSelector} that picked its address once it is established, and
+ * again when it is closed. It removes itself once the channel is active.
+ */
+@SdkInternalApi
+public final class AddressConnectionCountHandler extends ChannelInboundHandlerAdapter {
+    private final LeastConnectionsAddressSelector addressSelector;
+
+    public AddressConnectionCountHandler(LeastConnectionsAddressSelector addressSelector) {
+        this.addressSelector = addressSelector;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        SocketAddress remoteAddress = ctx.channel().remoteAddress();
+        if (remoteAddress instanceof InetSocketAddress) {
+            InetAddress address = ((InetSocketAddress) remoteAddress).getAddress();
+            addressSelector.connectionOpened(address);
+            ctx.channel().closeFuture().addListener(f -> addressSelector.connectionClosed(address));
+        }
+        ctx.pipeline().remove(this);
+        ctx.fireChannelActive();
+    }
+}
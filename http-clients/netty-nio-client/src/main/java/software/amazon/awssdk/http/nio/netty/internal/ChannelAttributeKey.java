@@ -48,6 +48,13 @@ public final class ChannelAttributeKey {
     public static final AttributeKey<Long> MAX_CONCURRENT_STREAMS = AttributeKey.newInstance(
         "aws.http.nio.netty.async.maxConcurrentStreams");
 
+    /**
+     * Whether the service has ended the HTTP/2 stream, so the whole response has been received even if it hasn't all been
+     * published to the subscriber yet. The stream's channel is closed once the stream has ended.
+     */
+    public static final AttributeKey<Boolean> STREAM_END_RECEIVED = AttributeKey.newInstance(
+        "aws.http.nio.netty.async.streamEndReceived");
+
     /**
      * Attribute key for {@link RequestContext}.
      */
@@ -35,11 +35,14 @@ import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.SslContext;
 import java.io.IOException;
+import java.net.URI;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.http.LeastConnectionsAddressSelector;
 import software.amazon.awssdk.http.Protocol;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
 import software.amazon.awssdk.http.nio.netty.internal.http2.MultiplexedChannelRecord;
 
 /**
@@ -49,28 +52,50 @@ import software.amazon.awssdk.http.nio.netty.internal.http2.MultiplexedChannelRe
 public class ChannelPipelineInitializer extends AbstractChannelPoolHandler {
     private final Protocol protocol;
     private final SslContext sslCtx;
+    private final URI poolKey;
     private final long clientMaxStreams;
     private final AtomicReference<ChannelPool> channelPoolRef;
     private final NettyConfiguration configuration;
+    private final IdleConnectionFloor idleConnectionFloor;
+    private final LeastConnectionsAddressSelector addressSelector;
+    private final TlsHandshakeMetrics tlsHandshakeMetrics;
 
     public ChannelPipelineInitializer(Protocol protocol,
                                       SslContext sslCtx,
+                                      URI poolKey,
                                       long clientMaxStreams,
                                       AtomicReference<ChannelPool> channelPoolRef,
-                                      NettyConfiguration configuration) {
+                                      NettyConfiguration configuration,
+                                      LeastConnectionsAddressSelector addressSelector,
+                                      TlsHandshakeMetrics tlsHandshakeMetrics) {
         this.protocol = protocol;
         this.sslCtx = sslCtx;
+        this.poolKey = poolKey;
         this.clientMaxStreams = clientMaxStreams;
         this.channelPoolRef = channelPoolRef;
         this.configuration = configuration;
+        this.idleConnectionFloor = configuration.minIdleConnections() > 0
+                                   ? new IdleConnectionFloor(configuration.minIdleConnections())
+                                   : null;
+        this.addressSelector = addressSelector;
+        this.tlsHandshakeMetrics = tlsHandshakeMetrics;
     }
 
     @Override
     public void channelCreated(Channel ch) {
         ch.attr(PROTOCOL_FUTURE).set(new CompletableFuture<>());
+        if (idleConnectionFloor != null) {
+            idleConnectionFloor.connectionCreated(ch);
+        }
         ChannelPipeline pipeline = ch.pipeline();
+        if (addressSelector != null) {
+            pipeline.addLast(new AddressConnectionCountHandler(addressSelector));
+        }
         if (sslCtx != null) {
-            pipeline.addLast(sslCtx.newHandler(ch.alloc()));
+            pipeline.addLast(new TlsHandshakeMetricsHandler(tlsHandshakeMetrics));
+            // The peer's host and port identify the sessions that the handshake may resume. With the JDK provider, the host
+            // is also sent as the SNI server name.
+            pipeline.addLast(sslCtx.newHandler(ch.alloc(), poolKey.getHost(), poolKey.getPort()));
             pipeline.addLast(new SslCloseCompletionEventHandler());
         }
 
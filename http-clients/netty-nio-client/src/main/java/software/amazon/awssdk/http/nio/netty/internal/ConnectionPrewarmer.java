@@ -0,0 +1,110 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import io.netty.channel.Channel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+
+/**
+ * Establishes connections in a channel pool ahead of the requests that will use them.
+ *
+ * <p>The requested number of channels is acquired from the pool at once, so each needs its own connection unless the pool
+ * already has enough idle ones. Once every connection has completed its TLS handshake (if any), all of the channels are
+ * released back to the pool. For HTTP/2 each channel is a stream, so only as many connections are opened as are needed to
+ * carry that many concurrent streams.
+ */
+@SdkInternalApi
+public final class ConnectionPrewarmer {
+    private final ChannelPool pool;
+    private final int connectionCount;
+    private final List<Channel> acquired = new ArrayList<>();
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    private int outstanding;
+    private Throwable failure;
+
+    private ConnectionPrewarmer(ChannelPool pool, int connectionCount) {
+        this.pool = pool;
+        this.connectionCount = connectionCount;
+        this.outstanding = connectionCount;
+    }
+
+    /**
+     * Opens up to {@code connectionCount} connections in the given pool.
+     *
+     * @return A future that completes when the connections have been established and released to the pool, or completes
+     * exceptionally with the first failure after releasing the connections that were established.
+     */
+    public static CompletableFuture<Void> prewarm(ChannelPool pool, int connectionCount) {
+        if (connectionCount <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return new ConnectionPrewarmer(pool, connectionCount).start();
+    }
+
+    private CompletableFuture<Void> start() {
+        for (int i = 0; i < connectionCount; i++) {
+            pool.acquire().addListener((Future<Channel> f) -> {
+                if (f.isSuccess()) {
+                    awaitHandshake(f.getNow());
+                } else {
+                    connectionDone(null, f.cause());
+                }
+            });
+        }
+        return result;
+    }
+
+    private void awaitHandshake(Channel channel) {
+        Channel connection = channel.parent() != null ? channel.parent() : channel;
+        SslHandler sslHandler = connection.pipeline().get(SslHandler.class);
+        if (sslHandler == null) {
+            connectionDone(channel, null);
+            return;
+        }
+        sslHandler.handshakeFuture().addListener(f -> connectionDone(channel, f.cause()));
+    }
+
+    private void connectionDone(Channel channel, Throwable cause) {
+        List<Channel> toRelease;
+        Throwable firstFailure;
+        synchronized (this) {
+            if (channel != null) {
+                acquired.add(channel);
+            }
+            if (cause != null && failure == null) {
+                failure = cause;
+            }
+            if (--outstanding > 0) {
+                return;
+            }
+            toRelease = new ArrayList<>(acquired);
+            firstFailure = failure;
+        }
+
+        toRelease.forEach(pool::release);
+        if (firstFailure != null) {
+            result.completeExceptionally(firstFailure);
+        } else {
+            result.complete(null);
+        }
+    }
+}
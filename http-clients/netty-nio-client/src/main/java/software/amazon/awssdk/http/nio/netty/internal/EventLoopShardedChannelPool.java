@@ -0,0 +1,208 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.SdkTestInternalApi;
+
+/**
+ * {@link ChannelPool} that splits the connections to a host into shards, one per event loop. Each shard is a complete
+ * channel pool whose connections are all registered on the shard's event loop, and whose acquires and releases also run on
+ * that event loop, so serving a request from a shard never hands work between threads and the shards never contend with
+ * each other.
+ *
+ * <p>An acquire made from one of the event loops goes to that event loop's shard. Other acquires are spread over the shards
+ * in turn. When the chosen shard has all of its connections (or, for HTTP/2, streams) leased, the acquire is moved to the
+ * shard with the fewest leased, if any has room, so that a busy shard doesn't queue requests that an idle one could serve.
+ *
+ * <p>A channel is released to the shard of the event loop it is registered on.
+ */
+@SdkInternalApi
+public final class EventLoopShardedChannelPool implements ChannelPool {
+
+    /**
+     * Whether the channel is counted as leased from its shard.
+     */
+    private static final AttributeKey<AtomicBoolean> LEASED = AttributeKey.newInstance(
+        "aws.http.nio.netty.async.leasedFromShard");
+
+    private final List<Shard> shards;
+    private final Map<EventLoop, Shard> shardsByEventLoop;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    private EventLoopShardedChannelPool(List<Shard> shards) {
+        this.shards = Collections.unmodifiableList(shards);
+        this.shardsByEventLoop = new IdentityHashMap<>();
+        shards.forEach(s -> shardsByEventLoop.put(s.eventLoop, s));
+    }
+
+    /**
+     * Creates a pool with one shard for each of the given event loops, dividing the limits of the pool between them. When
+     * there are fewer connections than event loops, only as many event loops as there are connections are used.
+     *
+     * @param eventLoops The event loops to create shards for.
+     * @param maxConcurrency The most connections (or HTTP/2 streams) that may be leased from the whole pool.
+     * @param maxPendingAcquires The most acquires that may wait for a connection in the whole pool. Each shard allows at
+     * least one.
+     * @param shardFactory Creates the channel pool of a shard, given its event loop, max concurrency and max pending acquires.
+     */
+    public static EventLoopShardedChannelPool create(List<EventLoop> eventLoops,
+                                                     int maxConcurrency,
+                                                     int maxPendingAcquires,
+                                                     ShardFactory shardFactory) {
+        int shardCount = Math.min(eventLoops.size(), maxConcurrency);
+        List<Shard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shardMaxConcurrency = share(maxConcurrency, shardCount, i);
+            int shardMaxPendingAcquires = Math.max(1, share(maxPendingAcquires, shardCount, i));
+            EventLoop eventLoop = eventLoops.get(i);
+            shards.add(new Shard(eventLoop,
+                                 shardFactory.create(eventLoop, shardMaxConcurrency, shardMaxPendingAcquires),
+                                 shardMaxConcurrency));
+        }
+        return new EventLoopShardedChannelPool(shards);
+    }
+
+    /**
+     * Returns the share of {@code total} that goes to the shard at {@code index}, spreading the remainder over the first
+     * shards.
+     */
+    private static int share(int total, int shardCount, int index) {
+        return total / shardCount + (index < total % shardCount ? 1 : 0);
+    }
+
+    @Override
+    public Future<Channel> acquire() {
+        Shard shard = selectShard();
+        return acquire(shard, shard.eventLoop.newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(Promise<Channel> promise) {
+        return acquire(selectShard(), promise);
+    }
+
+    private Future<Channel> acquire(Shard shard, Promise<Channel> promise) {
+        shard.leased.incrementAndGet();
+        promise.addListener((Future<Channel> f) -> {
+            if (f.isSuccess()) {
+                f.getNow().attr(LEASED).set(new AtomicBoolean(true));
+            } else {
+                shard.leased.decrementAndGet();
+            }
+        });
+        return shard.pool.acquire(promise);
+    }
+
+    /**
+     * Picks the shard of the current event loop, or the next shard in turn if this isn't one of the event loops, unless that
+     * shard is full and another one isn't.
+     */
+    private Shard selectShard() {
+        Shard preferred = null;
+        for (Shard shard : shards) {
+            if (shard.eventLoop.inEventLoop()) {
+                preferred = shard;
+                break;
+            }
+        }
+        if (preferred == null) {
+            preferred = shards.get(Math.floorMod(nextShard.getAndIncrement(), shards.size()));
+        }
+        if (preferred.hasCapacity()) {
+            return preferred;
+        }
+
+        Shard leastLeased = null;
+        for (Shard shard : shards) {
+            if (shard.hasCapacity() && (leastLeased == null || shard.leased.get() < leastLeased.leased.get())) {
+                leastLeased = shard;
+            }
+        }
+        return leastLeased != null ? leastLeased : preferred;
+    }
+
+    @Override
+    public Future<Void> release(Channel channel) {
+        return release(channel, channel.eventLoop().newPromise());
+    }
+
+    @Override
+    public Future<Void> release(Channel channel, Promise<Void> promise) {
+        Shard shard = shardsByEventLoop.get(channel.eventLoop());
+        if (shard == null) {
+            return promise.setFailure(new IllegalArgumentException("Channel does not belong to this pool"));
+        }
+        AtomicBoolean leased = channel.attr(LEASED).get();
+        if (leased != null && leased.compareAndSet(true, false)) {
+            shard.leased.decrementAndGet();
+        }
+        return shard.pool.release(channel, promise);
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(s -> s.pool.close());
+    }
+
+    @SdkTestInternalApi
+    int leased(EventLoop eventLoop) {
+        return shardsByEventLoop.get(eventLoop).leased.get();
+    }
+
+    /**
+     * Creates the channel pool for one shard.
+     */
+    @FunctionalInterface
+    public interface ShardFactory {
+        /**
+         * @param eventLoop The event loop that the shard's connections and pool must use.
+         * @param maxConcurrency The most connections (or HTTP/2 streams) that may be leased from the shard.
+         * @param maxPendingAcquires The most acquires that may wait for a connection in the shard.
+         */
+        ChannelPool create(EventLoop eventLoop, int maxConcurrency, int maxPendingAcquires);
+    }
+
+    private static final class Shard {
+        private final EventLoop eventLoop;
+        private final ChannelPool pool;
+        private final int maxConcurrency;
+        private final AtomicInteger leased = new AtomicInteger();
+
+        private Shard(EventLoop eventLoop, ChannelPool pool, int maxConcurrency) {
+            this.eventLoop = eventLoop;
+            this.pool = pool;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        private boolean hasCapacity() {
+            return leased.get() < maxConcurrency;
+        }
+    }
+}
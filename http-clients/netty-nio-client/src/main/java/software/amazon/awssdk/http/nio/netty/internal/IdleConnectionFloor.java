@@ -0,0 +1,97 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.SdkTestInternalApi;
+
+/**
+ * Counts the open connections to a host so that idle connection reaping can leave a minimum number of them open.
+ *
+ * <p>Each connection is registered with {@link #connectionCreated(Channel)}, and stops counting once it's closed. Before
+ * closing a connection because it's idle, a reaper must call {@link #tryReap(Channel)}, which only allows it while more
+ * than the minimum number of connections are open.
+ */
+@SdkInternalApi
+public final class IdleConnectionFloor {
+    private static final AttributeKey<IdleConnectionFloor> FLOOR = AttributeKey.newInstance(
+        "aws.http.nio.netty.async.idleConnectionFloor");
+
+    /**
+     * Whether the channel is still counted as open. Cleared by whichever of reaping or closing the channel comes first.
+     */
+    private static final AttributeKey<AtomicBoolean> COUNTED = AttributeKey.newInstance(
+        "aws.http.nio.netty.async.countedByIdleConnectionFloor");
+
+    private final int minIdleConnections;
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    public IdleConnectionFloor(int minIdleConnections) {
+        this.minIdleConnections = minIdleConnections;
+    }
+
+    /**
+     * Starts counting a newly created connection, until it is closed.
+     */
+    public void connectionCreated(Channel channel) {
+        AtomicBoolean counted = new AtomicBoolean(true);
+        channel.attr(FLOOR).set(this);
+        channel.attr(COUNTED).set(counted);
+        openConnections.incrementAndGet();
+        channel.closeFuture().addListener(f -> {
+            if (counted.compareAndSet(true, false)) {
+                openConnections.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Decides whether an idle connection may be closed. If so, the connection stops counting towards the open connections
+     * right away, so that concurrent reapers can't take the host below the minimum together.
+     *
+     * @param channel The idle connection.
+     * @return True if the connection may be closed, which is always the case for connections that aren't counted.
+     */
+    public static boolean tryReap(Channel channel) {
+        IdleConnectionFloor floor = channel.attr(FLOOR).get();
+        return floor == null || floor.tryReap0(channel.attr(COUNTED).get());
+    }
+
+    private boolean tryReap0(AtomicBoolean counted) {
+        while (true) {
+            int open = openConnections.get();
+            if (open <= minIdleConnections) {
+                return false;
+            }
+            if (openConnections.compareAndSet(open, open - 1)) {
+                if (!counted.compareAndSet(true, false)) {
+                    // The connection was closed in the meantime and has already stopped counting
+                    openConnections.incrementAndGet();
+                }
+                return true;
+            }
+        }
+    }
+
+    @SdkTestInternalApi
+    int openConnections() {
+        return openConnections.get();
+    }
+}
@@ -23,7 +23,8 @@ import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.utils.Logger;
 
 /**
- * A handler that closes unused channels that have not had any traffic on them for a configurable amount of time.
+ * A handler that closes unused channels that have not had any traffic on them for a configurable amount of time, unless
+ * that would leave fewer open channels to the host than its {@link IdleConnectionFloor} allows.
  */
 @SdkInternalApi
 public class IdleConnectionReaperHandler extends IdleStateHandler {
@@ -41,7 +42,7 @@ public class IdleConnectionReaperHandler extends IdleStateHandler {
 
         boolean channelNotInUse = Boolean.FALSE.equals(ctx.channel().attr(ChannelAttributeKey.IN_USE).get());
 
-        if (channelNotInUse && ctx.channel().isOpen()) {
+        if (channelNotInUse && ctx.channel().isOpen() && IdleConnectionFloor.tryReap(ctx.channel())) {
             log.debug(() -> "Closing unused connection (" + ctx.channel().id() + ") because it has been idle for longer than " +
                             maxIdleTimeMillis + " milliseconds.");
             ctx.close();
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.http.async.SdkHttpContentPublisher;
+
+/**
+ * Publishes the content of an {@link InputStream} as the body of a request, reading it on the thread that calls
+ * {@link #publish()} rather than on the event loop. This lets a blocking request body be streamed to an asynchronous client
+ * without tying up the event loop while the stream is read.
+ *
+ * <p>A chunk is only read once the subscriber has requested it, so at most as many chunks are in flight as the subscriber
+ * asked for. A new array is read into for each chunk, since the subscriber may hold on to the buffers it's given. A request
+ * without a body is completed as soon as it's subscribed to, without involving the calling thread.</p>
+ */
+@SdkInternalApi
+public final class InputStreamPublisher implements SdkHttpContentPublisher {
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final Object lock = new Object();
+    private final InputStream content;
+    private final Long contentLength;
+
+    private boolean subscribed;
+    private Subscriber<? super ByteBuffer> subscriber;
+    private long demand;
+    private boolean done;
+    private Throwable failure;
+
+    /**
+     * @param content The content to publish, or null if the request has no body.
+     * @param contentLength The length of the content, or null if it's unknown.
+     */
+    public InputStreamPublisher(InputStream content, Long contentLength) {
+        this.content = content;
+        this.contentLength = contentLength;
+    }
+
+    @Override
+    public Optional<Long> contentLength() {
+        return Optional.ofNullable(contentLength);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> s) {
+        synchronized (lock) {
+            if (subscribed) {
+                s.onSubscribe(new NoOpSubscription());
+                s.onError(new IllegalStateException("Only one subscriber is supported."));
+                return;
+            }
+            subscribed = true;
+        }
+        if (content == null) {
+            // There is nothing to read, so there is no need to wait for demand or to hand over to the publishing thread.
+            s.onSubscribe(new NoOpSubscription());
+            if (finish()) {
+                s.onComplete();
+            }
+            return;
+        }
+        s.onSubscribe(new ContentSubscription());
+        synchronized (lock) {
+            subscriber = s;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Reads the content and hands it to the subscriber as fast as it requests it. This returns once the content has been
+     * published, once the subscriber cancels its subscription, or once {@link #cancel()} is called.
+     *
+     * @throws IOException If the content could not be read. The subscriber is notified of the failure as well.
+     * @throws InterruptedException If the thread was interrupted while waiting for the subscriber.
+     */
+    public void publish() throws IOException, InterruptedException {
+        if (content == null) {
+            return;
+        }
+        Subscriber<? super ByteBuffer> s = awaitSubscriber();
+        if (s == null) {
+            return;
+        }
+        try {
+            while (awaitDemand()) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int read = content.read(chunk);
+                if (read == -1) {
+                    if (finish()) {
+                        s.onComplete();
+                    }
+                    return;
+                }
+                s.onNext(ByteBuffer.wrap(chunk, 0, read));
+            }
+            Throwable error = failure();
+            if (error != null) {
+                s.onError(error);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (finish()) {
+                s.onError(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops publishing the content. A thread blocked in {@link #publish()} returns without completing the subscriber.
+     */
+    public void cancel() {
+        synchronized (lock) {
+            done = true;
+            lock.notifyAll();
+        }
+    }
+
+    private Subscriber<? super ByteBuffer> awaitSubscriber() throws InterruptedException {
+        synchronized (lock) {
+            while (subscriber == null && !done) {
+                lock.wait();
+            }
+            return done ? null : subscriber;
+        }
+    }
+
+    /**
+     * Waits until the subscriber has requested another chunk, and takes that chunk out of its demand.
+     *
+     * @return False if publishing should stop instead.
+     */
+    private boolean awaitDemand() throws InterruptedException {
+        synchronized (lock) {
+            while (demand == 0 && !done) {
+                lock.wait();
+            }
+            if (done) {
+                return false;
+            }
+            demand--;
+            return true;
+        }
+    }
+
+    private boolean finish() {
+        synchronized (lock) {
+            boolean wasDone = done;
+            done = true;
+            return !wasDone;
+        }
+    }
+
+    private Throwable failure() {
+        synchronized (lock) {
+            return failure;
+        }
+    }
+
+    private final class ContentSubscription implements Subscription {
+        @Override
+        public void request(long n) {
+            synchronized (lock) {
+                if (done) {
+                    return;
+                }
+                if (n <= 0) {
+                    failure = new IllegalArgumentException("Demand must be positive");
+                    done = true;
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                lock.notifyAll();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            InputStreamPublisher.this.cancel();
+        }
+    }
+
+    private static final class NoOpSubscription implements Subscription {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
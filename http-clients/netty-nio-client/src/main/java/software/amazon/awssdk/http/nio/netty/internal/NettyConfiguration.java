@@ -77,6 +77,10 @@ public final class NettyConfiguration {
         return saturatedCast(configuration.get(SdkHttpConfigurationOption.CONNECTION_TIME_TO_LIVE).toMillis());
     }
 
+    public int minIdleConnections() {
+        return configuration.get(SdkHttpConfigurationOption.MIN_IDLE_CONNECTIONS);
+    }
+
     public boolean reapIdleConnections() {
         return configuration.get(SdkHttpConfigurationOption.REAP_IDLE_CONNECTIONS);
     }
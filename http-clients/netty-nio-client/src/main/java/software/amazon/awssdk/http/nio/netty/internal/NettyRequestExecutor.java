@@ -429,13 +429,13 @@ public final class NettyRequestExecutor {
                     buffer.writeBytes(byteBuffer);
                     HttpContent content = new DefaultHttpContent(buffer);
 
-                    subscriber.onNext(content);
+                    emit(() -> subscriber.onNext(content));
                     written += newLimit;
 
                     if (!shouldContinuePublishing()) {
                         done = true;
                         subscription.cancel();
-                        subscriber.onComplete();
+                        emit(subscriber::onComplete);
                     }
                 }
 
@@ -443,7 +443,7 @@ public final class NettyRequestExecutor {
                 public void onError(Throwable t) {
                     if (!done) {
                         done = true;
-                        subscriber.onError(t);
+                        emit(() -> subscriber.onError(t));
                     }
                 }
 
@@ -451,12 +451,22 @@ public final class NettyRequestExecutor {
                 public void onComplete() {
                     if (!done) {
                         done = true;
-                        subscriber.onComplete();
+                        emit(subscriber::onComplete);
                     }
                 }
             });
         }
 
+        /**
+         * Hands a signal to the event loop. The publisher may signal from whichever thread it likes, e.g. an I/O thread for
+         * one chunk and the event loop (from within request()) for the next. A write from outside the event loop is queued
+         * while a write from inside it happens immediately, so signalling in place could put the chunks on the wire out of
+         * order. Queueing every signal keeps them in the order they were published.
+         */
+        private void emit(Runnable signal) {
+            channel.eventLoop().execute(signal);
+        }
+
         private int clampedBufferLimit(int bufLen) {
             return requestContentLength.map(cl ->
                 (int) Math.min(cl - written, bufLen)
@@ -20,6 +20,7 @@ import static java.util.stream.Collectors.mapping;
 import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.EXECUTE_FUTURE_KEY;
 import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.REQUEST_CONTEXT_KEY;
 import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.RESPONSE_COMPLETE_KEY;
+import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.STREAM_END_RECEIVED;
 
 import com.typesafe.netty.http.HttpStreamsClientHandler;
 import com.typesafe.netty.http.StreamedHttpResponse;
@@ -55,6 +56,7 @@ import software.amazon.awssdk.http.SdkCancellationException;
 import software.amazon.awssdk.http.SdkHttpFullResponse;
 import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+import software.amazon.awssdk.http.async.TransientByteBufferSubscriber;
 import software.amazon.awssdk.http.nio.netty.internal.http2.Http2ResetSendingSubscription;
 import software.amazon.awssdk.utils.FunctionalUtils.UnsafeRunnable;
 import software.amazon.awssdk.utils.async.DelegatingSubscription;
@@ -134,7 +136,10 @@ public class ResponseHandler extends SimpleChannelInboundHandler<HttpObject> {
     public void channelInactive(ChannelHandlerContext handlerCtx) throws Exception {
         RequestContext requestCtx = handlerCtx.channel().attr(REQUEST_CONTEXT_KEY).get();
         boolean responseCompleted = handlerCtx.channel().attr(RESPONSE_COMPLETE_KEY).get();
-        if (!responseCompleted) {
+        // An HTTP/2 stream's channel is closed as soon as the service ends the stream, which can be before the subscriber
+        // has been given the end of the response. The publisher still completes the response once it has been.
+        boolean streamEndReceived = Boolean.TRUE.equals(handlerCtx.channel().attr(STREAM_END_RECEIVED).get());
+        if (!responseCompleted && !streamEndReceived) {
             IOException err = new IOException("Server failed to send complete response");
             requestCtx.handler().onError(err);
             executeFuture(handlerCtx).completeExceptionally(err);
@@ -236,12 +241,22 @@ public class ResponseHandler extends SimpleChannelInboundHandler<HttpObject> {
                 public void onNext(HttpContent httpContent) {
                     // isDone may be true if the subscriber cancelled
                     if (isDone.get()) {
+                        httpContent.release();
                         return;
                     }
-                    // Needed to prevent use-after-free bug if the subscriber's onNext is asynchronous
-                    ByteBuffer b = copyToByteBuffer(httpContent.content());
-                    httpContent.release();
-                    subscriber.onNext(b);
+                    if (subscriber instanceof TransientByteBufferSubscriber) {
+                        // The subscriber is done with the buffer when onNext returns, so it can see the pooled buffer itself
+                        try {
+                            subscriber.onNext(httpContent.content().nioBuffer().asReadOnlyBuffer());
+                        } finally {
+                            httpContent.release();
+                        }
+                    } else {
+                        // Needed to prevent use-after-free bug if the subscriber's onNext is asynchronous
+                        ByteBuffer b = copyToByteBuffer(httpContent.content());
+                        httpContent.release();
+                        subscriber.onNext(b);
+                    }
                     channelContext.read();
                 }
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.http.CachingDnsResolver;
+import software.amazon.awssdk.http.DnsResolver;
+import software.amazon.awssdk.http.LeastConnectionsAddressSelector;
+import software.amazon.awssdk.utils.ThreadFactoryBuilder;
+
+/**
+ * Resolves the remote addresses of new connections with a {@link DnsResolver}, without blocking the event loops.
+ *
+ * <p>Addresses are cached for the configured TTL, so only the first connection to a host in each TTL window waits for the
+ * resolver; the resolver itself runs on a small thread pool owned by this group. Concurrent lookups of the same host share
+ * one call to the resolver, so the pool only ever queues one lookup per host. Each connection is opened to the address of the
+ * host with the fewest open connections, as counted by {@link AddressConnectionCountHandler}, so that the connections to a
+ * host with many addresses are spread over all of them.
+ */
+@SdkInternalApi
+public final class SdkAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+    private static final int MAX_RESOLVER_THREADS = 4;
+    private static final long RESOLVER_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final CachingDnsResolver dnsResolver;
+    private final LeastConnectionsAddressSelector addressSelector = new LeastConnectionsAddressSelector();
+    private final ThreadPoolExecutor resolverExecutor;
+
+    public SdkAddressResolverGroup(DnsResolver dnsResolver, Duration cacheTtl) {
+        this.dnsResolver = new CachingDnsResolver(dnsResolver, cacheTtl);
+        this.resolverExecutor = new ThreadPoolExecutor(
+            MAX_RESOLVER_THREADS, MAX_RESOLVER_THREADS, RESOLVER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().threadNamePrefix("aws-java-sdk-NettyDnsResolver").build());
+        this.resolverExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the selector that picks the address of each new connection, which the connections report back to.
+     */
+    public LeastConnectionsAddressSelector addressSelector() {
+        return addressSelector;
+    }
+
+    @Override
+    protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+        return new SpreadingAddressResolver(executor);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        resolverExecutor.shutdown();
+    }
+
+    private final class SpreadingAddressResolver extends AbstractAddressResolver<InetSocketAddress> {
+        private SpreadingAddressResolver(EventExecutor executor) {
+            super(executor, InetSocketAddress.class);
+        }
+
+        @Override
+        protected boolean doIsResolved(InetSocketAddress address) {
+            return !address.isUnresolved();
+        }
+
+        @Override
+        protected void doResolve(InetSocketAddress unresolvedAddress, Promise<InetSocketAddress> promise) {
+            int port = unresolvedAddress.getPort();
+            AddressesConsumer onResolved =
+                addresses -> promise.trySuccess(new InetSocketAddress(addressSelector.select(addresses), port));
+            resolve(unresolvedAddress.getHostString(), onResolved, promise);
+        }
+
+        @Override
+        protected void doResolveAll(InetSocketAddress unresolvedAddress, Promise<List<InetSocketAddress>> promise) {
+            int port = unresolvedAddress.getPort();
+            resolve(unresolvedAddress.getHostString(), addresses -> {
+                List<InetSocketAddress> socketAddresses = new ArrayList<>(addresses.length);
+                for (InetAddress address : addressSelector.prioritize(addresses)) {
+                    socketAddresses.add(new InetSocketAddress(address, port));
+                }
+                promise.trySuccess(socketAddresses);
+            }, promise);
+        }
+
+        /**
+         * Completes a resolution from the cache right away, or once the resolver threads have resolved the host.
+         */
+        private void resolve(String host, AddressesConsumer onResolved, Promise<?> promise) {
+            dnsResolver.resolveAsync(host, resolverExecutor).whenComplete((addresses, error) -> {
+                if (error != null) {
+                    promise.tryFailure(error instanceof CompletionException && error.getCause() != null ? error.getCause()
+                                                                                                      : error);
+                } else {
+                    onResolved.accept(addresses);
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface AddressesConsumer {
+        void accept(InetAddress[] addresses);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import io.netty.handler.codec.http2.Http2SecurityUtil;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SupportedCipherSuiteFilter;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.net.ssl.SSLException;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+
+/**
+ * Provides the {@link SslContext}s shared by all of the Netty clients' connection pools. TLS sessions are cached by the
+ * context that negotiated them, so sharing it lets a new connection resume a session negotiated by any pool or client
+ * connected to the same endpoint before.
+ */
+@SdkInternalApi
+public final class SharedSslContext {
+    private static final ConcurrentMap<Boolean, SslContext> SSL_CONTEXTS = new ConcurrentHashMap<>();
+
+    private SharedSslContext() {
+    }
+
+    /**
+     * @param trustAllCertificates Whether the context should trust any certificate. Should only be used for testing.
+     * @return The shared client {@link SslContext} with the given trust configuration.
+     */
+    public static SslContext get(boolean trustAllCertificates) {
+        return SSL_CONTEXTS.computeIfAbsent(trustAllCertificates, SharedSslContext::create);
+    }
+
+    private static SslContext create(boolean trustAllCertificates) {
+        try {
+            return SslContextBuilder.forClient()
+                                    .sslProvider(SslContext.defaultClientProvider())
+                                    .ciphers(Http2SecurityUtil.CIPHERS, SupportedCipherSuiteFilter.INSTANCE)
+                                    .trustManager(trustAllCertificates ? InsecureTrustManagerFactory.INSTANCE : null)
+                                    .build();
+        } catch (SSLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+
+/**
+ * An {@link InputStream} over the body of a response, for callers that read it with blocking I/O. The buffers published by
+ * the response are queued as they arrive, and a reader blocks until the next one is available.
+ *
+ * <p>Only {@value #BUFFERED_CHUNKS} buffers are requested ahead of the reader, and another is requested each time one is
+ * taken from the queue, so a slow reader applies back pressure to the connection rather than buffering the whole body in
+ * memory. The buffers must not be reused by the publisher once they have been handed over.</p>
+ */
+@SdkInternalApi
+public final class SubscriberInputStream extends InputStream implements Subscriber<ByteBuffer> {
+    private static final int BUFFERED_CHUNKS = 4;
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private final BlockingQueue<ByteBuffer> buffers = new LinkedBlockingQueue<>();
+    private final AtomicBoolean terminated = new AtomicBoolean();
+    private volatile Subscription subscription;
+    private volatile Throwable error;
+    private volatile boolean closed;
+
+    private ByteBuffer current;
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (subscription != null || closed) {
+            s.cancel();
+            return;
+        }
+        subscription = s;
+        s.request(BUFFERED_CHUNKS);
+    }
+
+    @Override
+    public void onNext(ByteBuffer byteBuffer) {
+        buffers.add(byteBuffer);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (terminated.compareAndSet(false, true)) {
+            error = t;
+            buffers.add(END_OF_STREAM);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (terminated.compareAndSet(false, true)) {
+            buffers.add(END_OF_STREAM);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = nextBuffer();
+        return buffer == null ? -1 : buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = nextBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+        int read = Math.min(len, buffer.remaining());
+        buffer.get(b, off, read);
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ByteBuffer buffer = current;
+        return buffer == null ? 0 : buffer.remaining();
+    }
+
+    /**
+     * Closes the stream. If the body hasn't been published in full, the subscription is cancelled so that the rest of it
+     * isn't transferred.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (terminated.compareAndSet(false, true)) {
+            // Wake up a reader that's still blocked waiting for the next buffer.
+            error = new IOException("Stream closed");
+            buffers.add(END_OF_STREAM);
+            Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    private ByteBuffer nextBuffer() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (current == null || !current.hasRemaining()) {
+            if (current == END_OF_STREAM) {
+                Throwable t = error;
+                if (t != null) {
+                    throw t instanceof IOException ? (IOException) t : new IOException(t);
+                }
+                return null;
+            }
+            current = take();
+            if (current != END_OF_STREAM) {
+                subscription.request(1);
+            }
+        }
+        return current;
+    }
+
+    private ByteBuffer take() throws IOException {
+        try {
+            return buffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response body");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.SslHandler;
+import java.time.Duration;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
+
+/**
+ * Records the handshake of the channel's {@link SslHandler} in the client's {@link TlsHandshakeMetrics}. Must be added before
+ * the {@link SslHandler}, so that it sees the channel become active before the handshake starts. It removes itself once
+ * the channel is active.
+ */
+@SdkInternalApi
+public final class TlsHandshakeMetricsHandler extends ChannelInboundHandlerAdapter {
+    private final TlsHandshakeMetrics metrics;
+
+    public TlsHandshakeMetricsHandler(TlsHandshakeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        SslHandler sslHandler = ctx.pipeline().get(SslHandler.class);
+        if (sslHandler != null) {
+            long startNanos = System.nanoTime();
+            sslHandler.handshakeFuture().addListener(f -> {
+                if (f.isSuccess()) {
+                    metrics.recordHandshake(sslHandler.engine().getSession(), Duration.ofNanos(System.nanoTime() - startNanos));
+                } else {
+                    metrics.recordFailedHandshake();
+                }
+            });
+        }
+        ctx.pipeline().remove(this);
+        ctx.fireChannelActive();
+    }
+}
@@ -25,19 +25,36 @@ import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
 import io.netty.util.concurrent.DefaultPromise;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.annotations.SdkTestInternalApi;
+import software.amazon.awssdk.http.nio.netty.internal.IdleConnectionFloor;
 import software.amazon.awssdk.http.nio.netty.internal.utils.BetterFixedChannelPool;
+import software.amazon.awssdk.utils.Logger;
 
 /**
  * {@link ChannelPool} implementation that handles multiplexed streams. Child channels are created
  * for each HTTP/2 stream using {@link Http2StreamChannelBootstrap} with the parent channel being
  * the actual socket channel. This implementation assumes that all connections have the same setting
- * for MAX_CONCURRENT_STREAMS. Concurrent requests are load balanced across all available connections,
- * when the max concurrency for a connection is reached then a new connection will be opened.
+ * for MAX_CONCURRENT_STREAMS until a connection receives its own. Concurrent requests are load balanced
+ * across all available connections, when the max concurrency for every connection is reached then a new
+ * connection will be opened.
+ *
+ * <p>
+ * Each stream goes to the less loaded of two connections picked at random (the "power of two choices"), which
+ * spreads streams evenly over the connections without scanning all of them on every acquire. Only when both
+ * picks are full are the other connections scanned for a free stream. Connections that have had no open
+ * streams for longer than the idle timeout are closed, so the pool shrinks again after a burst.
+ * </p>
  *
  * <p>
  * <b>Note:</b> This enforces no max concurrency. Relies on being wrapped with a {@link BetterFixedChannelPool}
@@ -46,27 +63,40 @@ import software.amazon.awssdk.http.nio.netty.internal.utils.BetterFixedChannelPo
  */
 @SdkInternalApi
 public class Http2MultiplexedChannelPool implements ChannelPool {
+    private static final Logger log = Logger.loggerFor(Http2MultiplexedChannelPool.class);
 
     private final EventLoop eventLoop;
     private final ChannelPool connectionPool;
     private final long maxConcurrencyPerConnection;
     private final ArrayList<MultiplexedChannelRecord> connections;
+    private final Set<MultiplexedChannelRecord> connectionRegistry;
+    private final long idleConnectionTimeoutNanos;
+    private final ScheduledFuture<?> idleConnectionCloser;
     private boolean closed = false;
 
     /**
      * @param connectionPool Connection pool for parent channels (i.e. the socket channel).
      * @param eventLoop Event loop to run all tasks in.
      * @param maxConcurrencyPerConnection Max concurrent streams per HTTP/2 connection.
+     * @param idleConnectionTimeoutMillis How long a connection may go without open streams before it is closed, or 0 to
+     * keep idle connections open.
+     * @param connectionRegistry The connections of all the client's pools, which the connections of this pool are added to
+     * while they are in the pool. Must be safe to use from any thread.
      */
     Http2MultiplexedChannelPool(ChannelPool connectionPool,
                                 EventLoop eventLoop,
-                                long maxConcurrencyPerConnection) {
+                                long maxConcurrencyPerConnection,
+                                long idleConnectionTimeoutMillis,
+                                Set<MultiplexedChannelRecord> connectionRegistry) {
         this.connectionPool = connectionPool;
         this.eventLoop = eventLoop;
         this.maxConcurrencyPerConnection = maxConcurrencyPerConnection;
         // Customers that want an unbounded connection pool may set max concurrency to something like
         // Long.MAX_VALUE so we just stick with the initial ArrayList capacity and grow from there.
         this.connections = new ArrayList<>();
+        this.connectionRegistry = connectionRegistry;
+        this.idleConnectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleConnectionTimeoutMillis);
+        this.idleConnectionCloser = scheduleIdleConnectionCloser(idleConnectionTimeoutMillis);
     }
 
     @SdkTestInternalApi
@@ -74,10 +104,33 @@ public class Http2MultiplexedChannelPool implements ChannelPool {
                                 EventLoop eventLoop,
                                 long maxConcurrencyPerConnection,
                                 Collection<MultiplexedChannelRecord> connections) {
+        this(connectionPool, eventLoop, maxConcurrencyPerConnection, 0, connections);
+    }
+
+    @SdkTestInternalApi
+    Http2MultiplexedChannelPool(ChannelPool connectionPool,
+                                EventLoop eventLoop,
+                                long maxConcurrencyPerConnection,
+                                long idleConnectionTimeoutMillis,
+                                Collection<MultiplexedChannelRecord> connections) {
         this.connectionPool = connectionPool;
         this.eventLoop = eventLoop;
         this.maxConcurrencyPerConnection = maxConcurrencyPerConnection;
         this.connections = new ArrayList<>(connections);
+        this.connectionRegistry = ConcurrentHashMap.newKeySet();
+        this.connectionRegistry.addAll(connections);
+        this.idleConnectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleConnectionTimeoutMillis);
+        this.idleConnectionCloser = scheduleIdleConnectionCloser(idleConnectionTimeoutMillis);
+    }
+
+    private ScheduledFuture<?> scheduleIdleConnectionCloser(long idleConnectionTimeoutMillis) {
+        if (idleConnectionTimeoutMillis <= 0) {
+            return null;
+        }
+        // Checking twice per timeout closes a connection at most one and a half timeouts after its last stream ended
+        long checkIntervalMillis = Math.max(1, idleConnectionTimeoutMillis / 2);
+        return eventLoop.scheduleAtFixedRate(this::closeIdleConnections, checkIntervalMillis, checkIntervalMillis,
+                                             TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -96,18 +149,100 @@ public class Http2MultiplexedChannelPool implements ChannelPool {
             return promise.setFailure(new IllegalStateException("Channel pool is closed!"));
         }
 
+        MultiplexedChannelRecord connection = selectConnection();
+        if (connection != null) {
+            connection.acquire(promise);
+            return promise;
+        }
+        // No available streams, establish new connection and add it to list
+        addConnection(new MultiplexedChannelRecord(connectionPool.acquire(),
+                                                   maxConcurrencyPerConnection,
+                                                   this::releaseParentChannel)
+                          .acquire(promise));
+        return promise;
+    }
+
+    private void addConnection(MultiplexedChannelRecord connection) {
+        connections.add(connection);
+        connectionRegistry.add(connection);
+    }
+
+    private void removeConnection(MultiplexedChannelRecord connection) {
+        connections.remove(connection);
+        connectionRegistry.remove(connection);
+    }
+
+    /**
+     * Picks the connection for a new stream: the less loaded of two random connections, or if both are full, the least
+     * loaded of all connections.
+     *
+     * @return The connection to use, or null if no connection has a free stream.
+     */
+    private MultiplexedChannelRecord selectConnection() {
+        int size = connections.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size > 1) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            MultiplexedChannelRecord choice = lessLoaded(connections.get(first), connections.get(second));
+            if (choice.availableStreams() > 0) {
+                return choice;
+            }
+        }
+        MultiplexedChannelRecord leastLoaded = null;
         for (MultiplexedChannelRecord connection : connections) {
             if (connection.availableStreams() > 0) {
-                connection.acquire(promise);
-                return promise;
+                leastLoaded = leastLoaded == null ? connection : lessLoaded(leastLoaded, connection);
             }
         }
-        // No available streams, establish new connection and add it to list
-        connections.add(new MultiplexedChannelRecord(connectionPool.acquire(),
-                                                     maxConcurrencyPerConnection,
-                                                     this::releaseParentChannel)
-                            .acquire(promise));
-        return promise;
+        return leastLoaded;
+    }
+
+    private static MultiplexedChannelRecord lessLoaded(MultiplexedChannelRecord first, MultiplexedChannelRecord second) {
+        return second.availableStreams() > first.availableStreams() ? second : first;
+    }
+
+    /**
+     * Closes the connections that have had no open streams for longer than the idle timeout.
+     */
+    private void closeIdleConnections() {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        List<MultiplexedChannelRecord> idleConnections = new ArrayList<>();
+        for (Iterator<MultiplexedChannelRecord> i = connections.iterator(); i.hasNext(); ) {
+            MultiplexedChannelRecord connection = i.next();
+            if (connection.idleNanos(now) > idleConnectionTimeoutNanos && mayReap(connection)) {
+                i.remove();
+                connectionRegistry.remove(connection);
+                idleConnections.add(connection);
+            }
+        }
+        for (MultiplexedChannelRecord connection : idleConnections) {
+            log.debug(() -> "Closing HTTP/2 connection that has had no open streams for longer than the idle timeout: "
+                            + connection);
+            releaseParentChannel0(connection.getConnectionFuture().getNow(), connection);
+        }
+    }
+
+    private static boolean mayReap(MultiplexedChannelRecord connection) {
+        Channel parentChannel = connection.getConnectionFuture().getNow();
+        return parentChannel == null || IdleConnectionFloor.tryReap(parentChannel);
+    }
+
+    /**
+     * @return The connections currently in the pool. Only safe to call from the pool's event loop.
+     */
+    @SdkTestInternalApi
+    List<MultiplexedChannelRecord> connections() {
+        return connections;
     }
 
     /**
@@ -128,7 +263,7 @@ public class Http2MultiplexedChannelPool implements ChannelPool {
                 connectionPool.release(parentChannel);
             }
         }
-        connections.remove(record);
+        removeConnection(record);
     }
 
     @Override
@@ -162,7 +297,7 @@ public class Http2MultiplexedChannelPool implements ChannelPool {
 
     private void releaseParentChannel(Channel parentChannel) {
         MultiplexedChannelRecord channelRecord = parentChannel.attr(CHANNEL_POOL_RECORD).get();
-        connections.remove(channelRecord);
+        removeConnection(channelRecord);
         parentChannel.close();
         connectionPool.release(parentChannel);
     }
@@ -171,7 +306,11 @@ public class Http2MultiplexedChannelPool implements ChannelPool {
     public void close() {
         try {
             setClosedFlag().await();
+            if (idleConnectionCloser != null) {
+                idleConnectionCloser.cancel(false);
+            }
             for (MultiplexedChannelRecord c : connections) {
+                connectionRegistry.remove(c);
                 Future<Channel> f = c.getConnectionFuture();
                 f.await();
                 if (f.isSuccess()) {
@@ -15,6 +15,8 @@
 
 package software.amazon.awssdk.http.nio.netty.internal.http2;
 
+import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.STREAM_END_RECEIVED;
+
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -63,6 +65,9 @@ public class Http2ToHttpInboundAdapter extends SimpleChannelInboundHandler<Http2
     }
 
     private void onHeadersRead(Http2HeadersFrame headersFrame, ChannelHandlerContext ctx) throws Http2Exception {
+        if (headersFrame.isEndStream()) {
+            ctx.channel().attr(STREAM_END_RECEIVED).set(true);
+        }
         ctx.fireChannelRead(HttpConversionUtil.toHttpResponse(headersFrame.stream().id(), headersFrame.headers(), true));
     }
 
@@ -72,6 +77,7 @@ public class Http2ToHttpInboundAdapter extends SimpleChannelInboundHandler<Http2
         if (!dataFrame.isEndStream()) {
             ctx.fireChannelRead(new DefaultHttpContent(data));
         } else {
+            ctx.channel().attr(STREAM_END_RECEIVED).set(true);
             ctx.fireChannelRead(new DefaultLastHttpContent(data));
         }
     }
@@ -27,6 +27,8 @@ import io.netty.util.concurrent.DefaultPromise;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.concurrent.Promise;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.http.Protocol;
 import software.amazon.awssdk.http.nio.netty.internal.NettyConfiguration;
@@ -41,8 +43,10 @@ import software.amazon.awssdk.http.nio.netty.internal.utils.BetterFixedChannelPo
 public class HttpOrHttp2ChannelPool implements ChannelPool {
     private final ChannelPool delegatePool;
     private final int maxConcurrency;
+    private final int maxPendingAcquires;
     private final EventLoop eventLoop;
     private final NettyConfiguration configuration;
+    private final Set<MultiplexedChannelRecord> http2ConnectionRegistry;
 
     private Promise<ChannelPool> protocolImplPromise;
     private ChannelPool protocolImpl;
@@ -51,10 +55,33 @@ public class HttpOrHttp2ChannelPool implements ChannelPool {
                                   Bootstrap bootstrap,
                                   int maxConcurrency,
                                   NettyConfiguration configuration) {
+        this(delegatePool, bootstrap, maxConcurrency, configuration.maxPendingConnectionAcquires(), configuration);
+    }
+
+    public HttpOrHttp2ChannelPool(ChannelPool delegatePool,
+                                  Bootstrap bootstrap,
+                                  int maxConcurrency,
+                                  int maxPendingAcquires,
+                                  NettyConfiguration configuration) {
+        this(delegatePool, bootstrap, maxConcurrency, maxPendingAcquires, configuration, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * @param http2ConnectionRegistry The set the HTTP/2 connections of this pool are added to while they are open, so that
+     * their stream metrics can be read. Must be safe to use from any thread.
+     */
+    public HttpOrHttp2ChannelPool(ChannelPool delegatePool,
+                                  Bootstrap bootstrap,
+                                  int maxConcurrency,
+                                  int maxPendingAcquires,
+                                  NettyConfiguration configuration,
+                                  Set<MultiplexedChannelRecord> http2ConnectionRegistry) {
         this.delegatePool = delegatePool;
         this.maxConcurrency = maxConcurrency;
+        this.maxPendingAcquires = maxPendingAcquires;
         this.eventLoop = bootstrap.config().group().next();
         this.configuration = configuration;
+        this.http2ConnectionRegistry = http2ConnectionRegistry;
     }
 
     @Override
@@ -127,18 +154,20 @@ public class HttpOrHttp2ChannelPool implements ChannelPool {
                                                  .acquireTimeoutAction(BetterFixedChannelPool.AcquireTimeoutAction.FAIL)
                                                  .acquireTimeoutMillis(configuration.connectionAcquireTimeoutMillis())
                                                  .maxConnections(maxConcurrency)
-                                                 .maxPendingAcquires(configuration.maxPendingConnectionAcquires())
+                                                 .maxPendingAcquires(maxPendingAcquires)
                                                  .build();
         } else {
             ChannelPool h2Pool = new Http2MultiplexedChannelPool(
-                    delegatePool, eventLoop, newChannel.attr(MAX_CONCURRENT_STREAMS).get());
+                    delegatePool, eventLoop, newChannel.attr(MAX_CONCURRENT_STREAMS).get(),
+                    configuration.reapIdleConnections() ? configuration.idleTimeoutMillis() : 0,
+                    http2ConnectionRegistry);
             protocolImpl = BetterFixedChannelPool.builder()
                                                  .channelPool(h2Pool)
                                                  .executor(eventLoop)
                                                  .acquireTimeoutAction(BetterFixedChannelPool.AcquireTimeoutAction.FAIL)
                                                  .acquireTimeoutMillis(configuration.connectionAcquireTimeoutMillis())
                                                  .maxConnections(maxConcurrency)
-                                                 .maxPendingAcquires(configuration.maxPendingConnectionAcquires())
+                                                 .maxPendingAcquires(maxPendingAcquires)
                                                  .build();
         }
         // Give the channel back so it can be acquired again by protocolImpl
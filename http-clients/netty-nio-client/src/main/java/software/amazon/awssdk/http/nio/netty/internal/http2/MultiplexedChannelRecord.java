@@ -16,11 +16,11 @@
 package software.amazon.awssdk.http.nio.netty.internal.http2;
 
 import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.CHANNEL_POOL_RECORD;
+import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.MAX_CONCURRENT_STREAMS;
 import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.PROTOCOL_FUTURE;
 import static software.amazon.awssdk.http.nio.netty.internal.utils.NettyUtils.asyncPromiseNotifyingBiConsumer;
 import static software.amazon.awssdk.http.nio.netty.internal.utils.NettyUtils.doInEventLoop;
 import static software.amazon.awssdk.http.nio.netty.internal.utils.NettyUtils.promiseNotifyingListener;
-import static software.amazon.awssdk.utils.NumericUtils.saturatedCast;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelId;
@@ -37,32 +37,42 @@ import java.util.function.BiConsumer;
 import software.amazon.awssdk.annotations.SdkInternalApi;
 import software.amazon.awssdk.annotations.SdkTestInternalApi;
 import software.amazon.awssdk.http.Protocol;
+import software.amazon.awssdk.http.nio.netty.Http2ConnectionMetrics;
+import software.amazon.awssdk.utils.ToString;
 
 /**
  * Contains a {@link Future} for the actual socket channel and tracks available
- * streams based on the MAX_CONCURRENT_STREAMS setting for the connection.
+ * streams based on the MAX_CONCURRENT_STREAMS setting for the connection. Also keeps
+ * a few statistics about the streams of the connection: how many are open, the most
+ * that were open at once and how many were opened in total.
  */
 @SdkInternalApi
-public final class MultiplexedChannelRecord {
+public final class MultiplexedChannelRecord implements Http2ConnectionMetrics {
 
     private final Future<Channel> connectionFuture;
     private final Map<ChannelId, Channel> childChannels;
-    private final AtomicLong availableStreams;
+    private final long defaultMaxConcurrentStreams;
+    private final AtomicLong streamsInFlight = new AtomicLong();
+    private final AtomicLong peakStreamsInFlight = new AtomicLong();
+    private final AtomicLong totalStreams = new AtomicLong();
     private final BiConsumer<Channel, MultiplexedChannelRecord> channelReleaser;
 
     private volatile Channel connection;
+    private volatile long idleSinceNanos = System.nanoTime();
 
     /**
      * @param connectionFuture Future for parent socket channel.
-     * @param maxConcurrencyPerConnection Max streams allowed per connection.
+     * @param maxConcurrencyPerConnection Max streams allowed per connection, until the connection's own
+     * MAX_CONCURRENT_STREAMS setting is known.
      * @param channelReleaser Method to release a channel and record on failure.
      */
     MultiplexedChannelRecord(Future<Channel> connectionFuture,
                              long maxConcurrencyPerConnection,
                              BiConsumer<Channel, MultiplexedChannelRecord> channelReleaser) {
         this.connectionFuture = connectionFuture;
-        this.availableStreams = new AtomicLong(maxConcurrencyPerConnection);
-        this.childChannels = new ConcurrentHashMap<>(saturatedCast(maxConcurrencyPerConnection));
+        this.defaultMaxConcurrentStreams = maxConcurrencyPerConnection;
+        // Not sized for the stream limit, which is unbounded by default and would otherwise allocate a table of 2^30 entries.
+        this.childChannels = new ConcurrentHashMap<>();
         this.channelReleaser = channelReleaser;
     }
 
@@ -72,14 +82,16 @@ public final class MultiplexedChannelRecord {
                              long maxConcurrencyPerConnection,
                              BiConsumer<Channel, MultiplexedChannelRecord> channelReleaser) {
         this.connectionFuture = connectionFuture;
-        this.childChannels = new ConcurrentHashMap<>(saturatedCast(maxConcurrencyPerConnection));
-        this.availableStreams = new AtomicLong(maxConcurrencyPerConnection);
+        this.childChannels = new ConcurrentHashMap<>();
+        this.defaultMaxConcurrentStreams = maxConcurrencyPerConnection;
         this.channelReleaser = channelReleaser;
         this.connection = connection;
     }
 
     MultiplexedChannelRecord acquire(Promise<Channel> channelPromise) {
-        availableStreams.decrementAndGet();
+        long inFlight = streamsInFlight.incrementAndGet();
+        peakStreamsInFlight.accumulateAndGet(inFlight, Math::max);
+        totalStreams.incrementAndGet();
         if (connection != null) {
             createChildChannel(channelPromise, connection);
         } else {
@@ -143,23 +155,78 @@ public final class MultiplexedChannelRecord {
                     if (!connection.isActive()) {
                         channelReleaser.accept(connection, this);
                     }
-                    availableStreams.incrementAndGet();
+                    streamReleased();
                 }
             })
             .addListener(promiseNotifyingListener(p));
     }
 
     void release(Channel channel) {
-        availableStreams.incrementAndGet();
+        streamReleased();
         childChannels.remove(channel.id());
     }
 
+    private void streamReleased() {
+        if (streamsInFlight.decrementAndGet() == 0) {
+            idleSinceNanos = System.nanoTime();
+        }
+    }
+
     public Future<Channel> getConnectionFuture() {
         return connectionFuture;
     }
 
     long availableStreams() {
-        return availableStreams.get();
+        return Math.max(0, maxConcurrentStreams() - streamsInFlight.get());
+    }
+
+    /**
+     * The most streams this connection may have open at once. This is the connection's own MAX_CONCURRENT_STREAMS once the
+     * server's settings have been received (capped by the client's limit), which can differ between connections and change
+     * over the life of a connection.
+     */
+    @Override
+    public long maxConcurrentStreams() {
+        Channel channel = connection;
+        Long maxConcurrentStreams = channel == null ? null : channel.attr(MAX_CONCURRENT_STREAMS).get();
+        return maxConcurrentStreams == null ? defaultMaxConcurrentStreams : maxConcurrentStreams;
+    }
+
+    @Override
+    public long openStreams() {
+        return streamsInFlight.get();
+    }
+
+    @Override
+    public long peakOpenStreams() {
+        return peakStreamsInFlight.get();
+    }
+
+    @Override
+    public long totalStreams() {
+        return totalStreams.get();
+    }
+
+    /**
+     * Returns how long, in nanoseconds as of {@code nowNanos}, the connection has been established with no open streams, or
+     * -1 if it has open streams or is still being established.
+     */
+    long idleNanos(long nowNanos) {
+        if (connection == null || streamsInFlight.get() > 0) {
+            return -1;
+        }
+        return nowNanos - idleSinceNanos;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.builder("MultiplexedChannelRecord")
+                       .add("connection", connection)
+                       .add("openStreams", openStreams())
+                       .add("maxConcurrentStreams", maxConcurrentStreams())
+                       .add("peakOpenStreams", peakOpenStreams())
+                       .add("totalStreams", totalStreams())
+                       .build();
     }
 
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2HeadersFrame;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.codec.http2.Http2StreamFrame;
+import io.netty.util.CharsetUtil;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A plaintext HTTP/2 server, spoken with prior knowledge, that echoes the body of each request back. A request without a body
+ * gets its path back instead.
+ */
+class Http2EchoServer implements AutoCloseable {
+    private final NioEventLoopGroup group = new NioEventLoopGroup(2);
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Channel serverChannel;
+
+    Http2EchoServer() throws InterruptedException {
+        ServerBootstrap bootstrap = new ServerBootstrap().group(group)
+                                                         .channel(NioServerSocketChannel.class)
+                                                         .childHandler(new ConnectionInitializer());
+        serverChannel = bootstrap.bind(0).sync().channel();
+    }
+
+    int port() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    /**
+     * @return The number of connections that have been accepted.
+     */
+    int connectionCount() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() {
+        serverChannel.close().syncUninterruptibly();
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    private final class ConnectionInitializer extends ChannelInitializer<Channel> {
+        @Override
+        protected void initChannel(Channel ch) {
+            connections.incrementAndGet();
+            ch.pipeline().addLast(Http2MultiplexCodecBuilder.forServer(new StreamInitializer()).build());
+        }
+    }
+
+    private static final class StreamInitializer extends ChannelInitializer<Channel> {
+        @Override
+        protected void initChannel(Channel ch) {
+            ch.pipeline().addLast(new EchoHandler());
+        }
+    }
+
+    private static final class EchoHandler extends SimpleChannelInboundHandler<Http2StreamFrame> {
+        private final ByteBuf body = Unpooled.buffer();
+        private CharSequence path;
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, Http2StreamFrame frame) {
+            boolean endStream = false;
+            if (frame instanceof Http2HeadersFrame) {
+                Http2HeadersFrame headers = (Http2HeadersFrame) frame;
+                path = headers.headers().path();
+                endStream = headers.isEndStream();
+            } else if (frame instanceof Http2DataFrame) {
+                Http2DataFrame data = (Http2DataFrame) frame;
+                body.writeBytes(data.content());
+                endStream = data.isEndStream();
+            }
+
+            if (endStream) {
+                ByteBuf response = body.isReadable() ? body : Unpooled.copiedBuffer(path, CharsetUtil.UTF_8);
+                Http2Headers headers = new DefaultHttp2Headers().status("200")
+                                                                .setInt("content-length", response.readableBytes());
+                ctx.write(new DefaultHttp2HeadersFrame(headers));
+                ctx.writeAndFlush(new DefaultHttp2DataFrame(response, true));
+            }
+        }
+    }
+}
@@ -34,6 +34,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.reverse;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -46,10 +47,12 @@ import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.Socket;
 import java.net.URI;
 import java.nio.ByteBuffer;
@@ -62,6 +65,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -76,15 +80,21 @@ import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
+import software.amazon.awssdk.http.DnsResolver;
 import software.amazon.awssdk.http.SdkHttpConfigurationOption;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.http.SdkHttpMethod;
 import software.amazon.awssdk.http.SdkHttpRequest;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
 import software.amazon.awssdk.http.async.AsyncExecuteRequest;
 import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
 import software.amazon.awssdk.http.async.SdkHttpContentPublisher;
+import software.amazon.awssdk.http.async.TransientByteBufferSubscriber;
 import software.amazon.awssdk.http.nio.netty.internal.NettyConfiguration;
 import software.amazon.awssdk.http.nio.netty.internal.SdkChannelOptions;
 import software.amazon.awssdk.http.nio.netty.internal.SdkChannelPoolMap;
@@ -235,6 +245,93 @@ public class NettyNioAsyncHttpClientWireMockTest {
         recorder.completeFuture.get(5, TimeUnit.SECONDS);
     }
 
+    @Test
+    public void customDnsResolver_ResolvesHostsOfNewConnections() throws Exception {
+        List<String> resolvedHosts = new CopyOnWriteArrayList<>();
+        DnsResolver fakeResolver = host -> {
+            resolvedHosts.add(host);
+            return new InetAddress[] { InetAddress.getLoopbackAddress() };
+        };
+
+        try (SdkAsyncHttpClient customClient = NettyNioAsyncHttpClient.builder().dnsResolver(fakeResolver).build()) {
+            String body = randomAlphabetic(10);
+            URI uri = URI.create("http://fake-host.example:" + mockServer.port());
+            stubFor(any(urlPathEqualTo("/")).willReturn(aResponse().withBody(body)));
+            RecordingResponseHandler recorder = new RecordingResponseHandler();
+            customClient.execute(AsyncExecuteRequest.builder()
+                                                    .request(createRequest(uri))
+                                                    .requestContentPublisher(createProvider(""))
+                                                    .responseHandler(recorder)
+                                                    .build());
+            recorder.completeFuture.get(5, TimeUnit.SECONDS);
+
+            assertThat(recorder.fullResponseAsString()).isEqualTo(body);
+            assertThat(resolvedHosts).containsExactly("fake-host.example");
+        }
+    }
+
+    @Test
+    public void newClient_ResumesTlsSessionOfEarlierClient() {
+        URI uri = URI.create("https://localhost:" + mockServer.httpsPort());
+        TlsHandshakeMetrics firstMetrics;
+        TlsHandshakeMetrics secondMetrics;
+
+        try (NettyNioAsyncHttpClient first = (NettyNioAsyncHttpClient) NettyNioAsyncHttpClient.builder()
+                                                                                              .buildWithDefaults(
+                                                                                                  mapWithTrustAllCerts())) {
+            first.prewarmConnections(uri, 1).join();
+            firstMetrics = first.tlsHandshakeMetrics();
+        }
+        try (NettyNioAsyncHttpClient second = (NettyNioAsyncHttpClient) NettyNioAsyncHttpClient.builder()
+                                                                                               .buildWithDefaults(
+                                                                                                   mapWithTrustAllCerts())) {
+            second.prewarmConnections(uri, 1).join();
+            secondMetrics = second.tlsHandshakeMetrics();
+        }
+
+        // The first client's session may have been negotiated by an earlier test, but the second client resumes it
+        assertThat(firstMetrics.fullHandshakes() + firstMetrics.resumedHandshakes()).isEqualTo(1);
+        assertThat(secondMetrics.fullHandshakes()).isEqualTo(0);
+        assertThat(secondMetrics.resumedHandshakes()).isEqualTo(1);
+    }
+
+    @Test
+    public void epollTransport_CanMakeRequests() throws Exception {
+        assumeTrue(Epoll.isAvailable());
+        SdkAsyncHttpClient customClient =
+                NettyNioAsyncHttpClient.builder()
+                                       .eventLoopGroupBuilder(SdkEventLoopGroup.builder()
+                                                                               .transportType(TransportType.EPOLL)
+                                                                               .tcpQuickAck(true))
+                                       .build();
+        try {
+            makeSimpleRequest(customClient);
+            makeSimpleRequest(customClient);
+        } finally {
+            customClient.close();
+        }
+    }
+
+    @Test
+    public void eventLoopLocalConnectionPools_CanMakeConcurrentRequests() throws Exception {
+        SdkAsyncHttpClient customClient =
+                NettyNioAsyncHttpClient.builder()
+                                       .eventLoopGroupBuilder(SdkEventLoopGroup.builder().numberOfThreads(4))
+                                       .maxConcurrency(2)
+                                       .eventLoopLocalConnectionPools(true)
+                                       .build();
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(makeSimpleRequestAndReturnResponseHandler(customClient).completeFuture);
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            makeSimpleRequest(customClient);
+        } finally {
+            customClient.close();
+        }
+    }
+
     @Test
     public void canMakeBasicRequestOverHttp() throws Exception {
         String smallBody = randomAlphabetic(10);
@@ -269,6 +366,63 @@ public class NettyNioAsyncHttpClientWireMockTest {
         assertCanReceiveBasicRequest(uri, largishBody);
     }
 
+    @Test
+    public void transientByteBufferSubscriber_ReceivesReadOnlyViewsOfContent() throws Exception {
+        String body = randomAlphabetic(25000);
+        stubFor(any(urlPathEqualTo("/")).willReturn(aResponse().withBody(body)));
+        URI uri = URI.create("http://localhost:" + mockServer.port());
+
+        StringBuilder received = new StringBuilder();
+        List<Boolean> readOnly = new ArrayList<>();
+        CompletableFuture<Void> complete = new CompletableFuture<>();
+        SdkAsyncHttpResponseHandler handler = new SdkAsyncHttpResponseHandler() {
+            @Override
+            public void onHeaders(SdkHttpResponse headers) {
+            }
+
+            @Override
+            public void onStream(Publisher<ByteBuffer> stream) {
+                stream.subscribe(new TransientByteBufferSubscriber() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(ByteBuffer byteBuffer) {
+                        readOnly.add(byteBuffer.isReadOnly());
+                        received.append(UTF_8.decode(byteBuffer));
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        complete.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        complete.complete(null);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                complete.completeExceptionally(error);
+            }
+        };
+
+        client.execute(AsyncExecuteRequest.builder()
+                                          .request(createRequest(uri))
+                                          .requestContentPublisher(createProvider(""))
+                                          .responseHandler(handler)
+                                          .build());
+        complete.get(5, TimeUnit.SECONDS);
+
+        assertThat(received.toString()).isEqualTo(body);
+        assertThat(readOnly).isNotEmpty().containsOnly(true);
+    }
+
     @Test
     public void canSendContentAndGetThatContentBack() throws Exception {
         String body = randomAlphabetic(50);
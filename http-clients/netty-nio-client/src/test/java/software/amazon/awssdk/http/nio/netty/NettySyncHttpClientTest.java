@@ -0,0 +1,153 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.utils.IoUtils;
+
+public class NettySyncHttpClientTest {
+    private Http2EchoServer server;
+    private SdkHttpClient client;
+
+    @Before
+    public void setup() throws InterruptedException {
+        server = new Http2EchoServer();
+        client = NettySyncHttpClient.builder()
+                                    .maxConcurrency(20)
+                                    .maxHttp2Streams(10)
+                                    .build();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void getRequest_ReturnsResponse() throws IOException {
+        HttpExecuteResponse response = execute(request("/hello", null));
+
+        assertThat(response.httpResponse().statusCode()).isEqualTo(200);
+        assertThat(response.httpResponse().firstMatchingHeader("content-length")).hasValue("6");
+        assertThat(bodyOf(response)).isEqualTo("/hello".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void putRequest_StreamsLargeBodyBothWays() throws IOException {
+        byte[] content = new byte[1024 * 1024];
+        new Random().nextBytes(content);
+
+        HttpExecuteResponse response = execute(request("/echo", content));
+
+        assertThat(response.httpResponse().statusCode()).isEqualTo(200);
+        assertThat(bodyOf(response)).isEqualTo(content);
+    }
+
+    @Test
+    public void concurrentRequests_AreMultiplexedOverFewConnections() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String path = "/request-" + i;
+                results.add(executor.submit(() -> bodyOf(execute(request(path, null)))));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(new String(results.get(i).get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8))
+                    .isEqualTo("/request-" + i);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(server.connectionCount()).isBetween(1, 2);
+    }
+
+    @Test
+    public void abortedRequest_FailsCall() {
+        ExecutableHttpRequest request = client.prepareRequest(request("/hello", null));
+        request.abort();
+
+        assertThatThrownBy(request::call).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void connectionFailure_ThrowsIoException() throws Exception {
+        int port;
+        try (Http2EchoServer closedServer = new Http2EchoServer()) {
+            port = closedServer.port();
+        }
+
+        SdkHttpFullRequest request = SdkHttpFullRequest.builder()
+                                                       .uri(URI.create("http://localhost:" + port))
+                                                       .encodedPath("/hello")
+                                                       .method(SdkHttpMethod.GET)
+                                                       .build();
+        assertThatThrownBy(() -> execute(HttpExecuteRequest.builder().request(request).build()))
+            .isInstanceOf(IOException.class);
+    }
+
+    private HttpExecuteResponse execute(HttpExecuteRequest request) throws IOException {
+        return client.prepareRequest(request).call();
+    }
+
+    private HttpExecuteRequest request(String path, byte[] content) {
+        SdkHttpFullRequest.Builder request = SdkHttpFullRequest.builder()
+                                                               .uri(URI.create("http://localhost:" + server.port()))
+                                                               .encodedPath(path)
+                                                               .method(content == null ? SdkHttpMethod.GET : SdkHttpMethod.PUT);
+        if (content == null) {
+            return HttpExecuteRequest.builder().request(request.build()).build();
+        }
+        request.putHeader("Content-Length", Integer.toString(content.length));
+        return HttpExecuteRequest.builder()
+                                 .request(request.build())
+                                 .contentStreamProvider(() -> new ByteArrayInputStream(content))
+                                 .build();
+    }
+
+    private static byte[] bodyOf(HttpExecuteResponse response) throws IOException {
+        try (AbortableInputStream body = response.responseBody().get()) {
+            return IoUtils.toByteArray(body);
+        }
+    }
+}
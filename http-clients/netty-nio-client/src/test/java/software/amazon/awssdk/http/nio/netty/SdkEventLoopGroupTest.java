@@ -16,8 +16,14 @@
 package software.amazon.awssdk.http.nio.netty;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
 import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import org.junit.Test;
@@ -49,4 +55,64 @@ public class SdkEventLoopGroupTest {
     public void notProvidingChannelFactory_unknownEventLoopGroup() {
         SdkEventLoopGroup.create(new DefaultEventLoopGroup());
     }
+
+    @Test
+    public void builder_NoTransportType_UsesNio() {
+        SdkEventLoopGroup sdkEventLoopGroup = SdkEventLoopGroup.builder().numberOfThreads(1).build();
+        try {
+            assertThat(sdkEventLoopGroup.transportType()).hasValue(TransportType.NIO);
+            assertThat(sdkEventLoopGroup.eventLoopGroup()).isInstanceOf(NioEventLoopGroup.class);
+            assertThat(sdkEventLoopGroup.channelFactory().newChannel()).isInstanceOf(NioSocketChannel.class);
+        } finally {
+            sdkEventLoopGroup.eventLoopGroup().shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void builder_Epoll_AppliesTcpOptions() {
+        assumeTrue(Epoll.isAvailable());
+        SdkEventLoopGroup sdkEventLoopGroup = SdkEventLoopGroup.builder()
+                                                               .numberOfThreads(1)
+                                                               .transportType(TransportType.EPOLL)
+                                                               .tcpQuickAck(true)
+                                                               .tcpFastOpenConnect(true)
+                                                               .build();
+        try {
+            assertThat(sdkEventLoopGroup.transportType()).hasValue(TransportType.EPOLL);
+            assertThat(sdkEventLoopGroup.eventLoopGroup()).isInstanceOf(EpollEventLoopGroup.class);
+
+            EpollSocketChannel channel = (EpollSocketChannel) sdkEventLoopGroup.channelFactory().newChannel();
+            assertThat(channel.config().getEpollMode()).isEqualTo(EpollMode.EDGE_TRIGGERED);
+            assertThat(channel.config().isTcpQuickAck()).isTrue();
+            assertThat(channel.config().isTcpFastOpenConnect()).isTrue();
+            channel.unsafe().closeForcibly();
+        } finally {
+            sdkEventLoopGroup.eventLoopGroup().shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void builder_UnavailableTransport_FallsBackToNio() {
+        assumeFalse(Epoll.isAvailable());
+        SdkEventLoopGroup sdkEventLoopGroup = SdkEventLoopGroup.builder()
+                                                               .numberOfThreads(1)
+                                                               .transportType(TransportType.EPOLL)
+                                                               .build();
+        try {
+            assertThat(sdkEventLoopGroup.transportType()).hasValue(TransportType.NIO);
+            assertThat(sdkEventLoopGroup.eventLoopGroup()).isInstanceOf(NioEventLoopGroup.class);
+        } finally {
+            sdkEventLoopGroup.eventLoopGroup().shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void creatingUsingStaticMethod_HasNoTransportType() {
+        SdkEventLoopGroup sdkEventLoopGroup = SdkEventLoopGroup.create(new NioEventLoopGroup(1), NioSocketChannel::new);
+        try {
+            assertThat(sdkEventLoopGroup.transportType()).isEmpty();
+        } finally {
+            sdkEventLoopGroup.eventLoopGroup().shutdownGracefully();
+        }
+    }
 }
@@ -31,6 +31,7 @@ import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
 import software.amazon.awssdk.http.nio.netty.EmptyPublisher;
 import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.http.nio.netty.RecordingResponseHandler;
+import software.amazon.awssdk.utils.AttributeMap;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ConnectionReaperTest {
@@ -110,10 +111,51 @@ public class ConnectionReaperTest {
     }
 
 
+    @Test
+    public void prewarmConnections_OpensConnectionsBeforeRequests() {
+        AttributeMap trustAllCertificates = AttributeMap.builder()
+                                                        .put(SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES, true)
+                                                        .build()
+                                                        .merge(SdkHttpConfigurationOption.GLOBAL_HTTP_DEFAULTS);
+        try (NettyNioAsyncHttpClient client = (NettyNioAsyncHttpClient) NettyNioAsyncHttpClient.builder()
+                                                                                                .buildWithDefaults(
+                                                                                                    trustAllCertificates)) {
+            mockServer.stubFor(WireMock.any(urlPathEqualTo("/")).willReturn(aResponse().withBody(randomAlphabetic(10))));
+            URI uri = URI.create("https://localhost:" + mockServer.httpsPort());
+            client.prewarmConnections(uri, 3).join();
+            verify(TRAFFIC_LISTENER, new Times(3)).opened(any());
+
+            executeRequest(client, uri);
+            executeRequest(client, uri);
+            verify(TRAFFIC_LISTENER, new Times(3)).opened(any());
+        }
+    }
+
+    @Test
+    public void idleConnectionReaperLeavesMinIdleConnectionsOpen() throws InterruptedException {
+        try (NettyNioAsyncHttpClient client = (NettyNioAsyncHttpClient) NettyNioAsyncHttpClient.builder()
+                                                                                                .connectionMaxIdleTime(
+                                                                                                    Duration.ofMillis(200))
+                                                                                                .minIdleConnections(1)
+                                                                                                .buildWithDefaults(
+                                                                                                    SdkHttpConfigurationOption.GLOBAL_HTTP_DEFAULTS)) {
+            client.prewarmConnections(URI.create("http://localhost:" + mockServer.port()), 3).join();
+
+            Thread.sleep(1_000);
+
+            // The server reports each closed connection twice
+            verify(TRAFFIC_LISTENER, new Times(3)).opened(any());
+            verify(TRAFFIC_LISTENER, new Times(4)).closed(any());
+        }
+    }
+
     private void makeRequest(SdkAsyncHttpClient client) {
         stubFor(WireMock.any(urlPathEqualTo("/")).willReturn(aResponse().withBody(randomAlphabetic(10))));
 
-        URI uri = URI.create("http://localhost:" + mockServer.port());
+        executeRequest(client, URI.create("http://localhost:" + mockServer.port()));
+    }
+
+    private void executeRequest(SdkAsyncHttpClient client, URI uri) {
         client.execute(AsyncExecuteRequest.builder()
                                           .request(SdkHttpRequest.builder()
                                                                  .uri(uri)
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for {@link EventLoopShardedChannelPool}.
+ */
+public class EventLoopShardedChannelPoolTest {
+    private static EventLoopGroup loopGroup;
+    private static EventLoop first;
+    private static EventLoop second;
+
+    @BeforeClass
+    public static void setup() {
+        loopGroup = new NioEventLoopGroup(2);
+        first = loopGroup.next();
+        second = loopGroup.next();
+    }
+
+    @AfterClass
+    public static void teardown() {
+        loopGroup.shutdownGracefully().awaitUninterruptibly();
+    }
+
+    @Test
+    public void create_SplitsLimitsBetweenEventLoops() {
+        List<int[]> limits = new ArrayList<>();
+        EventLoopShardedChannelPool.create(Arrays.asList(first, second, first), 10, 2, (loop, maxConcurrency, maxPending) -> {
+            limits.add(new int[] {maxConcurrency, maxPending});
+            return Mockito.mock(ChannelPool.class);
+        });
+
+        assertThat(limits).containsExactly(new int[] {4, 1}, new int[] {3, 1}, new int[] {3, 1});
+    }
+
+    @Test
+    public void create_FewerConnectionsThanEventLoops_UsesOneEventLoopPerConnection() {
+        List<EventLoop> loops = new ArrayList<>();
+        EventLoopShardedChannelPool.create(Arrays.asList(first, second), 1, 10, (loop, maxConcurrency, maxPending) -> {
+            loops.add(loop);
+            assertThat(maxConcurrency).isEqualTo(1);
+            assertThat(maxPending).isEqualTo(10);
+            return Mockito.mock(ChannelPool.class);
+        });
+
+        assertThat(loops).containsExactly(first);
+    }
+
+    @Test
+    public void acquire_FromEventLoop_UsesItsOwnShard() throws Exception {
+        ChannelPool firstPool = pendingPool();
+        ChannelPool secondPool = pendingPool();
+        EventLoopShardedChannelPool pool = pool(firstPool, secondPool, 2);
+
+        second.submit(() -> pool.acquire()).sync();
+        second.submit(() -> pool.acquire()).sync();
+
+        Mockito.verify(secondPool, Mockito.times(2)).acquire(any());
+        Mockito.verify(firstPool, Mockito.never()).acquire(any());
+        assertThat(pool.leased(second)).isEqualTo(2);
+    }
+
+    @Test
+    public void acquire_OwnShardFull_StealsFromOtherShard() throws Exception {
+        ChannelPool firstPool = pendingPool();
+        ChannelPool secondPool = pendingPool();
+        EventLoopShardedChannelPool pool = pool(firstPool, secondPool, 1);
+
+        first.submit(() -> pool.acquire()).sync();
+        first.submit(() -> pool.acquire()).sync();
+
+        Mockito.verify(firstPool, Mockito.times(1)).acquire(any());
+        Mockito.verify(secondPool, Mockito.times(1)).acquire(any());
+    }
+
+    @Test
+    public void acquire_AllShardsFull_QueuesOnOwnShard() throws Exception {
+        ChannelPool firstPool = pendingPool();
+        ChannelPool secondPool = pendingPool();
+        EventLoopShardedChannelPool pool = pool(firstPool, secondPool, 1);
+
+        first.submit(() -> pool.acquire()).sync();
+        second.submit(() -> pool.acquire()).sync();
+        second.submit(() -> pool.acquire()).sync();
+
+        Mockito.verify(firstPool, Mockito.times(1)).acquire(any());
+        Mockito.verify(secondPool, Mockito.times(2)).acquire(any());
+    }
+
+    @Test
+    public void release_GoesToShardOfChannelEventLoop() throws Exception {
+        Channel channel = registeredChannel(second);
+        try {
+            ChannelPool firstPool = pendingPool();
+            ChannelPool secondPool = successfulPool(channel);
+            EventLoopShardedChannelPool pool = pool(firstPool, secondPool, 1);
+
+            second.submit(() -> pool.acquire()).sync();
+            assertThat(pool.leased(second)).isEqualTo(1);
+
+            assertThat(pool.release(channel).await().isSuccess()).isTrue();
+            pool.release(channel).await();
+
+            Mockito.verify(secondPool, Mockito.times(2)).release(Mockito.eq(channel), any());
+            Mockito.verify(firstPool, Mockito.never()).release(any(), any());
+            assertThat(pool.leased(second)).isEqualTo(0);
+        } finally {
+            channel.close().awaitUninterruptibly();
+        }
+    }
+
+    @Test
+    public void acquireFailure_FreesCapacityOfShard() throws Exception {
+        ChannelPool firstPool = Mockito.mock(ChannelPool.class);
+        Mockito.when(firstPool.acquire(any())).thenAnswer(i -> promise(i.getArguments()[0]).setFailure(new Exception()));
+        EventLoopShardedChannelPool pool = pool(firstPool, pendingPool(), 1);
+
+        Future<Channel> acquire = first.submit(() -> pool.acquire()).sync().getNow();
+
+        assertThat(acquire.await().isSuccess()).isFalse();
+        assertThat(pool.leased(first)).isEqualTo(0);
+    }
+
+    private static EventLoopShardedChannelPool pool(ChannelPool firstPool, ChannelPool secondPool, int maxPerShard) {
+        return EventLoopShardedChannelPool.create(Arrays.asList(first, second), maxPerShard * 2, 10,
+                                                  (loop, maxConcurrency, maxPending) -> loop == first ? firstPool
+                                                                                                      : secondPool);
+    }
+
+    private static ChannelPool pendingPool() {
+        ChannelPool pool = Mockito.mock(ChannelPool.class);
+        Mockito.when(pool.acquire(any())).thenAnswer(i -> i.getArguments()[0]);
+        return pool;
+    }
+
+    private static ChannelPool successfulPool(Channel channel) {
+        ChannelPool pool = Mockito.mock(ChannelPool.class);
+        Mockito.when(pool.acquire(any())).thenAnswer(i -> promise(i.getArguments()[0]).setSuccess(channel));
+        Mockito.when(pool.release(any(), any())).thenAnswer(i -> {
+            @SuppressWarnings("unchecked")
+            Promise<Void> promise = (Promise<Void>) i.getArguments()[1];
+            return promise.setSuccess(null);
+        });
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Promise<Channel> promise(Object promise) {
+        return (Promise<Channel>) promise;
+    }
+
+    private static Channel registeredChannel(EventLoop eventLoop) {
+        Channel channel = new NioSocketChannel();
+        eventLoop.register(channel).awaitUninterruptibly();
+        return channel;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+public class IdleConnectionFloorTest {
+
+    @Test
+    public void tryReap_ChannelWithoutFloor_IsAllowed() {
+        assertThat(IdleConnectionFloor.tryReap(new EmbeddedChannel())).isTrue();
+    }
+
+    @Test
+    public void tryReap_AboveMinimum_IsAllowedUntilMinimumIsReached() {
+        IdleConnectionFloor floor = new IdleConnectionFloor(2);
+        Channel first = createdChannel(floor);
+        Channel second = createdChannel(floor);
+        Channel third = createdChannel(floor);
+        assertThat(floor.openConnections()).isEqualTo(3);
+
+        assertThat(IdleConnectionFloor.tryReap(first)).isTrue();
+        assertThat(floor.openConnections()).isEqualTo(2);
+        assertThat(IdleConnectionFloor.tryReap(second)).isFalse();
+        assertThat(IdleConnectionFloor.tryReap(third)).isFalse();
+    }
+
+    @Test
+    public void reapedChannelClosing_IsOnlyCountedOnce() {
+        IdleConnectionFloor floor = new IdleConnectionFloor(1);
+        Channel first = createdChannel(floor);
+        createdChannel(floor);
+
+        assertThat(IdleConnectionFloor.tryReap(first)).isTrue();
+        first.close();
+        assertThat(floor.openConnections()).isEqualTo(1);
+    }
+
+    @Test
+    public void closedChannel_StopsCounting() {
+        IdleConnectionFloor floor = new IdleConnectionFloor(1);
+        Channel first = createdChannel(floor);
+        Channel second = createdChannel(floor);
+
+        second.close();
+        assertThat(floor.openConnections()).isEqualTo(1);
+        assertThat(IdleConnectionFloor.tryReap(first)).isFalse();
+    }
+
+    private static Channel createdChannel(IdleConnectionFloor floor) {
+        Channel channel = new EmbeddedChannel();
+        floor.connectionCreated(channel);
+        return channel;
+    }
+}
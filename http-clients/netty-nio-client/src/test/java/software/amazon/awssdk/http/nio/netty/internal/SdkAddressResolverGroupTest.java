@@ -0,0 +1,106 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.netty.resolver.AddressResolver;
+import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.EventExecutor;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SdkAddressResolverGroupTest {
+    private final AtomicInteger lookups = new AtomicInteger();
+    private InetAddress[] addresses;
+    private EventExecutor eventExecutor;
+    private SdkAddressResolverGroup resolverGroup;
+    private AddressResolver<InetSocketAddress> resolver;
+
+    @Before
+    public void setup() throws UnknownHostException {
+        addresses = new InetAddress[] { InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 1 }),
+                                        InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 2 }),
+                                        InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 3 }) };
+        eventExecutor = new DefaultEventExecutor();
+        resolverGroup = new SdkAddressResolverGroup(this::fakeResolve, Duration.ofMinutes(1));
+        resolver = resolverGroup.getResolver(eventExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        resolverGroup.close();
+        eventExecutor.shutdownGracefully();
+    }
+
+    @Test
+    public void resolve_SpreadsConnectionsOverAllAddresses() throws Exception {
+        Set<InetAddress> resolved = new HashSet<>();
+        for (int i = 0; i < addresses.length; i++) {
+            InetSocketAddress address = resolve("example.com");
+            assertThat(address.getPort()).isEqualTo(443);
+            resolved.add(address.getAddress());
+        }
+
+        assertThat(resolved).containsExactlyInAnyOrder(addresses);
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    public void resolve_PrefersAddressWithFewestOpenConnections() throws Exception {
+        resolverGroup.addressSelector().connectionOpened(addresses[0]);
+        resolverGroup.addressSelector().connectionOpened(addresses[2]);
+
+        assertThat(resolve("example.com").getAddress()).isEqualTo(addresses[1]);
+        assertThat(resolve("example.com").getAddress()).isEqualTo(addresses[1]);
+    }
+
+    @Test
+    public void resolveAll_ReturnsAllAddresses() throws Exception {
+        List<InetSocketAddress> resolved =
+            resolver.resolveAll(InetSocketAddress.createUnresolved("example.com", 443)).get();
+
+        assertThat(resolved).extracting(InetSocketAddress::getAddress).containsExactlyInAnyOrder(addresses);
+    }
+
+    @Test
+    public void resolve_UnknownHost_Fails() {
+        assertThatThrownBy(() -> resolve("unknown.example.com")).hasCauseInstanceOf(UnknownHostException.class);
+    }
+
+    private InetSocketAddress resolve(String host) throws InterruptedException, ExecutionException {
+        return resolver.resolve(InetSocketAddress.createUnresolved(host, 443)).get();
+    }
+
+    private InetAddress[] fakeResolve(String host) throws UnknownHostException {
+        lookups.incrementAndGet();
+        if (!host.equals("example.com")) {
+            throw new UnknownHostException(host);
+        }
+        return addresses;
+    }
+}
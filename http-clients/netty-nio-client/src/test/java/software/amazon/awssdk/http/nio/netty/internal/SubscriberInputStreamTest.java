@@ -0,0 +1,100 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.nio.netty.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.utils.IoUtils;
+
+public class SubscriberInputStreamTest {
+    private Subscription subscription;
+    private SubscriberInputStream stream;
+
+    @Before
+    public void setup() {
+        subscription = mock(Subscription.class);
+        stream = new SubscriberInputStream();
+        stream.onSubscribe(subscription);
+    }
+
+    @Test
+    public void read_ReturnsPublishedBuffersInOrder() throws IOException {
+        stream.onNext(buffer("Hello, "));
+        stream.onNext(ByteBuffer.allocate(0));
+        stream.onNext(buffer("world"));
+        stream.onComplete();
+
+        assertThat(IoUtils.toUtf8String(stream)).isEqualTo("Hello, world");
+    }
+
+    @Test
+    public void read_RequestsAnotherBufferForEachOneTaken() throws IOException {
+        verify(subscription).request(4);
+
+        stream.onNext(buffer("ab"));
+        stream.onNext(buffer("cd"));
+        assertThat(stream.read()).isEqualTo('a');
+        verify(subscription).request(1);
+
+        assertThat(stream.read()).isEqualTo('b');
+        verify(subscription).request(1);
+
+        assertThat(stream.read()).isEqualTo('c');
+        verify(subscription, times(2)).request(1);
+    }
+
+    @Test
+    public void read_AfterError_ThrowsIoException() throws IOException {
+        stream.onNext(buffer("a"));
+        stream.onError(new RuntimeException("Connection reset"));
+
+        assertThat(stream.read()).isEqualTo('a');
+        assertThatThrownBy(stream::read).isInstanceOf(IOException.class).hasMessageContaining("Connection reset");
+    }
+
+    @Test
+    public void close_BeforeComplete_CancelsSubscription() {
+        stream.onNext(buffer("a"));
+        stream.close();
+
+        verify(subscription).cancel();
+        assertThatThrownBy(stream::read).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void close_AfterComplete_DoesNotCancelSubscription() {
+        stream.onComplete();
+        stream.close();
+
+        verify(subscription, never()).cancel();
+    }
+
+    private static ByteBuffer buffer(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
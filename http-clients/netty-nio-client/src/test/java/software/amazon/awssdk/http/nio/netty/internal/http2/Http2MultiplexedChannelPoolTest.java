@@ -16,6 +16,7 @@
 package software.amazon.awssdk.http.nio.netty.internal.http2;
 
 import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.pool.ChannelPool;
@@ -29,10 +30,21 @@ import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.MAX_CONCURRENT_STREAMS;
+import static software.amazon.awssdk.http.nio.netty.internal.ChannelAttributeKey.PROTOCOL_FUTURE;
 
 /**
  * Tests for {@link Http2MultiplexedChannelPool}.
@@ -131,4 +143,150 @@ public class Http2MultiplexedChannelPoolTest {
             channel.close().awaitUninterruptibly();
         }
     }
+
+    @Test
+    public void acquire_PicksLessLoadedConnection() throws Exception {
+        List<SocketChannel> channels = new ArrayList<>();
+        try {
+            ChannelPool connectionPool = Mockito.mock(ChannelPool.class);
+            EventLoop eventLoop = loopGroup.next();
+            MultiplexedChannelRecord busy = connectedRecord(channels, 8);
+            MultiplexedChannelRecord idle = connectedRecord(channels, 8);
+            for (int i = 0; i < 5; i++) {
+                busy.acquire(new DefaultPromise<>(eventLoop));
+            }
+            Http2MultiplexedChannelPool h2Pool = new Http2MultiplexedChannelPool(connectionPool, eventLoop, 8,
+                                                                                 Arrays.asList(busy, idle));
+
+            for (int i = 0; i < 4; i++) {
+                h2Pool.acquire();
+            }
+            inEventLoop(eventLoop, () -> null);
+
+            assertThat(busy.openStreams()).isEqualTo(5);
+            assertThat(idle.openStreams()).isEqualTo(4);
+            assertThat(idle.peakOpenStreams()).isEqualTo(4);
+            assertThat(idle.totalStreams()).isEqualTo(4);
+            Mockito.verify(connectionPool, Mockito.never()).acquire();
+        } finally {
+            closeAll(channels);
+        }
+    }
+
+    @Test
+    public void acquire_FillsAllConnectionsBeforeOpeningNewOne() throws Exception {
+        List<SocketChannel> channels = new ArrayList<>();
+        try {
+            ChannelPool connectionPool = Mockito.mock(ChannelPool.class);
+            EventLoop eventLoop = loopGroup.next();
+            List<MultiplexedChannelRecord> records = Arrays.asList(connectedRecord(channels, 8),
+                                                                   connectedRecord(channels, 8),
+                                                                   connectedRecord(channels, 8),
+                                                                   connectedRecord(channels, 8));
+            Http2MultiplexedChannelPool h2Pool = new Http2MultiplexedChannelPool(connectionPool, eventLoop, 8, records);
+
+            for (int i = 0; i < 32; i++) {
+                h2Pool.acquire();
+            }
+            inEventLoop(eventLoop, () -> null);
+
+            assertThat(records).allSatisfy(r -> assertThat(r.openStreams()).isEqualTo(8));
+            Mockito.verify(connectionPool, Mockito.never()).acquire();
+        } finally {
+            closeAll(channels);
+        }
+    }
+
+    @Test
+    public void acquire_HonorsMaxConcurrentStreamsOfConnection() throws Exception {
+        List<SocketChannel> channels = new ArrayList<>();
+        try {
+            ChannelPool connectionPool = Mockito.mock(ChannelPool.class);
+            EventLoop eventLoop = loopGroup.next();
+            Mockito.when(connectionPool.acquire()).thenReturn(new DefaultPromise<>(eventLoop));
+            MultiplexedChannelRecord record = connectedRecord(channels, 8);
+            channels.get(0).attr(MAX_CONCURRENT_STREAMS).set(1L);
+            Http2MultiplexedChannelPool h2Pool = new Http2MultiplexedChannelPool(connectionPool, eventLoop, 8,
+                                                                                 Collections.singletonList(record));
+
+            h2Pool.acquire();
+            h2Pool.acquire();
+
+            assertThat(inEventLoop(eventLoop, () -> h2Pool.connections().size())).isEqualTo(2);
+            assertThat(record.openStreams()).isEqualTo(1);
+            Mockito.verify(connectionPool, Mockito.times(1)).acquire();
+        } finally {
+            closeAll(channels);
+        }
+    }
+
+    @Test
+    public void connectionsAreListedInRegistryWhileInPool() throws Exception {
+        ChannelPool connectionPool = Mockito.mock(ChannelPool.class);
+        EventLoop eventLoop = loopGroup.next();
+        Promise<Channel> connectionPromise = new DefaultPromise<>(eventLoop);
+        Mockito.when(connectionPool.acquire()).thenReturn(connectionPromise);
+        Set<MultiplexedChannelRecord> registry = ConcurrentHashMap.newKeySet();
+        Http2MultiplexedChannelPool h2Pool = new Http2MultiplexedChannelPool(connectionPool, eventLoop, 8, 0, registry);
+
+        h2Pool.acquire();
+        inEventLoop(eventLoop, () -> null);
+
+        assertThat(registry).hasSize(1);
+        MultiplexedChannelRecord record = registry.iterator().next();
+        assertThat(record.openStreams()).isEqualTo(1);
+        assertThat(record.totalStreams()).isEqualTo(1);
+        assertThat(record.maxConcurrentStreams()).isEqualTo(8);
+
+        connectionPromise.setFailure(new IOException("Connection refused"));
+        inEventLoop(eventLoop, () -> null);
+
+        assertThat(registry).isEmpty();
+    }
+
+    @Test
+    public void idleConnectionsAreClosed() throws Exception {
+        List<SocketChannel> channels = new ArrayList<>();
+        try {
+            ChannelPool connectionPool = Mockito.mock(ChannelPool.class);
+            EventLoop eventLoop = loopGroup.next();
+            MultiplexedChannelRecord idle = connectedRecord(channels, 8);
+            MultiplexedChannelRecord busy = connectedRecord(channels, 8);
+            busy.acquire(new DefaultPromise<>(eventLoop));
+            Http2MultiplexedChannelPool h2Pool = new Http2MultiplexedChannelPool(connectionPool, eventLoop, 8, 20,
+                                                                                 Arrays.asList(idle, busy));
+
+            Thread.sleep(200);
+
+            assertThat(inEventLoop(eventLoop, h2Pool::connections)).containsExactly(busy);
+            Mockito.verify(connectionPool).release(channels.get(0));
+            Mockito.verify(connectionPool, Mockito.never()).release(channels.get(1));
+            assertThat(channels.get(0).closeFuture().await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            closeAll(channels);
+        }
+    }
+
+    /**
+     * Creates a record for a connection that is established but never finishes negotiating its protocol, so acquired
+     * streams stay pending and are counted as in flight.
+     */
+    private static MultiplexedChannelRecord connectedRecord(List<SocketChannel> channels, long maxStreams) {
+        SocketChannel channel = new NioSocketChannel();
+        loopGroup.register(channel).awaitUninterruptibly();
+        channel.attr(PROTOCOL_FUTURE).set(new CompletableFuture<>());
+        channels.add(channel);
+        Promise<Channel> channelPromise = new DefaultPromise<>(loopGroup.next());
+        channelPromise.setSuccess(channel);
+        return new MultiplexedChannelRecord(channelPromise, channel, maxStreams, (ch, rec) -> {});
+    }
+
+    private static <T> T inEventLoop(EventLoop eventLoop, Callable<T> task)
+            throws InterruptedException, ExecutionException {
+        return eventLoop.submit(task).get();
+    }
+
+    private static void closeAll(List<SocketChannel> channels) {
+        channels.forEach(c -> c.close().awaitUninterruptibly());
+    }
 }
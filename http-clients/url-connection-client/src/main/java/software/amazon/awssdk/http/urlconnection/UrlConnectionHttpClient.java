@@ -17,18 +17,24 @@ package software.amazon.awssdk.http.urlconnection;
 
 import static software.amazon.awssdk.http.HttpStatusFamily.CLIENT_ERROR;
 import static software.amazon.awssdk.http.HttpStatusFamily.SERVER_ERROR;
+import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_ACQUIRE_TIMEOUT;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.CONNECTION_TIMEOUT;
 import static software.amazon.awssdk.http.SdkHttpConfigurationOption.READ_TIMEOUT;
 import static software.amazon.awssdk.utils.FunctionalUtils.invokeSafely;
 import static software.amazon.awssdk.utils.NumericUtils.saturatedCast;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import software.amazon.awssdk.annotations.SdkPublicApi;
 import software.amazon.awssdk.http.AbortableInputStream;
@@ -41,6 +47,7 @@ import software.amazon.awssdk.http.SdkHttpConfigurationOption;
 import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.utils.AttributeMap;
 import software.amazon.awssdk.utils.IoUtils;
+import software.amazon.awssdk.utils.Validate;
 
 /**
  * An implementation of {@link SdkHttpClient} that uses {@link HttpURLConnection} to communicate with the service. This is the
@@ -49,6 +56,11 @@ import software.amazon.awssdk.utils.IoUtils;
  *
  * <p>See software.amazon.awssdk.http.apache.ApacheHttpClient for an alternative implementation.</p>
  *
+ * <p>The client holds no locks of its own, so it suits callers that run each request on a virtual thread. On Java 21 and
+ * later, {@link HttpURLConnection} also parks a waiting virtual thread instead of pinning its carrier thread. Set
+ * {@link Builder#maxConcurrency(Integer)} to bound the number of requests in flight, and with it the number of open
+ * sockets, with a semaphore rather than with the size of a thread pool.</p>
+ *
  * <p>This can be created via {@link #builder()}</p>
  */
 @SdkPublicApi
@@ -56,15 +68,17 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
 
     private final AttributeMap options;
     private final UrlConnectionFactory connectionFactory;
+    private final ConcurrencyLimit concurrencyLimit;
 
-    private UrlConnectionHttpClient(AttributeMap options, UrlConnectionFactory connectionFactory) {
+    private UrlConnectionHttpClient(AttributeMap options, UrlConnectionFactory connectionFactory, Integer maxConcurrency) {
         this.options = options;
         if (connectionFactory != null) {
             this.connectionFactory = connectionFactory;
         } else {
             this.connectionFactory = this::createDefaultConnection;
         }
-
+        this.concurrencyLimit = maxConcurrency != null ?
+                                new ConcurrencyLimit(maxConcurrency, options.get(CONNECTION_ACQUIRE_TIMEOUT)) : null;
     }
 
     public static Builder builder() {
@@ -88,13 +102,13 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
      * @return an {@link UrlConnectionHttpClient}
      */
     public static SdkHttpClient create(UrlConnectionFactory connectionFactory) {
-        return new UrlConnectionHttpClient(AttributeMap.empty(), connectionFactory);
+        return new UrlConnectionHttpClient(AttributeMap.empty(), connectionFactory, null);
     }
 
     @Override
     public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
         HttpURLConnection connection = createAndConfigureConnection(request);
-        return new RequestCallable(connection, request);
+        return new RequestCallable(connection, request, concurrencyLimit);
     }
 
     @Override
@@ -126,18 +140,69 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
         return connection;
     }
 
+    /**
+     * Bounds the number of requests in flight. A request holds a permit from when it is called until its response body has
+     * been read to the end or closed, or until it fails or is aborted.
+     */
+    private static final class ConcurrencyLimit {
+        private final Semaphore permits;
+        private final int maxConcurrency;
+        private final Duration acquisitionTimeout;
+
+        private ConcurrencyLimit(int maxConcurrency, Duration acquisitionTimeout) {
+            this.permits = new Semaphore(maxConcurrency);
+            this.maxConcurrency = maxConcurrency;
+            this.acquisitionTimeout = acquisitionTimeout;
+        }
+
+        private void acquire() throws IOException {
+            try {
+                if (!permits.tryAcquire(acquisitionTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Timed out after " + acquisitionTimeout + " waiting for one of the " + maxConcurrency
+                                          + " requests allowed in flight to complete. Consider increasing maxConcurrency, "
+                                          + "and make sure response bodies are closed.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to send the request.");
+            }
+        }
+
+        private void release() {
+            permits.release();
+        }
+    }
+
     private static class RequestCallable implements ExecutableHttpRequest {
 
         private final HttpURLConnection connection;
         private final HttpExecuteRequest request;
+        private final ConcurrencyLimit concurrencyLimit;
+        private final AtomicBoolean holdsPermit = new AtomicBoolean();
 
-        private RequestCallable(HttpURLConnection connection, HttpExecuteRequest request) {
+        private RequestCallable(HttpURLConnection connection, HttpExecuteRequest request, ConcurrencyLimit concurrencyLimit) {
             this.connection = connection;
             this.request = request;
+            this.concurrencyLimit = concurrencyLimit;
         }
 
         @Override
         public HttpExecuteResponse call() throws IOException {
+            if (concurrencyLimit == null) {
+                return execute();
+            }
+
+            concurrencyLimit.acquire();
+            holdsPermit.set(true);
+            try {
+                return execute();
+            } catch (IOException | RuntimeException e) {
+                releasePermit();
+                throw e;
+            }
+        }
+
+        private HttpExecuteResponse execute() throws IOException {
             connection.connect();
 
             request.contentStreamProvider().ifPresent(provider ->
@@ -146,6 +211,11 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
             int responseCode = connection.getResponseCode();
             boolean isErrorResponse = HttpStatusFamily.of(responseCode).isOneOf(CLIENT_ERROR, SERVER_ERROR);
             InputStream content = !isErrorResponse ? connection.getInputStream() : connection.getErrorStream();
+            if (content == null) {
+                releasePermit();
+            } else if (concurrencyLimit != null) {
+                content = new PermitReleasingInputStream(content);
+            }
             AbortableInputStream responseBody = content != null ?
                                                 AbortableInputStream.create(content) : null;
 
@@ -169,6 +239,51 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
         @Override
         public void abort() {
             connection.disconnect();
+            releasePermit();
+        }
+
+        private void releasePermit() {
+            if (holdsPermit.compareAndSet(true, false)) {
+                concurrencyLimit.release();
+            }
+        }
+
+        /**
+         * Gives the request's permit back once the body has been read to the end, which is when {@link HttpURLConnection}
+         * returns the connection to its keep-alive cache, or once the body is closed.
+         */
+        private final class PermitReleasingInputStream extends FilterInputStream {
+
+            private PermitReleasingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int read = super.read();
+                if (read == -1) {
+                    releasePermit();
+                }
+                return read;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read == -1) {
+                    releasePermit();
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    releasePermit();
+                }
+            }
         }
     }
 
@@ -196,10 +311,27 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
          * means infinity, and is not recommended.
          */
         Builder connectionTimeout(Duration connectionTimeout);
+
+        /**
+         * The maximum number of requests that may be in flight at once. A request counts until its response body has been
+         * read to the end or closed. Callers beyond the limit wait, for up to the
+         * {@link #connectionAcquisitionTimeout(Duration)}, for an earlier request to complete.
+         *
+         * <p>By default the number of requests in flight is not limited. Setting a limit is recommended when requests are made
+         * from virtual threads, where the number of callers is no longer bounded by the size of a thread pool.
+         */
+        Builder maxConcurrency(Integer maxConcurrency);
+
+        /**
+         * The amount of time to wait for a request to be allowed to start when {@link #maxConcurrency(Integer)} requests are
+         * already in flight. Only used when a maximum concurrency has been configured.
+         */
+        Builder connectionAcquisitionTimeout(Duration connectionAcquisitionTimeout);
     }
 
     private static final class DefaultBuilder implements Builder {
         private final AttributeMap.Builder standardOptions = AttributeMap.builder();
+        private Integer maxConcurrency;
 
         private DefaultBuilder() {
         }
@@ -236,6 +368,30 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
             connectionTimeout(connectionTimeout);
         }
 
+        @Override
+        public Builder maxConcurrency(Integer maxConcurrency) {
+            if (maxConcurrency != null) {
+                Validate.isPositive(maxConcurrency, "maxConcurrency");
+            }
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public void setMaxConcurrency(Integer maxConcurrency) {
+            maxConcurrency(maxConcurrency);
+        }
+
+        @Override
+        public Builder connectionAcquisitionTimeout(Duration connectionAcquisitionTimeout) {
+            Validate.isPositive(connectionAcquisitionTimeout, "connectionAcquisitionTimeout");
+            standardOptions.put(CONNECTION_ACQUIRE_TIMEOUT, connectionAcquisitionTimeout);
+            return this;
+        }
+
+        public void setConnectionAcquisitionTimeout(Duration connectionAcquisitionTimeout) {
+            connectionAcquisitionTimeout(connectionAcquisitionTimeout);
+        }
+
         /**
          * Used by the SDK to create a {@link SdkHttpClient} with service-default values if no other values have been configured
          *
@@ -248,7 +404,8 @@ public final class UrlConnectionHttpClient implements SdkHttpClient {
             return new UrlConnectionHttpClient(standardOptions.build()
                                                               .merge(serviceDefaults)
                                                               .merge(SdkHttpConfigurationOption.GLOBAL_HTTP_DEFAULTS),
-                                               null);
+                                               null,
+                                               maxConcurrency);
         }
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.http.urlconnection;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.utils.IoUtils;
+
+public class UrlConnectionHttpClientMaxConcurrencyTest {
+    @Rule
+    public WireMockRule mockServer = new WireMockRule(wireMockConfig().dynamicPort());
+
+    private SdkHttpClient client;
+
+    @Before
+    public void setup() {
+        mockServer.stubFor(any(urlPathEqualTo("/")).willReturn(aResponse().withStatus(200).withBody("hello")));
+        client = UrlConnectionHttpClient.builder()
+                                        .maxConcurrency(1)
+                                        .connectionAcquisitionTimeout(Duration.ofMillis(100))
+                                        .build();
+    }
+
+    @After
+    public void teardown() {
+        client.close();
+    }
+
+    @Test
+    public void requestBeyondLimit_TimesOutUntilBodyIsClosed() throws IOException {
+        HttpExecuteResponse first = call(URI.create("http://localhost:" + mockServer.port()));
+
+        assertThatThrownBy(() -> call(URI.create("http://localhost:" + mockServer.port())))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("maxConcurrency");
+
+        first.responseBody().get().close();
+        assertThat(readBody(call(URI.create("http://localhost:" + mockServer.port())))).isEqualTo("hello");
+    }
+
+    @Test
+    public void bodyReadToEnd_ReleasesPermitWithoutClose() throws IOException {
+        AbortableInputStream body = call(URI.create("http://localhost:" + mockServer.port())).responseBody().get();
+        assertThat(IoUtils.toUtf8String(body)).isEqualTo("hello");
+
+        assertThat(readBody(call(URI.create("http://localhost:" + mockServer.port())))).isEqualTo("hello");
+    }
+
+    @Test
+    public void abortedRequest_ReleasesPermit() throws IOException {
+        ExecutableHttpRequest request = client.prepareRequest(executeRequest(URI.create("http://localhost:" + mockServer.port())));
+        request.call();
+        request.abort();
+
+        assertThat(readBody(call(URI.create("http://localhost:" + mockServer.port())))).isEqualTo("hello");
+    }
+
+    @Test
+    public void failedRequest_ReleasesPermit() throws IOException {
+        URI unreachable;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachable = URI.create("http://localhost:" + socket.getLocalPort());
+        }
+        assertThatThrownBy(() -> call(unreachable)).isInstanceOf(IOException.class);
+
+        assertThat(readBody(call(URI.create("http://localhost:" + mockServer.port())))).isEqualTo("hello");
+    }
+
+    private HttpExecuteResponse call(URI uri) throws IOException {
+        return client.prepareRequest(executeRequest(uri)).call();
+    }
+
+    private static HttpExecuteRequest executeRequest(URI uri) {
+        SdkHttpFullRequest request = SdkHttpFullRequest.builder()
+                                                       .uri(uri)
+                                                       .method(SdkHttpMethod.GET)
+                                                       .build();
+        return HttpExecuteRequest.builder().request(request).build();
+    }
+
+    private static String readBody(HttpExecuteResponse response) throws IOException {
+        try (AbortableInputStream body = response.responseBody().get()) {
+            return new String(IoUtils.toByteArray(body), StandardCharsets.UTF_8);
+        }
+    }
+}
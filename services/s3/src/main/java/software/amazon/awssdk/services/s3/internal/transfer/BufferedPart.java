@@ -0,0 +1,44 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * One range of an object held in memory, along with the response it came with.
+ */
+@SdkInternalApi
+final class BufferedPart {
+    private final GetObjectResponse response;
+    private final List<ByteBuffer> buffers;
+
+    BufferedPart(GetObjectResponse response, List<ByteBuffer> buffers) {
+        this.response = response;
+        this.buffers = buffers;
+    }
+
+    GetObjectResponse response() {
+        return response;
+    }
+
+    List<ByteBuffer> buffers() {
+        return buffers;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * {@link AsyncResponseTransformer} that keeps one range of an object in the buffers it arrived in, so it can be published
+ * once the ranges before it have been.
+ */
+@SdkInternalApi
+final class BufferingPartTransformer implements AsyncResponseTransformer<GetObjectResponse, BufferedPart> {
+    private volatile CompletableFuture<BufferedPart> cf;
+    private volatile GetObjectResponse response;
+
+    @Override
+    public CompletableFuture<BufferedPart> prepare() {
+        cf = new CompletableFuture<>();
+        return cf;
+    }
+
+    @Override
+    public void onResponse(GetObjectResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    public void onStream(SdkPublisher<ByteBuffer> publisher) {
+        publisher.subscribe(new BufferingSubscriber());
+    }
+
+    @Override
+    public void exceptionOccurred(Throwable throwable) {
+        cf.completeExceptionally(throwable);
+    }
+
+    private final class BufferingSubscriber implements Subscriber<ByteBuffer> {
+        private final List<ByteBuffer> buffers = new ArrayList<>();
+        private long received = 0;
+        private Subscription subscription;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (this.subscription != null) {
+                s.cancel();
+                return;
+            }
+            this.subscription = s;
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+            if (byteBuffer.hasRemaining()) {
+                received += byteBuffer.remaining();
+                buffers.add(byteBuffer);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            cf.completeExceptionally(t);
+        }
+
+        @Override
+        public void onComplete() {
+            Long expectedLength = response.contentLength();
+            if (expectedLength != null && expectedLength != received) {
+                cf.completeExceptionally(
+                    SdkClientException.create("Expected " + expectedLength + " bytes but received " + received,
+                                              new IOException("Response ended early")));
+                return;
+            }
+            cf.complete(new BufferedPart(response, buffers));
+        }
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.annotations.SdkTestInternalApi;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.transfer.S3MultipartUploader;
+import software.amazon.awssdk.utils.CompletableFutureUtils;
+import software.amazon.awssdk.utils.ThreadFactoryBuilder;
+import software.amazon.awssdk.utils.Validate;
+
+/**
+ * Default implementation of {@link S3MultipartUploader}.
+ */
+@SdkInternalApi
+public final class DefaultS3MultipartUploader implements S3MultipartUploader {
+    private static final long DEFAULT_PART_SIZE_IN_BYTES = 8L * 1024 * 1024;
+    private static final int DEFAULT_MAX_CONCURRENT_PARTS = 8;
+
+    /**
+     * The most parts S3 accepts in one multipart upload.
+     */
+    private static final int MAX_PARTS = 10_000;
+
+    /**
+     * The smallest part S3 accepts, other than the last part of an upload.
+     */
+    private static final long MIN_PART_SIZE_IN_BYTES = 5L * 1024 * 1024;
+
+    /**
+     * The largest part that can be held in a byte array.
+     */
+    private static final long MAX_PART_SIZE_IN_BYTES = Integer.MAX_VALUE - 8;
+
+    private final S3AsyncClient s3Client;
+    private final long partSizeInBytes;
+    private final int maxConcurrentParts;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final PartRetrier partRetrier;
+
+    private DefaultS3MultipartUploader(BuilderImpl builder) {
+        this.s3Client = Validate.paramNotNull(builder.s3Client, "s3Client");
+        this.partSizeInBytes = builder.partSizeInBytes == null ? DEFAULT_PART_SIZE_IN_BYTES : builder.partSizeInBytes;
+        // Checked up front: S3 only rejects small parts at CompleteMultipartUpload, after every part was uploaded
+        Validate.isTrue(partSizeInBytes >= builder.minPartSizeInBytes && partSizeInBytes <= MAX_PART_SIZE_IN_BYTES,
+                        "partSizeInBytes must be at least %s and no more than %s", builder.minPartSizeInBytes,
+                        MAX_PART_SIZE_IN_BYTES);
+        this.maxConcurrentParts = Validate.isPositive(builder.maxConcurrentParts == null ? DEFAULT_MAX_CONCURRENT_PARTS
+                                                                                         : builder.maxConcurrentParts,
+                                                      "maxConcurrentParts");
+        this.ownsScheduler = builder.scheduledExecutorService == null;
+        this.scheduler = ownsScheduler ? createScheduler() : builder.scheduledExecutorService;
+        this.partRetrier = new PartRetrier(builder.partRetryPolicy == null ? RetryPolicy.defaultRetryPolicy()
+                                                                           : builder.partRetryPolicy,
+                                           scheduler);
+    }
+
+    public static Builder builder() {
+        return new BuilderImpl(MIN_PART_SIZE_IN_BYTES);
+    }
+
+    /**
+     * Creates a builder that accepts parts smaller than S3 does, for tests against a mock server.
+     */
+    @SdkTestInternalApi
+    public static Builder builderAllowingSmallParts() {
+        return new BuilderImpl(1);
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().threadNamePrefix("s3-multipart-upload")
+                                                                                    .daemonThreads(true)
+                                                                                    .build());
+    }
+
+    @Override
+    public CompletableFuture<CompleteMultipartUploadResponse> upload(CreateMultipartUploadRequest createMultipartUploadRequest,
+                                                                     Path sourcePath) {
+        Validate.paramNotNull(createMultipartUploadRequest, "createMultipartUploadRequest");
+        PartSource source;
+        try {
+            source = FilePartSource.open(sourcePath, partSizeInBytes, MAX_PARTS);
+        } catch (IOException e) {
+            return CompletableFutureUtils.failedFuture(SdkClientException.create("Unable to read " + sourcePath, e));
+        }
+        return new MultipartUpload(createMultipartUploadRequest, source).start();
+    }
+
+    @Override
+    public CompletableFuture<CompleteMultipartUploadResponse> upload(CreateMultipartUploadRequest createMultipartUploadRequest,
+                                                                     AsyncRequestBody requestBody) {
+        Validate.paramNotNull(createMultipartUploadRequest, "createMultipartUploadRequest");
+        Validate.paramNotNull(requestBody, "requestBody");
+        long partSize = requestBody.contentLength()
+                                   .map(length -> Math.max(partSizeInBytes, (length + MAX_PARTS - 1) / MAX_PARTS))
+                                   .orElse(partSizeInBytes);
+        if (partSize > MAX_PART_SIZE_IN_BYTES) {
+            return CompletableFutureUtils.failedFuture(
+                SdkClientException.create("The content is too large to upload in " + MAX_PARTS + " parts."));
+        }
+        return new MultipartUpload(createMultipartUploadRequest, new StreamPartSource(requestBody, (int) partSize)).start();
+    }
+
+    @Override
+    public void close() {
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads parts from a {@link PartSource} and uploads them, keeping up to {@code maxConcurrentParts} uploads in flight, then
+     * completes the upload, or aborts it if anything fails.
+     */
+    private final class MultipartUpload {
+        private final CreateMultipartUploadRequest request;
+        private final PartSource source;
+        private final CompletableFuture<CompleteMultipartUploadResponse> result = new CompletableFuture<>();
+        private final Set<CompletableFuture<?>> partsInFlight = new HashSet<>();
+        private final Map<Integer, String> partETags = new TreeMap<>();
+
+        private String uploadId;
+        private boolean readingPart = false;
+        private boolean sourceExhausted = false;
+        private boolean completing = false;
+        private boolean failed = false;
+
+        private MultipartUpload(CreateMultipartUploadRequest request, PartSource source) {
+            this.request = request;
+            this.source = source;
+        }
+
+        private CompletableFuture<CompleteMultipartUploadResponse> start() {
+            result.whenComplete((r, t) -> {
+                if (result.isCancelled()) {
+                    fail(t);
+                }
+            });
+            call(() -> s3Client.createMultipartUpload(request)).whenComplete((response, t) -> {
+                if (t != null) {
+                    fail(t);
+                    return;
+                }
+                synchronized (this) {
+                    uploadId = response.uploadId();
+                }
+                readNextPart();
+            });
+            return result;
+        }
+
+        private void readNextPart() {
+            synchronized (this) {
+                if (failed || readingPart || sourceExhausted || partsInFlight.size() >= maxConcurrentParts) {
+                    return;
+                }
+                readingPart = true;
+            }
+            call(source::nextPart).whenComplete(this::partRead);
+        }
+
+        private void partRead(PartContent part, Throwable t) {
+            if (t != null) {
+                fail(t);
+                return;
+            }
+            synchronized (this) {
+                readingPart = false;
+                if (part == null) {
+                    sourceExhausted = true;
+                } else {
+                    uploadPart(part);
+                }
+            }
+            if (part == null) {
+                completeIfFinished();
+            } else {
+                readNextPart();
+            }
+        }
+
+        private void uploadPart(PartContent part) {
+            UploadPartRequest partRequest = UploadPartRequest.builder()
+                                                             .bucket(request.bucket())
+                                                             .key(request.key())
+                                                             .uploadId(uploadId)
+                                                             .partNumber(part.partNumber())
+                                                             .contentLength((long) part.length())
+                                                             .contentMD5(part.contentMd5())
+                                                             .requestPayer(request.requestPayerAsString())
+                                                             .sseCustomerAlgorithm(request.sseCustomerAlgorithm())
+                                                             .sseCustomerKey(request.sseCustomerKey())
+                                                             .sseCustomerKeyMD5(request.sseCustomerKeyMD5())
+                                                             .build();
+            CompletableFuture<UploadPartResponse> future =
+                partRetrier.execute(() -> s3Client.uploadPart(partRequest, new PartRequestBody(part)));
+            partsInFlight.add(future);
+            future.whenComplete((response, t) -> partUploaded(future, part.partNumber(), response, t));
+        }
+
+        private void partUploaded(CompletableFuture<?> future, int partNumber, UploadPartResponse response, Throwable t) {
+            if (t != null) {
+                fail(t);
+                return;
+            }
+            synchronized (this) {
+                partsInFlight.remove(future);
+                partETags.put(partNumber, response.eTag());
+            }
+            readNextPart();
+            completeIfFinished();
+        }
+
+        private void completeIfFinished() {
+            List<CompletedPart> parts = new ArrayList<>();
+            synchronized (this) {
+                if (failed || completing || readingPart || !sourceExhausted || !partsInFlight.isEmpty()) {
+                    return;
+                }
+                completing = true;
+                partETags.forEach((partNumber, eTag) -> parts.add(CompletedPart.builder()
+                                                                               .partNumber(partNumber)
+                                                                               .eTag(eTag)
+                                                                               .build()));
+            }
+            source.close();
+            CompleteMultipartUploadRequest completeRequest =
+                CompleteMultipartUploadRequest.builder()
+                                              .bucket(request.bucket())
+                                              .key(request.key())
+                                              .uploadId(uploadId)
+                                              .requestPayer(request.requestPayerAsString())
+                                              .multipartUpload(u -> u.parts(parts))
+                                              .build();
+            call(() -> s3Client.completeMultipartUpload(completeRequest)).whenComplete((response, t) -> {
+                if (t != null) {
+                    fail(t);
+                } else {
+                    result.complete(response);
+                }
+            });
+        }
+
+        /**
+         * Stops the upload and aborts it, so S3 discards the parts uploaded so far. The returned future fails once the abort
+         * has been attempted; if the abort fails too, that failure is added to the original one as suppressed.
+         */
+        private void fail(Throwable t) {
+            Throwable cause = PartRetrier.unwrap(t);
+            String abortUploadId;
+            synchronized (this) {
+                if (failed) {
+                    return;
+                }
+                failed = true;
+                partsInFlight.forEach(f -> f.cancel(true));
+                partsInFlight.clear();
+                abortUploadId = uploadId;
+            }
+            source.close();
+
+            if (abortUploadId == null) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            call(() -> s3Client.abortMultipartUpload(r -> r.bucket(request.bucket())
+                                                           .key(request.key())
+                                                           .uploadId(abortUploadId)
+                                                           .requestPayer(request.requestPayerAsString())))
+                .whenComplete((response, abortFailure) -> {
+                    if (abortFailure != null && cause != abortFailure) {
+                        cause.addSuppressed(PartRetrier.unwrap(abortFailure));
+                    }
+                    result.completeExceptionally(cause);
+                });
+        }
+    }
+
+    /**
+     * Calls the given supplier, turning an exception it throws into a failed future.
+     */
+    private static <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> supplier) {
+        try {
+            return supplier.get();
+        } catch (RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
+    private static final class BuilderImpl implements Builder {
+        private final long minPartSizeInBytes;
+        private S3AsyncClient s3Client;
+        private Long partSizeInBytes;
+        private Integer maxConcurrentParts;
+        private RetryPolicy partRetryPolicy;
+        private ScheduledExecutorService scheduledExecutorService;
+
+        private BuilderImpl(long minPartSizeInBytes) {
+            this.minPartSizeInBytes = minPartSizeInBytes;
+        }
+
+        @Override
+        public Builder s3Client(S3AsyncClient s3Client) {
+            this.s3Client = s3Client;
+            return this;
+        }
+
+        @Override
+        public Builder partSizeInBytes(Long partSizeInBytes) {
+            this.partSizeInBytes = partSizeInBytes;
+            return this;
+        }
+
+        @Override
+        public Builder maxConcurrentParts(Integer maxConcurrentParts) {
+            this.maxConcurrentParts = maxConcurrentParts;
+            return this;
+        }
+
+        @Override
+        public Builder partRetryPolicy(RetryPolicy partRetryPolicy) {
+            this.partRetryPolicy = partRetryPolicy;
+            return this;
+        }
+
+        @Override
+        public Builder scheduledExecutorService(ScheduledExecutorService scheduledExecutorService) {
+            this.scheduledExecutorService = scheduledExecutorService;
+            return this;
+        }
+
+        @Override
+        public S3MultipartUploader build() {
+            return new DefaultS3MultipartUploader(this);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.transfer.S3ParallelDownloader;
+import software.amazon.awssdk.utils.CompletableFutureUtils;
+import software.amazon.awssdk.utils.ThreadFactoryBuilder;
+import software.amazon.awssdk.utils.Validate;
+
+/**
+ * Default implementation of {@link S3ParallelDownloader}.
+ */
+@SdkInternalApi
+public final class DefaultS3ParallelDownloader implements S3ParallelDownloader {
+    private static final long DEFAULT_PART_SIZE_IN_BYTES = 8L * 1024 * 1024;
+    private static final int DEFAULT_MAX_CONCURRENT_PARTS = 8;
+
+    /**
+     * Returned by S3 for a ranged GET of an empty object.
+     */
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+
+    private final S3AsyncClient s3Client;
+    private final long partSizeInBytes;
+    private final int maxConcurrentParts;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final PartRetrier partRetrier;
+
+    private DefaultS3ParallelDownloader(BuilderImpl builder) {
+        this.s3Client = Validate.paramNotNull(builder.s3Client, "s3Client");
+        this.partSizeInBytes = builder.partSizeInBytes == null ? DEFAULT_PART_SIZE_IN_BYTES : builder.partSizeInBytes;
+        Validate.isTrue(partSizeInBytes > 0, "partSizeInBytes must be positive");
+        this.maxConcurrentParts = Validate.isPositive(builder.maxConcurrentParts == null ? DEFAULT_MAX_CONCURRENT_PARTS
+                                                                                         : builder.maxConcurrentParts,
+                                                      "maxConcurrentParts");
+        this.ownsScheduler = builder.scheduledExecutorService == null;
+        this.scheduler = ownsScheduler ? createScheduler() : builder.scheduledExecutorService;
+        this.partRetrier = new PartRetrier(builder.partRetryPolicy == null ? RetryPolicy.defaultRetryPolicy()
+                                                                           : builder.partRetryPolicy,
+                                           scheduler);
+    }
+
+    public static Builder builder() {
+        return new BuilderImpl();
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().threadNamePrefix("s3-parallel-download")
+                                                                                    .daemonThreads(true)
+                                                                                    .build());
+    }
+
+    @Override
+    public CompletableFuture<GetObjectResponse> downloadToFile(GetObjectRequest getObjectRequest, Path destinationPath) {
+        validateRequest(getObjectRequest);
+        AsynchronousFileChannel fileChannel;
+        try {
+            fileChannel = AsynchronousFileChannel.open(destinationPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+        } catch (IOException e) {
+            return CompletableFutureUtils.failedFuture(SdkClientException.create("Unable to create " + destinationPath, e));
+        }
+        return new FileDownload(getObjectRequest, fileChannel, destinationPath).start();
+    }
+
+    @Override
+    public <ReturnT> CompletableFuture<ReturnT> download(
+            GetObjectRequest getObjectRequest,
+            AsyncResponseTransformer<GetObjectResponse, ReturnT> asyncResponseTransformer) {
+        validateRequest(getObjectRequest);
+        CompletableFuture<ReturnT> result = asyncResponseTransformer.prepare();
+
+        fetchFirstPart(getObjectRequest, BufferingPartTransformer::new).whenComplete((firstPart, t) -> {
+            if (t != null) {
+                asyncResponseTransformer.exceptionOccurred(PartRetrier.unwrap(t));
+                return;
+            }
+            try {
+                GetObjectResponse firstResponse = firstPart.response();
+                long objectSize = objectSize(firstResponse);
+                String eTag = firstResponse.eTag();
+                asyncResponseTransformer.onResponse(wholeObjectResponse(firstResponse, objectSize));
+                asyncResponseTransformer.onStream(new OrderedPartPublisher(
+                    firstPart, partCount(objectSize), maxConcurrentParts,
+                    part -> partRetrier.execute(() -> s3Client.getObject(partRequest(getObjectRequest, part, objectSize, eTag),
+                                                                         new BufferingPartTransformer())),
+                    asyncResponseTransformer::exceptionOccurred));
+            } catch (RuntimeException e) {
+                asyncResponseTransformer.exceptionOccurred(e);
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static void validateRequest(GetObjectRequest getObjectRequest) {
+        Validate.paramNotNull(getObjectRequest, "getObjectRequest");
+        Validate.isTrue(getObjectRequest.range() == null, "A parallel download fetches its own ranges, so the request must "
+                                                          + "not specify a range.");
+    }
+
+    /**
+     * Fetches the first range, which also tells us the size of the object. S3 rejects any range of an empty object, in which
+     * case the whole (empty) object is fetched instead.
+     */
+    private <T> CompletableFuture<T> fetchFirstPart(
+            GetObjectRequest request,
+            Supplier<AsyncResponseTransformer<GetObjectResponse, T>> transformer) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        partRetrier.execute(() -> s3Client.getObject(partRequest(request, 0, -1, null), transformer.get()))
+                   .whenComplete((r, t) -> {
+                       if (t == null) {
+                           result.complete(r);
+                       } else if (isRangeNotSatisfiable(PartRetrier.unwrap(t))) {
+                           partRetrier.execute(() -> s3Client.getObject(request, transformer.get()))
+                                      .whenComplete((r2, t2) -> {
+                                          if (t2 == null) {
+                                              result.complete(r2);
+                                          } else {
+                                              result.completeExceptionally(PartRetrier.unwrap(t2));
+                                          }
+                                      });
+                       } else {
+                           result.completeExceptionally(PartRetrier.unwrap(t));
+                       }
+                   });
+        return result;
+    }
+
+    private static boolean isRangeNotSatisfiable(Throwable t) {
+        return t instanceof S3Exception && ((S3Exception) t).statusCode() == RANGE_NOT_SATISFIABLE;
+    }
+
+    /**
+     * Builds the request for the given range. Every range after the first is made conditional on the ETag of the first, unless
+     * the caller already asked for a specific ETag.
+     */
+    private GetObjectRequest partRequest(GetObjectRequest request, int part, long objectSize, String eTag) {
+        long start = part * partSizeInBytes;
+        long end = objectSize < 0 ? start + partSizeInBytes - 1 : Math.min(start + partSizeInBytes, objectSize) - 1;
+        GetObjectRequest.Builder builder = request.toBuilder().range("bytes=" + start + "-" + end);
+        if (eTag != null && request.ifMatch() == null) {
+            builder.ifMatch(eTag);
+        }
+        return builder.build();
+    }
+
+    private int partCount(long objectSize) {
+        long parts = (objectSize + partSizeInBytes - 1) / partSizeInBytes;
+        if (parts > Integer.MAX_VALUE) {
+            throw SdkClientException.create("An object of " + objectSize + " bytes needs more than " + Integer.MAX_VALUE
+                                            + " parts of " + partSizeInBytes + " bytes.");
+        }
+        return Math.max(1, (int) parts);
+    }
+
+    /**
+     * Returns the size of the whole object, from the Content-Range of a ranged response (e.g. "bytes 0-99/1234"), or the
+     * Content-Length if the whole object was returned.
+     */
+    static long objectSize(GetObjectResponse response) {
+        String contentRange = response.contentRange();
+        if (contentRange == null) {
+            Long contentLength = response.contentLength();
+            if (contentLength == null) {
+                throw SdkClientException.create("The response has neither a Content-Range nor a Content-Length.");
+            }
+            return contentLength;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            throw SdkClientException.create("Unable to determine the object size from Content-Range: " + contentRange, e);
+        }
+    }
+
+    /**
+     * Adjusts the response to the first range so it describes the whole object.
+     */
+    private static GetObjectResponse wholeObjectResponse(GetObjectResponse firstResponse, long objectSize) {
+        if (firstResponse.contentRange() == null) {
+            return firstResponse;
+        }
+        GetObjectResponse.Builder builder = firstResponse.toBuilder().contentLength(objectSize).contentRange(null);
+        if (firstResponse.sdkHttpResponse() != null) {
+            builder.sdkHttpResponse(firstResponse.sdkHttpResponse().toBuilder()
+                                                 .statusCode(HttpStatusCode.OK)
+                                                 .putHeader("Content-Length", Long.toString(objectSize))
+                                                 .removeHeader("Content-Range")
+                                                 .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Downloads the ranges of an object straight into their place in a file.
+     */
+    private final class FileDownload {
+        private final GetObjectRequest request;
+        private final AsynchronousFileChannel fileChannel;
+        private final Path path;
+        private final CompletableFuture<GetObjectResponse> result = new CompletableFuture<>();
+        private final Set<CompletableFuture<?>> partsInFlight = new HashSet<>();
+
+        private GetObjectResponse firstResponse;
+        private long objectSize;
+        private int partCount;
+        private int nextPart = 1;
+        private int partsRemaining;
+
+        private FileDownload(GetObjectRequest request, AsynchronousFileChannel fileChannel, Path path) {
+            this.request = request;
+            this.fileChannel = fileChannel;
+            this.path = path;
+        }
+
+        private CompletableFuture<GetObjectResponse> start() {
+            result.whenComplete((r, t) -> {
+                if (result.isCancelled()) {
+                    fail(t);
+                }
+            });
+            fetchFirstPart(request, () -> new PositionalFileWriter(fileChannel, 0)).whenComplete((response, t) -> {
+                if (t != null) {
+                    fail(t);
+                    return;
+                }
+                try {
+                    synchronized (this) {
+                        firstResponse = response;
+                        objectSize = objectSize(response);
+                        partCount = partCount(objectSize);
+                        partsRemaining = partCount - 1;
+                    }
+                    fetchParts();
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            });
+            return result;
+        }
+
+        private void fetchParts() {
+            synchronized (this) {
+                while (!result.isDone() && nextPart < partCount && partsInFlight.size() < maxConcurrentParts) {
+                    int part = nextPart++;
+                    long offset = part * partSizeInBytes;
+                    GetObjectRequest partRequest = partRequest(request, part, objectSize, firstResponse.eTag());
+                    CompletableFuture<GetObjectResponse> future =
+                        partRetrier.execute(() -> s3Client.getObject(partRequest, new PositionalFileWriter(fileChannel, offset)));
+                    partsInFlight.add(future);
+                    future.whenComplete((r, t) -> partCompleted(future, t));
+                }
+            }
+            completeIfFinished();
+        }
+
+        private void partCompleted(CompletableFuture<?> future, Throwable t) {
+            if (t != null) {
+                fail(t);
+                return;
+            }
+            synchronized (this) {
+                partsInFlight.remove(future);
+                partsRemaining--;
+            }
+            fetchParts();
+        }
+
+        private void completeIfFinished() {
+            synchronized (this) {
+                if (partsRemaining > 0 || result.isDone()) {
+                    return;
+                }
+            }
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            result.complete(wholeObjectResponse(firstResponse, objectSize));
+        }
+
+        private void fail(Throwable t) {
+            result.completeExceptionally(PartRetrier.unwrap(t));
+            synchronized (this) {
+                partsInFlight.forEach(f -> f.cancel(true));
+                partsInFlight.clear();
+            }
+            try {
+                fileChannel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Already failing, the original exception is what gets reported.
+            }
+        }
+    }
+
+    private static final class BuilderImpl implements Builder {
+        private S3AsyncClient s3Client;
+        private Long partSizeInBytes;
+        private Integer maxConcurrentParts;
+        private RetryPolicy partRetryPolicy;
+        private ScheduledExecutorService scheduledExecutorService;
+
+        @Override
+        public Builder s3Client(S3AsyncClient s3Client) {
+            this.s3Client = s3Client;
+            return this;
+        }
+
+        @Override
+        public Builder partSizeInBytes(Long partSizeInBytes) {
+            this.partSizeInBytes = partSizeInBytes;
+            return this;
+        }
+
+        @Override
+        public Builder maxConcurrentParts(Integer maxConcurrentParts) {
+            this.maxConcurrentParts = maxConcurrentParts;
+            return this;
+        }
+
+        @Override
+        public Builder partRetryPolicy(RetryPolicy partRetryPolicy) {
+            this.partRetryPolicy = partRetryPolicy;
+            return this;
+        }
+
+        @Override
+        public Builder scheduledExecutorService(ScheduledExecutorService scheduledExecutorService) {
+            this.scheduledExecutorService = scheduledExecutorService;
+            return this;
+        }
+
+        @Override
+        public S3ParallelDownloader build() {
+            return new DefaultS3ParallelDownloader(this);
+        }
+    }
+}
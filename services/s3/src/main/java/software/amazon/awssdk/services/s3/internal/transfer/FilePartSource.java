@@ -0,0 +1,102 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.utils.IoUtils;
+
+/**
+ * {@link PartSource} that reads each part of a file with positional reads.
+ */
+@SdkInternalApi
+final class FilePartSource implements PartSource {
+    private final AsynchronousFileChannel fileChannel;
+    private final long fileSize;
+    private final long partSize;
+    private int nextPartNumber = 1;
+
+    private FilePartSource(AsynchronousFileChannel fileChannel, long fileSize, long partSize) {
+        this.fileChannel = fileChannel;
+        this.fileSize = fileSize;
+        this.partSize = partSize;
+    }
+
+    /**
+     * Opens the file, using the given part size or, if the file would need more than {@code maxParts} parts of that size,
+     * the smallest part size that fits.
+     */
+    static FilePartSource open(Path path, long partSize, int maxParts) throws IOException {
+        AsynchronousFileChannel channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            return new FilePartSource(channel, size, Math.max(partSize, (size + maxParts - 1) / maxParts));
+        } catch (IOException | RuntimeException e) {
+            IoUtils.closeQuietly(channel, null);
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<PartContent> nextPart() {
+        long position = (nextPartNumber - 1) * partSize;
+        if (position >= fileSize && !(nextPartNumber == 1 && fileSize == 0)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int partNumber = nextPartNumber++;
+        int length = (int) Math.min(partSize, fileSize - position);
+        byte[] bytes = new byte[length];
+        CompletableFuture<PartContent> future = new CompletableFuture<>();
+        read(ByteBuffer.wrap(bytes), position, future, new PartContent(partNumber, bytes, length));
+        return future;
+    }
+
+    private void read(ByteBuffer buffer, long position, CompletableFuture<PartContent> future, PartContent part) {
+        if (!buffer.hasRemaining()) {
+            future.complete(part);
+            return;
+        }
+        fileChannel.read(buffer, position, buffer, new CompletionHandler<Integer, ByteBuffer>() {
+            @Override
+            public void completed(Integer result, ByteBuffer attachment) {
+                if (result < 0) {
+                    future.completeExceptionally(SdkClientException.create("The file got shorter while it was being "
+                                                                           + "uploaded."));
+                    return;
+                }
+                read(attachment, position + result, future, part);
+            }
+
+            @Override
+            public void failed(Throwable exc, ByteBuffer attachment) {
+                future.completeExceptionally(exc);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        IoUtils.closeQuietly(fileChannel, null);
+    }
+}
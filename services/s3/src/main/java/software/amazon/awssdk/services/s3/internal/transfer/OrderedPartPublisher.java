@@ -0,0 +1,227 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.async.SdkPublisher;
+
+/**
+ * Publishes the content of an object fetched as several ranges, in order. The first range has already been fetched; the
+ * rest are fetched once the subscriber starts requesting data, with at most {@code maxConcurrentParts} ranges fetched or
+ * waiting ahead of the one being published.
+ */
+@SdkInternalApi
+final class OrderedPartPublisher implements SdkPublisher<ByteBuffer> {
+    private final BufferedPart firstPart;
+    private final int partCount;
+    private final int maxConcurrentParts;
+    private final IntFunction<CompletableFuture<BufferedPart>> partFetcher;
+    private final Consumer<Throwable> failureHandler;
+    private boolean subscribed = false;
+
+    /**
+     * @param firstPart The first range, already fetched.
+     * @param partCount The total number of ranges, including the first.
+     * @param maxConcurrentParts The maximum number of ranges fetched or held ahead of the one being published.
+     * @param partFetcher Fetches the range with the given index.
+     * @param failureHandler Notified, in addition to the subscriber, if a range can't be fetched.
+     */
+    OrderedPartPublisher(BufferedPart firstPart,
+                         int partCount,
+                         int maxConcurrentParts,
+                         IntFunction<CompletableFuture<BufferedPart>> partFetcher,
+                         Consumer<Throwable> failureHandler) {
+        this.firstPart = firstPart;
+        this.partCount = partCount;
+        this.maxConcurrentParts = maxConcurrentParts;
+        this.partFetcher = partFetcher;
+        this.failureHandler = failureHandler;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        synchronized (this) {
+            if (subscribed) {
+                subscriber.onSubscribe(new EmptySubscription());
+                subscriber.onError(new IllegalStateException("Only one subscriber is supported."));
+                return;
+            }
+            subscribed = true;
+        }
+        subscriber.onSubscribe(new PartSubscription(subscriber));
+    }
+
+    private final class PartSubscription implements Subscription {
+        private final Subscriber<? super ByteBuffer> subscriber;
+
+        /**
+         * Ranges being fetched or waiting to be published, by index.
+         */
+        private final Map<Integer, CompletableFuture<BufferedPart>> pendingParts = new HashMap<>();
+
+        /**
+         * The remaining buffers of the range being published.
+         */
+        private final Deque<ByteBuffer> currentBuffers;
+
+        private int currentPart = 0;
+        private int nextPartToFetch = 1;
+        private long outstandingDemand = 0;
+        private boolean done = false;
+        private boolean draining = false;
+        private boolean drainAgain = false;
+
+        private PartSubscription(Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+            this.currentBuffers = new ArrayDeque<>(firstPart.buffers());
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (n < 1) {
+                    fail(new IllegalArgumentException(subscriber + " violated the Reactive Streams rule 3.9 by requesting a "
+                                                      + "non-positive number of elements."));
+                    return;
+                }
+                // As governed by rule 3.17, when demand overflows `Long.MAX_VALUE` we treat the signalled demand as
+                // "effectively unbounded"
+                outstandingDemand = Long.MAX_VALUE - outstandingDemand < n ? Long.MAX_VALUE : outstandingDemand + n;
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                done = true;
+                cancelPendingParts();
+            }
+        }
+
+        /**
+         * Publishes what the subscriber has asked for, moves on to the next range when the current one is exhausted, then
+         * tops up the ranges being fetched. Re-entrant calls, e.g. a request() from within onNext or a range that completes
+         * synchronously, are folded into the running drain loop.
+         */
+        private synchronized void drain() {
+            if (draining) {
+                drainAgain = true;
+                return;
+            }
+            draining = true;
+            try {
+                do {
+                    drainAgain = false;
+                    publishAvailableBuffers();
+                    fetchParts();
+                } while (drainAgain && !done);
+            } finally {
+                draining = false;
+            }
+        }
+
+        private void publishAvailableBuffers() {
+            while (!done) {
+                if (!currentBuffers.isEmpty()) {
+                    if (outstandingDemand == 0) {
+                        return;
+                    }
+                    if (outstandingDemand != Long.MAX_VALUE) {
+                        outstandingDemand--;
+                    }
+                    subscriber.onNext(currentBuffers.poll());
+                    continue;
+                }
+
+                if (currentPart == partCount - 1) {
+                    done = true;
+                    subscriber.onComplete();
+                    return;
+                }
+
+                CompletableFuture<BufferedPart> next = pendingParts.get(currentPart + 1);
+                if (next == null || !next.isDone()) {
+                    return;
+                }
+                BufferedPart part;
+                try {
+                    part = next.join();
+                } catch (RuntimeException e) {
+                    fail(PartRetrier.unwrap(e));
+                    return;
+                }
+                pendingParts.remove(currentPart + 1);
+                currentPart++;
+                currentBuffers.addAll(part.buffers());
+            }
+        }
+
+        private void fetchParts() {
+            while (!done && nextPartToFetch < partCount && nextPartToFetch - currentPart <= maxConcurrentParts) {
+                int part = nextPartToFetch++;
+                CompletableFuture<BufferedPart> future = partFetcher.apply(part);
+                pendingParts.put(part, future);
+                future.whenComplete((r, t) -> partCompleted(t));
+            }
+        }
+
+        private synchronized void partCompleted(Throwable t) {
+            if (t != null && !done) {
+                fail(PartRetrier.unwrap(t));
+                return;
+            }
+            drain();
+        }
+
+        private void fail(Throwable t) {
+            done = true;
+            currentBuffers.clear();
+            cancelPendingParts();
+            subscriber.onError(t);
+            failureHandler.accept(t);
+        }
+
+        private void cancelPendingParts() {
+            pendingParts.values().forEach(f -> f.cancel(true));
+            pendingParts.clear();
+        }
+    }
+
+    private static final class EmptySubscription implements Subscription {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
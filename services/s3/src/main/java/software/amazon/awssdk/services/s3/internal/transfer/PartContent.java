@@ -0,0 +1,59 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.checksums.Md5Checksum;
+import software.amazon.awssdk.utils.BinaryUtils;
+
+/**
+ * The content of one part of a multipart upload, held in memory so it can be checksummed and sent again if the part has to
+ * be retried.
+ */
+@SdkInternalApi
+final class PartContent {
+    private final int partNumber;
+    private final byte[] bytes;
+    private final int length;
+
+    PartContent(int partNumber, byte[] bytes, int length) {
+        this.partNumber = partNumber;
+        this.bytes = bytes;
+        this.length = length;
+    }
+
+    int partNumber() {
+        return partNumber;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * Returns the Base64 encoded MD5 of the part, as sent in the Content-MD5 header.
+     */
+    String contentMd5() {
+        Md5Checksum checksum = new Md5Checksum();
+        checksum.update(bytes, 0, length);
+        return BinaryUtils.toBase64(checksum.getChecksumBytes());
+    }
+}
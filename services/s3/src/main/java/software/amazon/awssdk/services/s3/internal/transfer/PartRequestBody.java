@@ -0,0 +1,80 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+
+/**
+ * {@link AsyncRequestBody} that publishes the content of a part without copying it, so that retrying a part doesn't copy it
+ * again.
+ */
+@SdkInternalApi
+final class PartRequestBody implements AsyncRequestBody {
+    private final PartContent part;
+
+    PartRequestBody(PartContent part) {
+        this.part = part;
+    }
+
+    @Override
+    public Optional<Long> contentLength() {
+        return Optional.of((long) part.length());
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> s) {
+        s.onSubscribe(new PartSubscription(s, ByteBuffer.wrap(part.bytes(), 0, part.length())));
+    }
+
+    private static final class PartSubscription implements Subscription {
+        private final AtomicBoolean done = new AtomicBoolean(false);
+        private final Subscriber<? super ByteBuffer> subscriber;
+        private final ByteBuffer content;
+
+        private PartSubscription(Subscriber<? super ByteBuffer> subscriber, ByteBuffer content) {
+            this.subscriber = subscriber;
+            this.content = content;
+        }
+
+        @Override
+        public void request(long n) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            if (n < 1) {
+                subscriber.onError(new IllegalArgumentException(subscriber + " violated the Reactive Streams rule 3.9 by "
+                                                                + "requesting a non-positive number of elements."));
+                return;
+            }
+            if (content.hasRemaining()) {
+                subscriber.onNext(content);
+            }
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void cancel() {
+            done.set(true);
+        }
+    }
+}
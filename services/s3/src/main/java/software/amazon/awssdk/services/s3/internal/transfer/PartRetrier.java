@@ -0,0 +1,136 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.RetryPolicyContext;
+import software.amazon.awssdk.core.retry.RetryUtils;
+
+/**
+ * Runs a single part of a transfer, retrying it according to a {@link RetryPolicy}. Unlike the client's own retries, this
+ * also retries a part whose response failed after it had started streaming. Backoff is waited out on a scheduler rather than
+ * by blocking a thread.
+ */
+@SdkInternalApi
+final class PartRetrier {
+    private final RetryPolicy retryPolicy;
+    private final ScheduledExecutorService scheduler;
+
+    PartRetrier(RetryPolicy retryPolicy, ScheduledExecutorService scheduler) {
+        this.retryPolicy = retryPolicy;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Calls the given supplier until the future it returns succeeds or the retry policy gives up. Cancelling the returned
+     * future cancels the attempt in progress and stops any further attempts.
+     */
+    <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<T>> currentAttempt = new AtomicReference<>();
+        result.whenComplete((r, t) -> {
+            CompletableFuture<T> current = currentAttempt.get();
+            if (result.isCancelled() && current != null) {
+                current.cancel(true);
+            }
+        });
+        attempt(attempt, currentAttempt, result, 0);
+        return result;
+    }
+
+    private <T> void attempt(Supplier<CompletableFuture<T>> attempt,
+                             AtomicReference<CompletableFuture<T>> currentAttempt,
+                             CompletableFuture<T> result,
+                             int retriesAttempted) {
+        if (result.isDone()) {
+            return;
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        currentAttempt.set(future);
+
+        future.whenComplete((r, t) -> {
+            if (t == null) {
+                result.complete(r);
+                return;
+            }
+
+            Throwable cause = unwrap(t);
+            SdkException exception = toSdkException(cause);
+            RetryPolicyContext context = RetryPolicyContext.builder()
+                                                           .exception(exception)
+                                                           .retriesAttempted(retriesAttempted)
+                                                           .httpStatusCode(statusCode(exception))
+                                                           .build();
+            if (result.isDone() || retriesAttempted >= numRetries() || !retryPolicy.retryCondition().shouldRetry(context)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            Duration delay = RetryUtils.isThrottlingException(exception)
+                             ? retryPolicy.throttlingBackoffStrategy().computeDelayBeforeNextRetry(context)
+                             : retryPolicy.backoffStrategy().computeDelayBeforeNextRetry(context);
+            try {
+                scheduler.schedule(() -> attempt(attempt, currentAttempt, result, retriesAttempted + 1),
+                                   delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private int numRetries() {
+        return retryPolicy.numRetries() == null ? 0 : retryPolicy.numRetries();
+    }
+
+    static Throwable unwrap(Throwable t) {
+        Throwable cause = t;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static SdkException toSdkException(Throwable t) {
+        if (t instanceof SdkException) {
+            return (SdkException) t;
+        }
+        return SdkClientException.builder().message(t.getMessage()).cause(t).build();
+    }
+
+    private static Integer statusCode(SdkException exception) {
+        return exception instanceof SdkServiceException ? ((SdkServiceException) exception).statusCode() : null;
+    }
+}
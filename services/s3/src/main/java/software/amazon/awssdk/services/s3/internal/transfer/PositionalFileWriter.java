@@ -0,0 +1,178 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * {@link AsyncResponseTransformer} that writes one range of an object into a file shared with the other ranges, starting at
+ * the offset of the range. The file is not closed once the range has been written.
+ */
+@SdkInternalApi
+final class PositionalFileWriter implements AsyncResponseTransformer<GetObjectResponse, GetObjectResponse> {
+    private final AsynchronousFileChannel fileChannel;
+    private final long offset;
+    private volatile CompletableFuture<Void> cf;
+    private volatile GetObjectResponse response;
+
+    PositionalFileWriter(AsynchronousFileChannel fileChannel, long offset) {
+        this.fileChannel = fileChannel;
+        this.offset = offset;
+    }
+
+    @Override
+    public CompletableFuture<GetObjectResponse> prepare() {
+        cf = new CompletableFuture<>();
+        return cf.thenApply(ignored -> response);
+    }
+
+    @Override
+    public void onResponse(GetObjectResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    public void onStream(SdkPublisher<ByteBuffer> publisher) {
+        Long contentLength = response == null ? null : response.contentLength();
+        publisher.subscribe(new PositionalSubscriber(fileChannel, offset, contentLength == null ? -1 : contentLength, cf));
+    }
+
+    @Override
+    public void exceptionOccurred(Throwable throwable) {
+        cf.completeExceptionally(throwable);
+    }
+
+    /**
+     * Writes each chunk at the next position in the file, one write at a time.
+     */
+    static final class PositionalSubscriber implements Subscriber<ByteBuffer> {
+        private final AsynchronousFileChannel fileChannel;
+        private final long offset;
+        private final long expectedLength;
+        private final CompletableFuture<Void> future;
+
+        private Subscription subscription;
+        private long written = 0;
+        private boolean writeInProgress = false;
+        private boolean completeOnLastWrite = false;
+
+        PositionalSubscriber(AsynchronousFileChannel fileChannel, long offset, long expectedLength,
+                             CompletableFuture<Void> future) {
+            this.fileChannel = fileChannel;
+            this.offset = offset;
+            this.expectedLength = expectedLength;
+            this.future = future;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (this.subscription != null) {
+                s.cancel();
+                return;
+            }
+            this.subscription = s;
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+            if (byteBuffer == null) {
+                throw new NullPointerException("Element must not be null");
+            }
+            synchronized (this) {
+                writeInProgress = true;
+            }
+            write(byteBuffer);
+        }
+
+        private void write(ByteBuffer byteBuffer) {
+            long position;
+            synchronized (this) {
+                position = offset + written;
+            }
+            fileChannel.write(byteBuffer, position, byteBuffer, new CompletionHandler<Integer, ByteBuffer>() {
+                @Override
+                public void completed(Integer result, ByteBuffer attachment) {
+                    synchronized (PositionalSubscriber.this) {
+                        written += result;
+                    }
+                    if (attachment.hasRemaining()) {
+                        write(attachment);
+                        return;
+                    }
+                    boolean complete;
+                    synchronized (PositionalSubscriber.this) {
+                        writeInProgress = false;
+                        complete = completeOnLastWrite;
+                    }
+                    if (complete) {
+                        complete();
+                    } else {
+                        subscription.request(1);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable exc, ByteBuffer attachment) {
+                    subscription.cancel();
+                    future.completeExceptionally(exc);
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Error handled by response handler
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (writeInProgress) {
+                    completeOnLastWrite = true;
+                    return;
+                }
+            }
+            complete();
+        }
+
+        private void complete() {
+            long total;
+            synchronized (this) {
+                total = written;
+            }
+            if (expectedLength >= 0 && total != expectedLength) {
+                future.completeExceptionally(
+                    SdkClientException.create("Expected " + expectedLength + " bytes at offset " + offset + " but received "
+                                              + total, new IOException("Response ended early")));
+                return;
+            }
+            future.complete(null);
+        }
+    }
+}
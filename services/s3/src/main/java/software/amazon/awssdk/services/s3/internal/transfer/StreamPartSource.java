@@ -0,0 +1,199 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.internal.transfer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.annotations.SdkInternalApi;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+
+/**
+ * {@link PartSource} that cuts the content published by an {@link AsyncRequestBody} into parts. The body is only asked for
+ * more content while a part is being filled, so no more than one part is buffered ahead of the uploads.
+ */
+@SdkInternalApi
+final class StreamPartSource implements PartSource, Subscriber<ByteBuffer> {
+    private final AsyncRequestBody requestBody;
+    private final int partSize;
+
+    private Subscription subscription;
+    private boolean subscribed = false;
+    private boolean filling = false;
+    private boolean fillAgain = false;
+    private boolean complete = false;
+    private Throwable error;
+
+    /**
+     * The rest of the last buffer received, if it didn't fit in the previous part.
+     */
+    private ByteBuffer leftover;
+
+    private CompletableFuture<PartContent> pendingPart;
+    private byte[] partBytes;
+    private int partLength;
+    private int nextPartNumber = 1;
+
+    StreamPartSource(AsyncRequestBody requestBody, int partSize) {
+        this.requestBody = requestBody;
+        this.partSize = partSize;
+    }
+
+    @Override
+    public CompletableFuture<PartContent> nextPart() {
+        CompletableFuture<PartContent> future = new CompletableFuture<>();
+        boolean subscribe;
+        synchronized (this) {
+            pendingPart = future;
+            partBytes = new byte[partSize];
+            partLength = 0;
+            subscribe = !subscribed;
+            subscribed = true;
+        }
+        if (subscribe) {
+            requestBody.subscribe(this);
+        } else {
+            fill();
+        }
+        return future;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        synchronized (this) {
+            if (subscription != null) {
+                s.cancel();
+                return;
+            }
+            subscription = s;
+        }
+        fill();
+    }
+
+    @Override
+    public void onNext(ByteBuffer byteBuffer) {
+        synchronized (this) {
+            leftover = byteBuffer;
+        }
+        fill();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        synchronized (this) {
+            error = t;
+        }
+        fill();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            complete = true;
+        }
+        fill();
+    }
+
+    /**
+     * Copies what has been received into the part being filled, then either completes the part or asks for more. A
+     * synchronous body may call back into this from within request(), in which case the call is folded into the running
+     * loop rather than recursing.
+     */
+    private void fill() {
+        synchronized (this) {
+            if (filling) {
+                fillAgain = true;
+                return;
+            }
+            filling = true;
+        }
+        try {
+            boolean again;
+            do {
+                fillOnce();
+                synchronized (this) {
+                    again = fillAgain;
+                    fillAgain = false;
+                    filling = again;
+                }
+            } while (again);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                filling = false;
+            }
+            throw e;
+        }
+    }
+
+    private void fillOnce() {
+        CompletableFuture<PartContent> completed;
+        PartContent part = null;
+        Throwable failure = null;
+
+        synchronized (this) {
+            if (pendingPart == null || subscription == null) {
+                return;
+            }
+            if (leftover != null) {
+                int length = Math.min(leftover.remaining(), partSize - partLength);
+                leftover.get(partBytes, partLength, length);
+                partLength += length;
+                if (!leftover.hasRemaining()) {
+                    leftover = null;
+                }
+            }
+
+            if (error != null) {
+                failure = error;
+            } else if (partLength == partSize || (complete && leftover == null)) {
+                // A null part tells the caller there is no more content, but an empty body still needs one (empty) part.
+                if (partLength > 0 || nextPartNumber == 1) {
+                    part = new PartContent(nextPartNumber++, partBytes, partLength);
+                }
+            }
+
+            completed = pendingPart;
+            if (failure == null && part == null && !complete) {
+                completed = null;
+            } else {
+                pendingPart = null;
+                partBytes = null;
+            }
+        }
+
+        if (completed == null) {
+            subscription.request(1);
+        } else if (failure != null) {
+            completed.completeExceptionally(failure);
+        } else {
+            completed.complete(part);
+        }
+    }
+
+    @Override
+    public void close() {
+        Subscription s;
+        synchronized (this) {
+            s = complete || error != null ? null : subscription;
+            complete = true;
+        }
+        if (s != null) {
+            s.cancel();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.transfer;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.internal.transfer.DefaultS3MultipartUploader;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * Uploads an object as a multipart upload over an {@link S3AsyncClient}, sending several parts at once. This takes care of
+ * the CreateMultipartUpload, UploadPart and CompleteMultipartUpload calls, and aborts the upload if it can't be completed,
+ * so that S3 doesn't keep (and charge for) the parts already uploaded.
+ *
+ * <p>The content is cut into parts of {@link Builder#partSizeInBytes(Long)}, and at most
+ * {@link Builder#maxConcurrentParts(Integer)} parts are read into memory and uploaded at a time. Each part is sent with a
+ * Content-MD5 so S3 rejects a part that was corrupted on the way, and a part that fails is retried on its own according to
+ * {@link Builder#partRetryPolicy(RetryPolicy)}.
+ *
+ * <p>The uploader does not close the {@link S3AsyncClient} it was given.
+ */
+@SdkPublicApi
+@ThreadSafe
+public interface S3MultipartUploader extends SdkAutoCloseable {
+
+    /**
+     * Uploads the given file. Parts are read from the file independently, so a failed part can be read again.
+     *
+     * @param createMultipartUploadRequest The request that starts the upload. Its bucket, key, request payer and customer
+     * provided encryption key are also used for the parts.
+     * @param sourcePath Path to the file to upload.
+     * @return A future containing the response to CompleteMultipartUpload.
+     */
+    CompletableFuture<CompleteMultipartUploadResponse> upload(CreateMultipartUploadRequest createMultipartUploadRequest,
+                                                              Path sourcePath);
+
+    /**
+     * Uploads the given file. See {@link #upload(CreateMultipartUploadRequest, Path)}.
+     *
+     * @param createMultipartUploadRequest A {@link Consumer} that will call methods on
+     * {@link CreateMultipartUploadRequest.Builder} to create a request.
+     * @param sourcePath Path to the file to upload.
+     * @return A future containing the response to CompleteMultipartUpload.
+     */
+    default CompletableFuture<CompleteMultipartUploadResponse> upload(
+            Consumer<CreateMultipartUploadRequest.Builder> createMultipartUploadRequest, Path sourcePath) {
+        return upload(CreateMultipartUploadRequest.builder().applyMutation(createMultipartUploadRequest).build(), sourcePath);
+    }
+
+    /**
+     * Uploads the content published by the given request body. The body is subscribed to once and read in order, with no
+     * more than {@code maxConcurrentParts} parts held in memory at a time.
+     *
+     * @param createMultipartUploadRequest The request that starts the upload. Its bucket, key, request payer and customer
+     * provided encryption key are also used for the parts.
+     * @param requestBody The content to upload.
+     * @return A future containing the response to CompleteMultipartUpload.
+     */
+    CompletableFuture<CompleteMultipartUploadResponse> upload(CreateMultipartUploadRequest createMultipartUploadRequest,
+                                                              AsyncRequestBody requestBody);
+
+    /**
+     * Uploads the content published by the given request body. See
+     * {@link #upload(CreateMultipartUploadRequest, AsyncRequestBody)}.
+     *
+     * @param createMultipartUploadRequest A {@link Consumer} that will call methods on
+     * {@link CreateMultipartUploadRequest.Builder} to create a request.
+     * @param requestBody The content to upload.
+     * @return A future containing the response to CompleteMultipartUpload.
+     */
+    default CompletableFuture<CompleteMultipartUploadResponse> upload(
+            Consumer<CreateMultipartUploadRequest.Builder> createMultipartUploadRequest, AsyncRequestBody requestBody) {
+        return upload(CreateMultipartUploadRequest.builder().applyMutation(createMultipartUploadRequest).build(), requestBody);
+    }
+
+    /**
+     * Create a {@link Builder}, used to create a {@link S3MultipartUploader}.
+     */
+    static Builder builder() {
+        return DefaultS3MultipartUploader.builder();
+    }
+
+    /**
+     * Builder for a {@link S3MultipartUploader}.
+     */
+    interface Builder {
+        /**
+         * The client used to make the multipart upload calls. Required.
+         */
+        Builder s3Client(S3AsyncClient s3Client);
+
+        /**
+         * The size of each part. S3 requires every part but the last to be at least 5MB, so a smaller size is rejected when
+         * the uploader is built. When the size of the content is known and would need more than 10,000 parts of this size,
+         * the part size is raised to fit. Defaults to 8MB.
+         */
+        Builder partSizeInBytes(Long partSizeInBytes);
+
+        /**
+         * The maximum number of parts being uploaded at once. Defaults to 8.
+         */
+        Builder maxConcurrentParts(Integer maxConcurrentParts);
+
+        /**
+         * How a failed part is retried. This is applied on top of the client's own retries. Defaults to
+         * {@link RetryPolicy#defaultRetryPolicy()}.
+         */
+        Builder partRetryPolicy(RetryPolicy partRetryPolicy);
+
+        /**
+         * The executor used to wait out the backoff between attempts of a part. If not specified, the uploader creates a
+         * single daemon thread for this, which is shut down when the uploader is closed. An executor specified here is not
+         * shut down by the uploader.
+         */
+        Builder scheduledExecutorService(ScheduledExecutorService scheduledExecutorService);
+
+        S3MultipartUploader build();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.transfer;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import software.amazon.awssdk.annotations.SdkPublicApi;
+import software.amazon.awssdk.annotations.ThreadSafe;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.internal.transfer.DefaultS3ParallelDownloader;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * Downloads an S3 object by splitting it into byte ranges and fetching several ranges at once over an
+ * {@link S3AsyncClient}. This spreads a large download over multiple connections, which usually gets much closer to the
+ * available bandwidth than a single GetObject stream.
+ *
+ * <p>The first range is fetched on its own to learn the size of the object; the remaining ranges are then fetched with at
+ * most {@link Builder#maxConcurrentParts(Integer)} in flight. Every range after the first is made conditional on the ETag of
+ * the first, so the download fails rather than mixing two versions of an object that changes while it is being downloaded.
+ * A range that fails part way through is retried on its own according to {@link Builder#partRetryPolicy(RetryPolicy)}.
+ *
+ * <p>The downloader does not close the {@link S3AsyncClient} it was given.
+ */
+@SdkPublicApi
+@ThreadSafe
+public interface S3ParallelDownloader extends SdkAutoCloseable {
+
+    /**
+     * Downloads the object to the given file, writing each range at its position in the file as it arrives. In the event of
+     * an error, the downloader will attempt to delete the file. If the file already exists, the returned future will
+     * complete exceptionally.
+     *
+     * @param getObjectRequest The request for the object. It must not specify a range.
+     * @param destinationPath Path to the file to write to.
+     * @return A future containing the response for the whole object, with the Content-Length of the whole object.
+     */
+    CompletableFuture<GetObjectResponse> downloadToFile(GetObjectRequest getObjectRequest, Path destinationPath);
+
+    /**
+     * Downloads the object to the given file. See {@link #downloadToFile(GetObjectRequest, Path)}.
+     *
+     * @param getObjectRequest A {@link Consumer} that will call methods on {@link GetObjectRequest.Builder} to create a
+     * request.
+     * @param destinationPath Path to the file to write to.
+     * @return A future containing the response for the whole object, with the Content-Length of the whole object.
+     */
+    default CompletableFuture<GetObjectResponse> downloadToFile(Consumer<GetObjectRequest.Builder> getObjectRequest,
+                                                                Path destinationPath) {
+        return downloadToFile(GetObjectRequest.builder().applyMutation(getObjectRequest).build(), destinationPath);
+    }
+
+    /**
+     * Downloads the object and hands it to the given {@link AsyncResponseTransformer} as a single stream, exactly as
+     * {@link S3AsyncClient#getObject(GetObjectRequest, AsyncResponseTransformer)} would. Ranges are still fetched
+     * concurrently, but a range is buffered in memory until every range before it has been published, so up to
+     * {@code maxConcurrentParts * partSizeInBytes} bytes may be held at once.
+     *
+     * @param getObjectRequest The request for the object. It must not specify a range.
+     * @param asyncResponseTransformer The response transformer for processing the streaming response.
+     * @param <ReturnT> The type of the transformed response.
+     * @return A future to the transformed response.
+     */
+    <ReturnT> CompletableFuture<ReturnT> download(GetObjectRequest getObjectRequest,
+                                                  AsyncResponseTransformer<GetObjectResponse, ReturnT> asyncResponseTransformer);
+
+    /**
+     * Downloads the object and hands it to the given {@link AsyncResponseTransformer} as a single stream. See
+     * {@link #download(GetObjectRequest, AsyncResponseTransformer)}.
+     *
+     * @param getObjectRequest A {@link Consumer} that will call methods on {@link GetObjectRequest.Builder} to create a
+     * request.
+     * @param asyncResponseTransformer The response transformer for processing the streaming response.
+     * @param <ReturnT> The type of the transformed response.
+     * @return A future to the transformed response.
+     */
+    default <ReturnT> CompletableFuture<ReturnT> download(
+            Consumer<GetObjectRequest.Builder> getObjectRequest,
+            AsyncResponseTransformer<GetObjectResponse, ReturnT> asyncResponseTransformer) {
+        return download(GetObjectRequest.builder().applyMutation(getObjectRequest).build(), asyncResponseTransformer);
+    }
+
+    /**
+     * Create a {@link Builder}, used to create a {@link S3ParallelDownloader}.
+     */
+    static Builder builder() {
+        return DefaultS3ParallelDownloader.builder();
+    }
+
+    /**
+     * Builder for a {@link S3ParallelDownloader}.
+     */
+    interface Builder {
+        /**
+         * The client used to make the ranged GetObject calls. Required.
+         */
+        Builder s3Client(S3AsyncClient s3Client);
+
+        /**
+         * The size of each range. Defaults to 8MB.
+         */
+        Builder partSizeInBytes(Long partSizeInBytes);
+
+        /**
+         * The maximum number of ranges being fetched at once. Defaults to 8.
+         */
+        Builder maxConcurrentParts(Integer maxConcurrentParts);
+
+        /**
+         * How a failed range is retried. This is applied on top of the client's own retries, and also covers failures that
+         * happen after the response has started streaming. Defaults to {@link RetryPolicy#defaultRetryPolicy()}.
+         */
+        Builder partRetryPolicy(RetryPolicy partRetryPolicy);
+
+        /**
+         * The executor used to wait out the backoff between attempts of a range. If not specified, the downloader creates a
+         * single daemon thread for this, which is shut down when the downloader is closed. An executor specified here is not
+         * shut down by the downloader.
+         */
+        Builder scheduledExecutorService(ScheduledExecutorService scheduledExecutorService);
+
+        S3ParallelDownloader build();
+    }
+}
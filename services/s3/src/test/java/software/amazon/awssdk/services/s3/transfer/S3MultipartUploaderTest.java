@@ -0,0 +1,309 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.transfer;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.delete;
+import static com.github.tomakehurst.wiremock.client.WireMock.deleteRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.BackoffStrategy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.internal.transfer.DefaultS3MultipartUploader;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.utils.Md5Utils;
+
+public class S3MultipartUploaderTest {
+    private static final String PATH = "/bucket/key";
+    private static final String UPLOAD_ID = "upload-id";
+    private static final int PART_SIZE = 16;
+
+    @Rule
+    public WireMockRule mockServer = new WireMockRule(0);
+
+    private S3AsyncClient s3Client;
+
+    private S3MultipartUploader uploader;
+
+    private Path source;
+
+    @Before
+    public void setup() throws IOException {
+        s3Client = S3AsyncClient.builder()
+                                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("akid", "skid")))
+                                .region(Region.US_WEST_2)
+                                .endpointOverride(URI.create("http://localhost:" + mockServer.port()))
+                                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                                .overrideConfiguration(c -> c.retryPolicy(RetryPolicy.none()))
+                                .build();
+        uploader = DefaultS3MultipartUploader.builderAllowingSmallParts()
+                                             .s3Client(s3Client)
+                                             .partSizeInBytes((long) PART_SIZE)
+                                             .maxConcurrentParts(3)
+                                             .partRetryPolicy(RetryPolicy.builder()
+                                                                         .numRetries(2)
+                                                                         .backoffStrategy(BackoffStrategy.none())
+                                                                         .build())
+                                             .build();
+        source = Files.createTempFile("multipart-upload-test", ".bin");
+
+        stubFor(post(urlPathEqualTo(PATH)).withQueryParam("uploads", equalTo(""))
+                                          .willReturn(aResponse().withStatus(200).withBody(
+                                              "<InitiateMultipartUploadResult><Bucket>bucket</Bucket><Key>key</Key>"
+                                              + "<UploadId>" + UPLOAD_ID + "</UploadId></InitiateMultipartUploadResult>")));
+        stubFor(post(urlPathEqualTo(PATH)).withQueryParam("uploadId", equalTo(UPLOAD_ID))
+                                          .willReturn(aResponse().withStatus(200).withBody(
+                                              "<CompleteMultipartUploadResult><Bucket>bucket</Bucket><Key>key</Key>"
+                                              + "<ETag>\"final\"</ETag></CompleteMultipartUploadResult>")));
+        stubFor(put(urlPathEqualTo(PATH)).withQueryParam("uploadId", equalTo(UPLOAD_ID))
+                                         .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"etag\"")));
+        stubFor(delete(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(204)));
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        uploader.close();
+        s3Client.close();
+        Files.delete(source);
+    }
+
+    @Test
+    public void uploadFile_MultipleParts_UploadsPartsWithMd5AndCompletes() throws IOException {
+        byte[] content = content(100);
+        Files.write(source, content);
+
+        CompleteMultipartUploadResponse response = uploader.upload(r -> r.bucket("bucket").key("key"), source).join();
+
+        assertThat(response.eTag()).isEqualTo("\"final\"");
+        assertUploadedParts(content, PART_SIZE);
+        assertCompletedParts(7);
+        verify(0, deleteRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    public void uploadRequestBody_UnevenBuffers_UploadsPartsInOrder() {
+        byte[] content = content(100);
+
+        uploader.upload(r -> r.bucket("bucket").key("key"), new ChunkedRequestBody(content, 7)).join();
+
+        assertUploadedParts(content, PART_SIZE);
+        assertCompletedParts(7);
+    }
+
+    @Test
+    public void uploadRequestBody_EmptyContent_UploadsOneEmptyPart() {
+        uploader.upload(r -> r.bucket("bucket").key("key"), AsyncRequestBody.fromBytes(new byte[0])).join();
+
+        assertUploadedParts(new byte[0], PART_SIZE);
+        assertCompletedParts(1);
+    }
+
+    @Test
+    public void uploadFile_PartFailsOnce_RetriesPart() throws IOException {
+        byte[] content = content(40);
+        Files.write(source, content);
+        stubFor(put(urlPathEqualTo(PATH)).withQueryParam("partNumber", equalTo("2"))
+                                         .inScenario("retry").whenScenarioStateIs(STARTED)
+                                         .willReturn(aResponse().withStatus(500))
+                                         .willSetStateTo("failed"));
+        stubFor(put(urlPathEqualTo(PATH)).withQueryParam("partNumber", equalTo("2"))
+                                         .inScenario("retry").whenScenarioStateIs("failed")
+                                         .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"etag\"")));
+
+        uploader.upload(r -> r.bucket("bucket").key("key"), source).join();
+
+        verify(2, putRequestedFor(urlPathEqualTo(PATH)).withQueryParam("partNumber", equalTo("2")));
+        assertCompletedParts(3);
+        verify(0, deleteRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    public void uploadFile_PartKeepsFailing_AbortsUpload() throws IOException {
+        Files.write(source, content(100));
+        stubFor(put(urlPathEqualTo(PATH)).withQueryParam("partNumber", equalTo("2"))
+                                         .willReturn(aResponse().withStatus(403)));
+
+        assertThatThrownBy(() -> uploader.upload(r -> r.bucket("bucket").key("key"), source).join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(S3Exception.class);
+
+        verify(deleteRequestedFor(urlPathEqualTo(PATH)).withQueryParam("uploadId", equalTo(UPLOAD_ID)));
+        verify(0, postRequestedFor(urlPathEqualTo(PATH)).withQueryParam("uploadId", equalTo(UPLOAD_ID)));
+    }
+
+    @Test
+    public void uploadRequestBody_BodyFails_AbortsUpload() {
+        AsyncRequestBody failingBody = new ChunkedRequestBody(content(100), 7) {
+            @Override
+            public void subscribe(Subscriber<? super ByteBuffer> s) {
+                s.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        s.onError(new IOException("boom"));
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+            }
+        };
+
+        assertThatThrownBy(() -> uploader.upload(r -> r.bucket("bucket").key("key"), failingBody).join())
+            .hasCauseInstanceOf(IOException.class);
+
+        verify(deleteRequestedFor(urlPathEqualTo(PATH)).withQueryParam("uploadId", equalTo(UPLOAD_ID)));
+    }
+
+    @Test
+    public void build_PartSizeBelowS3Minimum_Fails() {
+        assertThatThrownBy(() -> S3MultipartUploader.builder()
+                                                    .s3Client(s3Client)
+                                                    .partSizeInBytes(5L * 1024 * 1024 - 1)
+                                                    .build())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("partSizeInBytes");
+    }
+
+    @Test
+    public void uploadFile_MissingFile_FailsWithoutStartingUpload() throws IOException {
+        Path missing = source.resolveSibling(source.getFileName() + ".missing");
+
+        assertThatThrownBy(() -> uploader.upload(r -> r.bucket("bucket").key("key"), missing).join())
+            .hasCauseInstanceOf(SdkClientException.class);
+
+        verify(0, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static void assertUploadedParts(byte[] content, int partSize) {
+        List<LoggedRequest> parts = findAll(putRequestedFor(urlPathEqualTo(PATH)));
+        parts.sort(Comparator.comparing(r -> Integer.parseInt(r.queryParameter("partNumber").firstValue())));
+
+        int partCount = Math.max(1, (content.length + partSize - 1) / partSize);
+        assertThat(parts).hasSize(partCount);
+        for (int i = 0; i < partCount; i++) {
+            LoggedRequest part = parts.get(i);
+            byte[] expected = Arrays.copyOfRange(content, i * partSize, Math.min(content.length, (i + 1) * partSize));
+            assertThat(part.queryParameter("partNumber").firstValue()).isEqualTo(Integer.toString(i + 1));
+            assertThat(part.getBody()).isEqualTo(expected);
+            assertThat(part.getHeader("Content-MD5")).isEqualTo(Md5Utils.md5AsBase64(expected));
+        }
+    }
+
+    private static void assertCompletedParts(int partCount) {
+        List<LoggedRequest> completes = findAll(postRequestedFor(urlPathEqualTo(PATH))
+                                                    .withQueryParam("uploadId", equalTo(UPLOAD_ID)));
+        assertThat(completes).hasSize(1);
+        StringBuilder expectedParts = new StringBuilder();
+        for (int i = 1; i <= partCount; i++) {
+            expectedParts.append("<Part><ETag>&quot;etag&quot;</ETag><PartNumber>").append(i).append("</PartNumber></Part>");
+        }
+        assertThat(completes.get(0).getBodyAsString()).contains("<CompleteMultipartUpload")
+                                                      .contains(expectedParts + "</CompleteMultipartUpload>");
+    }
+
+    /**
+     * Publishes content in buffers of a fixed size, one per request.
+     */
+    private static class ChunkedRequestBody implements AsyncRequestBody {
+        private final byte[] content;
+        private final int chunkSize;
+
+        private ChunkedRequestBody(byte[] content, int chunkSize) {
+            this.content = content;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public Optional<Long> contentLength() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> s) {
+            s.onSubscribe(new Subscription() {
+                private int position = 0;
+                private boolean done = false;
+
+                @Override
+                public void request(long n) {
+                    for (long i = 0; i < n && !done; i++) {
+                        if (position == content.length) {
+                            done = true;
+                            s.onComplete();
+                            return;
+                        }
+                        int length = Math.min(chunkSize, content.length - position);
+                        ByteBuffer chunk = ByteBuffer.wrap(content, position, length).slice();
+                        position += length;
+                        s.onNext(chunk);
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    done = true;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.services.s3.transfer;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.BackoffStrategy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+public class S3ParallelDownloaderTest {
+    private static final String PATH = "/bucket/key";
+    private static final String ETAG = "\"0123456789abcdef\"";
+    private static final int PART_SIZE = 16;
+
+    @Rule
+    public WireMockRule mockServer = new WireMockRule(0);
+
+    private S3AsyncClient s3Client;
+
+    private S3ParallelDownloader downloader;
+
+    private Path directory;
+
+    private Path target;
+
+    @Before
+    public void setup() throws IOException {
+        s3Client = S3AsyncClient.builder()
+                                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("akid", "skid")))
+                                .region(Region.US_WEST_2)
+                                .endpointOverride(URI.create("http://localhost:" + mockServer.port()))
+                                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                                .overrideConfiguration(c -> c.retryPolicy(RetryPolicy.none()))
+                                .build();
+        downloader = S3ParallelDownloader.builder()
+                                         .s3Client(s3Client)
+                                         .partSizeInBytes((long) PART_SIZE)
+                                         .maxConcurrentParts(3)
+                                         .partRetryPolicy(RetryPolicy.builder()
+                                                                     .numRetries(2)
+                                                                     .backoffStrategy(BackoffStrategy.none())
+                                                                     .build())
+                                         .build();
+        directory = Files.createTempDirectory("parallel-download-test");
+        target = directory.resolve("object");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        downloader.close();
+        s3Client.close();
+        Files.deleteIfExists(target);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void downloadToFile_MultipleParts_WritesObject() throws IOException {
+        byte[] object = stubObject(100);
+
+        GetObjectResponse response = downloader.downloadToFile(r -> r.bucket("bucket").key("key"), target).join();
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(object);
+        assertThat(response.contentLength()).isEqualTo(100L);
+        assertThat(response.contentRange()).isNull();
+        assertThat(response.eTag()).isEqualTo(ETAG);
+        verify(getRequestedFor(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=0-15"))
+                                                    .withHeader("If-Match", absent()));
+        verify(getRequestedFor(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=96-99"))
+                                                    .withHeader("If-Match", equalTo(ETAG)));
+        verify(7, getRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    public void download_MultipleParts_PublishesObjectInOrder() {
+        byte[] object = stubObject(100);
+
+        ResponseBytes<GetObjectResponse> result =
+            downloader.download(r -> r.bucket("bucket").key("key"), AsyncResponseTransformer.toBytes()).join();
+
+        assertThat(result.asByteArray()).isEqualTo(object);
+        assertThat(result.response().contentLength()).isEqualTo(100L);
+        assertThat(result.response().sdkHttpResponse().firstMatchingHeader("Content-Length")).hasValue("100");
+    }
+
+    @Test
+    public void downloadToFile_ObjectSmallerThanPart_MakesOneRequest() throws IOException {
+        byte[] object = stubObject(10);
+
+        downloader.downloadToFile(r -> r.bucket("bucket").key("key"), target).join();
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(object);
+        verify(1, getRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    public void downloadToFile_EmptyObject_FallsBackToPlainGet() throws IOException {
+        stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=0-15"))
+                                         .willReturn(aResponse().withStatus(416)
+                                                                .withBody("<Error><Code>InvalidRange</Code></Error>")));
+        stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", absent())
+                                         .willReturn(aResponse().withStatus(200)
+                                                                .withHeader("ETag", ETAG)
+                                                                .withHeader("Content-Length", "0")));
+
+        GetObjectResponse response = downloader.downloadToFile(r -> r.bucket("bucket").key("key"), target).join();
+
+        assertThat(response.contentLength()).isEqualTo(0L);
+        assertThat(Files.size(target)).isEqualTo(0);
+    }
+
+    @Test
+    public void download_PartFailsOnce_RetriesPart() {
+        byte[] object = stubObject(100);
+        stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=48-63"))
+                                         .inScenario("retry").whenScenarioStateIs(STARTED)
+                                         .willReturn(aResponse().withStatus(500)
+                                                                .withBody("<Error><Code>InternalError</Code></Error>"))
+                                         .willSetStateTo("failed"));
+        stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=48-63"))
+                                         .inScenario("retry").whenScenarioStateIs("failed")
+                                         .willReturn(part(object, 48, 63)));
+
+        ResponseBytes<GetObjectResponse> result =
+            downloader.download(r -> r.bucket("bucket").key("key"), AsyncResponseTransformer.toBytes()).join();
+
+        assertThat(result.asByteArray()).isEqualTo(object);
+        verify(2, getRequestedFor(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=48-63")));
+    }
+
+    @Test
+    public void downloadToFile_ObjectChangedDuringDownload_FailsAndDeletesFile() {
+        stubObject(100);
+        stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=32-47"))
+                                         .willReturn(aResponse().withStatus(412)
+                                                                .withBody("<Error><Code>PreconditionFailed</Code></Error>")));
+
+        assertThatThrownBy(() -> downloader.downloadToFile(r -> r.bucket("bucket").key("key"), target).join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(S3Exception.class);
+        assertThat(target).doesNotExist();
+        verify(1, getRequestedFor(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=32-47")));
+    }
+
+    @Test
+    public void download_PartKeepsFailing_FailsFuture() {
+        stubObject(100);
+        stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=80-95"))
+                                         .willReturn(aResponse().withStatus(503)
+                                                                .withBody("<Error><Code>SlowDown</Code></Error>")));
+
+        assertThatThrownBy(() -> downloader.download(r -> r.bucket("bucket").key("key"),
+                                                     AsyncResponseTransformer.toBytes()).join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(S3Exception.class);
+        verify(3, getRequestedFor(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=80-95")));
+    }
+
+    @Test
+    public void downloadToFile_RequestWithRange_Throws() {
+        assertThatThrownBy(() -> downloader.downloadToFile(r -> r.bucket("bucket").key("key").range("bytes=0-1"), target))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] stubObject(int size) {
+        byte[] object = new byte[size];
+        for (int i = 0; i < size; i++) {
+            object[i] = (byte) i;
+        }
+        for (int start = 0; start < size; start += PART_SIZE) {
+            int end = Math.min(start + PART_SIZE, size) - 1;
+            stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=" + start + "-" + end))
+                                             .willReturn(part(object, start, end)));
+        }
+        if (size < PART_SIZE) {
+            stubFor(get(urlPathEqualTo(PATH)).withHeader("Range", equalTo("bytes=0-" + (PART_SIZE - 1)))
+                                             .willReturn(part(object, 0, size - 1)));
+        }
+        return object;
+    }
+
+    private static ResponseDefinitionBuilder part(byte[] object, int start, int end) {
+        return aResponse().withStatus(206)
+                          .withHeader("ETag", ETAG)
+                          .withHeader("Content-Range", "bytes " + start + "-" + end + "/" + object.length)
+                          .withBody(Arrays.copyOfRange(object, start, end + 1));
+    }
+}
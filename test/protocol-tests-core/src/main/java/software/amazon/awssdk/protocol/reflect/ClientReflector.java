@@ -24,6 +24,7 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
 import software.amazon.awssdk.codegen.model.intermediate.IntermediateModel;
 import software.amazon.awssdk.codegen.model.intermediate.Metadata;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.core.sync.ResponseTransformer;
 import software.amazon.awssdk.protocol.model.TestCase;
 import software.amazon.awssdk.protocol.wiremock.WireMockUtils;
@@ -41,10 +42,14 @@ public class ClientReflector implements SdkAutoCloseable {
     private final Class<?> interfaceClass;
 
     public ClientReflector(IntermediateModel model) {
+        this(model, null);
+    }
+
+    public ClientReflector(IntermediateModel model, ClientOverrideConfiguration overrideConfiguration) {
         this.model = model;
         this.metadata = model.getMetadata();
         this.interfaceClass = getInterfaceClass();
-        this.client = createClient();
+        this.client = createClient(overrideConfiguration);
     }
 
     private Class<?> getInterfaceClass() {
@@ -93,15 +98,18 @@ public class ClientReflector implements SdkAutoCloseable {
     /**
      * Create the sync client to use in the tests.
      */
-    private Object createClient() {
+    private Object createClient(ClientOverrideConfiguration overrideConfiguration) {
         try {
             // Reflectively create a builder, configure it, and then create the client.
             Object untypedBuilder = interfaceClass.getMethod("builder").invoke(null);
             AwsClientBuilder<?, ?> builder = (AwsClientBuilder<?, ?>) untypedBuilder;
-            return builder.credentialsProvider(getMockCredentials())
-                          .region(Region.US_EAST_1)
-                          .endpointOverride(URI.create(getEndpoint()))
-                          .build();
+            builder.credentialsProvider(getMockCredentials())
+                   .region(Region.US_EAST_1)
+                   .endpointOverride(URI.create(getEndpoint()));
+            if (overrideConfiguration != null) {
+                builder.overrideConfiguration(overrideConfiguration);
+            }
+            return builder.build();
         } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
             throw new RuntimeException(e);
         }
@@ -23,6 +23,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.codegen.model.intermediate.IntermediateModel;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.core.util.IdempotentUtils;
 import software.amazon.awssdk.protocol.model.TestCase;
 import software.amazon.awssdk.protocol.reflect.ClientReflector;
@@ -43,9 +44,17 @@ public final class ProtocolTestRunner {
     private final UnmarshallingTestRunner unmarshallingTestRunner;
 
     public ProtocolTestRunner(String intermediateModelLocation) {
+        this(intermediateModelLocation, null);
+    }
+
+    /**
+     * @param intermediateModelLocation Location of the intermediate model of the client under test.
+     * @param overrideConfiguration Override configuration to create the client under test with, may be null.
+     */
+    public ProtocolTestRunner(String intermediateModelLocation, ClientOverrideConfiguration overrideConfiguration) {
         WireMockUtils.startWireMockServer();
         IntermediateModel model = loadModel(intermediateModelLocation);
-        this.clientReflector = new ClientReflector(model);
+        this.clientReflector = new ClientReflector(model, overrideConfiguration);
         this.marshallingTestRunner = new MarshallingTestRunner(model, clientReflector);
         this.unmarshallingTestRunner = new UnmarshallingTestRunner(model, clientReflector);
         IdempotentUtils.setGenerator(() -> "00000000-0000-4000-8000-000000000000");
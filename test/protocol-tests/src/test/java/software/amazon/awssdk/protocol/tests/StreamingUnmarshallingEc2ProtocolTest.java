@@ -0,0 +1,46 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package software.amazon.awssdk.protocol.tests;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.protocol.ProtocolTestSuiteLoader;
+import software.amazon.awssdk.protocol.runners.ProtocolTestRunner;
+
+/**
+ * Runs the EC2 protocol test suite against a client using streaming unmarshalling, to verify it behaves the same
+ * as the default DOM based unmarshalling.
+ */
+public class StreamingUnmarshallingEc2ProtocolTest {
+
+    private static final ProtocolTestSuiteLoader TEST_SUITE_LOADER = new ProtocolTestSuiteLoader();
+    private static ProtocolTestRunner testRunner;
+
+    @BeforeClass
+    public static void setupFixture() {
+        ClientOverrideConfiguration overrideConfiguration =
+            ClientOverrideConfiguration.builder()
+                                       .putAdvancedOption(SdkAdvancedClientOption.ENABLE_STREAMING_UNMARSHALLING, true)
+                                       .build();
+        testRunner = new ProtocolTestRunner("/models/ec2-2016-03-11-intermediate.json", overrideConfiguration);
+    }
+
+    @Test
+    public void run() throws Exception {
+        testRunner.runTests(TEST_SUITE_LOADER.load("ec2-suite.json"));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.protocol.tests;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.net.URI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.protocoljsonrpc.ProtocolJsonRpcClient;
+import software.amazon.awssdk.services.protocoljsonrpc.ProtocolJsonRpcClientBuilder;
+import software.amazon.awssdk.services.protocoljsonrpc.model.AllTypesResponse;
+import software.amazon.awssdk.services.protocoljsonrpc.model.NestedContainersResponse;
+
+/**
+ * Verifies the streaming unmarshaller produces exactly the same POJOs as the DOM based unmarshaller for the same payloads.
+ */
+public class StreamingUnmarshallingEquivalenceTest {
+
+    private static final String ALL_TYPES_BODY =
+        "{"
+        + "  \"StringMember\": \"foo\","
+        + "  \"IntegerMember\": 42,"
+        + "  \"BooleanMember\": true,"
+        + "  \"FloatMember\": 1.25,"
+        + "  \"DoubleMember\": 1.7976931348623157E308,"
+        + "  \"BigDecimalMember\": 1234567890.0987654321,"
+        + "  \"LongMember\": 9223372036854775807,"
+        + "  \"SimpleList\": [\"a\", null, \"c\"],"
+        + "  \"ListOfMaps\": [{\"k1\": \"v1\"}, {}],"
+        + "  \"ListOfStructs\": [{\"StringMember\": \"s1\"}, {\"StringMember\": null}],"
+        + "  \"MapOfStringToIntegerList\": {\"k\": [1, 2, 3], \"empty\": []},"
+        + "  \"MapOfStringToString\": {\"k1\": \"v1\", \"k2\": \"v2\"},"
+        + "  \"MapOfStringToStruct\": {\"k\": {\"StringMember\": \"nested\"}},"
+        + "  \"TimestampMember\": 1398796238.123,"
+        + "  \"StructWithNestedTimestampMember\": {\"NestedTimestamp\": 1398796238},"
+        + "  \"TimestampFormatMember\": \"2014-04-29T18:30:38.123Z\","
+        + "  \"BlobArg\": \"aGVsbG8gd29ybGQ=\","
+        + "  \"StructWithNestedBlob\": {\"NestedBlob\": \"Zm9v\"},"
+        + "  \"BlobMap\": {\"k\": \"YmFy\"},"
+        + "  \"ListOfBlobs\": [\"Zm9v\", \"YmFy\"],"
+        + "  \"RecursiveStruct\": {"
+        + "    \"NoRecurse\": \"level1\","
+        + "    \"RecursiveStruct\": {\"NoRecurse\": \"level2\"},"
+        + "    \"RecursiveList\": [{\"NoRecurse\": \"inList\"}],"
+        + "    \"RecursiveMap\": {\"k\": {\"NoRecurse\": \"inMap\"}}"
+        + "  },"
+        + "  \"PolymorphicTypeWithSubTypes\": {\"BaseMember\": \"base\"},"
+        + "  \"EnumMember\": \"EnumValue1\","
+        + "  \"ListOfEnums\": [\"EnumValue1\", \"SomeUnknownValue\"],"
+        + "  \"MapOfEnumToEnum\": {\"EnumValue1\": \"EnumValue2\"},"
+        + "  \"UnmodeledScalar\": 3.5,"
+        + "  \"UnmodeledObject\": {\"a\": [1, {\"b\": null}], \"c\": {}},"
+        + "  \"UnmodeledArray\": [[{}], [], \"x\"]"
+        + "}";
+
+    private static final String NESTED_CONTAINERS_BODY =
+        "{"
+        + "  \"ListOfListsOfStrings\": [[\"a\", \"b\"], [], null],"
+        + "  \"ListOfListsOfStructs\": [[{\"StringMember\": \"s\"}]],"
+        + "  \"ListOfListsOfAllTypesStructs\": [[{\"IntegerMember\": 1, \"SimpleList\": [\"x\"]}]],"
+        + "  \"ListOfListOfListsOfStrings\": [[[\"deep\"]]],"
+        + "  \"MapOfStringToListOfListsOfStrings\": {\"k\": [[\"v\"]]},"
+        + "  \"StringMember\": null"
+        + "}";
+
+    @Rule
+    public WireMockRule wireMock = new WireMockRule(0);
+
+    private ProtocolJsonRpcClient domClient;
+
+    private ProtocolJsonRpcClient streamingClient;
+
+    @Before
+    public void setupClients() {
+        domClient = clientBuilder().build();
+        streamingClient = clientBuilder()
+            .overrideConfiguration(c -> c.putAdvancedOption(SdkAdvancedClientOption.ENABLE_STREAMING_UNMARSHALLING, true))
+            .build();
+    }
+
+    @After
+    public void closeClients() {
+        domClient.close();
+        streamingClient.close();
+    }
+
+    @Test
+    public void allTypes_StreamingMatchesDom() {
+        stubResponse(ALL_TYPES_BODY);
+        AllTypesResponse expected = domClient.allTypes(r -> {});
+        AllTypesResponse actual = streamingClient.allTypes(r -> {});
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.stringMember()).isEqualTo("foo");
+        assertThat(actual.longMember()).isEqualTo(Long.MAX_VALUE);
+        assertThat(actual.recursiveStruct().recursiveMap().get("k").noRecurse()).isEqualTo("inMap");
+    }
+
+    @Test
+    public void nestedContainers_StreamingMatchesDom() {
+        stubResponse(NESTED_CONTAINERS_BODY);
+        NestedContainersResponse expected = domClient.nestedContainers(r -> {});
+        NestedContainersResponse actual = streamingClient.nestedContainers(r -> {});
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.listOfListOfListsOfStrings().get(0).get(0)).containsExactly("deep");
+    }
+
+    @Test
+    public void emptyObject_StreamingMatchesDom() {
+        stubResponse("{}");
+        assertThat(streamingClient.allTypes(r -> {})).isEqualTo(domClient.allTypes(r -> {}));
+    }
+
+    private void stubResponse(String body) {
+        stubFor(post(anyUrl()).willReturn(aResponse().withStatus(200).withBody(body)));
+    }
+
+    private ProtocolJsonRpcClientBuilder clientBuilder() {
+        return ProtocolJsonRpcClient.builder()
+                                    .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("akid",
+                                                                                                                      "skid")))
+                                    .region(Region.US_EAST_1)
+                                    .endpointOverride(URI.create("http://localhost:" + wireMock.port()));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.apicall.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.benchmark.utils.BenchmarkFixture;
+import software.amazon.awssdk.benchmark.utils.MockAsyncHttpClient;
+import software.amazon.awssdk.benchmark.utils.MockHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.protocolec2.ProtocolEc2AsyncClient;
+import software.amazon.awssdk.services.protocolec2.ProtocolEc2Client;
+import software.amazon.awssdk.services.protocolec2.model.AllTypesRequest;
+import software.amazon.awssdk.services.protocolec2.model.AllTypesResponse;
+import software.amazon.awssdk.services.protocolec2.model.SimpleStruct;
+
+/**
+ * Measures a complete EC2 API call, from marshalling and signing the request through the execution interceptors to
+ * unmarshalling the response, against an in-process HTTP client returning a canned response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(2)
+public class Ec2ProtocolBenchmark {
+
+    private static final AllTypesRequest REQUEST =
+        AllTypesRequest.builder()
+                       .stringMember("foo")
+                       .integerMember(42)
+                       .booleanMember(true)
+                       .simpleList("a", "b", "c")
+                       .listOfStructs(SimpleStruct.builder().stringMember("one").build(),
+                                      SimpleStruct.builder().stringMember("two").build())
+                       .build();
+
+    private static final String RESPONSE =
+        "<AllTypesResponse xmlns=\"https://ec2/\">"
+        + "<requestId>6a3b5c8e-benchmark</requestId>"
+        + "<stringMember>foo</stringMember>"
+        + "<integerMember>42</integerMember>"
+        + "<booleanMember>true</booleanMember>"
+        + "<longMember>9223372036854775807</longMember>"
+        + "<simpleList><item>a</item><item>b</item><item>c</item><item>d</item><item>e</item></simpleList>"
+        + "<listOfStructs>"
+        + "<item><StringMember>one</StringMember></item>"
+        + "<item><StringMember>two</StringMember></item>"
+        + "<item><StringMember>three</StringMember></item>"
+        + "</listOfStructs>"
+        + "<timestampMember>2014-04-29T18:30:38.000Z</timestampMember>"
+        + "</AllTypesResponse>";
+
+    private ProtocolEc2Client client;
+
+    private ProtocolEc2AsyncClient asyncClient;
+
+    @Setup
+    public void setup() {
+        SdkHttpResponse response = BenchmarkFixture.successResponse("text/xml");
+        byte[] content = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        client = ProtocolEc2Client.builder()
+                                  .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                  .region(BenchmarkFixture.REGION)
+                                  .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                  .httpClient(new MockHttpClient(response, content))
+                                  .build();
+
+        asyncClient = ProtocolEc2AsyncClient.builder()
+                                            .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                            .region(BenchmarkFixture.REGION)
+                                            .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                            .httpClient(new MockAsyncHttpClient(response, content))
+                                            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        asyncClient.close();
+    }
+
+    @Benchmark
+    public AllTypesResponse syncApiCall() {
+        return client.allTypes(REQUEST);
+    }
+
+    @Benchmark
+    public AllTypesResponse asyncApiCall() {
+        return asyncClient.allTypes(REQUEST).join();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.apicall.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.benchmark.utils.BenchmarkFixture;
+import software.amazon.awssdk.benchmark.utils.MockAsyncHttpClient;
+import software.amazon.awssdk.benchmark.utils.MockHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.protocolion.ProtocolIonAsyncClient;
+import software.amazon.awssdk.services.protocolion.ProtocolIonClient;
+import software.amazon.awssdk.services.protocolion.model.AllTypesRequest;
+import software.amazon.awssdk.services.protocolion.model.AllTypesResponse;
+import software.amazon.awssdk.services.protocolion.model.SimpleStruct;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.system.IonSystemBuilder;
+
+/**
+ * Measures a complete AWS Ion API call, from marshalling and signing the request through the execution interceptors to
+ * unmarshalling the response, against an in-process HTTP client returning a canned response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(2)
+public class IonProtocolBenchmark {
+
+    private static final AllTypesRequest REQUEST =
+        AllTypesRequest.builder()
+                       .stringMember("foo")
+                       .integerMember(42)
+                       .booleanMember(true)
+                       .simpleList("a", "b", "c")
+                       .listOfStructs(SimpleStruct.builder().stringMember("one").build(),
+                                      SimpleStruct.builder().stringMember("two").build())
+                       .build();
+
+    private ProtocolIonClient client;
+
+    private ProtocolIonAsyncClient asyncClient;
+
+    @Setup
+    public void setup() {
+        SdkHttpResponse response = BenchmarkFixture.successResponse("application/x-amz-ion-1.1");
+        byte[] content = toIon(BenchmarkFixture.JSON_ALL_TYPES_RESPONSE);
+
+        client = ProtocolIonClient.builder()
+                                  .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                  .region(BenchmarkFixture.REGION)
+                                  .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                  .httpClient(new MockHttpClient(response, content))
+                                  .build();
+
+        asyncClient = ProtocolIonAsyncClient.builder()
+                                            .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                            .region(BenchmarkFixture.REGION)
+                                            .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                            .httpClient(new MockAsyncHttpClient(response, content))
+                                            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        asyncClient.close();
+    }
+
+    @Benchmark
+    public AllTypesResponse syncApiCall() {
+        return client.allTypes(REQUEST);
+    }
+
+    @Benchmark
+    public AllTypesResponse asyncApiCall() {
+        return asyncClient.allTypes(REQUEST).join();
+    }
+
+    private static byte[] toIon(String json) {
+        IonSystem ionSystem = IonSystemBuilder.standard().build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (IonReader reader = ionSystem.newReader(json);
+             IonWriter writer = ionSystem.newBinaryWriter(out)) {
+            writer.writeValues(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
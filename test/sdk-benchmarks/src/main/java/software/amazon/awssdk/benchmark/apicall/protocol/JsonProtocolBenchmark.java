@@ -0,0 +1,103 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.apicall.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.benchmark.utils.BenchmarkFixture;
+import software.amazon.awssdk.benchmark.utils.MockAsyncHttpClient;
+import software.amazon.awssdk.benchmark.utils.MockHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.protocoljsonrpc.ProtocolJsonRpcAsyncClient;
+import software.amazon.awssdk.services.protocoljsonrpc.ProtocolJsonRpcClient;
+import software.amazon.awssdk.services.protocoljsonrpc.model.AllTypesRequest;
+import software.amazon.awssdk.services.protocoljsonrpc.model.AllTypesResponse;
+import software.amazon.awssdk.services.protocoljsonrpc.model.SimpleStruct;
+
+/**
+ * Measures a complete AWS JSON API call, from marshalling and signing the request through the execution interceptors to
+ * unmarshalling the response, against an in-process HTTP client returning a canned response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(2)
+public class JsonProtocolBenchmark {
+
+    private static final AllTypesRequest REQUEST =
+        AllTypesRequest.builder()
+                       .stringMember("foo")
+                       .integerMember(42)
+                       .booleanMember(true)
+                       .simpleList("a", "b", "c")
+                       .listOfStructs(SimpleStruct.builder().stringMember("one").build(),
+                                      SimpleStruct.builder().stringMember("two").build())
+                       .build();
+
+    private ProtocolJsonRpcClient client;
+
+    private ProtocolJsonRpcAsyncClient asyncClient;
+
+    @Setup
+    public void setup() {
+        SdkHttpResponse response = BenchmarkFixture.successResponse("application/x-amz-json-1.1");
+        byte[] content = BenchmarkFixture.JSON_ALL_TYPES_RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        client = ProtocolJsonRpcClient.builder()
+                                      .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                      .region(BenchmarkFixture.REGION)
+                                      .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                      .httpClient(new MockHttpClient(response, content))
+                                      .build();
+
+        asyncClient = ProtocolJsonRpcAsyncClient.builder()
+                                                .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                                .region(BenchmarkFixture.REGION)
+                                                .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                                .httpClient(new MockAsyncHttpClient(response, content))
+                                                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        asyncClient.close();
+    }
+
+    @Benchmark
+    public AllTypesResponse syncApiCall() {
+        return client.allTypes(REQUEST);
+    }
+
+    @Benchmark
+    public AllTypesResponse asyncApiCall() {
+        return asyncClient.allTypes(REQUEST).join();
+    }
+}
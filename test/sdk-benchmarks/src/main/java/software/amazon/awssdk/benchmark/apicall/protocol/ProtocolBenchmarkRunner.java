@@ -0,0 +1,54 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.apicall.protocol;
+
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the API call benchmarks of every protocol with the GC profiler attached, so both throughput (ops/s) and allocated
+ * bytes per operation ({@code gc.alloc.rate.norm}) are reported.
+ *
+ * <p>Any additional arguments are parsed as regular JMH command line options, e.g. {@code -f 1 -wi 2 -i 3}.</p>
+ */
+public final class ProtocolBenchmarkRunner {
+
+    private static final List<Class<?>> BENCHMARKS = Arrays.asList(
+        JsonProtocolBenchmark.class,
+        CborProtocolBenchmark.class,
+        IonProtocolBenchmark.class,
+        QueryProtocolBenchmark.class,
+        Ec2ProtocolBenchmark.class,
+        XmlProtocolBenchmark.class);
+
+    private ProtocolBenchmarkRunner() {
+    }
+
+    public static void main(String... args) throws RunnerException, CommandLineOptionException {
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(new CommandLineOptions(args))
+                                                            .addProfiler(GCProfiler.class);
+        BENCHMARKS.forEach(b -> options.include(b.getSimpleName()));
+        new Runner(options.build()).run();
+    }
+}
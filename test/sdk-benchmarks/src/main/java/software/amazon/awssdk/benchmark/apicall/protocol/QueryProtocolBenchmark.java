@@ -0,0 +1,131 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.apicall.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.benchmark.utils.BenchmarkFixture;
+import software.amazon.awssdk.benchmark.utils.MockAsyncHttpClient;
+import software.amazon.awssdk.benchmark.utils.MockHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.protocolquery.ProtocolQueryAsyncClient;
+import software.amazon.awssdk.services.protocolquery.ProtocolQueryClient;
+import software.amazon.awssdk.services.protocolquery.model.AllTypesRequest;
+import software.amazon.awssdk.services.protocolquery.model.AllTypesResponse;
+import software.amazon.awssdk.services.protocolquery.model.SimpleStruct;
+
+/**
+ * Measures a complete AWS/Query API call, from marshalling and signing the request through the execution interceptors to
+ * unmarshalling the response, against an in-process HTTP client returning a canned response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(2)
+public class QueryProtocolBenchmark {
+
+    private static final AllTypesRequest REQUEST =
+        AllTypesRequest.builder()
+                       .stringMember("foo")
+                       .integerMember(42)
+                       .booleanMember(true)
+                       .simpleList("a", "b", "c")
+                       .listOfStructs(SimpleStruct.builder().stringMember("one").build(),
+                                      SimpleStruct.builder().stringMember("two").build())
+                       .build();
+
+    private static final String XML_ALL_TYPES_MEMBERS =
+        "<stringMember>foo</stringMember>"
+        + "<integerMember>42</integerMember>"
+        + "<booleanMember>true</booleanMember>"
+        + "<longMember>9223372036854775807</longMember>"
+        + "<simpleList>"
+        + "<member>a</member><member>b</member><member>c</member><member>d</member><member>e</member>"
+        + "</simpleList>"
+        + "<listOfStructs>"
+        + "<member><StringMember>one</StringMember></member>"
+        + "<member><StringMember>two</StringMember></member>"
+        + "<member><StringMember>three</StringMember></member>"
+        + "</listOfStructs>"
+        + "<mapOfStringToString>"
+        + "<entry><key>k1</key><value>v1</value></entry>"
+        + "<entry><key>k2</key><value>v2</value></entry>"
+        + "<entry><key>k3</key><value>v3</value></entry>"
+        + "</mapOfStringToString>"
+        + "<timestampMember>2014-04-29T18:30:38.000Z</timestampMember>";
+
+    private static final String RESPONSE =
+        "<AllTypesResponse xmlns=\"https://query/\">"
+        + "<AllTypesResult>"
+        + XML_ALL_TYPES_MEMBERS
+        + "</AllTypesResult>"
+        + "<ResponseMetadata><RequestId>6a3b5c8e-benchmark</RequestId></ResponseMetadata>"
+        + "</AllTypesResponse>";
+
+    private ProtocolQueryClient client;
+
+    private ProtocolQueryAsyncClient asyncClient;
+
+    @Setup
+    public void setup() {
+        SdkHttpResponse response = BenchmarkFixture.successResponse("text/xml");
+        byte[] content = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        client = ProtocolQueryClient.builder()
+                                    .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                    .region(BenchmarkFixture.REGION)
+                                    .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                    .httpClient(new MockHttpClient(response, content))
+                                    .build();
+
+        asyncClient = ProtocolQueryAsyncClient.builder()
+                                              .credentialsProvider(BenchmarkFixture.CREDENTIALS_PROVIDER)
+                                              .region(BenchmarkFixture.REGION)
+                                              .endpointOverride(BenchmarkFixture.ENDPOINT)
+                                              .httpClient(new MockAsyncHttpClient(response, content))
+                                              .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        asyncClient.close();
+    }
+
+    @Benchmark
+    public AllTypesResponse syncApiCall() {
+        return client.allTypes(REQUEST);
+    }
+
+    @Benchmark
+    public AllTypesResponse asyncApiCall() {
+        return asyncClient.allTypes(REQUEST).join();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.protocolrestjson.model.StreamingOutputOperationResponse;
+
+/**
+ * Measures writing a download to disk with {@link AsyncResponseTransformer#toFile(Path)} compared to
+ * {@link AsyncResponseTransformer#toMemoryMappedFile(Path)}, feeding the transformer 64KB chunks the way an HTTP client
+ * would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FileDownloadBenchmark {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Benchmark
+    public void download(DownloadState s) throws IOException {
+        Files.deleteIfExists(s.target);
+        AsyncResponseTransformer<StreamingOutputOperationResponse, StreamingOutputOperationResponse> transformer =
+            s.writeMode == WriteMode.CHANNEL ? AsyncResponseTransformer.toFile(s.target)
+                                             : AsyncResponseTransformer.toMemoryMappedFile(s.target);
+        CompletableFuture<StreamingOutputOperationResponse> future = transformer.prepare();
+        transformer.onResponse(s.response);
+        transformer.onStream(new ChunkPublisher(s.chunk, s.fileSize));
+        future.join();
+    }
+
+    @State(Scope.Benchmark)
+    public static class DownloadState {
+        @Param({"CHANNEL", "MEMORY_MAPPED"})
+        private WriteMode writeMode;
+
+        @Param({"268435456"})
+        private long fileSize;
+
+        private Path directory;
+
+        private Path target;
+
+        private ByteBuffer chunk;
+
+        private StreamingOutputOperationResponse response;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("download-benchmark");
+            target = directory.resolve("download.dat");
+            chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            response = (StreamingOutputOperationResponse) StreamingOutputOperationResponse
+                .builder()
+                .sdkHttpResponse(SdkHttpResponse.builder()
+                                                .statusCode(200)
+                                                .putHeader("Content-Length", Long.toString(fileSize))
+                                                .build())
+                .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(target);
+            Files.delete(directory);
+        }
+    }
+
+    public enum WriteMode {
+        CHANNEL,
+        MEMORY_MAPPED
+    }
+
+    /**
+     * Publishes {@code size} bytes as 64KB chunks, honouring demand and delivering on the requesting thread.
+     */
+    private static final class ChunkPublisher implements SdkPublisher<ByteBuffer> {
+        private final ByteBuffer chunk;
+        private final long size;
+
+        private ChunkPublisher(ByteBuffer chunk, long size) {
+            this.chunk = chunk;
+            this.size = size;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+            subscriber.onSubscribe(new ChunkSubscription(subscriber, chunk, size));
+        }
+    }
+
+    private static final class ChunkSubscription implements Subscription {
+        private final Subscriber<? super ByteBuffer> subscriber;
+        private final ByteBuffer chunk;
+        private long remaining;
+        private long demand;
+        private boolean emitting;
+        private boolean done;
+
+        private ChunkSubscription(Subscriber<? super ByteBuffer> subscriber, ByteBuffer chunk, long size) {
+            this.subscriber = subscriber;
+            this.chunk = chunk;
+            this.remaining = size;
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            demand += n;
+            if (emitting) {
+                return;
+            }
+            emitting = true;
+            while (demand > 0 && remaining > 0 && !done) {
+                demand--;
+                ByteBuffer next = chunk.duplicate();
+                next.limit((int) Math.min(next.capacity(), remaining));
+                remaining -= next.remaining();
+                subscriber.onNext(next);
+            }
+            if (remaining == 0 && !done) {
+                done = true;
+                subscriber.onComplete();
+            }
+            emitting = false;
+        }
+
+        @Override
+        public synchronized void cancel() {
+            done = true;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.async;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.benchmark.utils.StubHttpServer;
+import software.amazon.awssdk.core.internal.async.FileAsyncRequestBody;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+import software.amazon.awssdk.http.async.SdkHttpContentPublisher;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+
+/**
+ * Measures uploading a local file through the Netty client to a local stub server, comparing a fresh heap buffer per chunk
+ * with reading ahead into pooled direct buffers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.SECONDS)
+public class FileUploadBenchmark {
+
+    @Benchmark
+    public void upload(UploadState s) {
+        s.upload().join();
+    }
+
+    @State(Scope.Benchmark)
+    public static class UploadState {
+        @Param({"HEAP", "POOLED_DIRECT"})
+        private BufferMode bufferMode;
+
+        @Param({"1", "4"})
+        private int readAheadDepth;
+
+        @Param({"67108864"})
+        private long fileSize;
+
+        private StubHttpServer server;
+
+        private SdkAsyncHttpClient client;
+
+        private Path file;
+
+        private SdkHttpFullRequest request;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            server = new StubHttpServer();
+            client = NettyNioAsyncHttpClient.builder().build();
+            file = Files.createTempFile("upload-benchmark", ".dat");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] block = new byte[1024 * 1024];
+                for (long written = 0; written < fileSize; written += block.length) {
+                    out.write(block, 0, (int) Math.min(block.length, fileSize - written));
+                }
+            }
+            request = SdkHttpFullRequest.builder()
+                                        .method(SdkHttpMethod.PUT)
+                                        .uri(server.endpoint())
+                                        .encodedPath("/bucket/key")
+                                        .putHeader("Content-Length", Long.toString(fileSize))
+                                        .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            client.close();
+            server.close();
+            Files.deleteIfExists(file);
+        }
+
+        private CompletableFuture<Void> upload() {
+            FileAsyncRequestBody body = FileAsyncRequestBody.builder()
+                                                            .path(file)
+                                                            .chunkSizeInBytes(64 * 1024)
+                                                            .readAheadDepth(readAheadDepth)
+                                                            .pooledDirectBuffers(bufferMode == BufferMode.POOLED_DIRECT)
+                                                            .build();
+            return client.execute(AsyncExecuteRequest.builder()
+                                                     .request(request)
+                                                     .requestContentPublisher(new ContentPublisher(body))
+                                                     .responseHandler(new DrainingResponseHandler())
+                                                     .build());
+        }
+    }
+
+    public enum BufferMode {
+        HEAP,
+        POOLED_DIRECT
+    }
+
+    private static final class ContentPublisher implements SdkHttpContentPublisher {
+        private final FileAsyncRequestBody body;
+
+        private ContentPublisher(FileAsyncRequestBody body) {
+            this.body = body;
+        }
+
+        @Override
+        public Optional<Long> contentLength() {
+            return body.contentLength();
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> s) {
+            body.subscribe(s);
+        }
+    }
+
+    private static final class DrainingResponseHandler implements SdkAsyncHttpResponseHandler {
+        @Override
+        public void onHeaders(SdkHttpResponse headers) {
+        }
+
+        @Override
+        public void onStream(Publisher<ByteBuffer> stream) {
+            stream.subscribe(new DrainingSubscriber());
+        }
+
+        @Override
+        public void onError(Throwable error) {
+        }
+    }
+
+    private static final class DrainingSubscriber implements Subscriber<ByteBuffer> {
+        @Override
+        public void onSubscribe(Subscription s) {
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.async;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.benchmark.async.NettyTransportBenchmark.DrainingResponseHandler;
+import software.amazon.awssdk.benchmark.async.NettyTransportBenchmark.EmptyContentPublisher;
+import software.amazon.awssdk.benchmark.utils.StubHttpServer;
+import software.amazon.awssdk.http.SdkHttpConfigurationOption;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.TlsHandshakeMetrics;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.utils.AttributeMap;
+import software.amazon.awssdk.utils.Logger;
+
+/**
+ * Measures the first request of a new Netty client to a local TLS stub server, which has to open a new connection. The
+ * server either lets the client resume the TLS session of the previous client, or forces a full handshake every time.
+ *
+ * <p>The handshake counts from the {@link TlsHandshakeMetrics} of each client are added up and logged at the end of each
+ * trial.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NettyTlsHandshakeBenchmark {
+    private static final Logger log = Logger.loggerFor(NettyTlsHandshakeBenchmark.class);
+
+    @Benchmark
+    public void firstRequest(HandshakeState s) {
+        try (SdkAsyncHttpClient client = NettyNioAsyncHttpClient.builder()
+                                                                .eventLoopGroup(s.eventLoopGroup)
+                                                                .buildWithDefaults(s.trustAllCertificates)) {
+            client.execute(AsyncExecuteRequest.builder()
+                                              .request(s.request)
+                                              .requestContentPublisher(new EmptyContentPublisher())
+                                              .responseHandler(new DrainingResponseHandler())
+                                              .build())
+                  .join();
+            TlsHandshakeMetrics metrics = ((NettyNioAsyncHttpClient) client).tlsHandshakeMetrics();
+            s.fullHandshakes.add(metrics.fullHandshakes());
+            s.resumedHandshakes.add(metrics.resumedHandshakes());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HandshakeState {
+        @Param({"true", "false"})
+        private boolean sessionResumption;
+
+        private final AttributeMap trustAllCertificates =
+            AttributeMap.builder().put(SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES, true).build();
+
+        private StubHttpServer server;
+
+        private SdkEventLoopGroup eventLoopGroup;
+
+        private SdkHttpFullRequest request;
+
+        private final LongAdder fullHandshakes = new LongAdder();
+
+        private final LongAdder resumedHandshakes = new LongAdder();
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            eventLoopGroup = SdkEventLoopGroup.builder().build();
+            server = StubHttpServer.withTls(sessionResumption);
+            request = SdkHttpFullRequest.builder()
+                                        .method(SdkHttpMethod.GET)
+                                        .uri(server.endpoint())
+                                        .encodedPath("/")
+                                        .build();
+            fullHandshakes.reset();
+            resumedHandshakes.reset();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            log.info(() -> "TLS handshakes with session resumption " + (sessionResumption ? "enabled" : "disabled") + ": "
+                           + fullHandshakes + " full, " + resumedHandshakes + " resumed");
+            server.close();
+            eventLoopGroup.eventLoopGroup().shutdownGracefully().awaitUninterruptibly();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.benchmark.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.benchmark.utils.StubHttpServer;
+import software.amazon.awssdk.http.SdkHttpConfigurationOption;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+import software.amazon.awssdk.http.async.SdkHttpContentPublisher;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.http.nio.netty.TransportType;
+import software.amazon.awssdk.utils.AttributeMap;
+
+/**
+ * Measures the throughput and latency of small HTTPS requests through the Netty client to a local TLS stub server with
+ * each socket transport. The epoll transport needs Linux; if it isn't available its setup fails rather than silently
+ * measuring the fallback.
+ *
+ * <p>Run with several threads ({@code -t}) to see how the transports behave with concurrent requests.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NettyTransportBenchmark {
+
+    @Benchmark
+    public void request(TransportState s) {
+        s.client.execute(AsyncExecuteRequest.builder()
+                                            .request(s.request)
+                                            .requestContentPublisher(new EmptyContentPublisher())
+                                            .responseHandler(new DrainingResponseHandler())
+                                            .build())
+                .join();
+    }
+
+    @State(Scope.Benchmark)
+    public static class TransportState {
+        @Param({"NIO", "EPOLL"})
+        private TransportType transportType;
+
+        @Param({"false", "true"})
+        private boolean tcpQuickAck;
+
+        private StubHttpServer server;
+
+        private SdkEventLoopGroup eventLoopGroup;
+
+        private SdkAsyncHttpClient client;
+
+        private SdkHttpFullRequest request;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            eventLoopGroup = SdkEventLoopGroup.builder()
+                                              .transportType(transportType)
+                                              .tcpQuickAck(tcpQuickAck)
+                                              .build();
+            if (eventLoopGroup.transportType().orElse(null) != transportType) {
+                eventLoopGroup.eventLoopGroup().shutdownGracefully();
+                throw new IllegalStateException(transportType + " transport is not available");
+            }
+            server = StubHttpServer.withTls();
+            client = NettyNioAsyncHttpClient.builder()
+                                            .eventLoopGroup(eventLoopGroup)
+                                            .buildWithDefaults(AttributeMap.builder()
+                                                                           .put(SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES,
+                                                                                true)
+                                                                           .build());
+            request = SdkHttpFullRequest.builder()
+                                        .method(SdkHttpMethod.GET)
+                                        .uri(server.endpoint())
+                                        .encodedPath("/")
+                                        .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (client != null) {
+                client.close();
+                server.close();
+            }
+            eventLoopGroup.eventLoopGroup().shutdownGracefully().awaitUninterruptibly();
+        }
+    }
+
+    static final class EmptyContentPublisher implements SdkHttpContentPublisher {
+        @Override
+        public Optional<Long> contentLength() {
+            return Optional.of(0L);
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> s) {
+            s.onSubscribe(new CompletingSubscription(s));
+        }
+    }
+
+    static final class CompletingSubscription implements Subscription {
+        private final Subscriber<? super ByteBuffer> subscriber;
+        private boolean done;
+
+        private CompletingSubscription(Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (!done) {
+                done = true;
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+    }
+
+    static final class DrainingResponseHandler implements SdkAsyncHttpResponseHandler {
+        @Override
+        public void onHeaders(SdkHttpResponse headers) {
+        }
+
+        @Override
+        public void onStream(Publisher<ByteBuffer> stream) {
+            stream.subscribe(new DrainingSubscriber());
+        }
+
+        @Override
+        public void onError(Throwable error) {
+        }
+    }
+
+    static final class DrainingSubscriber implements Subscriber<ByteBuffer> {
+        @Override
+        public void onSubscribe(Subscription s) {
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
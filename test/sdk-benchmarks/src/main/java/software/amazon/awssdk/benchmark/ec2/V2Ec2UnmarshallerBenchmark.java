@@ -0,0 +1,139 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.ec2;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.core.client.config.SdkAdvancedClientOption;
+import software.amazon.awssdk.core.client.config.SdkClientConfiguration;
+import software.amazon.awssdk.core.http.HttpResponseHandler;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.SdkHttpFullResponse;
+import software.amazon.awssdk.protocols.query.AwsEc2ProtocolFactory;
+import software.amazon.awssdk.services.ec2.model.DescribeInstancesResponse;
+
+/**
+ * Compares unmarshalling a DescribeInstances response by first parsing it into a DOM tree against binding it directly
+ * into the response builders with the streaming unmarshaller.
+ */
+public class V2Ec2UnmarshallerBenchmark {
+
+    @Benchmark
+    public Object unmarshall(UnmarshallerState s) throws Exception {
+        return s.responseHandler.handle(s.response(), new ExecutionAttributes());
+    }
+
+    @State(Scope.Benchmark)
+    public static class UnmarshallerState {
+        @Param({"DOM", "STREAMING"})
+        private Mode mode;
+
+        @Param({"TINY", "SMALL", "HUGE"})
+        private TestItem testItem;
+
+        private HttpResponseHandler<DescribeInstancesResponse> responseHandler;
+
+        private byte[] content;
+
+        @Setup
+        public void setup() {
+            SdkClientConfiguration clientConfiguration =
+                SdkClientConfiguration.builder()
+                                      .option(SdkAdvancedClientOption.ENABLE_STREAMING_UNMARSHALLING, mode == Mode.STREAMING)
+                                      .build();
+            AwsEc2ProtocolFactory.Builder protocolFactory = AwsEc2ProtocolFactory.builder();
+            protocolFactory.clientConfiguration(clientConfiguration);
+            responseHandler = protocolFactory.build().createResponseHandler(DescribeInstancesResponse::builder);
+            content = testItem.getValue().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private SdkHttpFullResponse response() {
+            return SdkHttpFullResponse.builder()
+                                      .statusCode(200)
+                                      .content(AbortableInputStream.create(new ByteArrayInputStream(content)))
+                                      .build();
+        }
+    }
+
+    public enum Mode {
+        DOM,
+        STREAMING
+    }
+
+    public enum TestItem {
+        TINY(1),
+        SMALL(10),
+        HUGE(500);
+
+        private final String content;
+
+        TestItem(int reservations) {
+            this.content = describeInstancesResponse(reservations);
+        }
+
+        public String getValue() {
+            return content;
+        }
+    }
+
+    private static String describeInstancesResponse(int reservations) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">")
+            .append("<requestId>8f7724cf-496f-496e-8fe3-example</requestId>")
+            .append("<reservationSet>");
+        for (int i = 0; i < reservations; i++) {
+            xml.append("<item>")
+                .append("<reservationId>r-").append(i).append("</reservationId>")
+                .append("<ownerId>123456789012</ownerId>")
+                .append("<groupSet/>")
+                .append("<instancesSet>");
+            for (int j = 0; j < 2; j++) {
+                xml.append("<item>")
+                    .append("<instanceId>i-").append(i).append('-').append(j).append("</instanceId>")
+                    .append("<imageId>ami-bff32ccc</imageId>")
+                    .append("<instanceState><code>16</code><name>running</name></instanceState>")
+                    .append("<privateDnsName>ip-192-168-1-88.eu-west-1.compute.internal</privateDnsName>")
+                    .append("<dnsName>ec2-54-194-252-215.eu-west-1.compute.amazonaws.com</dnsName>")
+                    .append("<instanceType>t2.micro</instanceType>")
+                    .append("<launchTime>2018-05-08T16:46:19.000Z</launchTime>")
+                    .append("<placement><availabilityZone>eu-west-1c</availabilityZone><tenancy>default</tenancy></placement>")
+                    .append("<monitoring><state>disabled</state></monitoring>")
+                    .append("<privateIpAddress>192.168.1.88</privateIpAddress>")
+                    .append("<ipAddress>54.194.252.215</ipAddress>")
+                    .append("<ebsOptimized>false</ebsOptimized>")
+                    .append("<blockDeviceMapping><item><deviceName>/dev/xvda</deviceName>")
+                    .append("<ebs><volumeId>vol-1234567890abcdef0</volumeId><status>attached</status>")
+                    .append("<attachTime>2018-05-08T16:46:20.000Z</attachTime>")
+                    .append("<deleteOnTermination>true</deleteOnTermination></ebs></item></blockDeviceMapping>")
+                    .append("<tagSet>")
+                    .append("<item><key>Name</key><value>benchmark-").append(i).append("</value></item>")
+                    .append("<item><key>Stage</key><value>prod</value></item>")
+                    .append("</tagSet>")
+                    .append("</item>");
+            }
+            xml.append("</instancesSet></item>");
+        }
+        xml.append("</reservationSet></DescribeInstancesResponse>");
+        return xml.toString();
+    }
+}
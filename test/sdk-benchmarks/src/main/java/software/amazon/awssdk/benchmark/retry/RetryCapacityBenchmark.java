@@ -0,0 +1,160 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.retry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import software.amazon.awssdk.core.internal.retry.RetryTokenBucket;
+import software.amazon.awssdk.core.internal.retry.SdkDefaultRetrySetting;
+
+/**
+ * Measures taking and giving back retry capacity from many threads at once, comparing the lock guarded capacity manager the
+ * retry handler used to rely on against the lock-free {@link RetryTokenBucket}.
+ *
+ * <p>{@link #retrySucceeds} takes the capacity of a retry and gives it back, as a retry that succeeds does. {@link #errorStorm}
+ * tries to take capacity from a drained bucket, as every thread does once a failing service has used up the capacity.
+ */
+@Threads(Threads.MAX)
+public class RetryCapacityBenchmark {
+    private static final int COST = SdkDefaultRetrySetting.RETRY_THROTTLING_COST;
+
+    @Benchmark
+    public boolean retrySucceeds(FullBucket s) {
+        boolean acquired = s.bucket.acquire(COST);
+        if (acquired) {
+            s.bucket.release(COST);
+        }
+        return acquired;
+    }
+
+    @Benchmark
+    public boolean errorStorm(DrainedBucket s) {
+        return s.bucket.acquire(COST);
+    }
+
+    @State(Scope.Benchmark)
+    public static class FullBucket {
+        @Param({"LOCKING", "LOCK_FREE"})
+        private Mode mode;
+
+        private Bucket bucket;
+
+        @Setup
+        public void setup() {
+            bucket = mode.create(COST * SdkDefaultRetrySetting.THROTTLED_RETRIES);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DrainedBucket {
+        @Param({"LOCKING", "LOCK_FREE"})
+        private Mode mode;
+
+        private Bucket bucket;
+
+        @Setup
+        public void setup() {
+            int capacity = COST * SdkDefaultRetrySetting.THROTTLED_RETRIES;
+            bucket = mode.create(capacity);
+            bucket.acquire(capacity);
+        }
+    }
+
+    public enum Mode {
+        LOCKING {
+            @Override
+            Bucket create(int maxCapacity) {
+                return new LockingBucket(maxCapacity);
+            }
+        },
+        LOCK_FREE {
+            @Override
+            Bucket create(int maxCapacity) {
+                return new LockFreeBucket(maxCapacity);
+            }
+        };
+
+        abstract Bucket create(int maxCapacity);
+    }
+
+    private interface Bucket {
+        boolean acquire(int capacity);
+
+        void release(int capacity);
+    }
+
+    private static final class LockFreeBucket implements Bucket {
+        private final RetryTokenBucket delegate;
+
+        private LockFreeBucket(int maxCapacity) {
+            // Refilled over time, like the clients' buckets, which costs a clock read on every acquisition from a bucket that
+            // isn't full
+            this.delegate = new RetryTokenBucket(maxCapacity, SdkDefaultRetrySetting.RETRY_CAPACITY_REFILL_PER_SECOND);
+        }
+
+        @Override
+        public boolean acquire(int capacity) {
+            return delegate.acquire(capacity);
+        }
+
+        @Override
+        public void release(int capacity) {
+            delegate.release(capacity);
+        }
+    }
+
+    /**
+     * The previous capacity manager: capacity is taken and given back under a lock.
+     */
+    private static final class LockingBucket implements Bucket {
+        private final int maxCapacity;
+        private final Object lock = new Object();
+        private volatile int availableCapacity;
+
+        private LockingBucket(int maxCapacity) {
+            this.maxCapacity = maxCapacity;
+            this.availableCapacity = maxCapacity;
+        }
+
+        @Override
+        public boolean acquire(int capacity) {
+            if (availableCapacity < 0) {
+                return true;
+            }
+            synchronized (lock) {
+                if (availableCapacity - capacity >= 0) {
+                    availableCapacity -= capacity;
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        @Override
+        public void release(int capacity) {
+            if (availableCapacity >= 0 && availableCapacity != maxCapacity) {
+                synchronized (lock) {
+                    availableCapacity = Math.min(availableCapacity + capacity, maxCapacity);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.signer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.signer.Aws4Signer;
+import software.amazon.awssdk.auth.signer.internal.FifoCache;
+import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Measures signing key cache lookups from many threads at once, comparing the read-write-lock guarded cache the signer
+ * used to rely on against the lock-free {@link FifoCache}, and the end-to-end cost of signing a request concurrently.
+ */
+@Threads(Threads.MAX)
+public class SigningKeyCacheBenchmark {
+
+    private static final int CACHE_SIZE = 300;
+
+    @Benchmark
+    public Object cacheLookup(CacheState s) {
+        return s.cache.get(s.randomKey());
+    }
+
+    @Benchmark
+    public SdkHttpFullRequest sign(SignerState s) {
+        return s.signer.sign(s.request, s.signerParams);
+    }
+
+    @State(Scope.Benchmark)
+    public static class CacheState {
+        @Param({"LOCKING", "LOCK_FREE"})
+        private Mode mode;
+
+        @Param({"1", "16"})
+        private int distinctKeys;
+
+        private Cache cache;
+
+        private String[] keys;
+
+        @Setup
+        public void setup() {
+            cache = mode == Mode.LOCKING ? new LockingCache(CACHE_SIZE) : new LockFreeCache(CACHE_SIZE);
+            keys = new String[distinctKeys];
+            for (int i = 0; i < distinctKeys; i++) {
+                keys[i] = "secret-key-" + i + "-us-east-1-dynamodb-17800";
+                cache.add(keys[i], new byte[32]);
+            }
+        }
+
+        private String randomKey() {
+            return keys.length == 1 ? keys[0] : keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SignerState {
+        private Aws4Signer signer;
+
+        private Aws4SignerParams signerParams;
+
+        private SdkHttpFullRequest request;
+
+        @Setup
+        public void setup() {
+            signer = Aws4Signer.create();
+            signerParams = Aws4SignerParams.builder()
+                                           .awsCredentials(AwsBasicCredentials.create("akid", "skid"))
+                                           .signingName("dynamodb")
+                                           .signingRegion(Region.US_EAST_1)
+                                           .build();
+            request = SdkHttpFullRequest.builder()
+                                        .method(SdkHttpMethod.POST)
+                                        .protocol("https")
+                                        .host("dynamodb.us-east-1.amazonaws.com")
+                                        .encodedPath("/")
+                                        .putHeader("Content-Type", "application/x-amz-json-1.0")
+                                        .putHeader("X-Amz-Target", "DynamoDB_20120810.GetItem")
+                                        .build();
+        }
+    }
+
+    public enum Mode {
+        LOCKING,
+        LOCK_FREE
+    }
+
+    private interface Cache {
+        void add(String key, byte[] value);
+
+        byte[] get(String key);
+    }
+
+    private static final class LockFreeCache implements Cache {
+        private final FifoCache<byte[]> delegate;
+
+        private LockFreeCache(int maxSize) {
+            this.delegate = new FifoCache<>(maxSize);
+        }
+
+        @Override
+        public void add(String key, byte[] value) {
+            delegate.add(key, value);
+        }
+
+        @Override
+        public byte[] get(String key) {
+            return delegate.get(key);
+        }
+    }
+
+    /**
+     * The previous signing key cache: a bounded insertion-ordered map guarded by a read-write lock.
+     */
+    private static final class LockingCache implements Cache {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, byte[]> map;
+
+        private LockingCache(int maxSize) {
+            this.map = new BoundedMap(maxSize);
+        }
+
+        @Override
+        public void add(String key, byte[] value) {
+            lock.writeLock().lock();
+            try {
+                map.put(key, value);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public byte[] get(String key) {
+            lock.readLock().lock();
+            try {
+                return map.get(key);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private static final class BoundedMap extends LinkedHashMap<String, byte[]> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        private BoundedMap(int maxSize) {
+            super(maxSize);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.benchmark.sync;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import software.amazon.awssdk.benchmark.utils.StubHttpServer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+
+/**
+ * Measures requests to a local stub server from many threads sharing one Apache client, comparing Apache's pooling
+ * connection manager with the lock-free one. The stub server answers immediately, so the time is dominated by the client,
+ * including leasing and releasing connections.
+ *
+ * <p>The thread count can be raised with {@code -t}, e.g. {@code -t 512}; the connection limit follows the thread count, so
+ * threads contend on the pool rather than wait for connections.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class ApacheConnectionPoolBenchmark {
+
+    @Benchmark
+    public void request(PoolState s) throws IOException {
+        HttpExecuteResponse response = s.client.prepareRequest(HttpExecuteRequest.builder().request(s.request).build())
+                                               .call();
+        if (response.responseBody().isPresent()) {
+            try (AbortableInputStream body = response.responseBody().get()) {
+                while (body.read() != -1) {
+                    // Drain the body so the connection is released to the pool
+                }
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PoolState {
+        @Param({"false", "true"})
+        private boolean lockFreeConnectionPool;
+
+        private StubHttpServer server;
+
+        private SdkHttpClient client;
+
+        private SdkHttpFullRequest request;
+
+        @Setup(Level.Trial)
+        public void setup(BenchmarkParams params) throws IOException {
+            server = new StubHttpServer();
+            client = ApacheHttpClient.builder()
+                                     .maxConnections(params.getThreads())
+                                     .useLockFreeConnectionPool(lockFreeConnectionPool)
+                                     .build();
+            request = SdkHttpFullRequest.builder()
+                                        .method(SdkHttpMethod.GET)
+                                        .uri(server.endpoint())
+                                        .encodedPath("/")
+                                        .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.sync;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import software.amazon.awssdk.benchmark.utils.StubHttp2Server;
+import software.amazon.awssdk.benchmark.utils.StubHttpServer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettySyncHttpClient;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * Measures blocking requests to a local stub server from many threads sharing one synchronous client, comparing the Apache
+ * client, which needs a connection per thread, with the Netty synchronous client, which multiplexes the threads' requests
+ * as streams over a few HTTP/2 connections ({@value #STREAMS_PER_CONNECTION} streams each).
+ *
+ * <p>The thread count can be raised with {@code -t}, e.g. {@code -t 512}; the concurrency limit of both clients follows the
+ * thread count, so threads never wait for a connection or stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class SyncHttpClientBenchmark {
+    private static final int STREAMS_PER_CONNECTION = 100;
+
+    @Benchmark
+    public void request(ClientState s) throws IOException {
+        HttpExecuteResponse response = s.httpClient.prepareRequest(HttpExecuteRequest.builder().request(s.request).build())
+                                               .call();
+        if (response.responseBody().isPresent()) {
+            try (AbortableInputStream body = response.responseBody().get()) {
+                while (body.read() != -1) {
+                    // Drain the body so the connection or stream is released
+                }
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ClientState {
+        @Param({"apache-http1.1", "netty-http2"})
+        private String client;
+
+        private SdkAutoCloseable server;
+
+        private SdkHttpClient httpClient;
+
+        private SdkHttpFullRequest request;
+
+        @Setup(Level.Trial)
+        public void setup(BenchmarkParams params) throws IOException, InterruptedException {
+            URI endpoint;
+            if ("netty-http2".equals(client)) {
+                StubHttp2Server http2Server = new StubHttp2Server();
+                server = http2Server;
+                endpoint = http2Server.endpoint();
+                httpClient = NettySyncHttpClient.builder()
+                                                .maxConcurrency(params.getThreads())
+                                                .maxHttp2Streams(STREAMS_PER_CONNECTION)
+                                                .build();
+            } else {
+                StubHttpServer httpServer = new StubHttpServer();
+                server = httpServer;
+                endpoint = httpServer.endpoint();
+                httpClient = ApacheHttpClient.builder()
+                                             .maxConnections(params.getThreads())
+                                             .build();
+            }
+            request = SdkHttpFullRequest.builder()
+                                        .method(SdkHttpMethod.GET)
+                                        .uri(endpoint)
+                                        .encodedPath("/")
+                                        .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            httpClient.close();
+            server.close();
+        }
+    }
+}
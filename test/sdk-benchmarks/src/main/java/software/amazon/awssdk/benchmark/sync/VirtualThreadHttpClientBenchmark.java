@@ -0,0 +1,179 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.sync;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import software.amazon.awssdk.benchmark.utils.DelayedHttpServer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+
+/**
+ * Measures how long it takes to complete a batch of blocking calls, each started on its own thread, against a local server
+ * that answers after {@link #SERVICE_LATENCY}. The clients allow {@link #MAX_CONCURRENCY} requests in flight, so a batch
+ * ideally takes {@code calls / MAX_CONCURRENCY * SERVICE_LATENCY}, e.g. 100 ms for 10,000 calls.
+ *
+ * <p>The {@code virtual} executor starts a virtual thread per call and leaves the clients to bound concurrency, which
+ * requires Java 21 or later. The {@code platform} executor is the traditional alternative, a pool of
+ * {@link #MAX_CONCURRENCY} platform threads. A virtual thread that blocks while holding a monitor pins its carrier thread,
+ * of which there is one per core, so a client that pins takes about {@code calls / cores * SERVICE_LATENCY} instead: the
+ * gap to the ideal shows how well the client uses its carrier threads. Pinning can be confirmed by adding
+ * {@code -jvmArgsAppend -Djdk.tracePinnedThreads=short}.
+ *
+ * <p>The batch size can be raised with {@code -p calls=100000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(1)
+// Lets HttpURLConnection keep as many idle connections as there can be requests in flight, like the Apache client's pool
+@Fork(jvmArgsAppend = "-Dhttp.maxConnections=" + VirtualThreadHttpClientBenchmark.MAX_CONCURRENCY)
+public class VirtualThreadHttpClientBenchmark {
+    static final int MAX_CONCURRENCY = 1000;
+
+    private static final Duration SERVICE_LATENCY = Duration.ofMillis(10);
+
+    @Benchmark
+    public void concurrentCalls(BatchState s) throws InterruptedException, ExecutionException {
+        List<Future<?>> calls = new ArrayList<>(s.calls);
+        for (int i = 0; i < s.calls; i++) {
+            calls.add(s.callerExecutor.submit(s::call));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BatchState {
+        @Param({"url-connection", "apache"})
+        private String client;
+
+        @Param({"virtual", "platform"})
+        private String executor;
+
+        @Param({"10000"})
+        private int calls;
+
+        private DelayedHttpServer server;
+
+        private SdkHttpClient httpClient;
+
+        private ExecutorService callerExecutor;
+
+        private HttpExecuteRequest request;
+
+        @Setup(Level.Trial)
+        public void setup() throws InterruptedException {
+            server = new DelayedHttpServer(SERVICE_LATENCY);
+            httpClient = createClient(client);
+            callerExecutor = createExecutor(executor);
+            request = HttpExecuteRequest.builder()
+                                        .request(SdkHttpFullRequest.builder()
+                                                                   .method(SdkHttpMethod.GET)
+                                                                   .uri(server.endpoint())
+                                                                   .encodedPath("/")
+                                                                   .build())
+                                        .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            callerExecutor.shutdownNow();
+            httpClient.close();
+            server.close();
+        }
+
+        private Void call() throws IOException {
+            HttpExecuteResponse response = httpClient.prepareRequest(request).call();
+            if (response.responseBody().isPresent()) {
+                try (AbortableInputStream body = response.responseBody().get()) {
+                    while (body.read() != -1) {
+                        // Drain the body so the connection can be reused
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static SdkHttpClient createClient(String client) {
+            // Calls beyond the limit wait for up to a whole batch's worth of service latency
+            Duration acquisitionTimeout = Duration.ofMinutes(1);
+            switch (client) {
+                case "url-connection":
+                    return UrlConnectionHttpClient.builder()
+                                                  .maxConcurrency(MAX_CONCURRENCY)
+                                                  .connectionAcquisitionTimeout(acquisitionTimeout)
+                                                  .build();
+                case "apache":
+                    return ApacheHttpClient.builder()
+                                           .maxConnections(MAX_CONCURRENCY)
+                                           .connectionAcquisitionTimeout(acquisitionTimeout)
+                                           .useLockFreeConnectionPool(true)
+                                           .build();
+                default:
+                    throw new IllegalArgumentException("Unknown client: " + client);
+            }
+        }
+
+        private static ExecutorService createExecutor(String executor) {
+            switch (executor) {
+                case "virtual":
+                    return newVirtualThreadPerTaskExecutor();
+                case "platform":
+                    return Executors.newFixedThreadPool(MAX_CONCURRENCY);
+                default:
+                    throw new IllegalArgumentException("Unknown executor: " + executor);
+            }
+        }
+
+        /**
+         * Looked up reflectively, so the benchmarks still build for, and the other executors still run on, Java 8.
+         */
+        private static ExecutorService newVirtualThreadPerTaskExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual threads require Java 21 or later.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.timeout;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import software.amazon.awssdk.core.internal.http.timers.HashedWheelTimer;
+
+/**
+ * Measures scheduling and cancelling a timeout from many threads at once, as every API call and API call attempt with a
+ * timeout does, while a number of other timeouts are pending. Compares the scheduled thread pool the timeouts used to be
+ * scheduled on against the {@link HashedWheelTimer}.
+ *
+ * <p>The scheduled thread pool is created like the one of the clients, except that cancelled timeouts are removed from its
+ * queue, since otherwise they would pile up for the whole length of their delay and the queue would grow without bound during
+ * the benchmark.
+ */
+@Threads(Threads.MAX)
+public class TimeoutTimerBenchmark {
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final Runnable NO_OP = () -> { };
+
+    @Benchmark
+    public boolean scheduleAndCancel(TimerState s) {
+        return s.timer.scheduleAndCancel();
+    }
+
+    @State(Scope.Benchmark)
+    public static class TimerState {
+        @Param({"SCHEDULED_EXECUTOR", "HASHED_WHEEL"})
+        private Mode mode;
+
+        @Param({"1000", "100000"})
+        private int pendingTimeouts;
+
+        private Timer timer;
+
+        @Setup
+        public void setup() {
+            timer = mode.create();
+            timer.schedulePending(pendingTimeouts);
+        }
+
+        @TearDown
+        public void tearDown() {
+            timer.close();
+        }
+    }
+
+    public enum Mode {
+        SCHEDULED_EXECUTOR {
+            @Override
+            Timer create() {
+                return new ExecutorTimer();
+            }
+        },
+        HASHED_WHEEL {
+            @Override
+            Timer create() {
+                return new WheelTimer();
+            }
+        };
+
+        abstract Timer create();
+    }
+
+    private interface Timer {
+        void schedulePending(int count);
+
+        boolean scheduleAndCancel();
+
+        void close();
+    }
+
+    private static final class ExecutorTimer implements Timer {
+        private final ScheduledThreadPoolExecutor executor = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(5);
+
+        private ExecutorTimer() {
+            executor.setRemoveOnCancelPolicy(true);
+        }
+
+        @Override
+        public void schedulePending(int count) {
+            for (int i = 0; i < count; i++) {
+                executor.schedule(NO_OP, TIMEOUT_MILLIS * 10, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public boolean scheduleAndCancel() {
+            return executor.schedule(NO_OP, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).cancel(false);
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class WheelTimer implements Timer {
+        private final HashedWheelTimer timer =
+            new HashedWheelTimer("benchmark-timeout-timer", TimeUnit.MILLISECONDS.toNanos(10), 512);
+
+        @Override
+        public void schedulePending(int count) {
+            for (int i = 0; i < count; i++) {
+                timer.newTimeout(NO_OP, TIMEOUT_MILLIS * 10, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public boolean scheduleAndCancel() {
+            return timer.newTimeout(NO_OP, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).cancel();
+        }
+
+        @Override
+        public void close() {
+            timer.close();
+        }
+    }
+}
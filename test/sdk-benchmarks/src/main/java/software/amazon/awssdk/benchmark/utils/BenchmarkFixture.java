@@ -0,0 +1,68 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.benchmark.utils;
+
+import java.net.URI;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Shared client configuration and canned responses for the API call benchmarks.
+ */
+public final class BenchmarkFixture {
+
+    public static final AwsCredentialsProvider CREDENTIALS_PROVIDER =
+        StaticCredentialsProvider.create(AwsBasicCredentials.create("akid", "skid"));
+
+    public static final Region REGION = Region.US_EAST_1;
+
+    public static final URI ENDPOINT = URI.create("http://localhost");
+
+    /**
+     * Response body shared by the JSON, CBOR and Ion protocol benchmarks. The CBOR and Ion benchmarks transcode it to their
+     * own wire format.
+     */
+    public static final String JSON_ALL_TYPES_RESPONSE =
+        "{"
+        + "\"StringMember\":\"foo\","
+        + "\"IntegerMember\":42,"
+        + "\"BooleanMember\":true,"
+        + "\"LongMember\":9223372036854775807,"
+        + "\"SimpleList\":[\"a\",\"b\",\"c\",\"d\",\"e\"],"
+        + "\"ListOfStructs\":[{\"StringMember\":\"one\"},{\"StringMember\":\"two\"},{\"StringMember\":\"three\"}],"
+        + "\"MapOfStringToString\":{\"k1\":\"v1\",\"k2\":\"v2\",\"k3\":\"v3\"},"
+        + "\"ListOfMaps\":[{\"k1\":\"v1\"},{\"k2\":\"v2\"}],"
+        + "\"MapOfStringToStruct\":{\"k1\":{\"StringMember\":\"v1\"},\"k2\":{\"StringMember\":\"v2\"}}"
+        + "}";
+
+    private BenchmarkFixture() {
+    }
+
+    /**
+     * @param contentType Content type of the response body.
+     * @return Successful response with the given content type and a request ID.
+     */
+    public static SdkHttpResponse successResponse(String contentType) {
+        return SdkHttpResponse.builder()
+                              .statusCode(200)
+                              .putHeader("Content-Type", contentType)
+                              .putHeader("x-amzn-RequestId", "6a3b5c8e-benchmark")
+                              .build();
+    }
+}
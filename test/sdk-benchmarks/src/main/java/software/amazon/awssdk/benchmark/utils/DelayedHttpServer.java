@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.utils;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * A local HTTP/1.1 server that answers each request with an empty 200 response after a fixed delay, standing in for a
+ * service with some latency. The delay is scheduled on the event loop rather than slept through, so the server can hold
+ * tens of thousands of requests open at once.
+ */
+public final class DelayedHttpServer implements SdkAutoCloseable {
+    /**
+     * Room for the connections of thousands of callers opened at once, before the server accepts them.
+     */
+    private static final int BACKLOG = 4096;
+
+    private final NioEventLoopGroup group = new NioEventLoopGroup();
+    private final Channel serverChannel;
+
+    public DelayedHttpServer(Duration delay) throws InterruptedException {
+        ServerBootstrap bootstrap = new ServerBootstrap().group(group)
+                                                         .channel(NioServerSocketChannel.class)
+                                                         .option(ChannelOption.SO_BACKLOG, BACKLOG)
+                                                         .childHandler(new ConnectionInitializer(delay.toNanos()));
+        serverChannel = bootstrap.bind(InetAddress.getLoopbackAddress(), 0).sync().channel();
+    }
+
+    public URI endpoint() {
+        return URI.create("http://localhost:" + ((InetSocketAddress) serverChannel.localAddress()).getPort());
+    }
+
+    @Override
+    public void close() {
+        serverChannel.close().syncUninterruptibly();
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    private static final class ConnectionInitializer extends ChannelInitializer<Channel> {
+        private final long delayNanos;
+
+        private ConnectionInitializer(long delayNanos) {
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        protected void initChannel(Channel ch) {
+            ch.pipeline().addLast(new HttpServerCodec(), new DelayedResponseHandler(delayNanos));
+        }
+    }
+
+    private static final class DelayedResponseHandler extends SimpleChannelInboundHandler<HttpObject> {
+        private final long delayNanos;
+
+        private DelayedResponseHandler(long delayNanos) {
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
+            if (msg instanceof LastHttpContent) {
+                ctx.executor().schedule(() -> respond(ctx), delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private static void respond(ChannelHandlerContext ctx) {
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+            response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+            ctx.writeAndFlush(response);
+        }
+    }
+}
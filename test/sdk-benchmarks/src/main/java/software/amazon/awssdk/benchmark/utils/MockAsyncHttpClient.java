@@ -0,0 +1,126 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.benchmark.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+
+/**
+ * In-process {@link SdkAsyncHttpClient} that drains the request body and returns the same canned response for every
+ * request on the calling thread, so benchmarks only measure the cost of the SDK's request pipeline.
+ */
+public final class MockAsyncHttpClient implements SdkAsyncHttpClient {
+
+    private final SdkHttpResponse response;
+    private final byte[] content;
+
+    public MockAsyncHttpClient(SdkHttpResponse response, byte[] content) {
+        this.response = response;
+        this.content = content.clone();
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(AsyncExecuteRequest request) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (request.requestContentPublisher() == null) {
+            respond(request.responseHandler(), future);
+        } else {
+            request.requestContentPublisher().subscribe(new DrainingSubscriber(() -> respond(request.responseHandler(),
+                                                                                             future)));
+        }
+        return future;
+    }
+
+    private void respond(SdkAsyncHttpResponseHandler responseHandler, CompletableFuture<Void> future) {
+        responseHandler.onHeaders(response);
+        responseHandler.onStream(new SingleBufferPublisher(ByteBuffer.wrap(content)));
+        future.complete(null);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Requests and discards the whole request body, then runs the given callback.
+     */
+    private static final class DrainingSubscriber implements Subscriber<ByteBuffer> {
+
+        private final Runnable onComplete;
+
+        private DrainingSubscriber(Runnable onComplete) {
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            onComplete.run();
+        }
+    }
+
+    /**
+     * Publishes a single buffer and completes.
+     */
+    private static final class SingleBufferPublisher implements Publisher<ByteBuffer> {
+
+        private final ByteBuffer buffer;
+
+        private SingleBufferPublisher(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                private boolean done;
+
+                @Override
+                public void request(long n) {
+                    if (!done && n > 0) {
+                        done = true;
+                        subscriber.onNext(buffer);
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    done = true;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.awssdk.benchmark.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+/**
+ * In-process {@link SdkHttpClient} that drains the request body and returns the same canned response for every request, so
+ * benchmarks only measure the cost of the SDK's request pipeline.
+ */
+public final class MockHttpClient implements SdkHttpClient {
+
+    private final SdkHttpResponse response;
+    private final byte[] content;
+
+    public MockHttpClient(SdkHttpResponse response, byte[] content) {
+        this.response = response;
+        this.content = content.clone();
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+        return new ExecutableHttpRequest() {
+            @Override
+            public HttpExecuteResponse call() throws IOException {
+                if (request.contentStreamProvider().isPresent()) {
+                    drain(request.contentStreamProvider().get().newStream());
+                }
+                return HttpExecuteResponse.builder()
+                                          .response(response)
+                                          .responseBody(AbortableInputStream.create(new ByteArrayInputStream(content)))
+                                          .build();
+            }
+
+            @Override
+            public void abort() {
+            }
+        };
+    }
+
+    private static void drain(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[4096];
+        try (InputStream in = inputStream) {
+            while (in.read(buffer) != -1) {
+                // Discard the request body
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
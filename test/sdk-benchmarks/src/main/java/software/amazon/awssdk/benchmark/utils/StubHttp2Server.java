@@ -0,0 +1,100 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.utils;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2HeadersFrame;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamFrame;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * The HTTP/2 counterpart of {@link StubHttpServer}: a minimal local server, spoken with prior knowledge over plaintext, that
+ * discards every request body and answers each request with an empty 200 response. Any number of streams may be open on a
+ * connection at once.
+ */
+public final class StubHttp2Server implements SdkAutoCloseable {
+    /**
+     * Room for the connections of hundreds of benchmark threads opened at once, before the server accepts them.
+     */
+    private static final int BACKLOG = 1024;
+
+    private final NioEventLoopGroup group = new NioEventLoopGroup();
+    private final Channel serverChannel;
+
+    public StubHttp2Server() throws InterruptedException {
+        ServerBootstrap bootstrap = new ServerBootstrap().group(group)
+                                                         .channel(NioServerSocketChannel.class)
+                                                         .option(ChannelOption.SO_BACKLOG, BACKLOG)
+                                                         .childHandler(new ConnectionInitializer());
+        serverChannel = bootstrap.bind(InetAddress.getLoopbackAddress(), 0).sync().channel();
+    }
+
+    public URI endpoint() {
+        return URI.create("http://localhost:" + ((InetSocketAddress) serverChannel.localAddress()).getPort());
+    }
+
+    @Override
+    public void close() {
+        serverChannel.close().syncUninterruptibly();
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    private static final class ConnectionInitializer extends ChannelInitializer<Channel> {
+        @Override
+        protected void initChannel(Channel ch) {
+            Http2Settings settings = Http2Settings.defaultSettings().maxConcurrentStreams(Integer.MAX_VALUE);
+            ch.pipeline().addLast(Http2MultiplexCodecBuilder.forServer(new StreamInitializer())
+                                                            .initialSettings(settings)
+                                                            .build());
+        }
+    }
+
+    private static final class StreamInitializer extends ChannelInitializer<Channel> {
+        @Override
+        protected void initChannel(Channel ch) {
+            ch.pipeline().addLast(new EmptyResponseHandler());
+        }
+    }
+
+    private static final class EmptyResponseHandler extends SimpleChannelInboundHandler<Http2StreamFrame> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, Http2StreamFrame frame) {
+            boolean endStream = frame instanceof Http2HeadersFrame && ((Http2HeadersFrame) frame).isEndStream() ||
+                                frame instanceof Http2DataFrame && ((Http2DataFrame) frame).isEndStream();
+            if (endStream) {
+                ctx.write(new DefaultHttp2HeadersFrame(new DefaultHttp2Headers().status("200").setInt("content-length", 0)));
+                ctx.writeAndFlush(new DefaultHttp2DataFrame(true));
+            }
+        }
+    }
+}
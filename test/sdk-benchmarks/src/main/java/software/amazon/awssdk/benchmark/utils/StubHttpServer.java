@@ -0,0 +1,225 @@
+/*
+ * Copyright 2010-2018 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.awssdk.benchmark.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import software.amazon.awssdk.utils.IoUtils;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * A minimal local HTTP/1.1 server that reads and discards every request body and answers each request with an empty
+ * 200 response, keeping connections alive. It does as little work as possible so upload benchmarks measure the client.
+ *
+ * <p>{@link #withTls()} creates a server that accepts HTTPS connections with a self-signed certificate for localhost, so the
+ * client must be configured to trust all certificates. By default the server lets clients resume their TLS sessions.
+ */
+public final class StubHttpServer implements SdkAutoCloseable {
+    private static final byte[] RESPONSE = "HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Room for the connections of hundreds of benchmark threads opened at once, before the server accepts them.
+     */
+    private static final int BACKLOG = 1024;
+
+    private static final char[] KEY_STORE_PASSWORD = "changeit".toCharArray();
+
+    private final ServerSocket serverSocket;
+    private final String scheme;
+    private final boolean sessionResumption;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "stub-http-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StubHttpServer() throws IOException {
+        this(new ServerSocket(0, BACKLOG, InetAddress.getLoopbackAddress()), "http", false);
+    }
+
+    private StubHttpServer(ServerSocket serverSocket, String scheme, boolean sessionResumption) {
+        this.serverSocket = serverSocket;
+        this.scheme = scheme;
+        this.sessionResumption = sessionResumption;
+        executor.execute(this::acceptConnections);
+    }
+
+    /**
+     * Creates a server that serves HTTPS with a freshly generated self-signed certificate.
+     */
+    public static StubHttpServer withTls() throws IOException {
+        return withTls(true);
+    }
+
+    /**
+     * Creates a server that serves HTTPS with a freshly generated self-signed certificate.
+     *
+     * @param sessionResumption Whether clients may resume their earlier TLS sessions. If not, every connection needs a full
+     * handshake.
+     */
+    public static StubHttpServer withTls(boolean sessionResumption) throws IOException {
+        SSLContext sslContext = selfSignedSslContext();
+        return new StubHttpServer(sslContext.getServerSocketFactory()
+                                            .createServerSocket(0, BACKLOG, InetAddress.getLoopbackAddress()),
+                                  "https",
+                                  sessionResumption);
+    }
+
+    public URI endpoint() {
+        return URI.create(scheme + "://localhost:" + serverSocket.getLocalPort());
+    }
+
+    /**
+     * Generates a key pair and self-signed certificate with the JDK's keytool, which avoids relying on JDK internals that
+     * aren't accessible on every Java version.
+     */
+    private static SSLContext selfSignedSslContext() throws IOException {
+        Path directory = Files.createTempDirectory("stub-http-server");
+        Path keyStoreFile = directory.resolve("keystore.jks");
+        // CHECKSTYLE:OFF - keytool is found next to the running JVM, which has no SystemSetting
+        String keytoolPath = Paths.get(System.getProperty("java.home"), "bin", "keytool").toString();
+        // CHECKSTYLE:ON
+        try {
+            Process keytool = new ProcessBuilder(keytoolPath,
+                                                 "-genkeypair", "-alias", "localhost", "-keyalg", "RSA", "-keysize", "2048",
+                                                 "-dname", "CN=localhost", "-validity", "1",
+                                                 "-keystore", keyStoreFile.toString(), "-storetype", "JKS",
+                                                 "-storepass", new String(KEY_STORE_PASSWORD),
+                                                 "-keypass", new String(KEY_STORE_PASSWORD))
+                .redirectErrorStream(true)
+                .start();
+            IoUtils.drainInputStream(keytool.getInputStream());
+            if (keytool.waitFor() != 0) {
+                throw new IOException("keytool failed with exit code " + keytool.exitValue());
+            }
+
+            KeyStore keyStore = KeyStore.getInstance("JKS");
+            try (InputStream in = Files.newInputStream(keyStoreFile)) {
+                keyStore.load(in, KEY_STORE_PASSWORD);
+            }
+            KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(keyStore, KEY_STORE_PASSWORD);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            Files.deleteIfExists(keyStoreFile);
+            Files.delete(directory);
+        }
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             InputStream in = new BufferedInputStream(s.getInputStream(), 64 * 1024);
+             OutputStream out = s.getOutputStream()) {
+            if (s instanceof SSLSocket && !sessionResumption) {
+                // Completes the handshake, and keeps its session from being resumed
+                ((SSLSocket) s).getSession().invalidate();
+            }
+            byte[] discard = new byte[64 * 1024];
+            long contentLength;
+            while ((contentLength = readHeaders(in)) >= 0) {
+                while (contentLength > 0) {
+                    int read = in.read(discard, 0, (int) Math.min(discard.length, contentLength));
+                    if (read < 0) {
+                        return;
+                    }
+                    contentLength -= read;
+                }
+                out.write(RESPONSE);
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // Client went away
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads the request line and headers, returning the Content-Length, 0 if there is none, or -1 at the end of the stream.
+     */
+    private static long readHeaders(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        long contentLength = 0;
+        boolean sawRequestLine = false;
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\r') {
+                continue;
+            }
+            if (b != '\n') {
+                line.append((char) b);
+                continue;
+            }
+            if (line.length() == 0) {
+                if (sawRequestLine) {
+                    return contentLength;
+                }
+                continue;
+            }
+            sawRequestLine = true;
+            String header = line.toString().toLowerCase(Locale.ENGLISH);
+            if (header.startsWith("content-length:")) {
+                contentLength = Long.parseLong(header.substring("content-length:".length()).trim());
+            }
+            line.setLength(0);
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        IoUtils.closeQuietly(serverSocket, null);
+        executor.shutdownNow();
+    }
+}